@@ -0,0 +1,41 @@
+package com.example.silkmall.common;
+
+import java.util.Locale;
+
+/**
+ * Line-oriented formats accepted by bulk imports and produced by exports.
+ */
+public enum DataFormat {
+    CSV("csv", "text/csv;charset=UTF-8"),
+    NDJSON("ndjson", "application/x-ndjson");
+
+    private final String extension;
+    private final String contentType;
+
+    DataFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return the named format, {@link #CSV} when blank
+     */
+    public static DataFormat of(String value) {
+        if (value == null || value.isBlank()) {
+            return CSV;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("不支持的数据格式: " + value);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.silkmall.common;
+
+import java.util.Date;
+
+/**
+ * Keyset position in a feed ordered by {@code createdAt desc, id desc}. Encoded for clients as an opaque
+ * {@code "<epochMillis>_<id>"} string; the next page starts strictly after the last row returned.
+ */
+public final class FeedCursor {
+    private final Date createdAt;
+    private final Long id;
+
+    private FeedCursor(Date createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static String encode(Date createdAt, Long id) {
+        if (createdAt == null || id == null) {
+            return null;
+        }
+        return createdAt.getTime() + "_" + id;
+    }
+
+    /**
+     * @return the decoded cursor, or {@code null} for a blank value (first page)
+     */
+    public static FeedCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String[] parts = value.trim().split("_", 2);
+        if (parts.length != 2) {
+            throw new RuntimeException("无效的分页游标");
+        }
+        try {
+            return new FeedCursor(new Date(Long.parseLong(parts[0])), Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("无效的分页游标");
+        }
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.silkmall.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+
+/**
+ * Generates order numbers from a {@link SnowflakeIdGenerator}, so they are unique across nodes and
+ * increase over time, and consumer lookup ids from random bits.
+ *
+ * <ul>
+ *     <li>Order number: 13 digit millisecond timestamp followed by 8 lowercase hex digits of node id and
+ *     sequence, the same 21 character shape as before.</li>
+ *     <li>Lookup id: {@code "C"} followed by 64 random bits as 16 uppercase hex digits. Anyone holding a
+ *     lookup id can read the order without signing in, so it must not be derivable from the time.</li>
+ * </ul>
+ *
+ * <p>Every application node must be started with a distinct {@code order.numbers.node-id} (0–1023).
+ * Without it the node id is derived from the host name, which is only safe on a single node.</p>
+ */
+@Component
+public class OrderNumbers {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderNumbers.class);
+
+    private static final byte[] DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.ISO_8859_1);
+    private static final int ORDER_NO_TIME_DIGITS = 13;
+    private static final int ORDER_NO_SUFFIX_DIGITS = 8;
+    private static final int LOOKUP_ID_DIGITS = 16;
+
+    // 每个线程各用一个 SecureRandom，避免共享实例上的锁竞争
+    private static final ThreadLocal<SecureRandom> LOOKUP_RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    private final SnowflakeIdGenerator generator;
+
+    @Autowired
+    public OrderNumbers(@Value("${order.numbers.node-id:-1}") long nodeId) {
+        long resolved = nodeId >= 0 ? nodeId : hostNodeId();
+        this.generator = new SnowflakeIdGenerator(resolved);
+        log.info("Order numbers use snowflake node id {}", resolved);
+    }
+
+    OrderNumbers(SnowflakeIdGenerator generator) {
+        this.generator = generator;
+    }
+
+    // 生成订单编号
+    public String nextOrderNo() {
+        return formatOrderNo(generator.nextId());
+    }
+
+    // 生成消费者查询编号，匿名可查订单，必须不可猜测
+    public String nextConsumerLookupId() {
+        return formatLookupId(LOOKUP_RANDOM.get().nextLong());
+    }
+
+    static String formatOrderNo(long id) {
+        byte[] chars = new byte[ORDER_NO_TIME_DIGITS + ORDER_NO_SUFFIX_DIGITS];
+        writeDigits(chars, 0, ORDER_NO_TIME_DIGITS, SnowflakeIdGenerator.timestampOf(id), 10);
+        writeDigits(chars, ORDER_NO_TIME_DIGITS, ORDER_NO_SUFFIX_DIGITS,
+                SnowflakeIdGenerator.nodeAndSequenceOf(id), 16);
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+
+    static String formatLookupId(long random) {
+        byte[] chars = new byte[1 + LOOKUP_ID_DIGITS];
+        chars[0] = 'C';
+        long remaining = random;
+        for (int i = LOOKUP_ID_DIGITS; i >= 1; i--) {
+            byte digit = DIGITS[(int) (remaining & 0xF)];
+            chars[i] = digit >= 'a' ? (byte) (digit - ('a' - 'A')) : digit;
+            remaining >>>= 4;
+        }
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+
+    // 从右往左按进制写入定长数字，不足位补零
+    private static void writeDigits(byte[] target, int offset, int width, long value, int radix) {
+        long remaining = value;
+        for (int i = offset + width - 1; i >= offset; i--) {
+            target[i] = DIGITS[(int) (remaining % radix)];
+            remaining /= radix;
+        }
+        if (remaining != 0) {
+            throw new IllegalStateException("编号超出固定长度: " + value);
+        }
+    }
+
+    private static long hostNodeId() {
+        try {
+            return InetAddress.getLocalHost().getHostName().hashCode() & SnowflakeIdGenerator.MAX_NODE_ID;
+        } catch (Exception e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.silkmall.common;
+
+public final class PayoutStatuses {
+    public static final String PENDING = "待批准";
+    public static final String APPROVED = "已批准";
+    public static final String REFUNDED = "已退款";
+
+    private PayoutStatuses() {
+    }
+}
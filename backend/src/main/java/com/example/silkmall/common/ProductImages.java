@@ -0,0 +1,73 @@
+package com.example.silkmall.common;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+public final class ProductImages {
+
+    // 查询时只截取图片字段的前缀，足以区分短链接和内联的 data URL
+    public static final int PREFIX_LENGTH = 512;
+
+    // 内联图片只按这些位图类型输出，html、svg 等会在接口域名下执行脚本
+    private static final Set<String> INLINE_IMAGE_TYPES = Set.of("image/png", "image/jpeg", "image/gif", "image/webp");
+
+    private ProductImages() {
+    }
+
+    /**
+     * Reference to show for a product image: the stored value itself when it is a short URL, otherwise
+     * the product image endpoint, so inline data URLs are not copied into list responses.
+     */
+    public static String reference(Long productId, String prefix, Integer length) {
+        if (prefix == null || prefix.isBlank() || length == null || length == 0) {
+            return null;
+        }
+        if (prefix.startsWith("data:") || length > prefix.length()) {
+            return "/api/products/" + productId + "/main-image";
+        }
+        return prefix;
+    }
+
+    /**
+     * Content type to serve an inline data URL with, taken from its {@code data:<type>;...} metadata. Only
+     * raster image types are accepted; anything else yields empty.
+     */
+    public static Optional<String> inlineImageType(String metadata) {
+        String type = metadata.split(";")[0].trim().toLowerCase(Locale.ROOT);
+        return INLINE_IMAGE_TYPES.contains(type) ? Optional.of(type) : Optional.empty();
+    }
+
+    /**
+     * Where a stored image URL may be redirected to: a same-site path, or an absolute http(s) URL whose
+     * origin ({@code scheme://host[:port]}) is in {@code allowedOrigins}. Anything else, including values
+     * that do not parse, yields empty so the caller never redirects off-site.
+     */
+    public static Optional<URI> redirectTarget(String value, Collection<String> allowedOrigins) {
+        if (value == null || value.isBlank() || value.indexOf('\\') >= 0) {
+            return Optional.empty();
+        }
+        URI uri;
+        try {
+            uri = new URI(value.trim());
+        } catch (URISyntaxException e) {
+            return Optional.empty();
+        }
+        if (uri.getScheme() == null) {
+            // 只接受站内绝对路径，"//host" 这类协议相对地址同样会跳到外站
+            boolean sitePath = uri.getAuthority() == null && uri.getPath() != null
+                    && uri.getPath().startsWith("/") && !uri.getPath().startsWith("//");
+            return sitePath ? Optional.of(uri) : Optional.empty();
+        }
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        if ((!scheme.equals("http") && !scheme.equals("https")) || uri.getHost() == null) {
+            return Optional.empty();
+        }
+        String origin = scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT)
+                + (uri.getPort() < 0 ? "" : ":" + uri.getPort());
+        return allowedOrigins.contains(origin) ? Optional.of(uri) : Optional.empty();
+    }
+}
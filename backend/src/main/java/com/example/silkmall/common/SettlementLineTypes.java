@@ -0,0 +1,17 @@
+package com.example.silkmall.common;
+
+/**
+ * Kinds of supplier settlement lines. Credits are positive amounts, the others are recorded as negative
+ * amounts so a supplier's lines simply add up to what a cycle moves into its wallet. A debit the wallet
+ * cannot cover is carried forward as a pair of {@link #CARRIED_FORWARD} lines: a credit settled with the
+ * current cycle and the matching debit left for the next one.
+ */
+public final class SettlementLineTypes {
+    public static final String ORDER_PAYOUT = "订单货款";
+    public static final String ORDER_REVOKED = "撤单扣回";
+    public static final String RETURN_REFUND = "退货扣回";
+    public static final String CARRIED_FORWARD = "欠款结转";
+
+    private SettlementLineTypes() {
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.silkmall.common;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Commission and supplier split applied when an order's funds are released, shared by payouts,
+ * rollbacks and finance exports so they always agree to the cent.
+ */
+public final class SupplierPayouts {
+
+    public static final BigDecimal COMMISSION_RATE = new BigDecimal("0.05");
+
+    private SupplierPayouts() {
+    }
+
+    /**
+     * Platform commission on an order total, rounded to cents.
+     */
+    public static BigDecimal commissionOf(BigDecimal totalAmount) {
+        BigDecimal total = totalAmount == null ? BigDecimal.ZERO : totalAmount;
+        return total.multiply(COMMISSION_RATE).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Splits {@code payoutPool} across suppliers in proportion to their item amounts. Shares are rounded to
+     * cents and the rounding remainder goes to the last supplier, so the shares always add up to the pool.
+     *
+     * @param supplierAmounts item amounts per supplier id, in the order shares should be assigned
+     */
+    public static Map<Long, BigDecimal> split(Map<Long, BigDecimal> supplierAmounts, BigDecimal payoutPool) {
+        if (supplierAmounts.isEmpty() || payoutPool.compareTo(BigDecimal.ZERO) <= 0) {
+            return Map.of();
+        }
+
+        BigDecimal totalBase = supplierAmounts.values().stream()
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (totalBase.compareTo(BigDecimal.ZERO) <= 0) {
+            return Map.of();
+        }
+
+        LinkedHashMap<Long, BigDecimal> payouts = new LinkedHashMap<>();
+        BigDecimal distributed = BigDecimal.ZERO;
+        Long lastSupplierId = null;
+
+        for (Map.Entry<Long, BigDecimal> entry : supplierAmounts.entrySet()) {
+            lastSupplierId = entry.getKey();
+            BigDecimal ratio = entry.getValue().divide(totalBase, 10, RoundingMode.HALF_UP);
+            BigDecimal share = payoutPool.multiply(ratio).setScale(2, RoundingMode.HALF_UP);
+            payouts.put(entry.getKey(), share);
+            distributed = distributed.add(share);
+        }
+
+        if (lastSupplierId != null) {
+            BigDecimal remainder = payoutPool.subtract(distributed);
+            if (remainder.compareTo(BigDecimal.ZERO) != 0) {
+                payouts.computeIfPresent(lastSupplierId, (id, amount) -> amount.add(remainder));
+            }
+        }
+
+        return payouts;
+    }
+}
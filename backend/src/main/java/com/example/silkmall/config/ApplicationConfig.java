@@ -3,11 +3,13 @@ package com.example.silkmall.config;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 @Configuration
 @EnableJpaRepositories(basePackages = "com.example.silkmall.repository")
 @EnableTransactionManagement
+@EnableScheduling
 public class ApplicationConfig {
     // 配置应用程序级别的Bean和设置
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.example.silkmall.config;
+
+import com.example.silkmall.entity.IdGenerators;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves each pooled id generator past the ids already present in its table. Rows written while the
+ * entities still used {@code AUTO_INCREMENT} are unknown to {@code id_generators}, so without this the
+ * first allocated block would collide with existing primary keys. The entity manager factory depends on
+ * this bean, so seeding finishes before any repository or request can allocate an id.
+ */
+@Component
+public class IdGeneratorSeeder implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorSeeder.class);
+
+    // 生成器分段名与实体表名一致
+    private static final List<String> SEGMENTS = List.of(
+            "orders", "order_items", "product_size_allocations", "product_reviews", "cart_items", "return_requests",
+            "supplier_settlement_cycles");
+
+    // 与 Hibernate 为 @TableGenerator 生成的表结构一致，schema 更新时不会再改动
+    private static final String CREATE_TABLE = "create table if not exists " + IdGenerators.TABLE + " ("
+            + IdGenerators.SEGMENT_COLUMN + " varchar(255) not null, " + IdGenerators.VALUE_COLUMN + " bigint, "
+            + "primary key (" + IdGenerators.SEGMENT_COLUMN + "))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 共享的 JdbcTemplate 依赖 JPA 完成建表，这里直接基于数据源，避免循环依赖
+    public IdGeneratorSeeder(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        jdbcTemplate.execute(CREATE_TABLE);
+        SEGMENTS.forEach(this::seed);
+    }
+
+    /**
+     * The pooled optimizer hands out {@code (next_val - ALLOCATION_SIZE, next_val]} for a stored value, so
+     * the stored value must be at least {@code max(id) + ALLOCATION_SIZE}.
+     */
+    void seed(String segment) {
+        Long maxId;
+        try {
+            maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + segment, Long.class);
+        } catch (BadSqlGrammarException e) {
+            // 新库尚未建表，没有需要避让的旧数据
+            return;
+        }
+        if (maxId == null || maxId == 0) {
+            return;
+        }
+        long floor = maxId + IdGenerators.ALLOCATION_SIZE;
+        String update = "update " + IdGenerators.TABLE + " set " + IdGenerators.VALUE_COLUMN + " = ? where "
+                + IdGenerators.SEGMENT_COLUMN + " = ? and " + IdGenerators.VALUE_COLUMN + " < ?";
+        if (jdbcTemplate.update(update, floor, segment, floor) > 0) {
+            log.info("Moved id generator {} past existing id {}", segment, maxId);
+            return;
+        }
+        List<Map<String, Object>> existing = jdbcTemplate.queryForList("select " + IdGenerators.VALUE_COLUMN
+                + " from " + IdGenerators.TABLE + " where " + IdGenerators.SEGMENT_COLUMN + " = ?", segment);
+        if (!existing.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("insert into " + IdGenerators.TABLE + " (" + IdGenerators.SEGMENT_COLUMN + ", "
+                    + IdGenerators.VALUE_COLUMN + ") values (?, ?)", segment, floor);
+            log.info("Seeded id generator {} past existing id {}", segment, maxId);
+        } catch (DuplicateKeyException e) {
+            // 其他节点同时完成了初始化，再按条件推进一次即可
+            jdbcTemplate.update(update, floor, segment, floor);
+        }
+    }
+
+    /**
+     * Makes the entity manager factory wait for the seeder.
+     */
+    @Component
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependency() {
+            super(IdGeneratorSeeder.class);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.silkmall.config;
+
+import com.example.silkmall.repository.OrderItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Fills the denormalized {@code order_items.supplier_id} and {@code order_items.order_time} columns for
+ * rows written before they existed. New order items set both when they are persisted, so after the
+ * first run this only touches rows whose product had no supplier.
+ */
+@Component
+public class OrderItemSupplierBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderItemSupplierBackfill.class);
+
+    private final OrderItemRepository orderItemRepository;
+
+    public OrderItemSupplierBackfill(OrderItemRepository orderItemRepository) {
+        this.orderItemRepository = orderItemRepository;
+    }
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        int suppliers = orderItemRepository.backfillSupplierIds();
+        int orderTimes = orderItemRepository.backfillOrderTimes();
+        if (suppliers > 0 || orderTimes > 0) {
+            log.info("Backfilled supplier ids on {} and order times on {} order items", suppliers, orderTimes);
+        }
+    }
+}
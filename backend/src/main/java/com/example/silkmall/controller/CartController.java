@@ -1,32 +1,28 @@
 package com.example.silkmall.controller;
 
+import com.example.silkmall.dto.CartCheckoutResultDTO;
 import com.example.silkmall.dto.CartItemDTO;
-import com.example.silkmall.entity.CartItem;
-import com.example.silkmall.entity.Product;
 import com.example.silkmall.security.CustomUserDetails;
+import com.example.silkmall.service.CartCheckoutService;
 import com.example.silkmall.service.CartService;
-import com.example.silkmall.service.WalletService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/cart")
 public class CartController extends BaseController {
 
     private final CartService cartService;
-    private final WalletService walletService;
+    private final CartCheckoutService cartCheckoutService;
 
-    public CartController(CartService cartService, WalletService walletService) {
+    public CartController(CartService cartService, CartCheckoutService cartCheckoutService) {
         this.cartService = cartService;
-        this.walletService = walletService;
+        this.cartCheckoutService = cartCheckoutService;
     }
 
     @GetMapping
@@ -35,9 +31,7 @@ public class CartController extends BaseController {
         if (currentUser == null) {
             return badRequest("请先登录消费者账号");
         }
-        List<CartItemDTO> items = cartService.getCartItems(currentUser.getId()).stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        List<CartItemDTO> items = cartService.getCartItems(currentUser.getId());
         return success(items);
     }
 
@@ -53,8 +47,8 @@ public class CartController extends BaseController {
         }
         int quantity = request.quantity() == null ? 1 : request.quantity();
         try {
-            CartItem item = cartService.addItem(currentUser.getId(), request.productId(), quantity);
-            return success(toDto(item));
+            CartItemDTO item = cartService.addItem(currentUser.getId(), request.productId(), quantity);
+            return success(item);
         } catch (RuntimeException ex) {
             return badRequest(ex.getMessage());
         }
@@ -70,11 +64,11 @@ public class CartController extends BaseController {
         }
         int quantity = request.quantity() == null ? 0 : request.quantity();
         try {
-            CartItem item = cartService.updateQuantity(currentUser.getId(), itemId, quantity);
+            CartItemDTO item = cartService.updateQuantity(currentUser.getId(), itemId, quantity);
             if (item == null) {
                 return success();
             }
-            return success(toDto(item));
+            return success(item);
         } catch (RuntimeException ex) {
             return badRequest(ex.getMessage());
         }
@@ -102,70 +96,18 @@ public class CartController extends BaseController {
         if (currentUser == null) {
             return badRequest("请先登录消费者账号");
         }
-        List<Long> itemIds = request.itemIds();
-        if (itemIds == null || itemIds.isEmpty()) {
-            return badRequest("请勾选需要结算的商品");
-        }
-
-        List<CartItem> items = cartService.findItems(currentUser.getId(), itemIds);
-        if (items.isEmpty()) {
-            return badRequest("未找到需要结算的购物车商品");
-        }
-
-        BigDecimal totalAmount = items.stream()
-                .map(this::toDto)
-                .map(CartItemDTO::getSubtotal)
-                .filter(amount -> amount != null && amount.compareTo(BigDecimal.ZERO) > 0)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-
-        BigDecimal balance = walletService.getBalance(currentUser);
-        if (balance.compareTo(totalAmount) < 0) {
-            return badRequest("余额不足，请先充值或减少结算商品");
-        }
-
-        walletService.adjustBalance(currentUser.getId(), currentUser.getUserType(), totalAmount.negate());
-        cartService.removeItems(currentUser.getId(), itemIds);
-
-        BigDecimal updatedBalance = balance.add(totalAmount.negate());
-        return success(Map.of(
-                "paidAmount", totalAmount,
-                "balance", updatedBalance,
-                "removedCount", items.size()
-        ));
-    }
-
-    private CartItemDTO toDto(CartItem item) {
-        CartItemDTO dto = new CartItemDTO();
-        dto.setId(item.getId());
-        Integer quantity = item.getQuantity() == null ? 0 : item.getQuantity();
-        dto.setQuantity(quantity);
-
-        Product product = item.getProduct();
-        BigDecimal unitPrice = product != null && product.getPrice() != null
-                ? product.getPrice()
-                : BigDecimal.ZERO;
-        dto.setUnitPrice(unitPrice);
-        dto.setSubtotal(unitPrice.multiply(BigDecimal.valueOf(quantity)));
-        if (item.getCreatedAt() != null) {
-            dto.setAddedAt(item.getCreatedAt().toInstant().toString());
-        }
-
-        CartItemDTO.ProductInfo productInfo = new CartItemDTO.ProductInfo();
-        if (product != null) {
-            productInfo.setId(product.getId());
-            productInfo.setName(product.getName());
-            productInfo.setMainImage(product.getMainImage());
-            productInfo.setPrice(unitPrice);
-            productInfo.setStatus(product.getStatus());
+        try {
+            CartCheckoutResultDTO result = cartCheckoutService.checkout(currentUser.getId(), request.itemIds(),
+                    request.sizes(), request.addressId(), request.paymentMethod());
+            return success(result);
+        } catch (RuntimeException ex) {
+            return badRequest(ex.getMessage());
         }
-        dto.setProduct(productInfo);
-        return dto;
     }
 
     public record CartItemRequest(Long productId, Integer quantity) {
     }
 
-    public record CheckoutRequest(List<Long> itemIds) {
+    public record CheckoutRequest(List<Long> itemIds, Map<Long, String> sizes, Long addressId, String paymentMethod) {
     }
 }
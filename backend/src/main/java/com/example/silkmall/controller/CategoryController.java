@@ -1,6 +1,7 @@
 package com.example.silkmall.controller;
 
 import com.example.silkmall.dto.CategoryDTO;
+import com.example.silkmall.dto.CategoryNodeDTO;
 import com.example.silkmall.dto.CategoryOptionDTO;
 import com.example.silkmall.entity.Category;
 import com.example.silkmall.service.CategoryService;
@@ -25,7 +26,7 @@ public class CategoryController extends BaseController {
     
     @GetMapping("/{id}")
     public ResponseEntity<?> getCategoryById(@PathVariable Long id) {
-        Optional<Category> category = categoryService.findById(id);
+        Optional<CategoryNodeDTO> category = categoryService.findNodeById(id);
         if (category.isPresent()) {
             return success(category.get());
         } else {
@@ -111,12 +112,12 @@ public class CategoryController extends BaseController {
     }
     
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
-        return success(categoryService.findAll());
+    public ResponseEntity<List<CategoryNodeDTO>> getAllCategories() {
+        return success(categoryService.findAllNodes());
     }
 
     @GetMapping("/enabled")
-    public ResponseEntity<List<Category>> getEnabledCategories() {
+    public ResponseEntity<List<CategoryNodeDTO>> getEnabledCategories() {
         return success(categoryService.findEnabledCategories());
     }
 
@@ -126,12 +127,12 @@ public class CategoryController extends BaseController {
     }
     
     @GetMapping("/parent/{parentId}")
-    public ResponseEntity<List<Category>> getCategoriesByParentId(@PathVariable Long parentId) {
+    public ResponseEntity<List<CategoryNodeDTO>> getCategoriesByParentId(@PathVariable Long parentId) {
         return success(categoryService.findByParentId(parentId));
     }
     
     @GetMapping("/root")
-    public ResponseEntity<List<Category>> getRootCategories() {
+    public ResponseEntity<List<CategoryNodeDTO>> getRootCategories() {
         return success(categoryService.findRootCategories());
     }
     
@@ -1,51 +1,60 @@
 package com.example.silkmall.controller;
 
+import com.example.silkmall.common.DataFormat;
+import com.example.silkmall.common.SupplierPayouts;
 import com.example.silkmall.dto.AdminOrderItemDTO;
 import com.example.silkmall.dto.AdminOrderSummaryDTO;
 import com.example.silkmall.dto.ConsumerOrderSummaryDTO;
 import com.example.silkmall.dto.OrderDetailDTO;
 import com.example.silkmall.dto.OrderItemDetailDTO;
-import com.example.silkmall.dto.SupplierOrderItemDTO;
 import com.example.silkmall.dto.SupplierOrderSummaryDTO;
 import com.example.silkmall.dto.UpdateOrderContactDTO;
 import com.example.silkmall.entity.Consumer;
 import com.example.silkmall.entity.Order;
 import com.example.silkmall.entity.OrderItem;
 import com.example.silkmall.entity.Product;
+import com.example.silkmall.service.OrderExportService;
 import com.example.silkmall.service.OrderService;
 import com.example.silkmall.security.CustomUserDetails;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 import static com.example.silkmall.common.OrderStatuses.CANCELLED;
-import static com.example.silkmall.common.OrderStatuses.PENDING_SHIPMENT;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController extends BaseController {
     private final OrderService orderService;
-    private static final BigDecimal ADMIN_COMMISSION_RATE = new BigDecimal("0.05");
+    private final OrderExportService orderExportService;
+    private static final BigDecimal ADMIN_COMMISSION_RATE = SupplierPayouts.COMMISSION_RATE;
     private static final String RECEIPT_UNCONFIRMED_LABEL = "未收货";
     private static final String RECEIPT_CONFIRMED_LABEL = "已收货";
     private static final String CANCELLED_BILL_LABEL = "账单已取消";
     
     @Autowired
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderExportService orderExportService) {
         this.orderService = orderService;
+        this.orderExportService = orderExportService;
     }
     
     @GetMapping("/{id}")
@@ -95,10 +104,16 @@ public class OrderController extends BaseController {
 
     @GetMapping("/consumer/{consumerId}")
     @PreAuthorize("hasRole('ADMIN') or (hasRole('CONSUMER') and #consumerId == principal.id)")
-    public ResponseEntity<Page<ConsumerOrderSummaryDTO>> getOrdersByConsumerId(@PathVariable Long consumerId, Pageable pageable) {
-        Page<Order> orders = orderService.findByConsumerId(consumerId, pageable);
-        Page<ConsumerOrderSummaryDTO> dtoPage = orders.map(this::toConsumerOrderSummary);
-        return success(dtoPage);
+    public ResponseEntity<Page<ConsumerOrderSummaryDTO>> getOrdersByConsumerId(@PathVariable Long consumerId,
+                                                                                @RequestParam(value = "status", required = false) String status,
+                                                                                Pageable pageable) {
+        return success(orderService.findConsumerSummaries(consumerId, status, pageable));
+    }
+
+    @GetMapping("/consumer/{consumerId}/counts")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('CONSUMER') and #consumerId == principal.id)")
+    public ResponseEntity<Map<String, Long>> countOrdersByConsumerId(@PathVariable Long consumerId) {
+        return success(orderService.countConsumerOrders(consumerId));
     }
 
     @GetMapping("/status/{status}")
@@ -118,13 +133,43 @@ public class OrderController extends BaseController {
         return success(dtoPage);
     }
 
+    /**
+     * Finance export of orders placed in {@code [from, to]} with items, commission and supplier split, written
+     * as CSV or NDJSON while it is read and optionally gzip-compressed.
+     */
+    @GetMapping("/admin/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrdersForAdmin(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("导出起始日期不能晚于结束日期");
+        }
+        DataFormat exportFormat = DataFormat.of(format);
+        String filename = "orders-" + from + "-" + to + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = output -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(output, 8192);
+                orderExportService.exportOrders(from, to, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                orderExportService.exportOrders(from, to, exportFormat, output);
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .body(body);
+    }
+
     @GetMapping("/supplier/{supplierId}")
     @PreAuthorize("hasRole('ADMIN') or (hasRole('SUPPLIER') and #supplierId == principal.id)")
     public ResponseEntity<Page<SupplierOrderSummaryDTO>> getOrdersBySupplier(@PathVariable Long supplierId,
                                                                              Pageable pageable) {
-        Page<Order> orders = orderService.findBySupplierId(supplierId, pageable);
-        Page<SupplierOrderSummaryDTO> dtoPage = orders.map(order -> toSupplierOrderSummary(order, supplierId));
-        return success(dtoPage);
+        return success(orderService.findSupplierOrders(supplierId, pageable));
     }
 
     @GetMapping("/order-no/{orderNo}")
@@ -280,93 +325,6 @@ public class OrderController extends BaseController {
         return redirectForUser(currentUser);
     }
 
-    private SupplierOrderSummaryDTO toSupplierOrderSummary(Order order, Long supplierId) {
-        SupplierOrderSummaryDTO dto = new SupplierOrderSummaryDTO();
-        dto.setId(order.getId());
-        dto.setOrderNo(order.getOrderNo());
-        dto.setStatus(order.getStatus());
-        dto.setTotalAmount(order.getTotalAmount());
-        dto.setTotalQuantity(order.getTotalQuantity());
-        dto.setRecipientName(order.getRecipientName());
-        dto.setRecipientPhone(order.getRecipientPhone());
-        dto.setShippingAddress(order.getShippingAddress());
-        dto.setOrderTime(order.getOrderTime());
-        dto.setPaymentTime(order.getPaymentTime());
-        dto.setShippingTime(order.getShippingTime());
-        dto.setDeliveryTime(order.getDeliveryTime());
-        dto.setInTransitTime(order.getInTransitTime());
-
-        List<OrderItem> items = Optional.ofNullable(order.getOrderItems()).orElse(List.of());
-        List<SupplierOrderItemDTO> itemDtos = new ArrayList<>();
-        BigDecimal supplierAmount = BigDecimal.ZERO;
-        int supplierQuantity = 0;
-        boolean mixedSuppliers = false;
-
-        for (OrderItem item : items) {
-            Product product = item.getProduct();
-            Long itemSupplierId = null;
-            if (product != null && product.getSupplier() != null) {
-                itemSupplierId = product.getSupplier().getId();
-            }
-
-            if (itemSupplierId != null && itemSupplierId.equals(supplierId)) {
-                itemDtos.add(toSupplierOrderItemDto(item));
-                if (item.getQuantity() != null) {
-                    supplierQuantity += item.getQuantity();
-                }
-                if (item.getTotalPrice() != null) {
-                    supplierAmount = supplierAmount.add(item.getTotalPrice());
-                }
-            } else if (itemSupplierId != null && !itemSupplierId.equals(supplierId)) {
-                mixedSuppliers = true;
-            }
-        }
-
-        dto.setItems(itemDtos);
-        dto.setSupplierTotalQuantity(supplierQuantity);
-        dto.setSupplierTotalAmount(supplierAmount);
-        dto.setMixedSuppliers(mixedSuppliers);
-        boolean supplierOwnsAllItems = !mixedSuppliers && !itemDtos.isEmpty();
-        dto.setCanShip(supplierOwnsAllItems && PENDING_SHIPMENT.equals(order.getStatus()));
-
-        return dto;
-    }
-
-    private ConsumerOrderSummaryDTO toConsumerOrderSummary(Order order) {
-        ConsumerOrderSummaryDTO dto = new ConsumerOrderSummaryDTO();
-        dto.setId(order.getId());
-        dto.setOrderNo(order.getOrderNo());
-        dto.setTotalAmount(order.getTotalAmount());
-        dto.setTotalQuantity(order.getTotalQuantity());
-        dto.setStatus(order.getStatus());
-        dto.setOrderTime(order.getOrderTime());
-
-        List<String> productNames = Optional.ofNullable(order.getOrderItems()).orElse(List.of()).stream()
-                .map(OrderItem::getProduct)
-                .filter(product -> product != null && product.getName() != null && !product.getName().isBlank())
-                .map(Product::getName)
-                .distinct()
-                .collect(Collectors.toList());
-        dto.setProductNames(productNames);
-
-        return dto;
-    }
-
-    private SupplierOrderItemDTO toSupplierOrderItemDto(OrderItem item) {
-        SupplierOrderItemDTO dto = new SupplierOrderItemDTO();
-        dto.setId(item.getId());
-        dto.setQuantity(item.getQuantity());
-        dto.setUnitPrice(item.getUnitPrice());
-        dto.setTotalPrice(item.getTotalPrice());
-        dto.setCreatedAt(item.getCreatedAt());
-        if (item.getProduct() != null) {
-            dto.setProductId(item.getProduct().getId());
-            dto.setProductName(item.getProduct().getName());
-            dto.setProductMainImage(item.getProduct().getMainImage());
-        }
-        return dto;
-    }
-
     private OrderDetailDTO toOrderDetailDto(Order order) {
         OrderDetailDTO dto = new OrderDetailDTO();
         dto.setId(order.getId());
@@ -1,43 +1,98 @@
 package com.example.silkmall.controller;
 
+import com.example.silkmall.common.DataFormat;
+import com.example.silkmall.common.ProductImages;
+import com.example.silkmall.dto.ProductDetailDTO;
 import com.example.silkmall.dto.ProductOverviewDTO;
+import com.example.silkmall.dto.ProductRatingDTO;
+import com.example.silkmall.dto.ProductSearchResultDTO;
+import com.example.silkmall.dto.ProductSuggestionDTO;
 import com.example.silkmall.dto.ProductSummaryDTO;
+import com.example.silkmall.dto.StockAdjustmentDTO;
 import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.Supplier;
 import com.example.silkmall.security.CustomUserDetails;
+import com.example.silkmall.service.ProductFacetService;
+import com.example.silkmall.service.ProductImportService;
+import com.example.silkmall.service.ProductRatingService;
 import com.example.silkmall.service.ProductService;
+import com.example.silkmall.service.ProductSuggestionService;
+import com.example.silkmall.service.StockAdjustmentService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController extends BaseController {
     private final ProductService productService;
+    private final ProductSuggestionService productSuggestionService;
+    private final ProductFacetService productFacetService;
+    private final ProductRatingService productRatingService;
+    private final ProductImportService productImportService;
+    private final StockAdjustmentService stockAdjustmentService;
+    private final ObjectMapper objectMapper;
+    private final Set<String> allowedImageOrigins;
+
+    private static final int CATALOGUE_CHUNK_SIZE = 500;
     
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductSuggestionService productSuggestionService,
+                             ProductFacetService productFacetService,
+                             ProductRatingService productRatingService,
+                             ProductImportService productImportService,
+                             StockAdjustmentService stockAdjustmentService,
+                             ObjectMapper objectMapper,
+                             @Value("${product.images.allowed-origins:}") List<String> allowedImageOrigins) {
         this.productService = productService;
+        this.productSuggestionService = productSuggestionService;
+        this.productFacetService = productFacetService;
+        this.productRatingService = productRatingService;
+        this.productImportService = productImportService;
+        this.stockAdjustmentService = stockAdjustmentService;
+        this.objectMapper = objectMapper;
+        this.allowedImageOrigins = allowedImageOrigins.stream()
+                .map(origin -> origin.trim().toLowerCase(Locale.ROOT))
+                .filter(origin -> !origin.isEmpty())
+                .collect(Collectors.toSet());
     }
     
     @GetMapping("/{id}")
     public ResponseEntity<?> getProductById(@PathVariable Long id) {
         Optional<Product> product = productService.findById(id).map(productService::withSizeAllocations);
         if (product.isPresent()) {
-            return success(product.get());
+            return success(toDetailDTO(product.get()));
         } else {
             return notFound("产品不存在");
         }
@@ -47,10 +102,44 @@ public class ProductController extends BaseController {
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLIER')")
     public ResponseEntity<?> createProduct(@RequestBody Product product,
                                            @AuthenticationPrincipal CustomUserDetails currentUser) {
+        // 供应商只能为自己创建商品，所属供应商以登录身份为准
+        if (currentUser != null && "supplier".equalsIgnoreCase(currentUser.getUserType())) {
+            Supplier owner = new Supplier();
+            owner.setId(currentUser.getId());
+            product.setSupplier(owner);
+        }
         if (!canManageProduct(currentUser, product)) {
             return redirectForUser(currentUser);
         }
-        return created(productService.save(product));
+        product.setId(null);
+        return created(toSummaryDTO(productService.save(product)));
+    }
+
+    /**
+     * Bulk creates products from a CSV or NDJSON request body. Suppliers import into their own catalogue;
+     * admins name the supplier. The format follows {@code format}, else the request content type.
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLIER')")
+    public ResponseEntity<?> importProducts(@RequestParam(value = "supplierId", required = false) Long supplierId,
+                                            @RequestParam(value = "format", required = false) String format,
+                                            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                            InputStream body,
+                                            @AuthenticationPrincipal CustomUserDetails currentUser) throws IOException {
+        Long targetSupplierId = supplierId;
+        if (currentUser != null && "supplier".equalsIgnoreCase(currentUser.getUserType())) {
+            if (supplierId != null && !supplierId.equals(currentUser.getId())) {
+                return redirectForUser(currentUser);
+            }
+            targetSupplierId = currentUser.getId();
+        }
+        if (targetSupplierId == null) {
+            return badRequest("请指定供应商");
+        }
+        DataFormat dataFormat = format != null
+                ? DataFormat.of(format)
+                : contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json") ? DataFormat.NDJSON : DataFormat.CSV;
+        return success(productImportService.importProducts(targetSupplierId, dataFormat, body));
     }
 
     @PutMapping("/{id}")
@@ -83,11 +172,29 @@ public class ProductController extends BaseController {
         return success();
     }
     
+    /**
+     * Writes the catalogue as one JSON array while it is read from the database, so neither the rows nor
+     * the serialized body are held in memory as a whole.
+     */
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.findAll();
-        products.forEach(productService::withSizeAllocations);
-        return success(products);
+    public ResponseEntity<StreamingResponseBody> getAllProducts() {
+        StreamingResponseBody body = output -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.writeStartArray();
+                productService.streamCatalogue(CATALOGUE_CHUNK_SIZE, chunk -> {
+                    try {
+                        for (Product product : chunk) {
+                            generator.writeObject(product);
+                        }
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
     
     @GetMapping("/status/{status}")
@@ -117,6 +224,12 @@ public class ProductController extends BaseController {
         return success(productService.search(keyword, pageable).map(productService::withSizeAllocations));
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionDTO>> suggest(@RequestParam(required = false) String prefix,
+                                                              @RequestParam(defaultValue = "10") int limit) {
+        return success(productSuggestionService.suggest(prefix, limit));
+    }
+
     @GetMapping("/advanced-search")
     public ResponseEntity<Page<ProductSummaryDTO>> advancedSearch(
             @RequestParam(required = false) String keyword,
@@ -129,6 +242,45 @@ public class ProductController extends BaseController {
             @RequestParam(defaultValue = "12") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "DESC") Sort.Direction sortDirection) {
+        return success(searchPage(keyword, categoryId, supplierId, minPrice, maxPrice, status,
+                page, size, sortBy, sortDirection));
+    }
+
+    @GetMapping("/faceted-search")
+    public ResponseEntity<ProductSearchResultDTO> facetedSearch(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long supplierId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction sortDirection) {
+        Page<ProductSummaryDTO> results = searchPage(keyword, categoryId, supplierId, minPrice, maxPrice, status,
+                page, size, sortBy, sortDirection);
+
+        ProductSearchResultDTO dto = new ProductSearchResultDTO();
+        dto.setContent(results.getContent());
+        dto.setTotalElements(results.getTotalElements());
+        dto.setTotalPages(results.getTotalPages());
+        dto.setNumber(results.getNumber());
+        dto.setSize(results.getSize());
+        dto.setFacets(productFacetService.countFacets(keyword, categoryId, supplierId, minPrice, maxPrice, status));
+        return success(dto);
+    }
+
+    private Page<ProductSummaryDTO> searchPage(String keyword,
+                                               Long categoryId,
+                                               Long supplierId,
+                                               BigDecimal minPrice,
+                                               BigDecimal maxPrice,
+                                               String status,
+                                               int page,
+                                               int size,
+                                               String sortBy,
+                                               Sort.Direction sortDirection) {
         Set<String> allowedSortFields = Set.of("createdAt", "price", "sales", "stock", "name");
         if (!allowedSortFields.contains(sortBy)) {
             sortBy = "createdAt";
@@ -145,7 +297,16 @@ public class ProductController extends BaseController {
                 pageable);
 
         Page<ProductSummaryDTO> dtoPage = products.map(p -> toSummaryDTO(productService.withSizeAllocations(p)));
-        return success(new PageImpl<>(dtoPage.getContent(), pageable, products.getTotalElements()));
+        Map<Long, ProductRatingDTO> ratings = productRatingService.getRatings(
+                dtoPage.getContent().stream().map(ProductSummaryDTO::getId).toList());
+        dtoPage.getContent().forEach(dto -> {
+            ProductRatingDTO rating = ratings.get(dto.getId());
+            if (rating != null) {
+                dto.setRatingCount(rating.getCount());
+                dto.setRatingAverage(rating.getAverage());
+            }
+        });
+        return new PageImpl<>(dtoPage.getContent(), pageable, products.getTotalElements());
     }
 
     @PutMapping("/{id}/stock")
@@ -163,6 +324,20 @@ public class ProductController extends BaseController {
         return success();
     }
 
+    /**
+     * Applies a batch of {@code (productId, size, delta)} stock adjustments, e.g. from a warehouse sync, and
+     * reports each line. Suppliers may only adjust their own products.
+     */
+    @PutMapping("/stock")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLIER')")
+    public ResponseEntity<?> adjustStock(@RequestBody List<StockAdjustmentDTO> adjustments,
+                                         @AuthenticationPrincipal CustomUserDetails currentUser) {
+        Long supplierId = currentUser != null && "supplier".equalsIgnoreCase(currentUser.getUserType())
+                ? currentUser.getId()
+                : null;
+        return success(stockAdjustmentService.adjustStock(adjustments, supplierId));
+    }
+
     @PutMapping("/{id}/on-sale")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLIER')")
     public ResponseEntity<?> putProductOnSale(@PathVariable Long id,
@@ -198,6 +373,56 @@ public class ProductController extends BaseController {
         return success(productService.getProductOverview());
     }
 
+    @GetMapping("/{id}/rating")
+    public ResponseEntity<ProductRatingDTO> getRating(@PathVariable Long id) {
+        return success(productRatingService.getRating(id));
+    }
+
+    @GetMapping("/{id}/main-image")
+    public ResponseEntity<?> getMainImage(@PathVariable Long id) {
+        Optional<String> image = productService.findMainImage(id);
+        if (image.isEmpty()) {
+            return notFound("产品图片不存在");
+        }
+        String value = image.get();
+        if (!value.startsWith("data:")) {
+            return ProductImages.redirectTarget(value, allowedImageOrigins)
+                    .<ResponseEntity<?>>map(target -> ResponseEntity.status(HttpStatus.FOUND).location(target).build())
+                    .orElseGet(() -> notFound("产品图片不存在"));
+        }
+        // data URL 形如 data:image/png;base64,xxxx，只有位图类型才解码输出
+        int comma = value.indexOf(',');
+        if (comma < 0) {
+            return notFound("产品图片不存在");
+        }
+        String metadata = value.substring("data:".length(), comma);
+        Optional<String> type = ProductImages.inlineImageType(metadata);
+        if (type.isEmpty()) {
+            return notFound("产品图片不存在");
+        }
+        String payload = value.substring(comma + 1);
+        byte[] bytes;
+        try {
+            bytes = metadata.endsWith(";base64")
+                    ? Base64.getMimeDecoder().decode(payload)
+                    : URLDecoder.decode(payload, StandardCharsets.UTF_8).getBytes(StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return notFound("产品图片不存在");
+        }
+        // 禁止浏览器嗅探类型，并把响应作为沙箱文档，即使被直接打开也不能运行脚本
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(type.get()))
+                .header("X-Content-Type-Options", "nosniff")
+                .header("Content-Security-Policy", "sandbox")
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)))
+                .body(bytes);
+    }
+
+    @GetMapping("/supplier/{supplierId}/overview")
+    public ResponseEntity<ProductOverviewDTO> getSupplierProductOverview(@PathVariable Long supplierId) {
+        return success(productService.getSupplierProductOverview(supplierId));
+    }
+
     private ProductSummaryDTO toSummaryDTO(Product product) {
         ProductSummaryDTO dto = new ProductSummaryDTO();
         dto.setId(product.getId());
@@ -212,15 +437,61 @@ public class ProductController extends BaseController {
         dto.setCreatedAt(product.getCreatedAt());
         dto.setSizeQuantities(product.getSizeQuantities());
         if (product.getCategory() != null) {
+            dto.setCategoryId(product.getCategory().getId());
             dto.setCategoryName(product.getCategory().getName());
         }
         if (product.getSupplier() != null) {
+            dto.setSupplierId(product.getSupplier().getId());
             dto.setSupplierName(product.getSupplier().getCompanyName());
             dto.setSupplierLevel(product.getSupplier().getSupplierLevel());
         }
         return dto;
     }
 
+    private ProductDetailDTO toDetailDTO(Product product) {
+        ProductDetailDTO dto = new ProductDetailDTO();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        dto.setPrice(product.getPrice());
+        dto.setUnit(product.getUnit());
+        dto.setStock(product.getStock());
+        dto.setSales(product.getSales());
+        dto.setMainImage(product.getMainImage());
+        dto.setStatus(product.getStatus());
+        dto.setCreatedAt(product.getCreatedAt());
+        dto.setUpdatedAt(product.getUpdatedAt());
+        dto.setSizeQuantities(product.getSizeQuantities());
+        if (product.getCategory() != null) {
+            ProductDetailDTO.CategoryInfo category = new ProductDetailDTO.CategoryInfo();
+            category.setId(product.getCategory().getId());
+            category.setName(product.getCategory().getName());
+            category.setDescription(product.getCategory().getDescription());
+            dto.setCategory(category);
+        }
+        if (product.getSupplier() != null) {
+            ProductDetailDTO.SupplierInfo supplier = new ProductDetailDTO.SupplierInfo();
+            supplier.setId(product.getSupplier().getId());
+            supplier.setCompanyName(product.getSupplier().getCompanyName());
+            supplier.setSupplierLevel(product.getSupplier().getSupplierLevel());
+            supplier.setContactName(product.getSupplier().getContactPerson());
+            supplier.setContactPhone(product.getSupplier().getPhone());
+            dto.setSupplier(supplier);
+        }
+        if (product.getImages() != null) {
+            dto.setImages(product.getImages().stream().map(image -> {
+                ProductDetailDTO.ImageInfo info = new ProductDetailDTO.ImageInfo();
+                info.setId(image.getId());
+                info.setImageUrl(image.getImageUrl());
+                info.setSortOrder(image.getSortOrder());
+                info.setCreatedAt(image.getCreatedAt());
+                return info;
+            }).toList());
+        }
+        dto.setRating(productRatingService.getRating(product.getId()));
+        return dto;
+    }
+
     private boolean canManageProduct(CustomUserDetails user, Product product) {
         if (user == null) {
             return false;
@@ -1,7 +1,9 @@
 package com.example.silkmall.controller;
 
 import com.example.silkmall.dto.CreateProductReviewDTO;
+import com.example.silkmall.dto.CursorPageDTO;
 import com.example.silkmall.dto.ProductReviewDTO;
+import com.example.silkmall.dto.ReviewFeedItemDTO;
 import com.example.silkmall.entity.ProductReview;
 import com.example.silkmall.security.CustomUserDetails;
 import com.example.silkmall.service.ProductReviewService;
@@ -60,6 +62,18 @@ public class ProductReviewController extends BaseController {
         return success(reviews);
     }
 
+    @GetMapping("/products/{productId}/feed")
+    public ResponseEntity<CursorPageDTO<ReviewFeedItemDTO>> getProductFeed(@PathVariable Long productId,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(defaultValue = "10") int size) {
+        return success(productReviewService.findProductFeed(productId, cursor, size));
+    }
+
+    @GetMapping("/orders/{orderId}/feed")
+    public ResponseEntity<List<ReviewFeedItemDTO>> getOrderFeed(@PathVariable Long orderId) {
+        return success(productReviewService.findOrderFeed(orderId));
+    }
+
     @GetMapping("/orders/{orderId}")
     public ResponseEntity<List<ProductReviewDTO>> getByOrder(@PathVariable Long orderId) {
         List<ProductReviewDTO> reviews = productReviewService.findByOrderId(orderId)
@@ -83,6 +97,18 @@ public class ProductReviewController extends BaseController {
         return success(reviews);
     }
 
+    @GetMapping("/consumers/{consumerId}/feed")
+    @PreAuthorize("hasAnyRole('CONSUMER', 'ADMIN')")
+    public ResponseEntity<CursorPageDTO<ReviewFeedItemDTO>> getConsumerFeed(@PathVariable Long consumerId,
+                                                                           @RequestParam(required = false) String cursor,
+                                                                           @RequestParam(defaultValue = "10") int size,
+                                                                           @AuthenticationPrincipal CustomUserDetails currentUser) {
+        if (!isAdmin(currentUser) && (currentUser == null || !Objects.equals(currentUser.getId(), consumerId))) {
+            throw new RuntimeException("没有权限查看其他消费者的评价");
+        }
+        return success(productReviewService.findConsumerFeed(consumerId, cursor, size));
+    }
+
     @PutMapping("/{reviewId}")
     @PreAuthorize("hasAnyRole('CONSUMER', 'SUPPLIER', 'ADMIN')")
     public ResponseEntity<ProductReviewDTO> updateReview(@PathVariable Long reviewId,
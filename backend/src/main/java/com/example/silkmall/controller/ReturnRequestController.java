@@ -1,5 +1,7 @@
 package com.example.silkmall.controller;
 
+import com.example.silkmall.dto.BulkProcessReturnRequestDTO;
+import com.example.silkmall.dto.BulkReturnResultDTO;
 import com.example.silkmall.dto.CreateReturnRequestDTO;
 import com.example.silkmall.dto.ProcessReturnRequestDTO;
 import com.example.silkmall.dto.ReturnRequestDTO;
@@ -7,12 +9,15 @@ import com.example.silkmall.entity.ReturnRequest;
 import com.example.silkmall.security.CustomUserDetails;
 import com.example.silkmall.service.ReturnRequestService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -50,6 +55,18 @@ public class ReturnRequestController extends BaseController {
         return success(toDto(updated));
     }
 
+    @PutMapping("/bulk-status")
+    @PreAuthorize("hasAnyRole('SUPPLIER', 'ADMIN')")
+    public ResponseEntity<BulkReturnResultDTO> processReturns(@RequestBody BulkProcessReturnRequestDTO request,
+                                                              @AuthenticationPrincipal CustomUserDetails currentUser) {
+        return success(returnRequestService.processReturnRequests(
+                request.getIds(),
+                request.getStatus(),
+                request.getResolution(),
+                request.getAdminResolution(),
+                currentUser));
+    }
+
     @GetMapping("/consumers/{consumerId}")
     public ResponseEntity<List<ReturnRequestDTO>> getByConsumer(@PathVariable Long consumerId) {
         List<ReturnRequestDTO> requests = returnRequestService.findByConsumerId(consumerId)
@@ -59,6 +76,18 @@ public class ReturnRequestController extends BaseController {
         return success(requests);
     }
 
+    @GetMapping("/consumers/{consumerId}/page")
+    public ResponseEntity<Page<ReturnRequestDTO>> getPageByConsumer(@PathVariable Long consumerId,
+                                                                    @RequestParam(value = "status", required = false) String status,
+                                                                    Pageable pageable) {
+        return success(returnRequestService.findByConsumerId(consumerId, status, pageable).map(this::toDto));
+    }
+
+    @GetMapping("/consumers/{consumerId}/counts")
+    public ResponseEntity<Map<String, Long>> countByConsumer(@PathVariable Long consumerId) {
+        return success(returnRequestService.countByConsumerId(consumerId));
+    }
+
     @GetMapping("/orders/{orderId}")
     public ResponseEntity<List<ReturnRequestDTO>> getByOrder(@PathVariable Long orderId) {
         List<ReturnRequestDTO> requests = returnRequestService.findByOrderId(orderId)
@@ -78,6 +107,33 @@ public class ReturnRequestController extends BaseController {
         return success(requests);
     }
 
+    @GetMapping("/suppliers/{supplierId}/page")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('SUPPLIER') and #supplierId == principal.id)")
+    public ResponseEntity<Page<ReturnRequestDTO>> getPageBySupplier(@PathVariable Long supplierId,
+                                                                    @RequestParam(value = "status", required = false) String status,
+                                                                    Pageable pageable) {
+        return success(returnRequestService.findBySupplierId(supplierId, status, pageable).map(this::toDto));
+    }
+
+    @GetMapping("/suppliers/{supplierId}/counts")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('SUPPLIER') and #supplierId == principal.id)")
+    public ResponseEntity<Map<String, Long>> countBySupplier(@PathVariable Long supplierId) {
+        return success(returnRequestService.countBySupplierId(supplierId));
+    }
+
+    @GetMapping("/admin/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Page<ReturnRequestDTO>> getPageForAdmin(@RequestParam(value = "status", required = false) String status,
+                                                                  Pageable pageable) {
+        return success(returnRequestService.findAdminQueue(status, pageable).map(this::toDto));
+    }
+
+    @GetMapping("/admin/counts")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Long>> countForAdmin() {
+        return success(returnRequestService.countAdminQueue());
+    }
+
     @GetMapping("/admin")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<ReturnRequestDTO>> getForAdmin(@RequestParam(value = "status", required = false) String status) {
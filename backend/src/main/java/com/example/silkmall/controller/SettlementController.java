@@ -0,0 +1,56 @@
+package com.example.silkmall.controller;
+
+import com.example.silkmall.entity.SupplierSettlementCycle;
+import com.example.silkmall.entity.SupplierSettlementLine;
+import com.example.silkmall.entity.SupplierStatement;
+import com.example.silkmall.service.SupplierSettlementService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/settlements")
+public class SettlementController extends BaseController {
+    private final SupplierSettlementService supplierSettlementService;
+
+    @Autowired
+    public SettlementController(SupplierSettlementService supplierSettlementService) {
+        this.supplierSettlementService = supplierSettlementService;
+    }
+
+    @GetMapping("/suppliers/{supplierId}/statements")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('SUPPLIER') and #supplierId == principal.id)")
+    public ResponseEntity<Page<SupplierStatement>> getStatements(@PathVariable Long supplierId, Pageable pageable) {
+        return success(supplierSettlementService.findStatements(supplierId, pageable));
+    }
+
+    @GetMapping("/suppliers/{supplierId}/statements/{statementId}/lines")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('SUPPLIER') and #supplierId == principal.id)")
+    public ResponseEntity<?> getStatementLines(@PathVariable Long supplierId,
+                                               @PathVariable Long statementId,
+                                               Pageable pageable) {
+        try {
+            return success(supplierSettlementService.findStatementLines(supplierId, statementId, pageable));
+        } catch (RuntimeException e) {
+            return notFound(e.getMessage());
+        }
+    }
+
+    @GetMapping("/suppliers/{supplierId}/pending-lines")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('SUPPLIER') and #supplierId == principal.id)")
+    public ResponseEntity<Page<SupplierSettlementLine>> getPendingLines(@PathVariable Long supplierId,
+                                                                        Pageable pageable) {
+        return success(supplierSettlementService.findPendingLines(supplierId, pageable));
+    }
+
+    // 管理员手动触发一次结算周期，没有待结算的明细时不创建周期
+    @PostMapping("/cycles")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SupplierSettlementCycle> runCycle() {
+        SupplierSettlementCycle cycle = supplierSettlementService.runCycle();
+        return cycle == null ? ResponseEntity.noContent().build() : success(cycle);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.silkmall.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkProcessReturnRequestDTO {
+    private List<Long> ids = new ArrayList<>();
+    private String status;
+    private String resolution;
+    private String adminResolution;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(String resolution) {
+        this.resolution = resolution;
+    }
+
+    public String getAdminResolution() {
+        return adminResolution;
+    }
+
+    public void setAdminResolution(String adminResolution) {
+        this.adminResolution = adminResolution;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.silkmall.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk return decision: one entry per requested id, in request order. Failed entries carry
+ * the reason and leave the return untouched; the others were processed in the same transaction.
+ */
+public class BulkReturnResultDTO {
+    private int processedCount;
+    private int failedCount;
+    private List<ItemOutcome> items = new ArrayList<>();
+
+    public int getProcessedCount() {
+        return processedCount;
+    }
+
+    public void setProcessedCount(int processedCount) {
+        this.processedCount = processedCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(int failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public List<ItemOutcome> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ItemOutcome> items) {
+        this.items = items;
+    }
+
+    public static class ItemOutcome {
+        private Long id;
+        private boolean success;
+        private String status;
+        private String message;
+
+        public ItemOutcome() {
+        }
+
+        public ItemOutcome(Long id, boolean success, String status, String message) {
+            this.id = id;
+            this.success = success;
+            this.status = status;
+            this.message = message;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public void setSuccess(boolean success) {
+            this.success = success;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
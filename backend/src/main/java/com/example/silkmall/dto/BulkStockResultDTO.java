@@ -0,0 +1,97 @@
+package com.example.silkmall.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk stock adjustment: one entry per requested line, in request order. Failed lines carry the
+ * reason and changed nothing; the others were applied in the same transaction.
+ */
+public class BulkStockResultDTO {
+    private int appliedCount;
+    private int failedCount;
+    private List<ItemOutcome> items = new ArrayList<>();
+
+    public int getAppliedCount() {
+        return appliedCount;
+    }
+
+    public void setAppliedCount(int appliedCount) {
+        this.appliedCount = appliedCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(int failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public List<ItemOutcome> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ItemOutcome> items) {
+        this.items = items;
+    }
+
+    public static class ItemOutcome {
+        private Long productId;
+        private String size;
+        private Integer delta;
+        private boolean success;
+        private String message;
+
+        public ItemOutcome() {
+        }
+
+        public ItemOutcome(Long productId, String size, Integer delta, boolean success, String message) {
+            this.productId = productId;
+            this.size = size;
+            this.delta = delta;
+            this.success = success;
+            this.message = message;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public String getSize() {
+            return size;
+        }
+
+        public void setSize(String size) {
+            this.size = size;
+        }
+
+        public Integer getDelta() {
+            return delta;
+        }
+
+        public void setDelta(Integer delta) {
+            this.delta = delta;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public void setSuccess(boolean success) {
+            this.success = success;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.silkmall.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a cart checkout: the amount debited once from the wallet, the remaining balance and the
+ * orders created, one per supplier of the checked out items.
+ */
+public class CartCheckoutResultDTO {
+    private BigDecimal paidAmount;
+    private BigDecimal balance;
+    private int removedCount;
+    private List<Long> orderIds = new ArrayList<>();
+    private List<String> orderNos = new ArrayList<>();
+
+    public BigDecimal getPaidAmount() {
+        return paidAmount;
+    }
+
+    public void setPaidAmount(BigDecimal paidAmount) {
+        this.paidAmount = paidAmount;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    public void setRemovedCount(int removedCount) {
+        this.removedCount = removedCount;
+    }
+
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public List<String> getOrderNos() {
+        return orderNos;
+    }
+
+    public void setOrderNos(List<String> orderNos) {
+        this.orderNos = orderNos;
+    }
+}
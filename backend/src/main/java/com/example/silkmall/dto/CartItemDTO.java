@@ -1,6 +1,7 @@
 package com.example.silkmall.dto;
 
 import java.math.BigDecimal;
+import java.util.Map;
 
 public class CartItemDTO {
     private Long id;
@@ -64,6 +65,8 @@ public class CartItemDTO {
         private String mainImage;
         private BigDecimal price;
         private String status;
+        private Integer stock;
+        private Map<String, Integer> sizeQuantities;
 
         public Long getId() {
             return id;
@@ -104,6 +107,22 @@ public class CartItemDTO {
         public void setStatus(String status) {
             this.status = status;
         }
+
+        public Integer getStock() {
+            return stock;
+        }
+
+        public void setStock(Integer stock) {
+            this.stock = stock;
+        }
+
+        public Map<String, Integer> getSizeQuantities() {
+            return sizeQuantities;
+        }
+
+        public void setSizeQuantities(Map<String, Integer> sizeQuantities) {
+            this.sizeQuantities = sizeQuantities;
+        }
     }
 }
 
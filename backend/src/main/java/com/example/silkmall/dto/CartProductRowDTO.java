@@ -0,0 +1,109 @@
+package com.example.silkmall.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of the cart product projection: the product columns a cart shows plus at most one size
+ * allocation, so a product with several sizes spans several rows. The image column is never loaded
+ * whole; only its length and first characters are selected, enough to tell a short URL from an
+ * inline data URL.
+ */
+public class CartProductRowDTO {
+    private Long productId;
+    private String name;
+    private BigDecimal price;
+    private Integer stock;
+    private String status;
+    private String imagePrefix;
+    private Integer imageLength;
+    private String sizeLabel;
+    private Integer sizeQuantity;
+
+    public CartProductRowDTO() {
+    }
+
+    public CartProductRowDTO(Long productId, String name, BigDecimal price, Integer stock, String status,
+                             String imagePrefix, Integer imageLength, String sizeLabel, Integer sizeQuantity) {
+        this.productId = productId;
+        this.name = name;
+        this.price = price;
+        this.stock = stock;
+        this.status = status;
+        this.imagePrefix = imagePrefix;
+        this.imageLength = imageLength;
+        this.sizeLabel = sizeLabel;
+        this.sizeQuantity = sizeQuantity;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getImagePrefix() {
+        return imagePrefix;
+    }
+
+    public void setImagePrefix(String imagePrefix) {
+        this.imagePrefix = imagePrefix;
+    }
+
+    public Integer getImageLength() {
+        return imageLength;
+    }
+
+    public void setImageLength(Integer imageLength) {
+        this.imageLength = imageLength;
+    }
+
+    public String getSizeLabel() {
+        return sizeLabel;
+    }
+
+    public void setSizeLabel(String sizeLabel) {
+        this.sizeLabel = sizeLabel;
+    }
+
+    public Integer getSizeQuantity() {
+        return sizeQuantity;
+    }
+
+    public void setSizeQuantity(Integer sizeQuantity) {
+        this.sizeQuantity = sizeQuantity;
+    }
+}
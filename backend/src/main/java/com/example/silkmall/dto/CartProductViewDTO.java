@@ -0,0 +1,75 @@
+package com.example.silkmall.dto;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Product fields a cart needs to validate edits and render its lines, cached by the cart store. The
+ * image is carried as a reference (a short URL or the product image endpoint), never inline.
+ */
+public class CartProductViewDTO {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private Integer stock;
+    private String status;
+    private String thumbnail;
+    private Map<String, Integer> sizeQuantities = new LinkedHashMap<>();
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getThumbnail() {
+        return thumbnail;
+    }
+
+    public void setThumbnail(String thumbnail) {
+        this.thumbnail = thumbnail;
+    }
+
+    public Map<String, Integer> getSizeQuantities() {
+        return sizeQuantities;
+    }
+
+    public void setSizeQuantities(Map<String, Integer> sizeQuantities) {
+        this.sizeQuantities = sizeQuantities;
+    }
+}
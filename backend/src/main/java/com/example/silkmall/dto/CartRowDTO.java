@@ -0,0 +1,49 @@
+package com.example.silkmall.dto;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * A cart line joined with its {@link CartProductRowDTO product projection}.
+ */
+public class CartRowDTO extends CartProductRowDTO {
+    private Long itemId;
+    private Integer quantity;
+    private Date addedAt;
+
+    public CartRowDTO() {
+    }
+
+    public CartRowDTO(Long itemId, Integer quantity, Date addedAt,
+                      Long productId, String name, BigDecimal price, Integer stock, String status,
+                      String imagePrefix, Integer imageLength, String sizeLabel, Integer sizeQuantity) {
+        super(productId, name, price, stock, status, imagePrefix, imageLength, sizeLabel, sizeQuantity);
+        this.itemId = itemId;
+        this.quantity = quantity;
+        this.addedAt = addedAt;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Date getAddedAt() {
+        return addedAt;
+    }
+
+    public void setAddedAt(Date addedAt) {
+        this.addedAt = addedAt;
+    }
+}
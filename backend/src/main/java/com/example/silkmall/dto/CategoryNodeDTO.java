@@ -0,0 +1,166 @@
+package com.example.silkmall.dto;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Read model of a category inside the cached category tree. Besides the column values it carries the
+ * position in the tree: depth, the ancestor id path from the root, the direct child ids and the
+ * nested-set bounds ({@code lft}/{@code rgt}) that enclose every descendant.
+ */
+public class CategoryNodeDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private Integer sortOrder;
+    private String icon;
+    private Boolean enabled;
+    private Long parentId;
+    private Date createdAt;
+    private Date updatedAt;
+    private Integer lft;
+    private Integer rgt;
+    private Integer depth;
+    private List<Long> path = List.of();
+    private String pathName;
+    private List<Long> childIds = List.of();
+
+    public CategoryNodeDTO() {
+    }
+
+    public CategoryNodeDTO(Long id, String name, String description, Integer sortOrder, String icon,
+                           Boolean enabled, Long parentId, Date createdAt, Date updatedAt,
+                           Integer lft, Integer rgt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.sortOrder = sortOrder;
+        this.icon = icon;
+        this.enabled = enabled;
+        this.parentId = parentId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.lft = lft;
+        this.rgt = rgt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Integer getSortOrder() {
+        return sortOrder;
+    }
+
+    public void setSortOrder(Integer sortOrder) {
+        this.sortOrder = sortOrder;
+    }
+
+    public String getIcon() {
+        return icon;
+    }
+
+    public void setIcon(String icon) {
+        this.icon = icon;
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Integer getLft() {
+        return lft;
+    }
+
+    public void setLft(Integer lft) {
+        this.lft = lft;
+    }
+
+    public Integer getRgt() {
+        return rgt;
+    }
+
+    public void setRgt(Integer rgt) {
+        this.rgt = rgt;
+    }
+
+    public Integer getDepth() {
+        return depth;
+    }
+
+    public void setDepth(Integer depth) {
+        this.depth = depth;
+    }
+
+    public List<Long> getPath() {
+        return path;
+    }
+
+    public void setPath(List<Long> path) {
+        this.path = path;
+    }
+
+    public String getPathName() {
+        return pathName;
+    }
+
+    public void setPathName(String pathName) {
+        this.pathName = pathName;
+    }
+
+    public List<Long> getChildIds() {
+        return childIds;
+    }
+
+    public void setChildIds(List<Long> childIds) {
+        this.childIds = childIds;
+    }
+}
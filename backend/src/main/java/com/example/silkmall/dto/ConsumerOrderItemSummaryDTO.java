@@ -0,0 +1,77 @@
+package com.example.silkmall.dto;
+
+import com.example.silkmall.common.ProductImages;
+
+/**
+ * One line of a consumer order summary: product name, quantity and a thumbnail reference, selected
+ * for a whole page of orders at once.
+ */
+public class ConsumerOrderItemSummaryDTO {
+    private Long orderId;
+    private Long productId;
+    private String productName;
+    private String size;
+    private Integer quantity;
+    private String thumbnail;
+
+    public ConsumerOrderItemSummaryDTO() {
+    }
+
+    public ConsumerOrderItemSummaryDTO(Long orderId, Long productId, String productName, String size,
+                                       Integer quantity, String imagePrefix, Integer imageLength) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.productName = productName;
+        this.size = size;
+        this.quantity = quantity;
+        this.thumbnail = ProductImages.reference(productId, imagePrefix, imageLength);
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public String getSize() {
+        return size;
+    }
+
+    public void setSize(String size) {
+        this.size = size;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getThumbnail() {
+        return thumbnail;
+    }
+
+    public void setThumbnail(String thumbnail) {
+        this.thumbnail = thumbnail;
+    }
+}
@@ -13,6 +13,20 @@ public class ConsumerOrderSummaryDTO {
     private String status;
     private Date orderTime;
     private List<String> productNames = new ArrayList<>();
+    private List<ConsumerOrderItemSummaryDTO> items = new ArrayList<>();
+
+    public ConsumerOrderSummaryDTO() {
+    }
+
+    public ConsumerOrderSummaryDTO(Long id, String orderNo, BigDecimal totalAmount, Integer totalQuantity,
+                                   String status, Date orderTime) {
+        this.id = id;
+        this.orderNo = orderNo;
+        this.totalAmount = totalAmount;
+        this.totalQuantity = totalQuantity;
+        this.status = status;
+        this.orderTime = orderTime;
+    }
 
     public Long getId() {
         return id;
@@ -69,4 +83,12 @@ public class ConsumerOrderSummaryDTO {
     public void setProductNames(List<String> productNames) {
         this.productNames = productNames;
     }
+
+    public List<ConsumerOrderItemSummaryDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ConsumerOrderItemSummaryDTO> items) {
+        this.items = items;
+    }
 }
@@ -0,0 +1,47 @@
+package com.example.silkmall.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated feed. {@code nextCursor} is passed back to fetch the following page and
+ * is {@code null} once {@code hasMore} is false.
+ */
+public class CursorPageDTO<T> {
+    private List<T> items = new ArrayList<>();
+    private String nextCursor;
+    private boolean hasMore;
+
+    public CursorPageDTO() {
+    }
+
+    public CursorPageDTO(List<T> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
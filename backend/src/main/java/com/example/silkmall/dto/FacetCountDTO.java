@@ -0,0 +1,40 @@
+package com.example.silkmall.dto;
+
+public class FacetCountDTO {
+    private String value;
+    private String label;
+    private Long count;
+
+    public FacetCountDTO() {
+    }
+
+    public FacetCountDTO(String value, String label, Long count) {
+        this.value = value;
+        this.label = label;
+        this.count = count;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+}
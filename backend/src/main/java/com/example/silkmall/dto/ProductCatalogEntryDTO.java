@@ -0,0 +1,118 @@
+package com.example.silkmall.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Slim projection of a product row used to build in-memory catalogue indexes without loading the
+ * image column or any lazy association.
+ */
+public class ProductCatalogEntryDTO {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private String status;
+    private Integer sales;
+    private Long categoryId;
+    private String categoryName;
+    private Long supplierId;
+    private String supplierName;
+    private String supplierLevel;
+
+    public ProductCatalogEntryDTO() {
+    }
+
+    public ProductCatalogEntryDTO(Long id, String name, BigDecimal price, String status, Integer sales,
+                                  Long categoryId, String categoryName,
+                                  Long supplierId, String supplierName, String supplierLevel) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.status = status;
+        this.sales = sales;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.supplierId = supplierId;
+        this.supplierName = supplierName;
+        this.supplierLevel = supplierLevel;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getSales() {
+        return sales;
+    }
+
+    public void setSales(Integer sales) {
+        this.sales = sales;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public Long getSupplierId() {
+        return supplierId;
+    }
+
+    public void setSupplierId(Long supplierId) {
+        this.supplierId = supplierId;
+    }
+
+    public String getSupplierName() {
+        return supplierName;
+    }
+
+    public void setSupplierName(String supplierName) {
+        this.supplierName = supplierName;
+    }
+
+    public String getSupplierLevel() {
+        return supplierLevel;
+    }
+
+    public void setSupplierLevel(String supplierLevel) {
+        this.supplierLevel = supplierLevel;
+    }
+}
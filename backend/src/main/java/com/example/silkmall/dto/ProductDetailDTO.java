@@ -3,12 +3,14 @@ package com.example.silkmall.dto;
 import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 public class ProductDetailDTO {
     private Long id;
     private String name;
     private String description;
     private BigDecimal price;
+    private String unit;
     private Integer stock;
     private Integer sales;
     private String mainImage;
@@ -18,6 +20,8 @@ public class ProductDetailDTO {
     private CategoryInfo category;
     private SupplierInfo supplier;
     private List<ImageInfo> images;
+    private ProductRatingDTO rating;
+    private Map<String, Integer> sizeQuantities;
 
     public Long getId() {
         return id;
@@ -51,6 +55,14 @@ public class ProductDetailDTO {
         this.price = price;
     }
 
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+
     public Integer getStock() {
         return stock;
     }
@@ -123,6 +135,22 @@ public class ProductDetailDTO {
         this.images = images;
     }
 
+    public ProductRatingDTO getRating() {
+        return rating;
+    }
+
+    public void setRating(ProductRatingDTO rating) {
+        this.rating = rating;
+    }
+
+    public Map<String, Integer> getSizeQuantities() {
+        return sizeQuantities;
+    }
+
+    public void setSizeQuantities(Map<String, Integer> sizeQuantities) {
+        this.sizeQuantities = sizeQuantities;
+    }
+
     public static class CategoryInfo {
         private Long id;
         private String name;
@@ -0,0 +1,43 @@
+package com.example.silkmall.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductFacetsDTO {
+    private Long total;
+    private List<FacetCountDTO> categories = new ArrayList<>();
+    private List<FacetCountDTO> supplierLevels = new ArrayList<>();
+    private List<FacetCountDTO> priceBuckets = new ArrayList<>();
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    public List<FacetCountDTO> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<FacetCountDTO> categories) {
+        this.categories = categories;
+    }
+
+    public List<FacetCountDTO> getSupplierLevels() {
+        return supplierLevels;
+    }
+
+    public void setSupplierLevels(List<FacetCountDTO> supplierLevels) {
+        this.supplierLevels = supplierLevels;
+    }
+
+    public List<FacetCountDTO> getPriceBuckets() {
+        return priceBuckets;
+    }
+
+    public void setPriceBuckets(List<FacetCountDTO> priceBuckets) {
+        this.priceBuckets = priceBuckets;
+    }
+}
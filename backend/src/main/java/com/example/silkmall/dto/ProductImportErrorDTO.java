@@ -0,0 +1,43 @@
+package com.example.silkmall.dto;
+
+/**
+ * A rejected row of a product import. {@code row} is the line number in the uploaded file.
+ */
+public class ProductImportErrorDTO {
+    private int row;
+    private String name;
+    private String message;
+
+    public ProductImportErrorDTO() {
+    }
+
+    public ProductImportErrorDTO(int row, String name, String message) {
+        this.row = row;
+        this.name = name;
+        this.message = message;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public void setRow(int row) {
+        this.row = row;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.silkmall.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk product import: valid rows are created, every rejected row is listed with its reason.
+ */
+public class ProductImportResultDTO {
+    private int totalRows;
+    private int importedCount;
+    private List<ProductImportErrorDTO> errors = new ArrayList<>();
+
+    public int getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(int totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public int getImportedCount() {
+        return importedCount;
+    }
+
+    public void setImportedCount(int importedCount) {
+        this.importedCount = importedCount;
+    }
+
+    public int getFailedCount() {
+        return errors.size();
+    }
+
+    public List<ProductImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ProductImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+}
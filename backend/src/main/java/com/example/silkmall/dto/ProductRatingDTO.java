@@ -0,0 +1,48 @@
+package com.example.silkmall.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Star rating of a product: review count, average rounded to one decimal and the number of reviews per
+ * star, where {@code histogram.get(0)} holds the 1-star count.
+ */
+public class ProductRatingDTO {
+    private Long productId;
+    private Long count = 0L;
+    private BigDecimal average = BigDecimal.ZERO;
+    private List<Long> histogram = new ArrayList<>(List.of(0L, 0L, 0L, 0L, 0L));
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public BigDecimal getAverage() {
+        return average;
+    }
+
+    public void setAverage(BigDecimal average) {
+        this.average = average;
+    }
+
+    public List<Long> getHistogram() {
+        return histogram;
+    }
+
+    public void setHistogram(List<Long> histogram) {
+        this.histogram = histogram;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.silkmall.dto;
+
+import java.util.List;
+
+/**
+ * One page of search results plus the facet counts of the whole result set. The page fields mirror
+ * the ones the storefront already reads from a Spring {@code Page}.
+ */
+public class ProductSearchResultDTO {
+    private List<ProductSummaryDTO> content;
+    private Long totalElements;
+    private Integer totalPages;
+    private Integer number;
+    private Integer size;
+    private ProductFacetsDTO facets;
+
+    public List<ProductSummaryDTO> getContent() {
+        return content;
+    }
+
+    public void setContent(List<ProductSummaryDTO> content) {
+        this.content = content;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public Integer getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(Integer totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    public Integer getNumber() {
+        return number;
+    }
+
+    public void setNumber(Integer number) {
+        this.number = number;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public ProductFacetsDTO getFacets() {
+        return facets;
+    }
+
+    public void setFacets(ProductFacetsDTO facets) {
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.silkmall.dto;
+
+/**
+ * Minimal product row (owner, status, stock and sales) that feeds the maintained product statistics.
+ */
+public class ProductStatsEntryDTO {
+    private Long id;
+    private Long supplierId;
+    private String status;
+    private Integer stock;
+    private Integer sales;
+
+    public ProductStatsEntryDTO() {
+    }
+
+    public ProductStatsEntryDTO(Long id, Long supplierId, String status, Integer stock, Integer sales) {
+        this.id = id;
+        this.supplierId = supplierId;
+        this.status = status;
+        this.stock = stock;
+        this.sales = sales;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSupplierId() {
+        return supplierId;
+    }
+
+    public void setSupplierId(Long supplierId) {
+        this.supplierId = supplierId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+
+    public Integer getSales() {
+        return sales;
+    }
+
+    public void setSales(Integer sales) {
+        this.sales = sales;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.silkmall.dto;
+
+public class ProductSuggestionDTO {
+    private String type;
+    private Long id;
+    private String text;
+    private Long weight;
+
+    public ProductSuggestionDTO() {
+    }
+
+    public ProductSuggestionDTO(String type, Long id, String text, Long weight) {
+        this.type = type;
+        this.id = id;
+        this.text = text;
+        this.weight = weight;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public Long getWeight() {
+        return weight;
+    }
+
+    public void setWeight(Long weight) {
+        this.weight = weight;
+    }
+}
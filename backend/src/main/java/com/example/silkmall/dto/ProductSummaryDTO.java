@@ -14,10 +14,14 @@ public class ProductSummaryDTO {
     private String mainImage;
     private String status;
     private Date createdAt;
+    private Long categoryId;
     private String categoryName;
+    private Long supplierId;
     private String supplierName;
     private String supplierLevel;
     private java.util.Map<String, Integer> sizeQuantities;
+    private Long ratingCount;
+    private BigDecimal ratingAverage;
 
     public Long getId() {
         return id;
@@ -99,6 +103,14 @@ public class ProductSummaryDTO {
         this.createdAt = createdAt;
     }
 
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
     public String getCategoryName() {
         return categoryName;
     }
@@ -107,6 +119,14 @@ public class ProductSummaryDTO {
         this.categoryName = categoryName;
     }
 
+    public Long getSupplierId() {
+        return supplierId;
+    }
+
+    public void setSupplierId(Long supplierId) {
+        this.supplierId = supplierId;
+    }
+
     public String getSupplierName() {
         return supplierName;
     }
@@ -130,4 +150,20 @@ public class ProductSummaryDTO {
     public void setSizeQuantities(java.util.Map<String, Integer> sizeQuantities) {
         this.sizeQuantities = sizeQuantities;
     }
+
+    public Long getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(Long ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    public BigDecimal getRatingAverage() {
+        return ratingAverage;
+    }
+
+    public void setRatingAverage(BigDecimal ratingAverage) {
+        this.ratingAverage = ratingAverage;
+    }
 }
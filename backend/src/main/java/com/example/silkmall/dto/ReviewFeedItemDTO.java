@@ -0,0 +1,97 @@
+package com.example.silkmall.dto;
+
+import java.util.Date;
+
+/**
+ * Display columns of a review, selected directly from {@code product_reviews} without loading the
+ * review's order, product or author associations.
+ */
+public class ReviewFeedItemDTO {
+    private Long id;
+    private Long productId;
+    private Long consumerId;
+    private Integer rating;
+    private String comment;
+    private String authorName;
+    private String authorRole;
+    private Date createdAt;
+
+    public ReviewFeedItemDTO() {
+    }
+
+    public ReviewFeedItemDTO(Long id, Long productId, Long consumerId, Integer rating, String comment,
+                             String authorName, String authorRole, Date createdAt) {
+        this.id = id;
+        this.productId = productId;
+        this.consumerId = consumerId;
+        this.rating = rating;
+        this.comment = comment;
+        this.authorName = authorName;
+        this.authorRole = authorRole;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getConsumerId() {
+        return consumerId;
+    }
+
+    public void setConsumerId(Long consumerId) {
+        this.consumerId = consumerId;
+    }
+
+    public Integer getRating() {
+        return rating;
+    }
+
+    public void setRating(Integer rating) {
+        this.rating = rating;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    public void setAuthorName(String authorName) {
+        this.authorName = authorName;
+    }
+
+    public String getAuthorRole() {
+        return authorRole;
+    }
+
+    public void setAuthorRole(String authorRole) {
+        this.authorRole = authorRole;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
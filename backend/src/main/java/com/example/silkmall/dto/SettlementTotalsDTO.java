@@ -0,0 +1,84 @@
+package com.example.silkmall.dto;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Summed settlement lines of one supplier, as returned by the grouped settlement line queries. Debits are
+ * negative, so {@code credits + debits} is the supplier's net movement.
+ */
+public class SettlementTotalsDTO {
+    private Long supplierId;
+    private BigDecimal credits;
+    private BigDecimal debits;
+    private Long lineCount;
+    private Date firstLineAt;
+    private Date lastLineAt;
+
+    public SettlementTotalsDTO() {
+    }
+
+    public SettlementTotalsDTO(Long supplierId, BigDecimal credits, BigDecimal debits, Long lineCount,
+                               Date firstLineAt, Date lastLineAt) {
+        this.supplierId = supplierId;
+        this.credits = credits;
+        this.debits = debits;
+        this.lineCount = lineCount;
+        this.firstLineAt = firstLineAt;
+        this.lastLineAt = lastLineAt;
+    }
+
+    public BigDecimal getNet() {
+        BigDecimal credit = credits == null ? BigDecimal.ZERO : credits;
+        BigDecimal debit = debits == null ? BigDecimal.ZERO : debits;
+        return credit.add(debit);
+    }
+
+    public Long getSupplierId() {
+        return supplierId;
+    }
+
+    public void setSupplierId(Long supplierId) {
+        this.supplierId = supplierId;
+    }
+
+    public BigDecimal getCredits() {
+        return credits;
+    }
+
+    public void setCredits(BigDecimal credits) {
+        this.credits = credits;
+    }
+
+    public BigDecimal getDebits() {
+        return debits;
+    }
+
+    public void setDebits(BigDecimal debits) {
+        this.debits = debits;
+    }
+
+    public Long getLineCount() {
+        return lineCount;
+    }
+
+    public void setLineCount(Long lineCount) {
+        this.lineCount = lineCount;
+    }
+
+    public Date getFirstLineAt() {
+        return firstLineAt;
+    }
+
+    public void setFirstLineAt(Date firstLineAt) {
+        this.firstLineAt = firstLineAt;
+    }
+
+    public Date getLastLineAt() {
+        return lastLineAt;
+    }
+
+    public void setLastLineAt(Date lastLineAt) {
+        this.lastLineAt = lastLineAt;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.silkmall.dto;
+
+/**
+ * Stored quantity of one size of a product, read without loading the allocation entity so conditional
+ * updates can be issued against it.
+ */
+public class SizeAllocationQuantityDTO {
+    private Long id;
+    private String sizeLabel;
+    private Integer quantity;
+
+    public SizeAllocationQuantityDTO() {
+    }
+
+    public SizeAllocationQuantityDTO(Long id, String sizeLabel, Integer quantity) {
+        this.id = id;
+        this.sizeLabel = sizeLabel;
+        this.quantity = quantity;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSizeLabel() {
+        return sizeLabel;
+    }
+
+    public void setSizeLabel(String sizeLabel) {
+        this.sizeLabel = sizeLabel;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.silkmall.dto;
+
+/**
+ * Number of rows in one status, as returned by the grouped status count queries.
+ */
+public class StatusCountDTO {
+    private String status;
+    private Long count;
+
+    public StatusCountDTO() {
+    }
+
+    public StatusCountDTO(String status, Long count) {
+        this.status = status;
+        this.count = count;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+}
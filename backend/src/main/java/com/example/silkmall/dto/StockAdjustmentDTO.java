@@ -0,0 +1,44 @@
+package com.example.silkmall.dto;
+
+/**
+ * One line of a bulk stock adjustment: add {@code delta} (negative to take stock out) to the given size of a
+ * product. {@code size} is left empty for products that do not manage stock per size.
+ */
+public class StockAdjustmentDTO {
+    private Long productId;
+    private String size;
+    private Integer delta;
+
+    public StockAdjustmentDTO() {
+    }
+
+    public StockAdjustmentDTO(Long productId, String size, Integer delta) {
+        this.productId = productId;
+        this.size = size;
+        this.delta = delta;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getSize() {
+        return size;
+    }
+
+    public void setSize(String size) {
+        this.size = size;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+}
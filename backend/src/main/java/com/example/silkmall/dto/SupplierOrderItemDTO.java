@@ -1,5 +1,8 @@
 package com.example.silkmall.dto;
 
+import com.example.silkmall.common.ProductImages;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.math.BigDecimal;
 import java.util.Date;
 
@@ -12,6 +15,25 @@ public class SupplierOrderItemDTO {
     private Long productId;
     private String productName;
     private String productMainImage;
+    @JsonIgnore
+    private Long orderId;
+
+    public SupplierOrderItemDTO() {
+    }
+
+    public SupplierOrderItemDTO(Long id, Long orderId, Integer quantity, BigDecimal unitPrice, BigDecimal totalPrice,
+                                Date createdAt, Long productId, String productName,
+                                String imagePrefix, Integer imageLength) {
+        this.id = id;
+        this.orderId = orderId;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.totalPrice = totalPrice;
+        this.createdAt = createdAt;
+        this.productId = productId;
+        this.productName = productName;
+        this.productMainImage = ProductImages.reference(productId, imagePrefix, imageLength);
+    }
 
     public Long getId() {
         return id;
@@ -76,4 +98,12 @@ public class SupplierOrderItemDTO {
     public void setProductMainImage(String productMainImage) {
         this.productMainImage = productMainImage;
     }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
 }
@@ -24,6 +24,28 @@ public class SupplierOrderSummaryDTO {
     private boolean mixedSuppliers;
     private List<SupplierOrderItemDTO> items;
 
+    public SupplierOrderSummaryDTO() {
+    }
+
+    public SupplierOrderSummaryDTO(Long id, String orderNo, String status, Integer totalQuantity, BigDecimal totalAmount,
+                                   String recipientName, String recipientPhone, String shippingAddress,
+                                   Date orderTime, Date paymentTime, Date shippingTime, Date deliveryTime,
+                                   Date inTransitTime) {
+        this.id = id;
+        this.orderNo = orderNo;
+        this.status = status;
+        this.totalQuantity = totalQuantity;
+        this.totalAmount = totalAmount;
+        this.recipientName = recipientName;
+        this.recipientPhone = recipientPhone;
+        this.shippingAddress = shippingAddress;
+        this.orderTime = orderTime;
+        this.paymentTime = paymentTime;
+        this.shippingTime = shippingTime;
+        this.deliveryTime = deliveryTime;
+        this.inTransitTime = inTransitTime;
+    }
+
     public Long getId() {
         return id;
     }
@@ -7,7 +7,10 @@ import java.util.Date;
 @Table(name = "cart_items")
 public class CartItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cart_items_id")
+    @TableGenerator(name = "cart_items_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "cart_items", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -9,7 +9,9 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", indexes = {
+        @Index(name = "idx_categories_lft_rgt", columnList = "lft, rgt")
+})
 @JsonIgnoreProperties({"products", "children"})
 public class Category {
     @Id
@@ -23,6 +25,15 @@ public class Category {
     private Boolean enabled;
     private Date createdAt;
     private Date updatedAt;
+
+    // 嵌套集合编码：子孙分类的 lft 都落在祖先的 [lft, rgt] 区间内，由 CategoryServiceImpl 在分类写入后重算
+    @JsonIgnore
+    @Column(name = "lft")
+    private Integer lft;
+
+    @JsonIgnore
+    @Column(name = "rgt")
+    private Integer rgt;
     
     @ManyToOne
     @JoinColumn(name = "parent_id")
@@ -100,6 +111,22 @@ public class Category {
         this.updatedAt = updatedAt;
     }
     
+    public Integer getLft() {
+        return lft;
+    }
+    
+    public void setLft(Integer lft) {
+        this.lft = lft;
+    }
+    
+    public Integer getRgt() {
+        return rgt;
+    }
+    
+    public void setRgt(Integer rgt) {
+        this.rgt = rgt;
+    }
+    
     public Category getParent() {
         return parent;
     }
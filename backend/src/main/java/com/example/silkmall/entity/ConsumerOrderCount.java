@@ -0,0 +1,79 @@
+package com.example.silkmall.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Number of a consumer's orders in one status. Adjusted on every order status transition so the
+ * "my orders" tab badges are a single primary-key range read instead of a {@code GROUP BY} over orders.
+ */
+@Entity
+@Table(name = "consumer_order_counts")
+@IdClass(ConsumerOrderCount.Key.class)
+public class ConsumerOrderCount {
+    @Id
+    @Column(name = "consumer_id")
+    private Long consumerId;
+
+    @Id
+    @Column(name = "status", length = 64)
+    private String status;
+
+    @Column(nullable = false)
+    private Long orderCount = 0L;
+
+    public Long getConsumerId() {
+        return consumerId;
+    }
+
+    public void setConsumerId(Long consumerId) {
+        this.consumerId = consumerId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(Long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public static class Key implements Serializable {
+        private Long consumerId;
+        private String status;
+
+        public Key() {
+        }
+
+        public Key(Long consumerId, String status) {
+            this.consumerId = consumerId;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(consumerId, key.consumerId) && Objects.equals(status, key.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(consumerId, status);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.silkmall.entity;
+
+/**
+ * Shared settings of the table-backed id generators used by write-heavy entities. Each entity reserves
+ * {@link #ALLOCATION_SIZE} ids per round trip to {@value #TABLE} (pooled optimizer), so its inserts can be
+ * sent as JDBC batches instead of one statement per row as {@code IDENTITY} requires.
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generators";
+    public static final String SEGMENT_COLUMN = "segment_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
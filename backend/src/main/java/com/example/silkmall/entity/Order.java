@@ -8,10 +8,17 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_consumer_time", columnList = "consumer_id, order_time"),
+        @Index(name = "idx_orders_consumer_status_time", columnList = "consumer_id, status, order_time"),
+        @Index(name = "idx_orders_status_time", columnList = "status, order_time")
+})
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "orders_id")
+    @TableGenerator(name = "orders_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "orders", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     
     private String orderNo;
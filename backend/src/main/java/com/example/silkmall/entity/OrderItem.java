@@ -7,10 +7,15 @@ import java.util.Date;
 
 @Data
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_supplier_time", columnList = "supplier_id, order_time")
+})
 public class OrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_items_id")
+    @TableGenerator(name = "order_items_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "order_items", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     
     private Integer quantity;
@@ -18,6 +23,13 @@ public class OrderItem {
     private BigDecimal unitPrice;
     private BigDecimal totalPrice;
     private Date createdAt;
+
+    // 冗余保存商品所属供应商和下单时间，供应商订单列表只需扫描自己的订单项
+    @Column(name = "supplier_id")
+    private Long supplierId;
+
+    @Column(name = "order_time")
+    private Date orderTime;
     
     @ManyToOne
     @JoinColumn(name = "order_id")
@@ -30,6 +42,12 @@ public class OrderItem {
     @PrePersist
     protected void onCreate() {
         createdAt = new Date();
+        if (supplierId == null && product != null && product.getSupplier() != null) {
+            supplierId = product.getSupplier().getId();
+        }
+        if (orderTime == null) {
+            orderTime = order != null && order.getOrderTime() != null ? order.getOrderTime() : createdAt;
+        }
     }
     
     // Getters and Setters
@@ -96,4 +114,20 @@ public class OrderItem {
     public void setProduct(Product product) {
         this.product = product;
     }
+
+    public Long getSupplierId() {
+        return supplierId;
+    }
+
+    public void setSupplierId(Long supplierId) {
+        this.supplierId = supplierId;
+    }
+
+    public Date getOrderTime() {
+        return orderTime;
+    }
+
+    public void setOrderTime(Date orderTime) {
+        this.orderTime = orderTime;
+    }
 }
@@ -1,6 +1,7 @@
 package com.example.silkmall.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.math.BigDecimal;
@@ -42,12 +43,22 @@ public class Product {
     @JsonIgnoreProperties({"product"})
     private List<ProductImage> images;
 
-    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    // 尺码库存只由 ProductServiceImpl 按差异同步，合并商品时不级联写入，避免覆盖并发扣减
+    @OneToMany(mappedBy = "product", cascade = CascadeType.REMOVE)
     @JsonIgnoreProperties({"product"})
     private List<ProductSizeAllocation> sizeAllocations;
 
     @Transient
     private Map<String, Integer> sizeQuantities;
+
+    // 编辑表单加载时看到的库存与尺码数量，保存时只把用户的改动叠加到当前库存上
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Integer expectedStock;
+
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Map<String, Integer> expectedSizeQuantities;
     
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL)
     private List<OrderItem> orderItems;
@@ -199,4 +210,20 @@ public class Product {
     public void setSizeQuantities(Map<String, Integer> sizeQuantities) {
         this.sizeQuantities = sizeQuantities;
     }
+
+    public Integer getExpectedStock() {
+        return expectedStock;
+    }
+
+    public void setExpectedStock(Integer expectedStock) {
+        this.expectedStock = expectedStock;
+    }
+
+    public Map<String, Integer> getExpectedSizeQuantities() {
+        return expectedSizeQuantities;
+    }
+
+    public void setExpectedSizeQuantities(Map<String, Integer> expectedSizeQuantities) {
+        this.expectedSizeQuantities = expectedSizeQuantities;
+    }
 }
@@ -0,0 +1,100 @@
+package com.example.silkmall.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Per-product review aggregate: number of reviews, sum of ratings and a 1–5 star histogram. Maintained
+ * with delta updates on every review write, so averages and distributions never scan the reviews.
+ */
+@Entity
+@Table(name = "product_rating_stats")
+public class ProductRatingStats {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long ratingCount = 0L;
+
+    @Column(nullable = false)
+    private Long ratingSum = 0L;
+
+    @Column(nullable = false)
+    private Long oneStar = 0L;
+
+    @Column(nullable = false)
+    private Long twoStar = 0L;
+
+    @Column(nullable = false)
+    private Long threeStar = 0L;
+
+    @Column(nullable = false)
+    private Long fourStar = 0L;
+
+    @Column(nullable = false)
+    private Long fiveStar = 0L;
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(Long ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    public Long getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(Long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
+    public Long getOneStar() {
+        return oneStar;
+    }
+
+    public void setOneStar(Long oneStar) {
+        this.oneStar = oneStar;
+    }
+
+    public Long getTwoStar() {
+        return twoStar;
+    }
+
+    public void setTwoStar(Long twoStar) {
+        this.twoStar = twoStar;
+    }
+
+    public Long getThreeStar() {
+        return threeStar;
+    }
+
+    public void setThreeStar(Long threeStar) {
+        this.threeStar = threeStar;
+    }
+
+    public Long getFourStar() {
+        return fourStar;
+    }
+
+    public void setFourStar(Long fourStar) {
+        this.fourStar = fourStar;
+    }
+
+    public Long getFiveStar() {
+        return fiveStar;
+    }
+
+    public void setFiveStar(Long fiveStar) {
+        this.fiveStar = fiveStar;
+    }
+}
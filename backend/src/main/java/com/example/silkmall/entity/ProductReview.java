@@ -8,10 +8,16 @@ import com.example.silkmall.entity.Admin;
 import com.example.silkmall.entity.Supplier;
 
 @Entity
-@Table(name = "product_reviews")
+@Table(name = "product_reviews", indexes = {
+        @Index(name = "idx_product_reviews_product_created", columnList = "product_id, created_at, id"),
+        @Index(name = "idx_product_reviews_consumer_created", columnList = "consumer_id, created_at, id")
+})
 public class ProductReview {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_reviews_id")
+    @TableGenerator(name = "product_reviews_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "product_reviews", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     private Integer rating;
@@ -10,7 +10,10 @@ import jakarta.persistence.*;
 @JsonIgnoreProperties({"product"})
 public class ProductSizeAllocation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_size_allocations_id")
+    @TableGenerator(name = "product_size_allocations_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "product_size_allocations", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "size_label", nullable = false, length = 20)
@@ -6,10 +6,17 @@ import java.math.BigDecimal;
 import java.util.Date;
 
 @Entity
-@Table(name = "return_requests")
+@Table(name = "return_requests", indexes = {
+        @Index(name = "idx_return_requests_admin_queue", columnList = "after_receipt, status, requested_at"),
+        @Index(name = "idx_return_requests_consumer_status", columnList = "consumer_id, status, requested_at"),
+        @Index(name = "idx_return_requests_product_status", columnList = "product_id, status, requested_at")
+})
 public class ReturnRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "return_requests_id")
+    @TableGenerator(name = "return_requests_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "return_requests", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
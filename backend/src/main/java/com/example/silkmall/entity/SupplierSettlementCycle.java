@@ -0,0 +1,70 @@
+package com.example.silkmall.entity;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * One run of the supplier settlement engine. Every line it settles carries its id, and each supplier
+ * with lines in the run gets one {@link SupplierStatement} for it.
+ */
+@Entity
+@Table(name = "supplier_settlement_cycles")
+public class SupplierSettlementCycle {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "supplier_settlement_cycles_id")
+    @TableGenerator(name = "supplier_settlement_cycles_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "supplier_settlement_cycles", allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    private Date startedAt;
+    private Date completedAt;
+    private Integer supplierCount;
+    private Integer lineCount;
+
+    @PrePersist
+    protected void onCreate() {
+        startedAt = new Date();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Date startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Date getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Date completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public Integer getSupplierCount() {
+        return supplierCount;
+    }
+
+    public void setSupplierCount(Integer supplierCount) {
+        this.supplierCount = supplierCount;
+    }
+
+    public Integer getLineCount() {
+        return lineCount;
+    }
+
+    public void setLineCount(Integer lineCount) {
+        this.lineCount = lineCount;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.silkmall.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * One supplier wallet movement caused by an order payout, an order revocation or a refunded return. Lines
+ * are written when the movement happens and stay unsettled ({@code cycleId} is {@code null}) until a
+ * settlement cycle nets them into the supplier's wallet and its statement for that cycle.
+ */
+@Entity
+@Table(name = "supplier_settlement_lines", indexes = {
+        @Index(name = "idx_settlement_lines_supplier_cycle", columnList = "supplier_id, cycle_id"),
+        @Index(name = "idx_settlement_lines_cycle", columnList = "cycle_id")
+})
+public class SupplierSettlementLine {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "supplier_settlement_lines_id")
+    @TableGenerator(name = "supplier_settlement_lines_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "supplier_settlement_lines", allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "supplier_id", nullable = false)
+    private Long supplierId;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "return_request_id")
+    private Long returnRequestId;
+
+    @Column(nullable = false, length = 20)
+    private String type;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "cycle_id")
+    private Long cycleId;
+
+    private Date createdAt;
+
+    public SupplierSettlementLine() {
+    }
+
+    public SupplierSettlementLine(Long supplierId, Long orderId, Long returnRequestId, String type, BigDecimal amount) {
+        this.supplierId = supplierId;
+        this.orderId = orderId;
+        this.returnRequestId = returnRequestId;
+        this.type = type;
+        this.amount = amount;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = new Date();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSupplierId() {
+        return supplierId;
+    }
+
+    public void setSupplierId(Long supplierId) {
+        this.supplierId = supplierId;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Long getReturnRequestId() {
+        return returnRequestId;
+    }
+
+    public void setReturnRequestId(Long returnRequestId) {
+        this.returnRequestId = returnRequestId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Long getCycleId() {
+        return cycleId;
+    }
+
+    public void setCycleId(Long cycleId) {
+        this.cycleId = cycleId;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.silkmall.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * A supplier's settlement for one cycle: the lines it covers (same supplier and cycle), their credit and
+ * debit totals and the wallet balance before and after the single update the cycle applied.
+ */
+@Entity
+@Table(name = "supplier_statements", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"supplier_id", "cycle_id"})
+})
+public class SupplierStatement {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "supplier_statements_id")
+    @TableGenerator(name = "supplier_statements_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "supplier_statements", allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "supplier_id", nullable = false)
+    private Long supplierId;
+
+    @Column(name = "cycle_id", nullable = false)
+    private Long cycleId;
+
+    private Date periodStart;
+    private Date periodEnd;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal openingBalance;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal creditTotal;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal debitTotal;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal netAmount;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal closingBalance;
+
+    private Integer lineCount;
+    private Date createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = new Date();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSupplierId() {
+        return supplierId;
+    }
+
+    public void setSupplierId(Long supplierId) {
+        this.supplierId = supplierId;
+    }
+
+    public Long getCycleId() {
+        return cycleId;
+    }
+
+    public void setCycleId(Long cycleId) {
+        this.cycleId = cycleId;
+    }
+
+    public Date getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(Date periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public Date getPeriodEnd() {
+        return periodEnd;
+    }
+
+    public void setPeriodEnd(Date periodEnd) {
+        this.periodEnd = periodEnd;
+    }
+
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public void setOpeningBalance(BigDecimal openingBalance) {
+        this.openingBalance = openingBalance;
+    }
+
+    public BigDecimal getCreditTotal() {
+        return creditTotal;
+    }
+
+    public void setCreditTotal(BigDecimal creditTotal) {
+        this.creditTotal = creditTotal;
+    }
+
+    public BigDecimal getDebitTotal() {
+        return debitTotal;
+    }
+
+    public void setDebitTotal(BigDecimal debitTotal) {
+        this.debitTotal = debitTotal;
+    }
+
+    public BigDecimal getNetAmount() {
+        return netAmount;
+    }
+
+    public void setNetAmount(BigDecimal netAmount) {
+        this.netAmount = netAmount;
+    }
+
+    public BigDecimal getClosingBalance() {
+        return closingBalance;
+    }
+
+    public void setClosingBalance(BigDecimal closingBalance) {
+        this.closingBalance = closingBalance;
+    }
+
+    public Integer getLineCount() {
+        return lineCount;
+    }
+
+    public void setLineCount(Integer lineCount) {
+        this.lineCount = lineCount;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
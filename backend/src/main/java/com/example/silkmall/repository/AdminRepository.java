@@ -2,11 +2,27 @@ package com.example.silkmall.repository;
 
 import com.example.silkmall.entity.Admin;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 @Repository
 public interface AdminRepository extends JpaRepository<Admin, Long>, BaseUserRepository<Admin> {
     Optional<Admin> findTopByOrderByIdAsc();
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("update Admin a set a.walletBalance = coalesce(a.walletBalance, 1000) + :amount, " +
+            "a.updatedAt = current_timestamp where a.id = :id")
+    int creditWallet(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    // 余额不足时不更新任何行
+    @Modifying
+    @Query("update Admin a set a.walletBalance = coalesce(a.walletBalance, 1000) - :amount, " +
+            "a.updatedAt = current_timestamp " +
+            "where a.id = :id and coalesce(a.walletBalance, 1000) >= :amount")
+    int debitWallet(@Param("id") Long id, @Param("amount") BigDecimal amount);
+}
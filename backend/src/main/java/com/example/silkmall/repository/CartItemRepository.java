@@ -1,5 +1,7 @@
 package com.example.silkmall.repository;
 
+import com.example.silkmall.common.ProductImages;
+import com.example.silkmall.dto.CartRowDTO;
 import com.example.silkmall.entity.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -18,6 +20,15 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     Optional<CartItem> findByConsumerIdAndProductId(@Param("consumerId") Long consumerId,
                                                     @Param("productId") Long productId);
 
+    @Query("SELECT new com.example.silkmall.dto.CartRowDTO(c.id, c.quantity, c.createdAt, " +
+            "p.id, p.name, p.price, p.stock, p.status, " +
+            "substring(cast(p.mainImage as String), 1, " + ProductImages.PREFIX_LENGTH + "), " +
+            "length(cast(p.mainImage as String)), " +
+            "a.sizeLabel, a.quantity) " +
+            "FROM CartItem c JOIN c.product p LEFT JOIN p.sizeAllocations a " +
+            "WHERE c.consumer.id = :consumerId ORDER BY c.createdAt DESC, c.id DESC")
+    List<CartRowDTO> findCartRows(@Param("consumerId") Long consumerId);
+
     @Modifying
     @Query("DELETE FROM CartItem c WHERE c.consumer.id = :consumerId")
     void deleteByConsumerId(@Param("consumerId") Long consumerId);
@@ -26,6 +37,18 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     List<CartItem> findByConsumerIdAndIds(@Param("consumerId") Long consumerId,
                                           @Param("itemIds") List<Long> itemIds);
 
+    @Modifying
+    @Query("UPDATE CartItem c SET c.quantity = :quantity, c.updatedAt = CURRENT_TIMESTAMP WHERE c.id = :id")
+    int updateQuantity(@Param("id") Long id, @Param("quantity") Integer quantity);
+
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.id IN :itemIds")
+    void deleteByIds(@Param("itemIds") List<Long> itemIds);
+
+    @Query("SELECT c FROM CartItem c JOIN FETCH c.product p LEFT JOIN FETCH p.supplier " +
+            "WHERE c.consumer.id = :consumerId AND c.id IN :itemIds")
+    List<CartItem> findForCheckout(@Param("consumerId") Long consumerId, @Param("itemIds") List<Long> itemIds);
+
     @Modifying
     @Query("DELETE FROM CartItem c WHERE c.consumer.id = :consumerId AND c.id IN :itemIds")
     void deleteByConsumerIdAndIds(@Param("consumerId") Long consumerId, @Param("itemIds") List<Long> itemIds);
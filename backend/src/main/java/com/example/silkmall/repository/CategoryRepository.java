@@ -1,9 +1,12 @@
 package com.example.silkmall.repository;
 
+import com.example.silkmall.dto.CategoryNodeDTO;
 import com.example.silkmall.dto.CategoryOptionDTO;
 import com.example.silkmall.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -17,4 +20,12 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     @Query("select new com.example.silkmall.dto.CategoryOptionDTO(c.id, c.name) " +
             "from Category c order by coalesce(c.sortOrder, 0), lower(coalesce(c.name, '')), c.id")
     List<CategoryOptionDTO> findAllOptions();
+
+    @Query("select new com.example.silkmall.dto.CategoryNodeDTO(c.id, c.name, c.description, c.sortOrder, c.icon, " +
+            "c.enabled, p.id, c.createdAt, c.updatedAt, c.lft, c.rgt) from Category c left join c.parent p")
+    List<CategoryNodeDTO> findAllNodes();
+
+    @Modifying
+    @Query("update Category c set c.lft = :lft, c.rgt = :rgt where c.id = :id")
+    int updateNestedSetBounds(@Param("id") Long id, @Param("lft") Integer lft, @Param("rgt") Integer rgt);
 }
@@ -0,0 +1,39 @@
+package com.example.silkmall.repository;
+
+import com.example.silkmall.entity.ConsumerOrderCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ConsumerOrderCountRepository extends JpaRepository<ConsumerOrderCount, ConsumerOrderCount.Key> {
+
+    List<ConsumerOrderCount> findByConsumerId(Long consumerId);
+
+    @Modifying
+    @Query("update ConsumerOrderCount c set c.orderCount = c.orderCount + :delta " +
+            "where c.consumerId = :consumerId and c.status = :status")
+    int applyDelta(@Param("consumerId") Long consumerId,
+                   @Param("status") String status,
+                   @Param("delta") long delta);
+
+    // 同一消费者的并发状态变更同时建行时，后到者忽略主键冲突，不会因此回滚订单
+    @Modifying
+    @Query(value = "insert ignore into consumer_order_counts (consumer_id, status, order_count) " +
+            "values (:consumerId, :status, 0)", nativeQuery = true)
+    int insertEmptyIfAbsent(@Param("consumerId") Long consumerId, @Param("status") String status);
+
+    @Modifying
+    @Query("insert into ConsumerOrderCount (consumerId, status, orderCount) " +
+            "select o.consumer.id, o.status, count(o) from Order o " +
+            "where o.consumer.id is not null and o.status is not null group by o.consumer.id, o.status")
+    int insertAllFromOrders();
+
+    @Modifying
+    @Query("delete from ConsumerOrderCount c")
+    int deleteAllDirectly();
+}
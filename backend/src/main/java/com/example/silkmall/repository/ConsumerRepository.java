@@ -3,9 +3,29 @@ package com.example.silkmall.repository;
 import com.example.silkmall.entity.Consumer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+
 @Repository
 public interface ConsumerRepository extends JpaRepository<Consumer, Long>,
         JpaSpecificationExecutor<Consumer>, BaseUserRepository<Consumer> {
+
+    // 余额为空时按默认的 1000 计算，与 WalletService 的处理保持一致；余额不足时不更新任何行
+    @Modifying
+    @Query("update Consumer c set c.walletBalance = coalesce(c.walletBalance, 1000) - :amount, " +
+            "c.updatedAt = current_timestamp " +
+            "where c.id = :id and coalesce(c.walletBalance, 1000) >= :amount")
+    int debitWallet(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("update Consumer c set c.walletBalance = coalesce(c.walletBalance, 1000) + :amount, " +
+            "c.updatedAt = current_timestamp where c.id = :id")
+    int creditWallet(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    @Query("select c.walletBalance from Consumer c where c.id = :id")
+    BigDecimal findWalletBalanceById(@Param("id") Long id);
 }
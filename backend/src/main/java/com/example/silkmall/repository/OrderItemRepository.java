@@ -1,12 +1,57 @@
 package com.example.silkmall.repository;
 
+import com.example.silkmall.common.ProductImages;
+import com.example.silkmall.dto.ConsumerOrderItemSummaryDTO;
+import com.example.silkmall.dto.SupplierOrderItemDTO;
 import com.example.silkmall.entity.OrderItem;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findByOrderId(Long orderId);
+
+    @Query("select new com.example.silkmall.dto.ConsumerOrderItemSummaryDTO(i.order.id, p.id, p.name, i.size, " +
+            "i.quantity, substring(cast(p.mainImage as String), 1, " + ProductImages.PREFIX_LENGTH + "), " +
+            "length(cast(p.mainImage as String))) " +
+            "from OrderItem i left join i.product p where i.order.id in :orderIds order by i.order.id, i.id")
+    List<ConsumerOrderItemSummaryDTO> findSummaryItemsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    // 同一订单的订单项下单时间相同，按 (订单, 下单时间) 分组即可按订单分页
+    @Query(value = "select i.order.id from OrderItem i where i.supplierId = :supplierId " +
+            "group by i.order.id, i.orderTime order by i.orderTime desc, i.order.id desc",
+            countQuery = "select count(distinct i.order.id) from OrderItem i where i.supplierId = :supplierId")
+    Page<Long> findOrderIdsBySupplierId(@Param("supplierId") Long supplierId, Pageable pageable);
+
+    @Query("select new com.example.silkmall.dto.SupplierOrderItemDTO(i.id, i.order.id, i.quantity, i.unitPrice, " +
+            "i.totalPrice, i.createdAt, p.id, p.name, " +
+            "substring(cast(p.mainImage as String), 1, " + ProductImages.PREFIX_LENGTH + "), " +
+            "length(cast(p.mainImage as String))) " +
+            "from OrderItem i left join i.product p " +
+            "where i.order.id in :orderIds and i.supplierId = :supplierId order by i.id")
+    List<SupplierOrderItemDTO> findSupplierLines(@Param("orderIds") Collection<Long> orderIds,
+                                                 @Param("supplierId") Long supplierId);
+
+    @Query("select distinct i.order.id from OrderItem i where i.order.id in :orderIds " +
+            "and i.supplierId is not null and i.supplierId <> :supplierId")
+    List<Long> findOrderIdsWithOtherSuppliers(@Param("orderIds") Collection<Long> orderIds,
+                                              @Param("supplierId") Long supplierId);
+
+    @Modifying
+    @Query("update OrderItem i set i.supplierId = " +
+            "(select p.supplier.id from Product p where p.id = i.product.id) where i.supplierId is null")
+    int backfillSupplierIds();
+
+    @Modifying
+    @Query("update OrderItem i set i.orderTime = " +
+            "(select o.orderTime from Order o where o.id = i.order.id) where i.orderTime is null")
+    int backfillOrderTimes();
 }
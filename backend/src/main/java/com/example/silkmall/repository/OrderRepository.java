@@ -1,12 +1,20 @@
 package com.example.silkmall.repository;
 
+import com.example.silkmall.dto.ConsumerOrderSummaryDTO;
+import com.example.silkmall.dto.SupplierOrderSummaryDTO;
 import com.example.silkmall.entity.Order;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +22,19 @@ import java.util.Optional;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Page<Order> findByConsumerId(Long consumerId, Pageable pageable);
+
+    @Query(value = "select new com.example.silkmall.dto.ConsumerOrderSummaryDTO(o.id, o.orderNo, o.totalAmount, " +
+            "o.totalQuantity, o.status, o.orderTime) from Order o where o.consumer.id = :consumerId",
+            countQuery = "select count(o) from Order o where o.consumer.id = :consumerId")
+    Page<ConsumerOrderSummaryDTO> findConsumerSummaries(@Param("consumerId") Long consumerId, Pageable pageable);
+
+    @Query(value = "select new com.example.silkmall.dto.ConsumerOrderSummaryDTO(o.id, o.orderNo, o.totalAmount, " +
+            "o.totalQuantity, o.status, o.orderTime) from Order o " +
+            "where o.consumer.id = :consumerId and o.status = :status",
+            countQuery = "select count(o) from Order o where o.consumer.id = :consumerId and o.status = :status")
+    Page<ConsumerOrderSummaryDTO> findConsumerSummariesByStatus(@Param("consumerId") Long consumerId,
+                                                                @Param("status") String status,
+                                                                Pageable pageable);
     Page<Order> findByStatus(String status, Pageable pageable);
     List<Order> findByOrderNo(String orderNo);
     List<Order> findByConsumerLookupId(String consumerLookupId);
@@ -21,8 +42,10 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @EntityGraph(attributePaths = {"orderItems", "orderItems.product", "orderItems.product.supplier", "managingAdmin"})
     Optional<Order> findDetailedById(Long id);
 
-    @EntityGraph(attributePaths = {"orderItems", "orderItems.product", "orderItems.product.supplier"})
-    Page<Order> findDistinctByOrderItems_Product_Supplier_Id(Long supplierId, Pageable pageable);
+    @Query("select new com.example.silkmall.dto.SupplierOrderSummaryDTO(o.id, o.orderNo, o.status, o.totalQuantity, " +
+            "o.totalAmount, o.recipientName, o.recipientPhone, o.shippingAddress, o.orderTime, o.paymentTime, " +
+            "o.shippingTime, o.deliveryTime, o.inTransitTime) from Order o where o.id in :ids")
+    List<SupplierOrderSummaryDTO> findSupplierSummariesByIds(@Param("ids") Collection<Long> ids);
 
     @EntityGraph(attributePaths = {"orderItems", "orderItems.product", "orderItems.product.supplier", "consumer", "managingAdmin"})
     Page<Order> findAllBy(Pageable pageable);
@@ -38,4 +61,55 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     @EntityGraph(attributePaths = {"orderItems", "orderItems.product", "orderItems.product.supplier", "consumer", "managingAdmin"})
     List<Order> findByOrderTimeBetween(Date start, Date end);
-}
\ No newline at end of file
+
+    // 仅当状态仍为 expected 时才切换，支付、取消与超时关闭之间靠它互斥
+    @Modifying
+    @Query("update Order o set o.status = :status where o.id = :id and o.status = :expected")
+    int updateStatusIfCurrent(@Param("id") Long id,
+                              @Param("expected") String expected,
+                              @Param("status") String status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Order> findLockedById(Long id);
+
+    // 自动确认收货的候选：送达已超过期限且没有进行中的退货，按主键分批推进
+    @Query("select o.id from Order o where o.status = :status and o.deliveryTime <= :deliveredBefore " +
+            "and o.id > :afterId and not exists (select r.id from ReturnRequest r " +
+            "where r.order = o and r.status in :returnStatuses) order by o.id")
+    List<Long> findIdsDeliveredBefore(@Param("status") String status,
+                                      @Param("deliveredBefore") Date deliveredBefore,
+                                      @Param("afterId") Long afterId,
+                                      @Param("returnStatuses") Collection<String> returnStatuses,
+                                      Pageable limit);
+
+    @Query("select o.id from Order o where o.status = :status and o.payoutStatus = :payoutStatus " +
+            "and o.consumerConfirmationTime is not null and o.id > :afterId and not exists (select r.id " +
+            "from ReturnRequest r where r.order = o and r.status in :returnStatuses) order by o.id")
+    List<Long> findIdsAwaitingPayout(@Param("status") String status,
+                                     @Param("payoutStatus") String payoutStatus,
+                                     @Param("afterId") Long afterId,
+                                     @Param("returnStatuses") Collection<String> returnStatuses,
+                                     Pageable limit);
+
+    // 加锁后重新校验条件，多个节点同时处理同一批订单时只有一个能拿到
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.id in :ids and o.status = :status " +
+            "and o.deliveryTime <= :deliveredBefore and not exists (select r.id from ReturnRequest r " +
+            "where r.order = o and r.status in :returnStatuses) order by o.id")
+    List<Order> lockDeliveredBefore(@Param("ids") Collection<Long> ids,
+                                    @Param("status") String status,
+                                    @Param("deliveredBefore") Date deliveredBefore,
+                                    @Param("returnStatuses") Collection<String> returnStatuses);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.id in :ids and o.status = :status and o.payoutStatus = :payoutStatus " +
+            "and o.consumerConfirmationTime is not null and not exists (select r.id from ReturnRequest r " +
+            "where r.order = o and r.status in :returnStatuses) order by o.id")
+    List<Order> lockAwaitingPayout(@Param("ids") Collection<Long> ids,
+                                   @Param("status") String status,
+                                   @Param("payoutStatus") String payoutStatus,
+                                   @Param("returnStatuses") Collection<String> returnStatuses);
+
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product", "orderItems.product.supplier", "managingAdmin"})
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+}
@@ -3,10 +3,12 @@ package com.example.silkmall.repository;
 import com.example.silkmall.entity.ProductImage;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProductImageRepository extends JpaRepository<ProductImage, Long> {
     List<ProductImage> findByProductId(Long productId);
+    List<ProductImage> findByProductIdIn(Collection<Long> productIds);
     void deleteByProductId(Long productId);
 }
\ No newline at end of file
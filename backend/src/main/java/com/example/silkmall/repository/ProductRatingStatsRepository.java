@@ -0,0 +1,49 @@
+package com.example.silkmall.repository;
+
+import com.example.silkmall.entity.ProductRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductRatingStatsRepository extends JpaRepository<ProductRatingStats, Long> {
+
+    @Modifying
+    @Query("update ProductRatingStats s set s.ratingCount = s.ratingCount + :countDelta, " +
+            "s.ratingSum = s.ratingSum + :sumDelta, " +
+            "s.oneStar = s.oneStar + :oneStar, s.twoStar = s.twoStar + :twoStar, " +
+            "s.threeStar = s.threeStar + :threeStar, s.fourStar = s.fourStar + :fourStar, " +
+            "s.fiveStar = s.fiveStar + :fiveStar " +
+            "where s.productId = :productId")
+    int applyDelta(@Param("productId") Long productId,
+                   @Param("countDelta") long countDelta,
+                   @Param("sumDelta") long sumDelta,
+                   @Param("oneStar") long oneStar,
+                   @Param("twoStar") long twoStar,
+                   @Param("threeStar") long threeStar,
+                   @Param("fourStar") long fourStar,
+                   @Param("fiveStar") long fiveStar);
+
+    // 并发的首条评价同时建行时，后到者忽略主键冲突，不会因此回滚评价
+    @Modifying
+    @Query(value = "insert ignore into product_rating_stats (product_id, rating_count, rating_sum, one_star, " +
+            "two_star, three_star, four_star, five_star) values (:productId, 0, 0, 0, 0, 0, 0, 0)",
+            nativeQuery = true)
+    int insertEmptyIfAbsent(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("insert into ProductRatingStats (productId, ratingCount, ratingSum, oneStar, twoStar, threeStar, " +
+            "fourStar, fiveStar) " +
+            "select r.product.id, count(r), coalesce(sum(r.rating), 0), " +
+            "sum(case when r.rating = 1 then 1 else 0 end), sum(case when r.rating = 2 then 1 else 0 end), " +
+            "sum(case when r.rating = 3 then 1 else 0 end), sum(case when r.rating = 4 then 1 else 0 end), " +
+            "sum(case when r.rating = 5 then 1 else 0 end) " +
+            "from ProductReview r where r.rating is not null group by r.product.id")
+    int insertAllFromReviews();
+
+    @Modifying
+    @Query("delete from ProductRatingStats s")
+    int deleteAllDirectly();
+}
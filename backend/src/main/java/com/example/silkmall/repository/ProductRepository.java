@@ -1,18 +1,47 @@
 package com.example.silkmall.repository;
 
+import com.example.silkmall.common.ProductImages;
+import com.example.silkmall.dto.CartProductRowDTO;
+import com.example.silkmall.dto.ProductCatalogEntryDTO;
+import com.example.silkmall.dto.ProductStatsEntryDTO;
 import com.example.silkmall.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
     Page<Product> findByStatus(String status, Pageable pageable);
+
+    /**
+     * Whole catalogue in id order, read through a server-side cursor. The caller must consume the stream
+     * inside a transaction and close it.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p left join fetch p.supplier left join fetch p.category order by p.id")
+    Stream<Product> streamCatalogue();
+
     Page<Product> findByCategoryId(Long categoryId, Pageable pageable);
+
+    @Query(value = "select p from Product p join p.category c where c.lft between :lft and :rgt",
+            countQuery = "select count(p) from Product p join p.category c where c.lft between :lft and :rgt")
+    Page<Product> findByCategoryTree(@Param("lft") Integer lft, @Param("rgt") Integer rgt, Pageable pageable);
     Page<Product> findBySupplierId(Long supplierId, Pageable pageable);
     List<Product> findTop10ByOrderBySalesDesc();
     List<Product> findTop8ByStatusOrderByCreatedAtDesc(String status);
@@ -27,4 +56,46 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
 
     @Query("select coalesce(sum(p.sales), 0) from Product p")
     Long sumSales();
-}
\ No newline at end of file
+
+    @Query("select new com.example.silkmall.dto.ProductCatalogEntryDTO(p.id, p.name, p.price, p.status, p.sales, " +
+            "c.id, c.name, s.id, s.companyName, s.supplierLevel) " +
+            "from Product p left join p.category c left join p.supplier s")
+    List<ProductCatalogEntryDTO> findCatalogEntries();
+
+    @Query("select new com.example.silkmall.dto.ProductCatalogEntryDTO(p.id, p.name, p.price, p.status, p.sales, " +
+            "c.id, c.name, s.id, s.companyName, s.supplierLevel) " +
+            "from Product p left join p.category c left join p.supplier s where p.id = :id")
+    Optional<ProductCatalogEntryDTO> findCatalogEntryById(@Param("id") Long id);
+
+    @Query("select new com.example.silkmall.dto.ProductStatsEntryDTO(p.id, s.id, p.status, p.stock, p.sales) " +
+            "from Product p left join p.supplier s")
+    List<ProductStatsEntryDTO> findStatsEntries();
+
+    @Query("select new com.example.silkmall.dto.ProductStatsEntryDTO(p.id, s.id, p.status, p.stock, p.sales) " +
+            "from Product p left join p.supplier s where p.id = :id")
+    Optional<ProductStatsEntryDTO> findStatsEntryById(@Param("id") Long id);
+
+    @Query("select new com.example.silkmall.dto.CartProductRowDTO(p.id, p.name, p.price, p.stock, p.status, " +
+            "substring(cast(p.mainImage as String), 1, " + ProductImages.PREFIX_LENGTH + "), " +
+            "length(cast(p.mainImage as String)), " +
+            "a.sizeLabel, a.quantity) " +
+            "from Product p left join p.sizeAllocations a where p.id = :id")
+    List<CartProductRowDTO> findCartProductRows(@Param("id") Long id);
+
+    @Query("select p.mainImage from Product p where p.id = :id")
+    Optional<String> findMainImageById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Product> findLockedById(Long id);
+
+    @Modifying
+    @Query("update Product p set p.stock = p.stock - :quantity where p.id = :id and p.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("update Product p set p.stock = p.stock + :delta where p.id = :id and p.stock + :delta >= 0")
+    int adjustStock(@Param("id") Long id, @Param("delta") int delta);
+
+    @Query("select p.id from Product p where lower(p.name) like :pattern or lower(p.description) like :pattern")
+    List<Long> findIdsByKeyword(@Param("pattern") String pattern);
+}
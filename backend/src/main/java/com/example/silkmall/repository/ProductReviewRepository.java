@@ -1,16 +1,47 @@
 package com.example.silkmall.repository;
 
+import com.example.silkmall.dto.ReviewFeedItemDTO;
 import com.example.silkmall.entity.ProductReview;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 
 @Repository
 public interface ProductReviewRepository extends JpaRepository<ProductReview, Long> {
+    String FEED_ITEM = "select new com.example.silkmall.dto.ReviewFeedItemDTO(r.id, r.product.id, r.consumer.id, "
+            + "r.rating, r.comment, r.authorName, r.authorRole, r.createdAt) from ProductReview r ";
+    String AFTER_CURSOR = " and (r.createdAt < :createdAt or (r.createdAt = :createdAt and r.id < :id))";
+    String NEWEST_FIRST = " order by r.createdAt desc, r.id desc";
+
     boolean existsByOrderItemId(Long orderItemId);
     List<ProductReview> findByProductIdOrderByCreatedAtDesc(Long productId);
     List<ProductReview> findByOrderId(Long orderId);
     boolean existsByOrderItemIdAndConsumer_Id(Long orderItemId, Long consumerId);
     List<ProductReview> findByConsumer_IdOrderByCreatedAtDesc(Long consumerId);
+
+    @Query(FEED_ITEM + "where r.product.id = :productId" + NEWEST_FIRST)
+    List<ReviewFeedItemDTO> findProductFeed(@Param("productId") Long productId, Pageable limit);
+
+    @Query(FEED_ITEM + "where r.product.id = :productId" + AFTER_CURSOR + NEWEST_FIRST)
+    List<ReviewFeedItemDTO> findProductFeedAfter(@Param("productId") Long productId,
+                                                 @Param("createdAt") Date createdAt,
+                                                 @Param("id") Long id,
+                                                 Pageable limit);
+
+    @Query(FEED_ITEM + "where r.consumer.id = :consumerId" + NEWEST_FIRST)
+    List<ReviewFeedItemDTO> findConsumerFeed(@Param("consumerId") Long consumerId, Pageable limit);
+
+    @Query(FEED_ITEM + "where r.consumer.id = :consumerId" + AFTER_CURSOR + NEWEST_FIRST)
+    List<ReviewFeedItemDTO> findConsumerFeedAfter(@Param("consumerId") Long consumerId,
+                                                  @Param("createdAt") Date createdAt,
+                                                  @Param("id") Long id,
+                                                  Pageable limit);
+
+    @Query(FEED_ITEM + "where r.order.id = :orderId" + NEWEST_FIRST)
+    List<ReviewFeedItemDTO> findOrderFeed(@Param("orderId") Long orderId);
 }
@@ -1,14 +1,43 @@
 package com.example.silkmall.repository;
 
+import com.example.silkmall.dto.SizeAllocationQuantityDTO;
 import com.example.silkmall.entity.ProductSizeAllocation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProductSizeAllocationRepository extends JpaRepository<ProductSizeAllocation, Long> {
     List<ProductSizeAllocation> findByProductId(Long productId);
+    List<ProductSizeAllocation> findByProductIdIn(Collection<Long> productIds);
     void deleteByProductId(Long productId);
+    boolean existsByProductId(Long productId);
     java.util.Optional<ProductSizeAllocation> findByProductIdAndSizeLabel(Long productId, String sizeLabel);
+
+    @Modifying
+    @Query("update ProductSizeAllocation a set a.quantity = a.quantity - :quantity " +
+            "where a.product.id = :productId and a.sizeLabel = :sizeLabel and a.quantity >= :quantity")
+    int decrementQuantity(@Param("productId") Long productId,
+                          @Param("sizeLabel") String sizeLabel,
+                          @Param("quantity") int quantity);
+
+    @Query("select new com.example.silkmall.dto.SizeAllocationQuantityDTO(a.id, a.sizeLabel, a.quantity) " +
+            "from ProductSizeAllocation a where a.product.id = :productId")
+    List<SizeAllocationQuantityDTO> findQuantitiesByProductId(@Param("productId") Long productId);
+
+    // 仅当库存仍为读取时的值才修改，避免覆盖并发下单的扣减
+    @Modifying
+    @Query("update ProductSizeAllocation a set a.quantity = :quantity where a.id = :id and a.quantity = :expected")
+    int updateQuantityIfUnchanged(@Param("id") Long id,
+                                  @Param("expected") int expected,
+                                  @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("delete from ProductSizeAllocation a where a.id = :id and a.quantity = :expected")
+    int deleteIfUnchanged(@Param("id") Long id, @Param("expected") int expected);
 }
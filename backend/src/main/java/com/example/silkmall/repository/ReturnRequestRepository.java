@@ -1,17 +1,80 @@
 package com.example.silkmall.repository;
 
+import com.example.silkmall.dto.StatusCountDTO;
 import com.example.silkmall.entity.ReturnRequest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * List and page loaders fetch the product (with its category and supplier) and the consumer in the same
+ * statement, since every listed return is rendered with them; order and order item are only needed by
+ * id and stay lazy.
+ */
 @Repository
 public interface ReturnRequestRepository extends JpaRepository<ReturnRequest, Long> {
     boolean existsByOrderItemIdAndStatusIn(Long orderItemId, Collection<String> statuses);
+
+    @EntityGraph(attributePaths = {"product", "product.category", "product.supplier", "consumer"})
     List<ReturnRequest> findByConsumerId(Long consumerId);
+
+    @EntityGraph(attributePaths = {"product", "product.category", "product.supplier", "consumer"})
     List<ReturnRequest> findByOrderId(Long orderId);
+
+    @EntityGraph(attributePaths = {"product", "product.category", "product.supplier", "consumer"})
     List<ReturnRequest> findByProduct_Supplier_Id(Long supplierId);
+
+    @EntityGraph(attributePaths = {"product", "product.category", "product.supplier", "consumer"})
     List<ReturnRequest> findByAfterReceiptTrueOrderByRequestedAtDesc();
+
+    @EntityGraph(attributePaths = {"product", "product.category", "product.supplier", "consumer"})
+    List<ReturnRequest> findByAfterReceiptTrueAndStatusOrderByRequestedAtDesc(String status);
+
+    @EntityGraph(attributePaths = {"product", "product.category", "product.supplier", "consumer"})
+    Page<ReturnRequest> findByAfterReceiptTrue(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"product", "product.category", "product.supplier", "consumer"})
+    Page<ReturnRequest> findByAfterReceiptTrueAndStatus(String status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"product", "product.category", "product.supplier", "consumer"})
+    Page<ReturnRequest> findByProduct_Supplier_Id(Long supplierId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"product", "product.category", "product.supplier", "consumer"})
+    Page<ReturnRequest> findByProduct_Supplier_IdAndStatus(Long supplierId, String status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"product", "product.category", "product.supplier", "consumer"})
+    Page<ReturnRequest> findByConsumerId(Long consumerId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"product", "product.category", "product.supplier", "consumer"})
+    Page<ReturnRequest> findByConsumerIdAndStatus(Long consumerId, String status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"order", "order.consumer", "order.managingAdmin", "orderItem",
+            "product", "product.category", "product.supplier", "consumer"})
+    @Query("SELECT r FROM ReturnRequest r WHERE r.id = :id")
+    Optional<ReturnRequest> findDetailedById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"order", "order.consumer", "order.managingAdmin", "orderItem",
+            "product", "product.category", "product.supplier", "consumer"})
+    @Query("SELECT r FROM ReturnRequest r WHERE r.id IN :ids")
+    List<ReturnRequest> findDetailedByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.silkmall.dto.StatusCountDTO(r.status, COUNT(r)) FROM ReturnRequest r " +
+            "WHERE r.afterReceipt = true GROUP BY r.status")
+    List<StatusCountDTO> countAfterReceiptByStatus();
+
+    @Query("SELECT new com.example.silkmall.dto.StatusCountDTO(r.status, COUNT(r)) FROM ReturnRequest r " +
+            "WHERE r.product.supplier.id = :supplierId GROUP BY r.status")
+    List<StatusCountDTO> countBySupplierGroupByStatus(@Param("supplierId") Long supplierId);
+
+    @Query("SELECT new com.example.silkmall.dto.StatusCountDTO(r.status, COUNT(r)) FROM ReturnRequest r " +
+            "WHERE r.consumer.id = :consumerId GROUP BY r.status")
+    List<StatusCountDTO> countByConsumerGroupByStatus(@Param("consumerId") Long consumerId);
 }
@@ -1,9 +1,14 @@
 package com.example.silkmall.repository;
 
 import com.example.silkmall.entity.Supplier;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,4 +16,8 @@ public interface SupplierRepository extends JpaRepository<Supplier, Long>,
         JpaSpecificationExecutor<Supplier>, BaseUserRepository<Supplier> {
     List<Supplier> findByStatus(String status);
     List<Supplier> findBySupplierLevel(String level);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Supplier s WHERE s.id IN :ids ORDER BY s.id")
+    List<Supplier> lockAllById(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
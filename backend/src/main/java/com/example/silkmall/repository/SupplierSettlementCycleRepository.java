@@ -0,0 +1,9 @@
+package com.example.silkmall.repository;
+
+import com.example.silkmall.entity.SupplierSettlementCycle;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SupplierSettlementCycleRepository extends JpaRepository<SupplierSettlementCycle, Long> {
+}
@@ -0,0 +1,45 @@
+package com.example.silkmall.repository;
+
+import com.example.silkmall.dto.SettlementTotalsDTO;
+import com.example.silkmall.entity.SupplierSettlementLine;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SupplierSettlementLineRepository extends JpaRepository<SupplierSettlementLine, Long> {
+    Page<SupplierSettlementLine> findBySupplierIdAndCycleId(Long supplierId, Long cycleId, Pageable pageable);
+
+    Page<SupplierSettlementLine> findBySupplierIdAndCycleIdIsNull(Long supplierId, Pageable pageable);
+
+    @Query("SELECT DISTINCT l.supplierId FROM SupplierSettlementLine l " +
+            "WHERE l.cycleId IS NULL AND l.supplierId > :afterId ORDER BY l.supplierId")
+    List<Long> findUnsettledSupplierIds(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SupplierSettlementLine l SET l.cycleId = :cycleId " +
+            "WHERE l.cycleId IS NULL AND l.supplierId IN :supplierIds")
+    int assignCycle(@Param("supplierIds") Collection<Long> supplierIds, @Param("cycleId") Long cycleId);
+
+    @Query("SELECT new com.example.silkmall.dto.SettlementTotalsDTO(l.supplierId, " +
+            "SUM(CASE WHEN l.amount > 0 THEN l.amount ELSE 0 END), " +
+            "SUM(CASE WHEN l.amount < 0 THEN l.amount ELSE 0 END), " +
+            "COUNT(l), MIN(l.createdAt), MAX(l.createdAt)) FROM SupplierSettlementLine l " +
+            "WHERE l.cycleId = :cycleId AND l.supplierId IN :supplierIds GROUP BY l.supplierId")
+    List<SettlementTotalsDTO> sumByCycle(@Param("supplierIds") Collection<Long> supplierIds,
+                                         @Param("cycleId") Long cycleId);
+
+    @Query("SELECT new com.example.silkmall.dto.SettlementTotalsDTO(l.supplierId, " +
+            "SUM(CASE WHEN l.amount > 0 THEN l.amount ELSE 0 END), " +
+            "SUM(CASE WHEN l.amount < 0 THEN l.amount ELSE 0 END), " +
+            "COUNT(l), MIN(l.createdAt), MAX(l.createdAt)) FROM SupplierSettlementLine l " +
+            "WHERE l.cycleId IS NULL AND l.supplierId IN :supplierIds GROUP BY l.supplierId")
+    List<SettlementTotalsDTO> sumUnsettled(@Param("supplierIds") Collection<Long> supplierIds);
+}
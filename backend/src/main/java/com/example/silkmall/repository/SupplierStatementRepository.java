@@ -0,0 +1,16 @@
+package com.example.silkmall.repository;
+
+import com.example.silkmall.entity.SupplierStatement;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SupplierStatementRepository extends JpaRepository<SupplierStatement, Long> {
+    Page<SupplierStatement> findBySupplierId(Long supplierId, Pageable pageable);
+
+    Optional<SupplierStatement> findByIdAndSupplierId(Long id, Long supplierId);
+}
@@ -0,0 +1,14 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.dto.CartCheckoutResultDTO;
+
+import java.util.List;
+import java.util.Map;
+
+public interface CartCheckoutService {
+    CartCheckoutResultDTO checkout(Long consumerId,
+                                   List<Long> itemIds,
+                                   Map<Long, String> sizes,
+                                   Long addressId,
+                                   String paymentMethod);
+}
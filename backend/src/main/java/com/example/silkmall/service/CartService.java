@@ -1,21 +1,22 @@
 package com.example.silkmall.service;
 
+import com.example.silkmall.dto.CartItemDTO;
 import com.example.silkmall.entity.CartItem;
 
 import java.util.List;
 
 public interface CartService extends BaseService<CartItem, Long> {
-    List<CartItem> getCartItems(Long consumerId);
+    List<CartItemDTO> getCartItems(Long consumerId);
 
-    CartItem addItem(Long consumerId, Long productId, int quantity);
+    CartItemDTO addItem(Long consumerId, Long productId, int quantity);
 
-    CartItem updateQuantity(Long consumerId, Long itemId, int quantity);
+    CartItemDTO updateQuantity(Long consumerId, Long itemId, int quantity);
 
     void removeItem(Long consumerId, Long itemId);
 
     void clearCart(Long consumerId);
 
-    List<CartItem> findItems(Long consumerId, List<Long> itemIds);
-
     void removeItems(Long consumerId, List<Long> itemIds);
+
+    void flush(Long consumerId);
 }
@@ -1,16 +1,21 @@
 package com.example.silkmall.service;
 
+import com.example.silkmall.dto.CategoryNodeDTO;
 import com.example.silkmall.dto.CategoryOptionDTO;
 import com.example.silkmall.entity.Category;
 import java.util.List;
+import java.util.Optional;
 
 public interface CategoryService extends BaseService<Category, Long> {
-    List<Category> findEnabledCategories();
-    List<Category> findByParentId(Long parentId);
+    List<CategoryNodeDTO> findAllNodes();
+    Optional<CategoryNodeDTO> findNodeById(Long id);
+    List<CategoryNodeDTO> findEnabledCategories();
+    List<CategoryNodeDTO> findByParentId(Long parentId);
     boolean existsByName(String name);
     boolean existsByNameExcludingId(String name, Long id);
     void enableCategory(Long id);
     void disableCategory(Long id);
-    List<Category> findRootCategories();
+    List<CategoryNodeDTO> findRootCategories();
     List<CategoryOptionDTO> findAllOptions();
-}
\ No newline at end of file
+    void rebuildNestedSet();
+}
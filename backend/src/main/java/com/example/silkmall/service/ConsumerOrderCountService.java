@@ -0,0 +1,12 @@
+package com.example.silkmall.service;
+
+import java.util.Map;
+
+public interface ConsumerOrderCountService {
+    Map<String, Long> countByStatus(Long consumerId);
+    void recordCreated(Long consumerId, String status);
+    void recordCreated(Long consumerId, String status, int count);
+    void recordTransition(Long consumerId, String previousStatus, String status);
+    void recordRemoved(Long consumerId, String status);
+    void rebuild();
+}
@@ -0,0 +1,24 @@
+package com.example.silkmall.service;
+
+import java.util.Date;
+
+public interface OrderExpiryService {
+
+    /**
+     * Starts the payment deadline of an order placed at {@code orderTime}. Safe to call inside a transaction:
+     * the order is only tracked once it has committed.
+     */
+    void track(Long orderId, Date orderTime);
+
+    /**
+     * Reloads the deadlines of every order still waiting for payment, including orders placed on other
+     * nodes, and returns how many were added.
+     */
+    int rebuild();
+
+    /**
+     * Cancels the orders whose payment deadline has passed, releasing their stock, and returns how many
+     * this node cancelled.
+     */
+    int expireDue();
+}
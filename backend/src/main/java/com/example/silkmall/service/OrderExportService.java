@@ -0,0 +1,17 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.common.DataFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface OrderExportService {
+
+    /**
+     * Writes every order placed between {@code from} and {@code to} (inclusive) together with its items,
+     * commission and per-supplier payout split. Rows are read through a forward-only cursor and written
+     * one order at a time, so memory does not grow with the date range.
+     */
+    void exportOrders(LocalDate from, LocalDate to, DataFormat format, OutputStream output) throws IOException;
+}
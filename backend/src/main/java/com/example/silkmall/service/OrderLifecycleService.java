@@ -0,0 +1,17 @@
+package com.example.silkmall.service;
+
+public interface OrderLifecycleService {
+
+    /**
+     * Confirms receipt of every order delivered more than {@code order.lifecycle.auto-confirm-days} ago
+     * that the consumer has not confirmed and has no open return, settling its payout. Returns how many
+     * orders were confirmed.
+     */
+    int autoConfirmReceipts();
+
+    /**
+     * Settles every pending payout of a confirmed order without an open return. Returns how many payouts
+     * were settled.
+     */
+    int finalizePendingPayouts();
+}
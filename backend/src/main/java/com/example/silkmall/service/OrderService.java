@@ -1,15 +1,21 @@
 package com.example.silkmall.service;
 
 import com.example.silkmall.entity.Order;
+import com.example.silkmall.dto.ConsumerOrderSummaryDTO;
+import com.example.silkmall.dto.SupplierOrderSummaryDTO;
 import com.example.silkmall.dto.WeeklySalesReportDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 public interface OrderService extends BaseService<Order, Long> {
     Page<Order> findByConsumerId(Long consumerId, Pageable pageable);
+    Page<ConsumerOrderSummaryDTO> findConsumerSummaries(Long consumerId, String status, Pageable pageable);
+    Map<String, Long> countConsumerOrders(Long consumerId);
     Page<Order> findByStatus(String status, Pageable pageable);
-    Page<Order> findBySupplierId(Long supplierId, Pageable pageable);
+    Page<SupplierOrderSummaryDTO> findSupplierOrders(Long supplierId, Pageable pageable);
     List<Order> findByOrderNo(String orderNo);
     List<Order> findByConsumerLookupId(String lookupId);
     Page<Order> findAllForAdmin(Boolean consumerConfirmed, String orderNo, Pageable pageable);
@@ -23,6 +29,19 @@ public interface OrderService extends BaseService<Order, Long> {
     void markInTransit(Long id);
     void confirmReceipt(Long id);
     void approvePayout(Long id);
+
+    /**
+     * Confirms receipt on behalf of the consumer for those of {@code orderIds} still awaiting receipt since
+     * before {@code deliveredBefore} and without an open return, and settles their pending payouts.
+     * Returns how many orders were confirmed.
+     */
+    int autoConfirmReceipts(List<Long> orderIds, Date deliveredBefore);
+
+    /**
+     * Settles the pending payouts of those of {@code orderIds} the consumer has confirmed and that have no
+     * open return. Returns how many payouts were settled.
+     */
+    int finalizePayouts(List<Long> orderIds);
     Order findOrderDetail(Long id);
     Order updateContactInfo(Long id, String shippingAddress, String recipientName, String recipientPhone);
     WeeklySalesReportDTO getWeeklySalesReport(int weeks);
@@ -0,0 +1,18 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.dto.ProductFacetsDTO;
+
+import java.math.BigDecimal;
+
+public interface ProductFacetService {
+    ProductFacetsDTO countFacets(String keyword,
+                                 Long categoryId,
+                                 Long supplierId,
+                                 BigDecimal minPrice,
+                                 BigDecimal maxPrice,
+                                 String status);
+    void rebuild();
+    void refreshProduct(Long productId);
+    void refreshCategory(Long categoryId, String name);
+    void refreshSupplier(Long supplierId, String supplierLevel);
+}
@@ -0,0 +1,18 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.common.DataFormat;
+import com.example.silkmall.dto.ProductImportResultDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ProductImportService {
+
+    /**
+     * Creates products for {@code supplierId} from a CSV or NDJSON upload. Columns / fields:
+     * {@code name, description, price, unit, stock, status, category, sizes, images, mainImage}; CSV cells
+     * encode sizes as {@code S:10;M:5} and images as {@code url1|url2}. Rows are read as a stream and
+     * committed in chunks, so a bad row is reported without rejecting the rest of the file.
+     */
+    ProductImportResultDTO importProducts(Long supplierId, DataFormat format, InputStream input) throws IOException;
+}
@@ -0,0 +1,15 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.dto.ProductRatingDTO;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ProductRatingService {
+    ProductRatingDTO getRating(Long productId);
+    Map<Long, ProductRatingDTO> getRatings(Collection<Long> productIds);
+    void recordAdded(Long productId, int rating);
+    void recordChanged(Long productId, int previousRating, int rating);
+    void recordRemoved(Long productId, int rating);
+    void rebuild();
+}
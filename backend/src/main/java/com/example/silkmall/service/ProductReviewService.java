@@ -1,5 +1,7 @@
 package com.example.silkmall.service;
 
+import com.example.silkmall.dto.CursorPageDTO;
+import com.example.silkmall.dto.ReviewFeedItemDTO;
 import com.example.silkmall.entity.ProductReview;
 import com.example.silkmall.security.CustomUserDetails;
 
@@ -13,4 +15,7 @@ public interface ProductReviewService extends BaseService<ProductReview, Long> {
     List<ProductReview> findByProductId(Long productId);
     List<ProductReview> findByOrderId(Long orderId);
     List<ProductReview> findByConsumerId(Long consumerId);
+    CursorPageDTO<ReviewFeedItemDTO> findProductFeed(Long productId, String cursor, int size);
+    CursorPageDTO<ReviewFeedItemDTO> findConsumerFeed(Long consumerId, String cursor, int size);
+    List<ReviewFeedItemDTO> findOrderFeed(Long orderId);
 }
@@ -6,6 +6,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ProductService extends BaseService<Product, Long> {
     Page<Product> findByStatus(String status, Pageable pageable);
@@ -28,5 +30,14 @@ public interface ProductService extends BaseService<Product, Long> {
     void putProductOnSale(Long id);
     void takeProductOffSale(Long id);
     ProductOverviewDTO getProductOverview();
+    ProductOverviewDTO getSupplierProductOverview(Long supplierId);
     Product withSizeAllocations(Product product);
+
+    /**
+     * Reads the whole catalogue through a cursor and hands it to {@code chunkConsumer} in chunks of
+     * {@code chunkSize} products, with size allocations and images filled in. Products are detached once the
+     * consumer returns, so only one chunk is held in memory at a time.
+     */
+    void streamCatalogue(int chunkSize, Consumer<List<Product>> chunkConsumer);
+    Optional<String> findMainImage(Long id);
 }
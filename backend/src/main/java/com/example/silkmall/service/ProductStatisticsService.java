@@ -0,0 +1,10 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.dto.ProductOverviewDTO;
+
+public interface ProductStatisticsService {
+    ProductOverviewDTO getOverview();
+    ProductOverviewDTO getSupplierOverview(Long supplierId);
+    void refreshProduct(Long productId);
+    void reconcile();
+}
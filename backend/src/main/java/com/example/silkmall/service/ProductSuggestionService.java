@@ -0,0 +1,13 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.dto.ProductSuggestionDTO;
+
+import java.util.List;
+
+public interface ProductSuggestionService {
+    List<ProductSuggestionDTO> suggest(String prefix, int limit);
+    void rebuild();
+    void refreshProduct(Long productId);
+    void refreshCategory(Long categoryId);
+    void refreshSupplier(Long supplierId, String companyName);
+}
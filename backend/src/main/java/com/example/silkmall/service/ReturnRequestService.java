@@ -1,15 +1,26 @@
 package com.example.silkmall.service;
 
+import com.example.silkmall.dto.BulkReturnResultDTO;
 import com.example.silkmall.entity.ReturnRequest;
 import com.example.silkmall.security.CustomUserDetails;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
 
 public interface ReturnRequestService extends BaseService<ReturnRequest, Long> {
     ReturnRequest createReturnRequest(Long orderItemId, ReturnRequest request);
     ReturnRequest processReturnRequest(Long id, String status, String resolution, String adminResolution, CustomUserDetails actor);
+    BulkReturnResultDTO processReturnRequests(List<Long> ids, String status, String resolution, String adminResolution, CustomUserDetails actor);
     List<ReturnRequest> findByConsumerId(Long consumerId);
     List<ReturnRequest> findByOrderId(Long orderId);
     List<ReturnRequest> findBySupplierId(Long supplierId);
     List<ReturnRequest> findAdminQueue(String statusFilter);
+    Page<ReturnRequest> findAdminQueue(String statusFilter, Pageable pageable);
+    Page<ReturnRequest> findBySupplierId(Long supplierId, String status, Pageable pageable);
+    Page<ReturnRequest> findByConsumerId(Long consumerId, String status, Pageable pageable);
+    Map<String, Long> countAdminQueue();
+    Map<String, Long> countBySupplierId(Long supplierId);
+    Map<String, Long> countByConsumerId(Long consumerId);
 }
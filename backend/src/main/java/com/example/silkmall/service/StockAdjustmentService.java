@@ -0,0 +1,18 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.dto.BulkStockResultDTO;
+import com.example.silkmall.dto.StockAdjustmentDTO;
+
+import java.util.List;
+
+public interface StockAdjustmentService {
+
+    /**
+     * Applies a batch of {@code (productId, size, delta)} adjustments in one transaction. Each line is a
+     * conditional update that never takes a size below zero, and {@code Product.stock} of every touched
+     * product is recomputed from its size allocations. Lines that fail are reported and skipped.
+     *
+     * @param supplierId when not {@code null}, only products of this supplier may be adjusted
+     */
+    BulkStockResultDTO adjustStock(List<StockAdjustmentDTO> adjustments, Long supplierId);
+}
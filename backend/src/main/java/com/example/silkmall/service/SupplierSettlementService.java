@@ -0,0 +1,41 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.entity.SupplierSettlementCycle;
+import com.example.silkmall.entity.SupplierSettlementLine;
+import com.example.silkmall.entity.SupplierStatement;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface SupplierSettlementService {
+
+    /**
+     * Records one settlement line per supplier of {@code amounts}. Positive amounts are owed to the
+     * supplier, negative amounts are taken back; zero amounts are skipped. The wallets are not touched
+     * until the next settlement cycle.
+     */
+    List<SupplierSettlementLine> record(String type, Long orderId, Long returnRequestId, Map<Long, BigDecimal> amounts);
+
+    /**
+     * Net amount of the unsettled lines of each of {@code supplierIds}; suppliers without unsettled lines
+     * are left out.
+     */
+    Map<Long, BigDecimal> unsettledTotals(Collection<Long> supplierIds);
+
+    /**
+     * Settles every unsettled line: each supplier's lines are netted, its wallet is updated once and a
+     * statement is written for the cycle. Returns the cycle, or {@code null} when there was nothing to
+     * settle.
+     */
+    SupplierSettlementCycle runCycle();
+
+    Page<SupplierStatement> findStatements(Long supplierId, Pageable pageable);
+
+    Page<SupplierSettlementLine> findStatementLines(Long supplierId, Long statementId, Pageable pageable);
+
+    Page<SupplierSettlementLine> findPendingLines(Long supplierId, Pageable pageable);
+}
@@ -0,0 +1,255 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.common.OrderNumbers;
+import com.example.silkmall.common.PayoutStatuses;
+import com.example.silkmall.dto.CartCheckoutResultDTO;
+import com.example.silkmall.entity.Admin;
+import com.example.silkmall.entity.CartItem;
+import com.example.silkmall.entity.Consumer;
+import com.example.silkmall.entity.ConsumerAddress;
+import com.example.silkmall.entity.Order;
+import com.example.silkmall.entity.OrderItem;
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.repository.AdminRepository;
+import com.example.silkmall.repository.CartItemRepository;
+import com.example.silkmall.repository.ConsumerAddressRepository;
+import com.example.silkmall.repository.ConsumerRepository;
+import com.example.silkmall.repository.OrderRepository;
+import com.example.silkmall.repository.ProductRepository;
+import com.example.silkmall.repository.ProductSizeAllocationRepository;
+import com.example.silkmall.service.CartCheckoutService;
+import com.example.silkmall.service.ConsumerOrderCountService;
+import com.example.silkmall.service.ProductStatisticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.example.silkmall.common.OrderStatuses.PENDING_SHIPMENT;
+
+/**
+ * Turns selected cart items into paid orders, one per supplier, inside a single transaction. The cart
+ * rows are loaded together with their products and suppliers in one query; stock (and size stock when
+ * a size is chosen) is taken with conditional decrements, the consumer wallet is debited once for the
+ * whole checkout and the managing admin credited once, and the cart rows are removed with one bulk
+ * delete. Any shortfall rolls the whole checkout back.
+ */
+@Service
+public class CartCheckoutServiceImpl implements CartCheckoutService {
+
+    private static final String DEFAULT_PAYMENT_METHOD = "WALLET";
+
+    private final CartItemRepository cartItemRepository;
+    private final ProductRepository productRepository;
+    private final ProductSizeAllocationRepository productSizeAllocationRepository;
+    private final ConsumerRepository consumerRepository;
+    private final ConsumerAddressRepository consumerAddressRepository;
+    private final AdminRepository adminRepository;
+    private final OrderRepository orderRepository;
+    private final ProductStatisticsService productStatisticsService;
+    private final CartStore cartStore;
+    private final ConsumerOrderCountService consumerOrderCountService;
+    private final OrderNumbers orderNumbers;
+
+    @Autowired
+    public CartCheckoutServiceImpl(CartItemRepository cartItemRepository,
+                                   ProductRepository productRepository,
+                                   ProductSizeAllocationRepository productSizeAllocationRepository,
+                                   ConsumerRepository consumerRepository,
+                                   ConsumerAddressRepository consumerAddressRepository,
+                                   AdminRepository adminRepository,
+                                   OrderRepository orderRepository,
+                                   ProductStatisticsService productStatisticsService,
+                                   CartStore cartStore,
+                                   ConsumerOrderCountService consumerOrderCountService,
+                                   OrderNumbers orderNumbers) {
+        this.cartItemRepository = cartItemRepository;
+        this.productRepository = productRepository;
+        this.productSizeAllocationRepository = productSizeAllocationRepository;
+        this.consumerRepository = consumerRepository;
+        this.consumerAddressRepository = consumerAddressRepository;
+        this.adminRepository = adminRepository;
+        this.orderRepository = orderRepository;
+        this.productStatisticsService = productStatisticsService;
+        this.cartStore = cartStore;
+        this.consumerOrderCountService = consumerOrderCountService;
+        this.orderNumbers = orderNumbers;
+    }
+
+    @Transactional
+    @Override
+    public CartCheckoutResultDTO checkout(Long consumerId,
+                                          List<Long> itemIds,
+                                          Map<Long, String> sizes,
+                                          Long addressId,
+                                          String paymentMethod) {
+        if (itemIds == null || itemIds.isEmpty()) {
+            throw new RuntimeException("请勾选需要结算的商品");
+        }
+        // 先把购物车中尚未落库的修改写入，结算读取的才是最新数量
+        cartStore.flush(consumerId);
+        List<CartItem> items = cartItemRepository.findForCheckout(consumerId, itemIds);
+        if (items.isEmpty()) {
+            throw new RuntimeException("未找到需要结算的购物车商品");
+        }
+
+        // 按尺码管理的商品必须指定已有尺码，否则只扣总库存会与尺码合计脱节
+        Map<Long, Set<String>> sizeLabels = new HashMap<>();
+        productSizeAllocationRepository.findByProductIdIn(
+                        items.stream().map(item -> item.getProduct().getId()).collect(Collectors.toSet()))
+                .forEach(allocation -> sizeLabels.computeIfAbsent(allocation.getProduct().getId(),
+                        id -> new HashSet<>()).add(allocation.getSizeLabel()));
+
+        Map<Long, List<CartItem>> itemsBySupplier = new LinkedHashMap<>();
+        Map<Long, Integer> productQuantities = new LinkedHashMap<>();
+        Map<String, Integer> sizeQuantities = new LinkedHashMap<>();
+        for (CartItem item : items) {
+            Product product = item.getProduct();
+            int quantity = item.getQuantity() == null ? 0 : item.getQuantity();
+            if (quantity <= 0) {
+                throw new RuntimeException("购物车商品数量无效");
+            }
+            if (!"ON_SALE".equalsIgnoreCase(product.getStatus())) {
+                throw new RuntimeException("商品\"" + product.getName() + "\"已下架，无法结算");
+            }
+            Long supplierId = product.getSupplier() == null ? null : product.getSupplier().getId();
+            itemsBySupplier.computeIfAbsent(supplierId, id -> new ArrayList<>()).add(item);
+            productQuantities.merge(product.getId(), quantity, Integer::sum);
+            String size = sizeOf(sizes, item);
+            Set<String> labels = sizeLabels.getOrDefault(product.getId(), Collections.emptySet());
+            if (size == null && !labels.isEmpty()) {
+                throw new RuntimeException("该商品按尺码管理库存，请指定尺码");
+            }
+            if (size != null && !labels.contains(size)) {
+                throw new RuntimeException("尺码" + size + "不存在");
+            }
+            if (size != null) {
+                sizeQuantities.merge(product.getId() + "\u0000" + size, quantity, Integer::sum);
+            }
+        }
+
+        // 条件扣减：库存不足时影响行数为 0，整个结算回滚
+        for (CartItem item : items) {
+            Product product = item.getProduct();
+            Integer quantity = productQuantities.remove(product.getId());
+            if (quantity != null && productRepository.decrementStock(product.getId(), quantity) == 0) {
+                throw new RuntimeException("商品\"" + product.getName() + "\"库存不足");
+            }
+            String size = sizeOf(sizes, item);
+            Integer sizeQuantity = size == null ? null : sizeQuantities.remove(product.getId() + "\u0000" + size);
+            if (sizeQuantity != null
+                    && productSizeAllocationRepository.decrementQuantity(product.getId(), size, sizeQuantity) == 0) {
+                throw new RuntimeException("商品\"" + product.getName() + "\"尺码" + size + "库存不足");
+            }
+        }
+
+        Consumer consumer = consumerRepository.getReferenceById(consumerId);
+        ConsumerAddress address = resolveAddress(consumerId, addressId);
+        Admin admin = adminRepository.findTopByOrderByIdAsc()
+                .orElseThrow(() -> new RuntimeException("系统未配置管理员，无法处理资金"));
+        String method = paymentMethod == null || paymentMethod.isBlank() ? DEFAULT_PAYMENT_METHOD : paymentMethod.trim();
+        String lookupId = orderNumbers.nextConsumerLookupId();
+        Date now = new Date();
+
+        List<Order> orders = new ArrayList<>(itemsBySupplier.size());
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (List<CartItem> supplierItems : itemsBySupplier.values()) {
+            Order order = newPaidOrder(consumer, admin, address, method, lookupId, now);
+            List<OrderItem> orderItems = new ArrayList<>(supplierItems.size());
+            BigDecimal orderAmount = BigDecimal.ZERO;
+            int orderQuantity = 0;
+            for (CartItem cartItem : supplierItems) {
+                Product product = cartItem.getProduct();
+                BigDecimal unitPrice = product.getPrice() == null ? BigDecimal.ZERO : product.getPrice();
+                OrderItem orderItem = new OrderItem();
+                orderItem.setOrder(order);
+                orderItem.setProduct(product);
+                orderItem.setQuantity(cartItem.getQuantity());
+                orderItem.setSize(sizeOf(sizes, cartItem));
+                orderItem.setUnitPrice(unitPrice);
+                orderItem.setTotalPrice(unitPrice.multiply(BigDecimal.valueOf(cartItem.getQuantity())));
+                orderItems.add(orderItem);
+                orderAmount = orderAmount.add(orderItem.getTotalPrice());
+                orderQuantity += cartItem.getQuantity();
+            }
+            orderAmount = orderAmount.setScale(2, RoundingMode.HALF_UP);
+            order.setOrderItems(orderItems);
+            order.setTotalAmount(orderAmount);
+            order.setTotalQuantity(orderQuantity);
+            order.setAdminHoldingAmount(orderAmount);
+            orders.add(order);
+            totalAmount = totalAmount.add(orderAmount);
+        }
+
+        if (totalAmount.compareTo(BigDecimal.ZERO) > 0) {
+            if (consumerRepository.debitWallet(consumerId, totalAmount) == 0) {
+                throw new RuntimeException("余额不足，请先充值或减少结算商品");
+            }
+            adminRepository.creditWallet(admin.getId(), totalAmount);
+        }
+
+        List<Order> persisted = orderRepository.saveAll(orders);
+        consumerOrderCountService.recordCreated(consumerId, PENDING_SHIPMENT, persisted.size());
+        cartItemRepository.deleteByConsumerIdAndIds(consumerId, itemIds);
+        cartStore.invalidate(consumerId);
+        items.forEach(item -> productStatisticsService.refreshProduct(item.getProduct().getId()));
+
+        CartCheckoutResultDTO result = new CartCheckoutResultDTO();
+        result.setPaidAmount(totalAmount);
+        result.setBalance(consumerRepository.findWalletBalanceById(consumerId));
+        result.setRemovedCount(items.size());
+        for (Order order : persisted) {
+            result.getOrderIds().add(order.getId());
+            result.getOrderNos().add(order.getOrderNo());
+        }
+        return result;
+    }
+
+    private Order newPaidOrder(Consumer consumer, Admin admin, ConsumerAddress address,
+                               String paymentMethod, String lookupId, Date paymentTime) {
+        Order order = new Order();
+        order.setOrderNo(orderNumbers.nextOrderNo());
+        order.setConsumerLookupId(lookupId);
+        order.setConsumer(consumer);
+        order.setManagingAdmin(admin);
+        order.setStatus(PENDING_SHIPMENT);
+        order.setPayoutStatus(PayoutStatuses.PENDING);
+        order.setPaymentMethod(paymentMethod);
+        order.setPaymentTime(paymentTime);
+        if (address != null) {
+            order.setShippingAddress(address.getShippingAddress());
+            order.setRecipientName(address.getRecipientName());
+            order.setRecipientPhone(address.getRecipientPhone());
+        }
+        return order;
+    }
+
+    private ConsumerAddress resolveAddress(Long consumerId, Long addressId) {
+        if (addressId != null) {
+            return consumerAddressRepository.findByIdAndConsumerId(addressId, consumerId)
+                    .orElseThrow(() -> new RuntimeException("收货地址不存在"));
+        }
+        return consumerAddressRepository.findFirstByConsumerIdOrderByIsDefaultDescUpdatedAtDesc(consumerId)
+                .orElse(null);
+    }
+
+    private static String sizeOf(Map<Long, String> sizes, CartItem item) {
+        if (sizes == null) {
+            return null;
+        }
+        String size = sizes.get(item.getId());
+        return size == null || size.isBlank() ? null : size.trim();
+    }
+}
@@ -1,139 +1,96 @@
 package com.example.silkmall.service.impl;
 
+import com.example.silkmall.dto.CartItemDTO;
+import com.example.silkmall.dto.CartProductViewDTO;
 import com.example.silkmall.entity.CartItem;
-import com.example.silkmall.entity.Consumer;
-import com.example.silkmall.entity.Product;
 import com.example.silkmall.repository.CartItemRepository;
-import com.example.silkmall.repository.ConsumerRepository;
-import com.example.silkmall.repository.ProductRepository;
 import com.example.silkmall.service.CartService;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 
+/**
+ * Cart operations served from the write-behind {@link CartStore}; edits are memory operations and
+ * reach {@code cart_items} on the store's next flush.
+ */
 @Service
 public class CartServiceImpl extends BaseServiceImpl<CartItem, Long> implements CartService {
 
-    private final CartItemRepository cartItemRepository;
-    private final ConsumerRepository consumerRepository;
-    private final ProductRepository productRepository;
+    private final CartStore cartStore;
 
-    public CartServiceImpl(CartItemRepository cartItemRepository,
-                           ConsumerRepository consumerRepository,
-                           ProductRepository productRepository) {
+    public CartServiceImpl(CartItemRepository cartItemRepository, CartStore cartStore) {
         super(cartItemRepository);
-        this.cartItemRepository = cartItemRepository;
-        this.consumerRepository = consumerRepository;
-        this.productRepository = productRepository;
+        this.cartStore = cartStore;
     }
 
     @Override
-    public List<CartItem> getCartItems(Long consumerId) {
-        return cartItemRepository.findByConsumerIdOrderByCreatedAtDesc(consumerId);
+    public List<CartItemDTO> getCartItems(Long consumerId) {
+        return cartStore.lines(consumerId).stream()
+                .map(this::toDto)
+                .toList();
     }
 
     @Override
-    @Transactional
-    public CartItem addItem(Long consumerId, Long productId, int quantity) {
-        if (quantity <= 0) {
-            throw new RuntimeException("加入购物车的数量必须大于0");
-        }
-
-        Consumer consumer = consumerRepository.findById(consumerId)
-                .orElseThrow(() -> new RuntimeException("消费者不存在"));
-
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("商品不存在"));
-
-        if (!"ON_SALE".equalsIgnoreCase(product.getStatus())) {
-            throw new RuntimeException("该商品暂不可加入购物车");
-        }
-
-        Integer stock = product.getStock();
-        if (stock == null || stock <= 0) {
-            throw new RuntimeException("商品库存不足");
-        }
-
-        CartItem item = cartItemRepository.findByConsumerIdAndProductId(consumerId, productId)
-                .orElse(null);
-
-        int baseQuantity = item != null && item.getQuantity() != null ? item.getQuantity() : 0;
-        int newQuantity = baseQuantity + quantity;
-        if (newQuantity > stock) {
-            throw new RuntimeException("商品库存不足");
-        }
-
-        if (item == null) {
-            item = new CartItem();
-            item.setConsumer(consumer);
-            item.setProduct(product);
-        }
-
-        item.setQuantity(newQuantity);
-        return cartItemRepository.save(item);
+    public CartItemDTO addItem(Long consumerId, Long productId, int quantity) {
+        return toDto(cartStore.add(consumerId, productId, quantity));
     }
 
     @Override
-    @Transactional
-    public CartItem updateQuantity(Long consumerId, Long itemId, int quantity) {
-        CartItem item = cartItemRepository.findById(itemId)
-                .orElseThrow(() -> new RuntimeException("购物车商品不存在"));
-
-        if (!item.getConsumer().getId().equals(consumerId)) {
-            throw new RuntimeException("无权操作该购物车商品");
-        }
-
-        if (quantity <= 0) {
-            cartItemRepository.delete(item);
-            return null;
-        }
-
-        Product product = productRepository.findById(item.getProduct().getId())
-                .orElseThrow(() -> new RuntimeException("商品不存在"));
-
-        Integer stock = product.getStock();
-        if (stock == null || quantity > stock) {
-            throw new RuntimeException("商品库存不足");
-        }
-
-        item.setQuantity(quantity);
-        return cartItemRepository.save(item);
+    public CartItemDTO updateQuantity(Long consumerId, Long itemId, int quantity) {
+        CartStore.CartLine line = cartStore.update(consumerId, itemId, quantity);
+        return line == null ? null : toDto(line);
     }
 
     @Override
-    @Transactional
     public void removeItem(Long consumerId, Long itemId) {
-        CartItem item = cartItemRepository.findById(itemId)
-                .orElseThrow(() -> new RuntimeException("购物车商品不存在"));
-
-        if (!item.getConsumer().getId().equals(consumerId)) {
-            throw new RuntimeException("无权操作该购物车商品");
-        }
-
-        cartItemRepository.delete(item);
+        cartStore.remove(consumerId, List.of(itemId));
     }
 
     @Override
-    @Transactional
     public void clearCart(Long consumerId) {
-        cartItemRepository.deleteByConsumerId(consumerId);
+        cartStore.clear(consumerId);
     }
 
     @Override
-    public List<CartItem> findItems(Long consumerId, List<Long> itemIds) {
+    public void removeItems(Long consumerId, List<Long> itemIds) {
         if (itemIds == null || itemIds.isEmpty()) {
-            return List.of();
+            return;
         }
-        return cartItemRepository.findByConsumerIdAndIds(consumerId, itemIds);
+        cartStore.remove(consumerId, itemIds);
     }
 
     @Override
-    @Transactional
-    public void removeItems(Long consumerId, List<Long> itemIds) {
-        if (itemIds == null || itemIds.isEmpty()) {
-            return;
+    public void flush(Long consumerId) {
+        cartStore.flush(consumerId);
+    }
+
+    private CartItemDTO toDto(CartStore.CartLine line) {
+        CartItemDTO dto = new CartItemDTO();
+        dto.setId(line.itemId());
+        dto.setQuantity(line.quantity());
+
+        CartProductViewDTO product = line.product();
+        BigDecimal unitPrice = product != null && product.getPrice() != null
+                ? product.getPrice()
+                : BigDecimal.ZERO;
+        dto.setUnitPrice(unitPrice);
+        dto.setSubtotal(unitPrice.multiply(BigDecimal.valueOf(line.quantity())));
+        if (line.addedAt() != null) {
+            dto.setAddedAt(line.addedAt().toInstant().toString());
+        }
+
+        CartItemDTO.ProductInfo productInfo = new CartItemDTO.ProductInfo();
+        productInfo.setId(line.productId());
+        if (product != null) {
+            productInfo.setName(product.getName());
+            productInfo.setMainImage(product.getThumbnail());
+            productInfo.setPrice(unitPrice);
+            productInfo.setStatus(product.getStatus());
+            productInfo.setStock(product.getStock());
+            productInfo.setSizeQuantities(product.getSizeQuantities());
         }
-        cartItemRepository.deleteByConsumerIdAndIds(consumerId, itemIds);
+        dto.setProduct(productInfo);
+        return dto;
     }
 }
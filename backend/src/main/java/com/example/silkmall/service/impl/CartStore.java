@@ -0,0 +1,504 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.common.ProductImages;
+import com.example.silkmall.common.TransactionCallbacks;
+import com.example.silkmall.dto.CartProductRowDTO;
+import com.example.silkmall.dto.CartProductViewDTO;
+import com.example.silkmall.dto.CartRowDTO;
+import com.example.silkmall.entity.CartItem;
+import com.example.silkmall.repository.CartItemRepository;
+import com.example.silkmall.repository.ConsumerRepository;
+import com.example.silkmall.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Write-behind store of shopping carts. Each consumer's cart is held in memory as an aggregate keyed
+ * by product, inside an LRU bounded by {@code cart.store.max-consumers}; quantity edits and removals
+ * only change the aggregate and mark it dirty, so a burst of edits to one line is coalesced into a
+ * single UPDATE by the next flush. Dirty carts are flushed every {@code cart.store.flush-interval-ms}
+ * and on demand before checkout; a dirty cart pushed out of the LRU is parked until it is flushed.
+ *
+ * <p>Adding a product that is not in the cart yet inserts its row immediately, because clients address
+ * cart lines by row id. Edits are validated against a short-lived cache of product price, stock and
+ * status; checkout re-checks stock with conditional updates, so a stale cache can never oversell.
+ * A cart and its products are loaded with one join query, which also refreshes the product cache
+ * whenever a listed product has expired.</p>
+ *
+ * <p>A cart leaves the store closed: it is flushed first when it still has edits, and any caller still
+ * holding it re-fetches the cart instead of editing an object nobody will flush again.</p>
+ *
+ * <p>The store assumes a single application node. Carts are cached per node, so a second node would
+ * serve and overwrite stale carts; a multi-node deployment needs sticky routing by consumer or a
+ * shared store instead.</p>
+ */
+@Component
+public class CartStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CartStore.class);
+
+    private final CartItemRepository cartItemRepository;
+    private final ConsumerRepository consumerRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long productTtlMillis;
+
+    private final Map<Long, Cart> carts;
+    private final Map<Long, Cart> evictedDirty = new ConcurrentHashMap<>();
+    private final Map<Long, CachedProduct> products;
+
+    public CartStore(CartItemRepository cartItemRepository,
+                     ConsumerRepository consumerRepository,
+                     ProductRepository productRepository,
+                     PlatformTransactionManager transactionManager,
+                     @Value("${cart.store.max-consumers:10000}") int maxConsumers,
+                     @Value("${cart.store.max-products:5000}") int maxProducts,
+                     @Value("${cart.store.product-ttl-ms:30000}") long productTtlMillis) {
+        this.cartItemRepository = cartItemRepository;
+        this.consumerRepository = consumerRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.productTtlMillis = productTtlMillis;
+        this.carts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Cart> eldest) {
+                if (size() <= maxConsumers) {
+                    return false;
+                }
+                Cart cart = eldest.getValue();
+                synchronized (cart) {
+                    // 有未落库修改的购物车暂存到刷新为止，干净的购物车直接关闭
+                    if (cart.dirty) {
+                        evictedDirty.put(eldest.getKey(), cart);
+                    } else {
+                        cart.closed = true;
+                    }
+                }
+                return true;
+            }
+        };
+        this.products = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedProduct> eldest) {
+                return size() > maxProducts;
+            }
+        };
+    }
+
+    public record CartLine(Long itemId, Long productId, int quantity, Date addedAt, CartProductViewDTO product) {
+    }
+
+    public List<CartLine> lines(Long consumerId) {
+        List<Line> live = withCart(consumerId, cart -> {
+            List<Line> copies = new ArrayList<>();
+            for (Line line : cart.lines.values()) {
+                if (!line.removed) {
+                    copies.add(line.copy());
+                }
+            }
+            return copies;
+        });
+        live.sort(Comparator.comparing((Line line) -> line.addedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+
+        Map<Long, CartProductViewDTO> views = new HashMap<>();
+        boolean stale = false;
+        for (Line line : live) {
+            CartProductViewDTO view = cachedProduct(line.productId);
+            if (view == null) {
+                stale = true;
+                break;
+            }
+            views.put(line.productId, view);
+        }
+        if (stale) {
+            // 任一商品缓存过期时，用一条连接查询刷新整车商品，而不是逐个商品查询
+            views = cacheProducts(cartItemRepository.findCartRows(consumerId));
+        }
+
+        List<CartLine> result = new ArrayList<>(live.size());
+        for (Line line : live) {
+            result.add(toCartLine(line, views.get(line.productId)));
+        }
+        return result;
+    }
+
+    public CartLine add(Long consumerId, Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new RuntimeException("加入购物车的数量必须大于0");
+        }
+        CartProductViewDTO product = product(productId)
+                .orElseThrow(() -> new RuntimeException("商品不存在"));
+        if (!"ON_SALE".equalsIgnoreCase(product.getStatus())) {
+            throw new RuntimeException("该商品暂不可加入购物车");
+        }
+        int stock = product.getStock() == null ? 0 : product.getStock();
+        if (stock <= 0) {
+            throw new RuntimeException("商品库存不足");
+        }
+
+        return withCart(consumerId, cart -> {
+            Line line = cart.lines.get(productId);
+            int baseQuantity = line != null && !line.removed ? line.quantity : 0;
+            int newQuantity = baseQuantity + quantity;
+            if (newQuantity > stock) {
+                throw new RuntimeException("商品库存不足");
+            }
+            if (line == null) {
+                CartItem inserted = insert(consumerId, productId, newQuantity);
+                line = new Line(inserted.getId(), productId, newQuantity, inserted.getCreatedAt());
+                cart.lines.put(productId, line);
+            } else {
+                line.removed = false;
+                line.quantity = newQuantity;
+                cart.dirty = true;
+            }
+            return toCartLine(line.copy(), product);
+        });
+    }
+
+    /**
+     * @return the updated line, or {@code null} when a non-positive quantity removed it
+     */
+    public CartLine update(Long consumerId, Long itemId, int quantity) {
+        if (quantity <= 0) {
+            withCart(consumerId, cart -> {
+                find(cart, itemId).removed = true;
+                cart.dirty = true;
+                return null;
+            });
+            return null;
+        }
+        Long productId = withCart(consumerId, cart -> find(cart, itemId).productId);
+
+        CartProductViewDTO product = product(productId)
+                .orElseThrow(() -> new RuntimeException("商品不存在"));
+        if (product.getStock() == null || quantity > product.getStock()) {
+            throw new RuntimeException("商品库存不足");
+        }
+        return withCart(consumerId, cart -> {
+            Line line = find(cart, itemId);
+            line.quantity = quantity;
+            cart.dirty = true;
+            return toCartLine(line.copy(), product);
+        });
+    }
+
+    public void remove(Long consumerId, List<Long> itemIds) {
+        withCart(consumerId, cart -> {
+            for (Long itemId : itemIds) {
+                find(cart, itemId).removed = true;
+            }
+            cart.dirty = true;
+            return null;
+        });
+    }
+
+    public void clear(Long consumerId) {
+        withCart(consumerId, cart -> {
+            cart.lines.values().forEach(line -> line.removed = true);
+            cart.dirty = true;
+            return null;
+        });
+    }
+
+    /**
+     * Writes the consumer's pending edits in their own transaction, so a checkout that reads
+     * {@code cart_items} right afterwards sees them even if the checkout itself rolls back.
+     */
+    public void flush(Long consumerId) {
+        Cart cart;
+        synchronized (carts) {
+            cart = carts.get(consumerId);
+        }
+        if (cart == null) {
+            cart = evictedDirty.get(consumerId);
+        }
+        if (cart != null) {
+            flush(cart);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval-ms:2000}")
+    public void flushDirty() {
+        List<Cart> dirty = new ArrayList<>();
+        synchronized (carts) {
+            for (Cart cart : carts.values()) {
+                if (cart.dirty) {
+                    dirty.add(cart);
+                }
+            }
+        }
+        dirty.addAll(evictedDirty.values());
+        for (Cart cart : dirty) {
+            try {
+                flush(cart);
+            } catch (RuntimeException ex) {
+                log.warn("Failed to flush cart of consumer {}, will retry", cart.consumerId, ex);
+            }
+        }
+    }
+
+    /**
+     * Drops the consumer's cached cart after the current transaction commits, for writers that change
+     * {@code cart_items} directly; the next access reloads it. Edits made to the cart meanwhile are
+     * flushed first.
+     */
+    public void invalidate(Long consumerId) {
+        TransactionCallbacks.afterCommit(() -> {
+            Cart cart;
+            synchronized (carts) {
+                cart = carts.get(consumerId);
+            }
+            if (cart == null) {
+                cart = evictedDirty.get(consumerId);
+            }
+            if (cart == null) {
+                return;
+            }
+            synchronized (cart) {
+                try {
+                    flush(cart);
+                } catch (RuntimeException ex) {
+                    log.warn("Failed to flush cart of consumer {} before reloading it", consumerId, ex);
+                }
+                cart.closed = true;
+            }
+            discard(consumerId, cart);
+        });
+    }
+
+    public void evictProduct(Long productId) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (products) {
+                products.remove(productId);
+            }
+        });
+    }
+
+    private void flush(Cart cart) {
+        synchronized (cart) {
+            if (!cart.dirty) {
+                return;
+            }
+            List<Long> deletes = new ArrayList<>(cart.orphanIds);
+            Map<Long, Integer> updates = new HashMap<>();
+            for (Line line : cart.lines.values()) {
+                if (line.removed) {
+                    deletes.add(line.itemId);
+                } else if (line.quantity != line.persistedQuantity) {
+                    updates.put(line.itemId, line.quantity);
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!deletes.isEmpty()) {
+                    cartItemRepository.deleteByIds(deletes);
+                }
+                updates.forEach(cartItemRepository::updateQuantity);
+            });
+            cart.lines.values().removeIf(line -> line.removed);
+            cart.lines.values().forEach(line -> line.persistedQuantity = line.quantity);
+            cart.orphanIds.clear();
+            cart.dirty = false;
+            // 暂存的购物车刷新后关闭；若已被重新取回则不在暂存中，继续使用
+            if (evictedDirty.remove(cart.consumerId, cart)) {
+                cart.closed = true;
+            }
+        }
+    }
+
+    /**
+     * Runs {@code action} on the consumer's cart under its lock, fetching the cart again when the one
+     * found was closed by eviction or invalidation in the meantime.
+     */
+    private <T> T withCart(Long consumerId, Function<Cart, T> action) {
+        while (true) {
+            Cart cart = cart(consumerId);
+            synchronized (cart) {
+                if (!cart.closed) {
+                    return action.apply(cart);
+                }
+            }
+            discard(consumerId, cart);
+        }
+    }
+
+    private void discard(Long consumerId, Cart cart) {
+        synchronized (carts) {
+            carts.remove(consumerId, cart);
+        }
+        evictedDirty.remove(consumerId, cart);
+    }
+
+    private Cart cart(Long consumerId) {
+        synchronized (carts) {
+            Cart cached = carts.get(consumerId);
+            if (cached == null) {
+                cached = evictedDirty.remove(consumerId);
+                if (cached != null) {
+                    carts.put(consumerId, cached);
+                }
+            }
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Cart loaded = load(consumerId);
+        synchronized (carts) {
+            Cart raced = carts.get(consumerId);
+            if (raced != null) {
+                return raced;
+            }
+            carts.put(consumerId, loaded);
+            return loaded;
+        }
+    }
+
+    private Cart load(Long consumerId) {
+        Cart cart = new Cart(consumerId);
+        List<CartRowDTO> rows = cartItemRepository.findCartRows(consumerId);
+        Set<Long> seenItems = new HashSet<>();
+        for (CartRowDTO row : rows) {
+            if (!seenItems.add(row.getItemId())) {
+                continue;
+            }
+            Long productId = row.getProductId();
+            int quantity = row.getQuantity() == null ? 0 : row.getQuantity();
+            Line existing = cart.lines.get(productId);
+            if (existing == null) {
+                cart.lines.put(productId, new Line(row.getItemId(), productId, quantity, row.getAddedAt()));
+            } else {
+                // 历史数据中同一商品可能有多行，合并到一行并在下次刷新时删除多余的行
+                existing.quantity += quantity;
+                cart.orphanIds.add(row.getItemId());
+                cart.dirty = true;
+            }
+        }
+        cacheProducts(rows);
+        return cart;
+    }
+
+    private CartItem insert(Long consumerId, Long productId, int quantity) {
+        return transactionTemplate.execute(status -> {
+            CartItem item = new CartItem();
+            item.setConsumer(consumerRepository.getReferenceById(consumerId));
+            item.setProduct(productRepository.getReferenceById(productId));
+            item.setQuantity(quantity);
+            return cartItemRepository.save(item);
+        });
+    }
+
+    private Optional<CartProductViewDTO> product(Long productId) {
+        CartProductViewDTO cached = cachedProduct(productId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return Optional.ofNullable(cacheProducts(productRepository.findCartProductRows(productId)).get(productId));
+    }
+
+    private CartProductViewDTO cachedProduct(Long productId) {
+        synchronized (products) {
+            CachedProduct cached = products.get(productId);
+            if (cached != null && System.currentTimeMillis() - cached.loadedAt < productTtlMillis) {
+                return cached.view;
+            }
+            return null;
+        }
+    }
+
+    private Map<Long, CartProductViewDTO> cacheProducts(List<? extends CartProductRowDTO> rows) {
+        Map<Long, CartProductViewDTO> views = new LinkedHashMap<>();
+        for (CartProductRowDTO row : rows) {
+            CartProductViewDTO view = views.computeIfAbsent(row.getProductId(), id -> {
+                CartProductViewDTO created = new CartProductViewDTO();
+                created.setId(id);
+                created.setName(row.getName());
+                created.setPrice(row.getPrice());
+                created.setStock(row.getStock());
+                created.setStatus(row.getStatus());
+                created.setThumbnail(ProductImages.reference(id, row.getImagePrefix(), row.getImageLength()));
+                return created;
+            });
+            if (row.getSizeLabel() != null) {
+                view.getSizeQuantities().put(row.getSizeLabel(),
+                        row.getSizeQuantity() == null ? 0 : row.getSizeQuantity());
+            }
+        }
+        long now = System.currentTimeMillis();
+        synchronized (products) {
+            views.forEach((id, view) -> products.put(id, new CachedProduct(view, now)));
+        }
+        return views;
+    }
+
+    private static CartLine toCartLine(Line line, CartProductViewDTO product) {
+        return new CartLine(line.itemId, line.productId, line.quantity, line.addedAt, product);
+    }
+
+    private static Line find(Cart cart, Long itemId) {
+        for (Line line : cart.lines.values()) {
+            if (!line.removed && line.itemId.equals(itemId)) {
+                return line;
+            }
+        }
+        throw new RuntimeException("购物车商品不存在");
+    }
+
+    private record CachedProduct(CartProductViewDTO view, long loadedAt) {
+    }
+
+    private static final class Cart {
+        private final Long consumerId;
+        private final Map<Long, Line> lines = new LinkedHashMap<>();
+        private final List<Long> orphanIds = new ArrayList<>();
+        private volatile boolean dirty;
+        private boolean closed;
+
+        private Cart(Long consumerId) {
+            this.consumerId = consumerId;
+        }
+    }
+
+    private static final class Line {
+        private final Long itemId;
+        private final Long productId;
+        private final Date addedAt;
+        private int quantity;
+        private int persistedQuantity;
+        private boolean removed;
+
+        private Line(Long itemId, Long productId, int quantity, Date addedAt) {
+            this.itemId = itemId;
+            this.productId = productId;
+            this.quantity = quantity;
+            this.persistedQuantity = quantity;
+            this.addedAt = addedAt;
+        }
+
+        private Line copy() {
+            Line copy = new Line(itemId, productId, quantity, addedAt);
+            copy.persistedQuantity = persistedQuantity;
+            copy.removed = removed;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.dto.CategoryNodeDTO;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes nested-set bounds for the category hierarchy. A depth-first walk gives every category a
+ * {@code lft} on the way down and a {@code rgt} on the way back up, so the whole subtree of a category
+ * is exactly the set of categories whose {@code lft} lies in its {@code [lft, rgt]} interval.
+ *
+ * <p>Siblings are visited in id order: a newly created category is always the last child of its
+ * parent, so an insert only shifts the bounds of categories to its right.</p>
+ */
+final class CategoryNestedSet {
+
+    record Bounds(int lft, int rgt) {
+    }
+
+    private CategoryNestedSet() {
+    }
+
+    static Map<Long, Bounds> number(Collection<CategoryNodeDTO> nodes) {
+        List<CategoryNodeDTO> ordered = new ArrayList<>(nodes);
+        ordered.sort(Comparator.comparing(CategoryNodeDTO::getId));
+
+        Map<Long, CategoryNodeDTO> byId = new LinkedHashMap<>();
+        ordered.forEach(node -> byId.put(node.getId(), node));
+        Map<Long, List<CategoryNodeDTO>> children = new HashMap<>();
+        List<CategoryNodeDTO> roots = new ArrayList<>();
+        for (CategoryNodeDTO node : ordered) {
+            Long parentId = node.getParentId();
+            if (parentId == null || !byId.containsKey(parentId)) {
+                roots.add(node);
+            } else {
+                children.computeIfAbsent(parentId, id -> new ArrayList<>()).add(node);
+            }
+        }
+
+        Map<Long, Bounds> bounds = new HashMap<>();
+        int[] counter = {1};
+        roots.forEach(root -> walk(root, children, bounds, counter));
+        // 父子关系成环的分类不可能从根节点到达，把它们当作独立的根补齐编号
+        for (CategoryNodeDTO node : ordered) {
+            if (!bounds.containsKey(node.getId())) {
+                walk(node, children, bounds, counter);
+            }
+        }
+        return bounds;
+    }
+
+    private static void walk(CategoryNodeDTO root,
+                             Map<Long, List<CategoryNodeDTO>> children,
+                             Map<Long, Bounds> bounds,
+                             int[] counter) {
+        Deque<Frame> stack = new ArrayDeque<>();
+        Map<Long, Integer> opened = new HashMap<>();
+        opened.put(root.getId(), counter[0]++);
+        stack.push(new Frame(root, children.getOrDefault(root.getId(), List.of()).iterator()));
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+            if (frame.children.hasNext()) {
+                CategoryNodeDTO child = frame.children.next();
+                if (bounds.containsKey(child.getId()) || opened.containsKey(child.getId())) {
+                    continue;
+                }
+                opened.put(child.getId(), counter[0]++);
+                stack.push(new Frame(child, children.getOrDefault(child.getId(), List.of()).iterator()));
+            } else {
+                stack.pop();
+                Long id = frame.node.getId();
+                bounds.put(id, new Bounds(opened.get(id), counter[0]++));
+            }
+        }
+    }
+
+    private record Frame(CategoryNodeDTO node, Iterator<CategoryNodeDTO> children) {
+    }
+}
@@ -1,31 +1,84 @@
 package com.example.silkmall.service.impl;
 
+import com.example.silkmall.dto.CategoryNodeDTO;
 import com.example.silkmall.dto.CategoryOptionDTO;
 import com.example.silkmall.entity.Category;
 import com.example.silkmall.repository.CategoryRepository;
 import com.example.silkmall.service.CategoryService;
+import com.example.silkmall.service.ProductFacetService;
+import com.example.silkmall.service.ProductSuggestionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
 public class CategoryServiceImpl extends BaseServiceImpl<Category, Long> implements CategoryService {
+    private static final Logger log = LoggerFactory.getLogger(CategoryServiceImpl.class);
+
     private final CategoryRepository categoryRepository;
+    private final ProductSuggestionService productSuggestionService;
+    private final ProductFacetService productFacetService;
+    private final CategoryTreeCache categoryTreeCache;
     
     @Autowired
-    public CategoryServiceImpl(CategoryRepository categoryRepository) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository,
+                               ProductSuggestionService productSuggestionService,
+                               ProductFacetService productFacetService,
+                               CategoryTreeCache categoryTreeCache) {
         super(categoryRepository);
         this.categoryRepository = categoryRepository;
+        this.productSuggestionService = productSuggestionService;
+        this.productFacetService = productFacetService;
+        this.categoryTreeCache = categoryTreeCache;
+    }
+
+    @Transactional
+    @Override
+    public Category save(Category category) {
+        Category saved = super.save(category);
+        renumberTree();
+        categoryTreeCache.invalidate();
+        productSuggestionService.refreshCategory(saved.getId());
+        productFacetService.refreshCategory(saved.getId(), saved.getName());
+        return saved;
+    }
+
+    @Transactional
+    @Override
+    public void deleteById(Long id) {
+        super.deleteById(id);
+        renumberTree();
+        categoryTreeCache.invalidate();
+        productSuggestionService.refreshCategory(id);
+        productFacetService.refreshCategory(id, null);
+    }
+
+    @Override
+    public List<CategoryNodeDTO> findAllNodes() {
+        return categoryTreeCache.all();
+    }
+
+    @Override
+    public Optional<CategoryNodeDTO> findNodeById(Long id) {
+        return categoryTreeCache.find(id);
     }
     
     @Override
-    public List<Category> findEnabledCategories() {
-        return categoryRepository.findByEnabledTrue();
+    public List<CategoryNodeDTO> findEnabledCategories() {
+        return categoryTreeCache.enabled();
     }
     
     @Override
-    public List<Category> findByParentId(Long parentId) {
-        return categoryRepository.findByParentId(parentId);
+    public List<CategoryNodeDTO> findByParentId(Long parentId) {
+        return categoryTreeCache.children(parentId);
     }
     
     @Override
@@ -45,6 +98,8 @@ public class CategoryServiceImpl extends BaseServiceImpl<Category, Long> impleme
 
         category.setEnabled(true);
         categoryRepository.save(category);
+        categoryTreeCache.invalidate();
+        productSuggestionService.refreshCategory(id);
     }
     
     @Override
@@ -54,15 +109,44 @@ public class CategoryServiceImpl extends BaseServiceImpl<Category, Long> impleme
         
         category.setEnabled(false);
         categoryRepository.save(category);
+        categoryTreeCache.invalidate();
+        productSuggestionService.refreshCategory(id);
     }
     
     @Override
-    public List<Category> findRootCategories() {
-        return findByParentId(null);
+    public List<CategoryNodeDTO> findRootCategories() {
+        return categoryTreeCache.roots();
     }
 
     @Override
     public List<CategoryOptionDTO> findAllOptions() {
-        return categoryRepository.findAllOptions();
+        return categoryTreeCache.options();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    @Override
+    public void rebuildNestedSet() {
+        int updated = renumberTree();
+        if (updated > 0) {
+            categoryTreeCache.invalidate();
+            log.info("Renumbered nested-set bounds of {} categories", updated);
+        }
+    }
+
+    // 重新计算整棵分类树的 lft/rgt，只更新编号发生变化的分类
+    private int renumberTree() {
+        List<CategoryNodeDTO> nodes = categoryRepository.findAllNodes();
+        Map<Long, CategoryNestedSet.Bounds> bounds = CategoryNestedSet.number(nodes);
+        int updated = 0;
+        for (CategoryNodeDTO node : nodes) {
+            CategoryNestedSet.Bounds target = bounds.get(node.getId());
+            if (Objects.equals(node.getLft(), target.lft()) && Objects.equals(node.getRgt(), target.rgt())) {
+                continue;
+            }
+            categoryRepository.updateNestedSetBounds(node.getId(), target.lft(), target.rgt());
+            updated++;
+        }
+        return updated;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,220 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.common.TransactionCallbacks;
+import com.example.silkmall.dto.CategoryNodeDTO;
+import com.example.silkmall.dto.CategoryOptionDTO;
+import com.example.silkmall.repository.CategoryRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copy of the whole category tree. A single query loads every category as a flat
+ * projection; the tree (children, depth, ancestor path) is assembled once and published as an
+ * unmodifiable snapshot that serves all category read endpoints. Any category write invalidates the
+ * snapshot after commit and the next read reloads it.
+ */
+@Component
+public class CategoryTreeCache {
+
+    private static final Comparator<CategoryNodeDTO> DISPLAY_ORDER = Comparator
+            .comparingInt((CategoryNodeDTO node) -> node.getSortOrder() == null ? 0 : node.getSortOrder())
+            .thenComparing(node -> node.getName() == null ? "" : node.getName().toLowerCase(Locale.ROOT))
+            .thenComparing(CategoryNodeDTO::getId);
+
+    private final CategoryRepository categoryRepository;
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public CategoryTreeCache(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    public List<CategoryNodeDTO> all() {
+        return current().all;
+    }
+
+    public List<CategoryNodeDTO> enabled() {
+        return current().enabled;
+    }
+
+    public List<CategoryNodeDTO> roots() {
+        return current().roots;
+    }
+
+    public List<CategoryNodeDTO> children(Long parentId) {
+        if (parentId == null) {
+            return roots();
+        }
+        return current().children.getOrDefault(parentId, List.of());
+    }
+
+    public Optional<CategoryNodeDTO> find(Long id) {
+        return Optional.ofNullable(current().byId.get(id));
+    }
+
+    /**
+     * Ids of the category and all of its descendants, or an empty list if the category is unknown.
+     */
+    public List<Long> subtreeIds(Long id) {
+        Snapshot current = current();
+        if (id == null || !current.byId.containsKey(id)) {
+            return List.of();
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        Deque<Long> pending = new ArrayDeque<>();
+        pending.push(id);
+        while (!pending.isEmpty()) {
+            Long next = pending.pop();
+            if (!ids.add(next)) {
+                continue;
+            }
+            current.children.getOrDefault(next, List.of()).forEach(child -> pending.push(child.getId()));
+        }
+        return List.copyOf(ids);
+    }
+
+    /**
+     * Resolves a category by name or by its full path ({@code "父分类 / 子分类"}), ignoring case and
+     * surrounding spaces. A name shared by several categories only resolves through its path.
+     */
+    public Optional<Long> findIdByName(String name) {
+        if (name == null || name.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current().idsByName.get(nameKey(name)));
+    }
+
+    public List<CategoryOptionDTO> options() {
+        return current().options;
+    }
+
+    public void invalidate() {
+        TransactionCallbacks.afterCommit(() -> {
+            version.incrementAndGet();
+            snapshot = null;
+        });
+    }
+
+    private Snapshot current() {
+        Snapshot loaded = snapshot;
+        if (loaded != null) {
+            return loaded;
+        }
+        synchronized (this) {
+            loaded = snapshot;
+            if (loaded != null) {
+                return loaded;
+            }
+            long expectedVersion = version.get();
+            loaded = build(categoryRepository.findAllNodes());
+            // 加载期间如有分类被修改，则不缓存这份可能过期的快照
+            if (version.get() == expectedVersion) {
+                snapshot = loaded;
+            }
+            return loaded;
+        }
+    }
+
+    private static Snapshot build(List<CategoryNodeDTO> rows) {
+        List<CategoryNodeDTO> sorted = new ArrayList<>(rows);
+        sorted.sort(DISPLAY_ORDER);
+
+        Map<Long, CategoryNodeDTO> byId = new LinkedHashMap<>();
+        sorted.forEach(node -> byId.put(node.getId(), node));
+
+        Map<Long, List<CategoryNodeDTO>> children = new HashMap<>();
+        List<CategoryNodeDTO> roots = new ArrayList<>();
+        for (CategoryNodeDTO node : sorted) {
+            Long parentId = node.getParentId();
+            if (parentId == null || !byId.containsKey(parentId)) {
+                roots.add(node);
+            } else {
+                children.computeIfAbsent(parentId, id -> new ArrayList<>()).add(node);
+            }
+        }
+
+        for (CategoryNodeDTO node : sorted) {
+            List<CategoryNodeDTO> childNodes = children.getOrDefault(node.getId(), List.of());
+            node.setChildIds(childNodes.stream().map(CategoryNodeDTO::getId).toList());
+            List<CategoryNodeDTO> ancestry = ancestry(node, byId);
+            node.setDepth(ancestry.size() - 1);
+            node.setPath(ancestry.stream().map(CategoryNodeDTO::getId).toList());
+            node.setPathName(String.join(" / ", ancestry.stream()
+                    .map(ancestor -> Objects.toString(ancestor.getName(), ""))
+                    .toList()));
+        }
+
+        // 重名分类不按名称收录，只能通过完整路径匹配
+        Map<String, Long> idsByName = new HashMap<>();
+        Set<String> sharedNames = new HashSet<>();
+        for (CategoryNodeDTO node : sorted) {
+            if (node.getName() == null) {
+                continue;
+            }
+            String key = nameKey(node.getName());
+            if (sharedNames.contains(key) || idsByName.putIfAbsent(key, node.getId()) != null) {
+                sharedNames.add(key);
+                idsByName.remove(key);
+            }
+        }
+        for (CategoryNodeDTO node : sorted) {
+            idsByName.put(nameKey(node.getPathName()), node.getId());
+        }
+
+        Map<Long, List<CategoryNodeDTO>> frozenChildren = new HashMap<>();
+        children.forEach((id, list) -> frozenChildren.put(id, Collections.unmodifiableList(list)));
+
+        return new Snapshot(
+                Collections.unmodifiableList(sorted),
+                sorted.stream().filter(node -> Boolean.TRUE.equals(node.getEnabled())).toList(),
+                Collections.unmodifiableList(roots),
+                Collections.unmodifiableMap(frozenChildren),
+                Collections.unmodifiableMap(byId),
+                Collections.unmodifiableMap(idsByName),
+                sorted.stream().map(node -> new CategoryOptionDTO(node.getId(), node.getName())).toList());
+    }
+
+    private static String nameKey(String name) {
+        return String.join(" / ", Arrays.stream(name.split("/"))
+                .map(part -> part.trim().toLowerCase(Locale.ROOT))
+                .toList());
+    }
+
+    // 从根到当前节点的祖先链；遇到环或缺失的父分类时截断，避免死循环
+    private static List<CategoryNodeDTO> ancestry(CategoryNodeDTO node, Map<Long, CategoryNodeDTO> byId) {
+        List<CategoryNodeDTO> chain = new ArrayList<>();
+        CategoryNodeDTO cursor = node;
+        while (cursor != null && !chain.contains(cursor)) {
+            chain.add(cursor);
+            cursor = cursor.getParentId() == null ? null : byId.get(cursor.getParentId());
+        }
+        Collections.reverse(chain);
+        return chain;
+    }
+
+    private record Snapshot(List<CategoryNodeDTO> all,
+                            List<CategoryNodeDTO> enabled,
+                            List<CategoryNodeDTO> roots,
+                            Map<Long, List<CategoryNodeDTO>> children,
+                            Map<Long, CategoryNodeDTO> byId,
+                            Map<String, Long> idsByName,
+                            List<CategoryOptionDTO> options) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.entity.ConsumerOrderCount;
+import com.example.silkmall.repository.ConsumerOrderCountRepository;
+import com.example.silkmall.service.ConsumerOrderCountService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains {@link ConsumerOrderCount} with delta updates issued in the status change's own
+ * transaction. A missing counter row is inserted empty, ignoring one a concurrent change created
+ * meanwhile, before the delta is applied. The whole table is rebuilt from the orders on startup.
+ */
+@Service
+public class ConsumerOrderCountServiceImpl implements ConsumerOrderCountService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsumerOrderCountServiceImpl.class);
+
+    static final String ALL = "ALL";
+
+    private final ConsumerOrderCountRepository countRepository;
+
+    @Autowired
+    public ConsumerOrderCountServiceImpl(ConsumerOrderCountRepository countRepository) {
+        this.countRepository = countRepository;
+    }
+
+    @Override
+    public Map<String, Long> countByStatus(Long consumerId) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        long total = 0L;
+        for (ConsumerOrderCount row : countRepository.findByConsumerId(consumerId)) {
+            long count = row.getOrderCount() == null ? 0L : Math.max(row.getOrderCount(), 0L);
+            if (count > 0) {
+                counts.put(row.getStatus(), count);
+                total += count;
+            }
+        }
+        counts.put(ALL, total);
+        return counts;
+    }
+
+    @Override
+    @Transactional
+    public void recordCreated(Long consumerId, String status) {
+        apply(consumerId, status, 1);
+    }
+
+    @Override
+    @Transactional
+    public void recordCreated(Long consumerId, String status, int count) {
+        if (count > 0) {
+            apply(consumerId, status, count);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordTransition(Long consumerId, String previousStatus, String status) {
+        if (Objects.equals(previousStatus, status)) {
+            return;
+        }
+        apply(consumerId, previousStatus, -1);
+        apply(consumerId, status, 1);
+    }
+
+    @Override
+    @Transactional
+    public void recordRemoved(Long consumerId, String status) {
+        apply(consumerId, status, -1);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    @Override
+    public void rebuild() {
+        countRepository.deleteAllDirectly();
+        int rows = countRepository.insertAllFromOrders();
+        log.info("Rebuilt {} consumer order counters", rows);
+    }
+
+    private void apply(Long consumerId, String status, long delta) {
+        if (consumerId == null || status == null) {
+            return;
+        }
+        if (countRepository.applyDelta(consumerId, status, delta) == 0) {
+            // 启动时已按订单重建，缺行说明此前该状态下没有订单，先补一条空行再累加本次变更
+            countRepository.insertEmptyIfAbsent(consumerId, status);
+            countRepository.applyDelta(consumerId, status, delta);
+        }
+    }
+}
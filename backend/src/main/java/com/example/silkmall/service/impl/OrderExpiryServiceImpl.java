@@ -0,0 +1,213 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.common.TransactionCallbacks;
+import com.example.silkmall.service.ConsumerOrderCountService;
+import com.example.silkmall.service.OrderExpiryService;
+import com.example.silkmall.service.ProductStatisticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.silkmall.common.OrderStatuses.CANCELLED;
+import static com.example.silkmall.common.OrderStatuses.PENDING_PAYMENT;
+
+// 超时未支付的订单自动取消并恢复库存
+@Service
+public class OrderExpiryServiceImpl implements OrderExpiryService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExpiryServiceImpl.class);
+
+    static final int BATCH_SIZE = 200;
+
+    private static final String PENDING_DEADLINES = "select id, order_time from orders where status = ?";
+    private static final String CANCEL_EXPIRED = "update orders set status = ?, payout_status = null, "
+            + "managing_admin_id = null, admin_holding_amount = 0, in_transit_time = null, "
+            + "consumer_confirmation_time = null, admin_approval_time = null "
+            + "where id = ? and status = ? and order_time <= ?";
+    private static final String ORDER_CONSUMERS = "select id, consumer_id from orders where id in (%s)";
+    private static final String ORDER_LINES =
+            "select product_id, size, quantity from order_items where order_id in (%s) and product_id is not null";
+
+    private final DelayQueue<Deadline> queue = new DelayQueue<>();
+    private final Set<Long> tracked = ConcurrentHashMap.newKeySet();
+    private final long timeoutMillis;
+    private final long retryMillis;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockRestorer stockRestorer;
+    private final ConsumerOrderCountService consumerOrderCountService;
+    private final ProductStatisticsService productStatisticsService;
+    private final CartStore cartStore;
+
+    public OrderExpiryServiceImpl(@Value("${order.expiry.timeout-minutes:30}") long timeoutMinutes,
+                                  @Value("${order.expiry.poll-interval-ms:5000}") long pollIntervalMillis,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  StockRestorer stockRestorer,
+                                  ConsumerOrderCountService consumerOrderCountService,
+                                  ProductStatisticsService productStatisticsService,
+                                  CartStore cartStore) {
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.retryMillis = pollIntervalMillis;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stockRestorer = stockRestorer;
+        this.consumerOrderCountService = consumerOrderCountService;
+        this.productStatisticsService = productStatisticsService;
+        this.cartStore = cartStore;
+    }
+
+    @Override
+    public void track(Long orderId, Date orderTime) {
+        if (orderId == null) {
+            return;
+        }
+        long placedAt = orderTime == null ? System.currentTimeMillis() : orderTime.getTime();
+        TransactionCallbacks.afterCommit(() -> enqueue(orderId, placedAt + timeoutMillis));
+    }
+
+    // 启动时加载，之后定期补上其他节点新建的待付款订单
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${order.expiry.resync-interval-ms:600000}",
+            fixedDelayString = "${order.expiry.resync-interval-ms:600000}")
+    public void resync() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${order.expiry.poll-interval-ms:5000}")
+    public void poll() {
+        expireDue();
+    }
+
+    @Override
+    public int rebuild() {
+        int[] added = {0};
+        jdbcTemplate.query(PENDING_DEADLINES, rs -> {
+            Timestamp orderTime = rs.getTimestamp(2);
+            long placedAt = orderTime == null ? System.currentTimeMillis() : orderTime.getTime();
+            if (enqueue(rs.getLong(1), placedAt + timeoutMillis)) {
+                added[0]++;
+            }
+        }, PENDING_PAYMENT);
+        if (added[0] > 0) {
+            log.info("Tracking {} more unpaid orders for expiry, {} in total", added[0], tracked.size());
+        }
+        return added[0];
+    }
+
+    @Override
+    public int expireDue() {
+        int cancelled = 0;
+        List<Deadline> due = new ArrayList<>(BATCH_SIZE);
+        while (queue.drainTo(due, BATCH_SIZE) > 0) {
+            List<Long> orderIds = new ArrayList<>(due.size());
+            for (Deadline deadline : due) {
+                tracked.remove(deadline.orderId());
+                orderIds.add(deadline.orderId());
+            }
+            try {
+                Integer batch = transactionTemplate.execute(status -> cancelExpired(orderIds));
+                cancelled += batch == null ? 0 : batch;
+            } catch (RuntimeException e) {
+                // 本批回滚后稍后重试，避免一直卡在同一批订单上
+                log.warn("Failed to expire {} unpaid orders, retrying later", orderIds.size(), e);
+                long retryAt = System.currentTimeMillis() + retryMillis;
+                orderIds.forEach(orderId -> enqueue(orderId, retryAt));
+                break;
+            } finally {
+                due.clear();
+            }
+        }
+        if (cancelled > 0) {
+            log.info("Cancelled {} unpaid orders past their payment deadline", cancelled);
+        }
+        return cancelled;
+    }
+
+    private boolean enqueue(Long orderId, long expiresAt) {
+        if (!tracked.add(orderId)) {
+            return false;
+        }
+        queue.offer(new Deadline(orderId, expiresAt));
+        return true;
+    }
+
+    private int cancelExpired(List<Long> orderIds) {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - timeoutMillis);
+        List<Object[]> args = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            args.add(new Object[]{CANCELLED, orderId, PENDING_PAYMENT, cutoff});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(CANCEL_EXPIRED, args);
+        List<Long> claimed = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                claimed.add(orderIds.get(i));
+            }
+        }
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        String in = String.join(", ", Collections.nCopies(claimed.size(), "?"));
+        jdbcTemplate.query(String.format(ORDER_CONSUMERS, in), rs -> {
+            long consumerId = rs.getLong(2);
+            if (!rs.wasNull()) {
+                consumerOrderCountService.recordTransition(consumerId, PENDING_PAYMENT, CANCELLED);
+            }
+        }, claimed.toArray());
+
+        // 同一商品、尺码的数量先合并，按主键顺序更新，多节点并发时加锁顺序一致
+        Map<Long, Integer> productQuantities = new TreeMap<>();
+        Map<Long, Map<String, Integer>> sizeQuantities = new TreeMap<>();
+        jdbcTemplate.query(String.format(ORDER_LINES, in), rs -> {
+            long productId = rs.getLong(1);
+            String size = rs.getString(2);
+            int quantity = rs.getInt(3);
+            productQuantities.merge(productId, quantity, Integer::sum);
+            if (size != null && !size.isBlank()) {
+                sizeQuantities.computeIfAbsent(productId, id -> new TreeMap<>()).merge(size, quantity, Integer::sum);
+            }
+        }, claimed.toArray());
+        stockRestorer.restore(productQuantities, sizeQuantities);
+
+        for (Long productId : productQuantities.keySet()) {
+            productStatisticsService.refreshProduct(productId);
+            cartStore.evictProduct(productId);
+        }
+        return claimed.size();
+    }
+
+    private record Deadline(Long orderId, long expiresAt) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
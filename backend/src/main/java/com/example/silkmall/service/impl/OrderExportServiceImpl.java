@@ -0,0 +1,356 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.common.DataFormat;
+import com.example.silkmall.common.SupplierPayouts;
+import com.example.silkmall.service.OrderExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Service
+public class OrderExportServiceImpl implements OrderExportService {
+
+    static final int FETCH_SIZE = 500;
+
+    private static final String EXPORT_SQL = "select o.id, o.order_no, o.order_time, o.status, o.payout_status, "
+            + "o.total_amount, o.admin_holding_amount, i.id as item_id, i.product_id, p.name as product_name, "
+            + "coalesce(i.supplier_id, p.supplier_id) as item_supplier_id, i.size, i.quantity, i.unit_price, i.total_price "
+            + "from orders o "
+            + "left join order_items i on i.order_id = o.id "
+            + "left join products p on p.id = i.product_id "
+            + "where o.order_time >= ? and o.order_time < ? "
+            + "order by o.order_time, o.id, i.id";
+
+    private static final String[] CSV_HEADER = {
+            "order_id", "order_no", "order_time", "status", "payout_status", "total_amount", "admin_holding_amount",
+            "commission", "supplier_pool", "item_id", "product_id", "product_name", "supplier_id", "size",
+            "quantity", "unit_price", "item_total", "supplier_payout"
+    };
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportServiceImpl(DataSource dataSource, ObjectMapper objectMapper) {
+        // 独立的 JdbcTemplate，按游标分批读取而不是一次取回整个结果集
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportOrders(LocalDate from, LocalDate to, DataFormat format, OutputStream output) throws IOException {
+        if (from == null || to == null) {
+            throw new RuntimeException("请指定导出的起止日期");
+        }
+        if (to.isBefore(from)) {
+            throw new RuntimeException("导出起始日期不能晚于结束日期");
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        ExportSink sink = format == DataFormat.NDJSON ? new NdjsonSink(writer) : new CsvSink(writer);
+        OrderBuffer buffer = new OrderBuffer(sink);
+        try {
+            sink.start();
+            jdbcTemplate.query(EXPORT_SQL, buffer::accept,
+                    Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            buffer.flush();
+            sink.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private record ExportOrder(Long id, String orderNo, Timestamp orderTime, String status, String payoutStatus,
+                               BigDecimal totalAmount, BigDecimal adminHoldingAmount) {
+    }
+
+    private record ExportItem(Long id, Long productId, String productName, Long supplierId, String size,
+                              Integer quantity, BigDecimal unitPrice, BigDecimal totalPrice) {
+    }
+
+    /**
+     * An order with its commission and payout split, computed the same way as when its funds are released.
+     */
+    private record ExportedOrder(ExportOrder order, List<ExportItem> items, BigDecimal commission,
+                                 BigDecimal supplierPool, Map<Long, BigDecimal> payouts) {
+
+        static ExportedOrder of(ExportOrder order, List<ExportItem> items) {
+            BigDecimal total = order.totalAmount() == null || order.totalAmount().signum() < 0
+                    ? BigDecimal.ZERO : order.totalAmount();
+            BigDecimal commission = SupplierPayouts.commissionOf(total).min(total);
+            BigDecimal pool = total.subtract(commission);
+            Map<Long, BigDecimal> supplierAmounts = new TreeMap<>();
+            for (ExportItem item : items) {
+                if (item.supplierId() != null && item.totalPrice() != null) {
+                    supplierAmounts.merge(item.supplierId(), item.totalPrice(), BigDecimal::add);
+                }
+            }
+            Map<Long, BigDecimal> payouts = SupplierPayouts.split(new LinkedHashMap<>(supplierAmounts), pool);
+            return new ExportedOrder(order, items, commission, pool, payouts);
+        }
+    }
+
+    // 结果集按订单排序，攒齐一个订单的订单项后立即写出
+    private static final class OrderBuffer {
+        private final ExportSink sink;
+        private ExportOrder current;
+        private final List<ExportItem> items = new ArrayList<>();
+
+        OrderBuffer(ExportSink sink) {
+            this.sink = sink;
+        }
+
+        void accept(ResultSet rs) throws SQLException {
+            long orderId = rs.getLong("id");
+            if (current == null || current.id() != orderId) {
+                flush();
+                current = new ExportOrder(orderId, rs.getString("order_no"), rs.getTimestamp("order_time"),
+                        rs.getString("status"), rs.getString("payout_status"), rs.getBigDecimal("total_amount"),
+                        rs.getBigDecimal("admin_holding_amount"));
+            }
+            long itemId = rs.getLong("item_id");
+            if (!rs.wasNull()) {
+                items.add(new ExportItem(itemId, rs.getObject("product_id", Long.class), rs.getString("product_name"),
+                        rs.getObject("item_supplier_id", Long.class), rs.getString("size"),
+                        rs.getObject("quantity", Integer.class), rs.getBigDecimal("unit_price"),
+                        rs.getBigDecimal("total_price")));
+            }
+        }
+
+        void flush() {
+            if (current == null) {
+                return;
+            }
+            try {
+                sink.write(ExportedOrder.of(current, items));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            current = null;
+            items.clear();
+        }
+    }
+
+    private interface ExportSink {
+        void start() throws IOException;
+
+        void write(ExportedOrder order) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * One line per order item. {@code supplier_payout} is filled on the first line of each supplier in an
+     * order only, so the column can be summed per supplier.
+     */
+    private static final class CsvSink implements ExportSink {
+        private final Writer writer;
+
+        CsvSink(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            // BOM，便于表格软件按 UTF-8 识别中文状态
+            writer.write('\uFEFF');
+            writeLine(CSV_HEADER);
+        }
+
+        @Override
+        public void write(ExportedOrder exported) throws IOException {
+            ExportOrder order = exported.order();
+            String[] orderColumns = {
+                    String.valueOf(order.id()), text(order.orderNo()), formatTime(order.orderTime()),
+                    text(order.status()), text(order.payoutStatus()), plain(order.totalAmount()), plain(order.adminHoldingAmount()),
+                    plain(exported.commission()), plain(exported.supplierPool())
+            };
+            if (exported.items().isEmpty()) {
+                writeLine(concat(orderColumns, new String[CSV_HEADER.length - orderColumns.length]));
+                return;
+            }
+            Set<Long> paidSuppliers = new HashSet<>();
+            for (ExportItem item : exported.items()) {
+                BigDecimal payout = item.supplierId() != null && paidSuppliers.add(item.supplierId())
+                        ? exported.payouts().get(item.supplierId()) : null;
+                writeLine(concat(orderColumns, new String[]{
+                        String.valueOf(item.id()), toText(item.productId()), text(item.productName()),
+                        toText(item.supplierId()), text(item.size()), toText(item.quantity()), plain(item.unitPrice()),
+                        plain(item.totalPrice()), plain(payout)
+                }));
+            }
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private void writeLine(String[] columns) throws IOException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCell(columns[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeCell(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0 || value.startsWith("'");
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        // 商品名等文本由用户填写，以公式字符开头时加单引号，表格软件按文本显示而不执行
+        private static String text(String value) {
+            if (value == null || value.isEmpty()) {
+                return value;
+            }
+            char first = value.charAt(0);
+            boolean formula = first == '=' || first == '+' || first == '-' || first == '@'
+                    || first == '\t' || first == '\r';
+            return formula ? "'" + value : value;
+        }
+
+        private static String[] concat(String[] first, String[] second) {
+            String[] result = new String[first.length + second.length];
+            System.arraycopy(first, 0, result, 0, first.length);
+            System.arraycopy(second, 0, result, first.length, second.length);
+            return result;
+        }
+    }
+
+    /**
+     * One JSON object per order, with its items and supplier payouts nested.
+     */
+    private final class NdjsonSink implements ExportSink {
+        private final Writer writer;
+        private JsonGenerator generator;
+        private boolean written;
+
+        NdjsonSink(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            generator = objectMapper.getFactory().createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        }
+
+        @Override
+        public void write(ExportedOrder exported) throws IOException {
+            ExportOrder order = exported.order();
+            written = true;
+            generator.writeStartObject();
+            generator.writeNumberField("orderId", order.id());
+            generator.writeStringField("orderNo", order.orderNo());
+            generator.writeStringField("orderTime", formatTime(order.orderTime()));
+            generator.writeStringField("status", order.status());
+            generator.writeStringField("payoutStatus", order.payoutStatus());
+            writeAmount("totalAmount", order.totalAmount());
+            writeAmount("adminHoldingAmount", order.adminHoldingAmount());
+            writeAmount("commission", exported.commission());
+            writeAmount("supplierPool", exported.supplierPool());
+            generator.writeArrayFieldStart("items");
+            for (ExportItem item : exported.items()) {
+                generator.writeStartObject();
+                generator.writeNumberField("itemId", item.id());
+                writeLong("productId", item.productId());
+                generator.writeStringField("productName", item.productName());
+                writeLong("supplierId", item.supplierId());
+                generator.writeStringField("size", item.size());
+                if (item.quantity() != null) {
+                    generator.writeNumberField("quantity", item.quantity());
+                }
+                writeAmount("unitPrice", item.unitPrice());
+                writeAmount("totalPrice", item.totalPrice());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("supplierPayouts");
+            for (Map.Entry<Long, BigDecimal> payout : exported.payouts().entrySet()) {
+                generator.writeStartObject();
+                generator.writeNumberField("supplierId", payout.getKey());
+                writeAmount("amount", payout.getValue());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+            if (written) {
+                writer.write('\n');
+            }
+        }
+
+        private void writeAmount(String field, BigDecimal value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(field);
+            } else {
+                generator.writeNumberField(field, value);
+            }
+        }
+
+        private void writeLong(String field, Long value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(field);
+            } else {
+                generator.writeNumberField(field, value);
+            }
+        }
+    }
+
+    private static String formatTime(Timestamp timestamp) {
+        return timestamp == null ? null : TIME_FORMAT.format(timestamp.toLocalDateTime());
+    }
+
+    private static String plain(BigDecimal value) {
+        return value == null ? null : value.toPlainString();
+    }
+
+    private static String toText(Object value) {
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.common.PayoutStatuses;
+import com.example.silkmall.repository.OrderRepository;
+import com.example.silkmall.service.OrderLifecycleService;
+import com.example.silkmall.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import static com.example.silkmall.common.OrderStatuses.AWAITING_RECEIPT;
+import static com.example.silkmall.common.OrderStatuses.DELIVERED;
+
+// 发货后超期未确认的订单自动确认收货，并补发待结算的供应商货款
+@Service
+public class OrderLifecycleServiceImpl implements OrderLifecycleService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderLifecycleServiceImpl.class);
+
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final long autoConfirmMillis;
+    private final int batchSize;
+    private final Pageable batch;
+
+    public OrderLifecycleServiceImpl(OrderRepository orderRepository,
+                                     OrderService orderService,
+                                     @Value("${order.lifecycle.auto-confirm-days:7}") long autoConfirmDays,
+                                     @Value("${order.lifecycle.batch-size:100}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.autoConfirmMillis = TimeUnit.DAYS.toMillis(autoConfirmDays);
+        this.batchSize = Math.max(batchSize, 1);
+        this.batch = PageRequest.of(0, this.batchSize);
+    }
+
+    @Scheduled(initialDelayString = "${order.lifecycle.interval-ms:600000}",
+            fixedDelayString = "${order.lifecycle.interval-ms:600000}")
+    public void run() {
+        autoConfirmReceipts();
+        finalizePendingPayouts();
+    }
+
+    @Override
+    public int autoConfirmReceipts() {
+        Date deliveredBefore = new Date(System.currentTimeMillis() - autoConfirmMillis);
+        int confirmed = inBatches("auto-confirm receipt",
+                afterId -> orderRepository.findIdsDeliveredBefore(AWAITING_RECEIPT, deliveredBefore, afterId,
+                        ReturnRequestServiceImpl.ACTIVE_STATUSES, batch),
+                ids -> orderService.autoConfirmReceipts(ids, deliveredBefore));
+        if (confirmed > 0) {
+            log.info("Auto-confirmed receipt of {} orders delivered before {}", confirmed, deliveredBefore);
+        }
+        return confirmed;
+    }
+
+    @Override
+    public int finalizePendingPayouts() {
+        int settled = inBatches("settle payouts",
+                afterId -> orderRepository.findIdsAwaitingPayout(DELIVERED, PayoutStatuses.PENDING, afterId,
+                        ReturnRequestServiceImpl.ACTIVE_STATUSES, batch),
+                orderService::finalizePayouts);
+        if (settled > 0) {
+            log.info("Settled {} pending payouts", settled);
+        }
+        return settled;
+    }
+
+    // 按主键顺序逐批取出并处理，每批一个事务；某批失败只记录日志，继续处理后面的订单
+    private int inBatches(String action,
+                          Function<Long, List<Long>> nextIds,
+                          ToIntFunction<List<Long>> handler) {
+        int handled = 0;
+        long afterId = 0L;
+        while (true) {
+            List<Long> ids = nextIds.apply(afterId);
+            if (ids.isEmpty()) {
+                return handled;
+            }
+            afterId = ids.get(ids.size() - 1);
+            try {
+                handled += handler.applyAsInt(ids);
+            } catch (RuntimeException e) {
+                log.warn("Failed to {} for orders {} to {}", action, ids.get(0), afterId, e);
+            }
+            if (ids.size() < batchSize) {
+                return handled;
+            }
+        }
+    }
+}
@@ -1,5 +1,13 @@
 package com.example.silkmall.service.impl;
 
+import com.example.silkmall.common.OrderNumbers;
+import com.example.silkmall.common.PayoutStatuses;
+import com.example.silkmall.common.SettlementLineTypes;
+import com.example.silkmall.common.SupplierPayouts;
+import com.example.silkmall.dto.ConsumerOrderItemSummaryDTO;
+import com.example.silkmall.dto.ConsumerOrderSummaryDTO;
+import com.example.silkmall.dto.SupplierOrderItemDTO;
+import com.example.silkmall.dto.SupplierOrderSummaryDTO;
 import com.example.silkmall.dto.WeeklyOrderDTO;
 import com.example.silkmall.dto.WeeklyOrderItemDTO;
 import com.example.silkmall.dto.WeeklyProductPerformanceDTO;
@@ -13,12 +21,19 @@ import com.example.silkmall.entity.Product;
 import com.example.silkmall.entity.ProductSizeAllocation;
 import com.example.silkmall.entity.Supplier;
 import com.example.silkmall.repository.ConsumerRepository;
+import com.example.silkmall.repository.OrderItemRepository;
 import com.example.silkmall.repository.OrderRepository;
 import com.example.silkmall.repository.ProductRepository;
 import com.example.silkmall.repository.ProductSizeAllocationRepository;
 import com.example.silkmall.repository.SupplierRepository;
 import com.example.silkmall.repository.AdminRepository;
+import com.example.silkmall.service.ConsumerOrderCountService;
+import com.example.silkmall.service.OrderExpiryService;
 import com.example.silkmall.service.OrderService;
+import com.example.silkmall.service.ProductStatisticsService;
+import com.example.silkmall.service.SupplierSettlementService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -34,65 +49,149 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
-import java.util.UUID;
 import java.util.stream.Collectors;
 import static com.example.silkmall.common.OrderStatuses.*;
 
 @Service
 public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements OrderService {
 
-    private static final String PAYOUT_PENDING = "待批准";
-    private static final String PAYOUT_APPROVED = "已批准";
-    private static final String PAYOUT_REFUNDED = "已退款";
+    private static final Logger log = LoggerFactory.getLogger(OrderServiceImpl.class);
+
+    private static final String PAYOUT_PENDING = PayoutStatuses.PENDING;
+    private static final String PAYOUT_APPROVED = PayoutStatuses.APPROVED;
+    private static final String PAYOUT_REFUNDED = PayoutStatuses.REFUNDED;
 
     private static final BigDecimal DEFAULT_WALLET_BALANCE = BigDecimal.valueOf(1000L);
-    private static final BigDecimal ADMIN_COMMISSION_RATE = new BigDecimal("0.05");
 
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
     private final ProductRepository productRepository;
     private final ProductSizeAllocationRepository productSizeAllocationRepository;
     private final ConsumerRepository consumerRepository;
     private final SupplierRepository supplierRepository;
     private final AdminRepository adminRepository;
+    private final ProductStatisticsService productStatisticsService;
+    private final ConsumerOrderCountService consumerOrderCountService;
+    private final OrderNumbers orderNumbers;
+    private final OrderExpiryService orderExpiryService;
+    private final SupplierSettlementService supplierSettlementService;
+    private final StockRestorer stockRestorer;
 
     @Autowired
     public OrderServiceImpl(OrderRepository orderRepository,
+                            OrderItemRepository orderItemRepository,
                             ProductRepository productRepository,
                             ProductSizeAllocationRepository productSizeAllocationRepository,
                             ConsumerRepository consumerRepository,
                             SupplierRepository supplierRepository,
-                            AdminRepository adminRepository) {
+                            AdminRepository adminRepository,
+                            ProductStatisticsService productStatisticsService,
+                            ConsumerOrderCountService consumerOrderCountService,
+                            OrderNumbers orderNumbers,
+                            OrderExpiryService orderExpiryService,
+                            SupplierSettlementService supplierSettlementService,
+                            StockRestorer stockRestorer) {
         super(orderRepository);
         this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
         this.productRepository = productRepository;
         this.productSizeAllocationRepository = productSizeAllocationRepository;
         this.consumerRepository = consumerRepository;
         this.supplierRepository = supplierRepository;
         this.adminRepository = adminRepository;
+        this.productStatisticsService = productStatisticsService;
+        this.consumerOrderCountService = consumerOrderCountService;
+        this.orderNumbers = orderNumbers;
+        this.orderExpiryService = orderExpiryService;
+        this.supplierSettlementService = supplierSettlementService;
+        this.stockRestorer = stockRestorer;
+    }
+
+    @Transactional
+    @Override
+    public Order save(Order order) {
+        Order existing = order.getId() == null ? null : orderRepository.findById(order.getId()).orElse(null);
+        Long previousConsumerId = existing == null ? null : consumerIdOf(existing);
+        String previousStatus = existing == null ? null : existing.getStatus();
+
+        Order saved = orderRepository.save(order);
+        Long consumerId = consumerIdOf(saved);
+        if (existing != null && Objects.equals(previousConsumerId, consumerId)) {
+            consumerOrderCountService.recordTransition(consumerId, previousStatus, saved.getStatus());
+        } else {
+            if (existing != null) {
+                consumerOrderCountService.recordRemoved(previousConsumerId, previousStatus);
+            }
+            consumerOrderCountService.recordCreated(consumerId, saved.getStatus());
+        }
+        return saved;
+    }
+
+    @Transactional
+    @Override
+    public void deleteById(Long id) {
+        Order existing = orderRepository.findById(id).orElse(null);
+        orderRepository.deleteById(id);
+        if (existing != null) {
+            consumerOrderCountService.recordRemoved(consumerIdOf(existing), existing.getStatus());
+        }
     }
     
     @Override
     public Page<Order> findByConsumerId(Long consumerId, Pageable pageable) {
+        return orderRepository.findByConsumerId(consumerId, newestFirst(pageable));
+    }
+
+    @Override
+    public Page<ConsumerOrderSummaryDTO> findConsumerSummaries(Long consumerId, String status, Pageable pageable) {
+        Pageable resolved = newestFirst(pageable);
+        Page<ConsumerOrderSummaryDTO> page = status == null || status.isBlank()
+                ? orderRepository.findConsumerSummaries(consumerId, resolved)
+                : orderRepository.findConsumerSummariesByStatus(consumerId, status.trim(), resolved);
+        if (page.isEmpty()) {
+            return page;
+        }
+
+        Map<Long, ConsumerOrderSummaryDTO> byId = new LinkedHashMap<>();
+        page.forEach(summary -> byId.put(summary.getId(), summary));
+        for (ConsumerOrderItemSummaryDTO item : orderItemRepository.findSummaryItemsByOrderIds(byId.keySet())) {
+            ConsumerOrderSummaryDTO summary = byId.get(item.getOrderId());
+            summary.getItems().add(item);
+            String name = item.getProductName();
+            if (name != null && !name.isBlank() && !summary.getProductNames().contains(name)) {
+                summary.getProductNames().add(name);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public Map<String, Long> countConsumerOrders(Long consumerId) {
+        return consumerOrderCountService.countByStatus(consumerId);
+    }
+
+    // 未指定排序时按下单时间倒序，未分页时默认取第一页 20 条
+    private static Pageable newestFirst(Pageable pageable) {
         Pageable candidate = pageable == null ? Pageable.unpaged() : pageable;
 
         Sort sort = candidate.getSort();
         if (sort == null || sort.isUnsorted()) {
-            sort = Sort.by(Sort.Direction.DESC, "orderTime");
+            sort = Sort.by(Sort.Direction.DESC, "orderTime").and(Sort.by(Sort.Direction.DESC, "id"));
         }
 
-        Pageable sortedPageable;
         if (candidate.isPaged()) {
-            sortedPageable = PageRequest.of(candidate.getPageNumber(), candidate.getPageSize(), sort);
-        } else {
-            sortedPageable = PageRequest.of(0, 20, sort);
+            return PageRequest.of(candidate.getPageNumber(), candidate.getPageSize(), sort);
         }
-
-        return orderRepository.findByConsumerId(consumerId, sortedPageable);
+        return PageRequest.of(0, 20, sort);
     }
     
     @Override
@@ -101,26 +200,46 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
     }
 
     @Override
-    public Page<Order> findBySupplierId(Long supplierId, Pageable pageable) {
+    public Page<SupplierOrderSummaryDTO> findSupplierOrders(Long supplierId, Pageable pageable) {
         if (supplierId == null) {
             throw new RuntimeException("供应商ID不能为空");
         }
 
-        Pageable candidate = pageable == null ? Pageable.unpaged() : pageable;
-
-        Sort sort = candidate.getSort();
-        if (sort == null || sort.isUnsorted()) {
-            sort = Sort.by(Sort.Direction.DESC, "orderTime");
-        }
-
-        Pageable sortedPageable;
-        if (candidate.isPaged()) {
-            sortedPageable = PageRequest.of(candidate.getPageNumber(), candidate.getPageSize(), sort);
-        } else {
-            sortedPageable = PageRequest.of(0, 20, sort);
+        Pageable candidate = pageable == null || pageable.isUnpaged() ? PageRequest.of(0, 20) : pageable;
+        Page<Long> orderIds = orderItemRepository.findOrderIdsBySupplierId(supplierId,
+                PageRequest.of(candidate.getPageNumber(), candidate.getPageSize()));
+        if (orderIds.isEmpty()) {
+            return new PageImpl<>(List.of(), candidate, orderIds.getTotalElements());
         }
 
-        return orderRepository.findDistinctByOrderItems_Product_Supplier_Id(supplierId, sortedPageable);
+        List<Long> ids = orderIds.getContent();
+        Map<Long, SupplierOrderSummaryDTO> byId = new HashMap<>();
+        orderRepository.findSupplierSummariesByIds(ids).forEach(summary -> byId.put(summary.getId(), summary));
+        Map<Long, List<SupplierOrderItemDTO>> linesByOrder = orderItemRepository.findSupplierLines(ids, supplierId)
+                .stream()
+                .collect(Collectors.groupingBy(SupplierOrderItemDTO::getOrderId));
+        Set<Long> mixed = new HashSet<>(orderItemRepository.findOrderIdsWithOtherSuppliers(ids, supplierId));
+
+        return orderIds.map(id -> {
+            SupplierOrderSummaryDTO summary = byId.get(id);
+            List<SupplierOrderItemDTO> lines = linesByOrder.getOrDefault(id, List.of());
+            int quantity = 0;
+            BigDecimal amount = BigDecimal.ZERO;
+            for (SupplierOrderItemDTO line : lines) {
+                if (line.getQuantity() != null) {
+                    quantity += line.getQuantity();
+                }
+                if (line.getTotalPrice() != null) {
+                    amount = amount.add(line.getTotalPrice());
+                }
+            }
+            summary.setItems(lines);
+            summary.setSupplierTotalQuantity(quantity);
+            summary.setSupplierTotalAmount(amount);
+            summary.setMixedSuppliers(mixed.contains(id));
+            summary.setCanShip(!mixed.contains(id) && !lines.isEmpty() && PENDING_SHIPMENT.equals(summary.getStatus()));
+            return summary;
+        });
     }
 
     @Override
@@ -161,9 +280,9 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
     @Transactional
     @Override
     public Order createOrder(Order order) {
-        order.setOrderNo(generateOrderNo());
+        order.setOrderNo(orderNumbers.nextOrderNo());
         if (order.getConsumerLookupId() == null || order.getConsumerLookupId().isBlank()) {
-            order.setConsumerLookupId(generateConsumerLookupId());
+            order.setConsumerLookupId(orderNumbers.nextConsumerLookupId());
         }
 
         attachConsumer(order);
@@ -182,11 +301,13 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
         order.setConsumerConfirmationTime(null);
         order.setAdminApprovalTime(null);
         Order persisted = orderRepository.save(order);
+        consumerOrderCountService.recordCreated(consumerIdOf(persisted), PENDING_PAYMENT);
 
         if (shouldAutoPay(persisted)) {
             return processPayment(persisted, persisted.getPaymentMethod());
         }
 
+        orderExpiryService.track(persisted.getId(), persisted.getOrderTime());
         return persisted;
     }
     
@@ -199,6 +320,10 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
         if (!PENDING_PAYMENT.equals(order.getStatus())) {
             throw new RuntimeException("只有待支付的订单才能取消");
         }
+        // 先抢占状态，与超时关闭或并发支付互斥，避免库存被重复恢复
+        if (orderRepository.updateStatusIfCurrent(id, PENDING_PAYMENT, CANCELLED) == 0) {
+            throw new RuntimeException("订单状态已变化，请刷新后重试");
+        }
 
         // 恢复库存
         restoreStock(order);
@@ -211,6 +336,7 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
         order.setConsumerConfirmationTime(null);
         order.setAdminApprovalTime(null);
         orderRepository.save(order);
+        consumerOrderCountService.recordTransition(consumerIdOf(order), PENDING_PAYMENT, CANCELLED);
     }
 
     @Transactional
@@ -219,7 +345,8 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
         Order order = findById(id)
                 .orElseThrow(() -> new RuntimeException("订单不存在"));
 
-        if (REVOKED.equals(order.getStatus()) || CANCELLED.equals(order.getStatus())) {
+        String previousStatus = order.getStatus();
+        if (REVOKED.equals(previousStatus) || CANCELLED.equals(previousStatus)) {
             throw new RuntimeException("订单已撤销或已取消");
         }
 
@@ -263,6 +390,7 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
         order.setConsumerConfirmationTime(null);
         order.setStatus(REVOKED);
         orderRepository.save(order);
+        consumerOrderCountService.recordTransition(consumerIdOf(order), previousStatus, REVOKED);
     }
     
     @Transactional
@@ -273,6 +401,7 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
         processPayment(order, paymentMethod);
     }
     
+    @Transactional
     @Override
     public void shipOrder(Long id) {
         Order order = findById(id)
@@ -286,6 +415,7 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
         order.setShippingTime(new Date());
 
         orderRepository.save(order);
+        consumerOrderCountService.recordTransition(consumerIdOf(order), PENDING_SHIPMENT, SHIPPED);
     }
 
     @Transactional
@@ -335,8 +465,10 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
         order.setShippingTime(new Date());
 
         orderRepository.save(order);
+        consumerOrderCountService.recordTransition(consumerIdOf(order), PENDING_SHIPMENT, SHIPPED);
     }
 
+    @Transactional
     @Override
     public void markInTransit(Long id) {
         Order order = findById(id)
@@ -350,8 +482,10 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
         order.setInTransitTime(new Date());
 
         orderRepository.save(order);
+        consumerOrderCountService.recordTransition(consumerIdOf(order), SHIPPED, IN_TRANSIT);
     }
 
+    @Transactional
     @Override
     public void deliverOrder(Long id) {
         Order order = findById(id)
@@ -365,6 +499,7 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
         order.setDeliveryTime(new Date());
 
         orderRepository.save(order);
+        consumerOrderCountService.recordTransition(consumerIdOf(order), IN_TRANSIT, AWAITING_RECEIPT);
 
         // 订单完成后，可以增加产品销量和消费者积分
         // 这里简化处理，实际项目中可能需要更复杂的逻辑
@@ -373,7 +508,8 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
     @Transactional
     @Override
     public void confirmReceipt(Long id) {
-        Order order = findById(id)
+        // 加锁读取，与自动确认收货、批量结算互斥，避免重复发放货款
+        Order order = orderRepository.findLockedById(id)
                 .orElseThrow(() -> new RuntimeException("订单不存在"));
 
         String status = order.getStatus();
@@ -396,6 +532,7 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
         order.setConsumerConfirmationTime(now);
 
         orderRepository.save(order);
+        consumerOrderCountService.recordTransition(consumerIdOf(order), status, DELIVERED);
 
         if (PAYOUT_PENDING.equals(order.getPayoutStatus())) {
             finalizePayout(order);
@@ -405,7 +542,7 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
     @Transactional
     @Override
     public void approvePayout(Long id) {
-        Order order = findById(id)
+        Order order = orderRepository.findLockedById(id)
                 .orElseThrow(() -> new RuntimeException("订单不存在"));
 
         if (!DELIVERED.equals(order.getStatus())) {
@@ -423,7 +560,106 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
         finalizePayout(order);
     }
 
+    @Transactional
+    @Override
+    public int autoConfirmReceipts(List<Long> orderIds, Date deliveredBefore) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            return 0;
+        }
+        List<Order> orders = orderRepository.lockDeliveredBefore(orderIds, AWAITING_RECEIPT, deliveredBefore,
+                ReturnRequestServiceImpl.ACTIVE_STATUSES);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        orderRepository.findWithItemsByIdIn(orders.stream().map(Order::getId).toList());
+
+        Date now = new Date();
+        List<Order> payable = new ArrayList<>();
+        for (Order order : orders) {
+            if (order.getShippingTime() == null) {
+                order.setShippingTime(now);
+            }
+            order.setStatus(DELIVERED);
+            order.setConsumerConfirmationTime(now);
+            consumerOrderCountService.recordTransition(consumerIdOf(order), AWAITING_RECEIPT, DELIVERED);
+            if (PAYOUT_PENDING.equals(order.getPayoutStatus())) {
+                payable.add(order);
+            }
+        }
+        settlePayouts(payable, false);
+        orderRepository.saveAll(orders);
+        return orders.size();
+    }
+
+    @Transactional
+    @Override
+    public int finalizePayouts(List<Long> orderIds) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            return 0;
+        }
+        List<Order> orders = orderRepository.lockAwaitingPayout(orderIds, DELIVERED, PAYOUT_PENDING,
+                ReturnRequestServiceImpl.ACTIVE_STATUSES);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        orderRepository.findWithItemsByIdIn(orders.stream().map(Order::getId).toList());
+        return settlePayouts(orders, false).size();
+    }
+
     private void finalizePayout(Order order) {
+        settlePayouts(List.of(order), true);
+    }
+
+    /**
+     * Releases the held funds of {@code orders}: each admin's balance is checked order by order against a
+     * running balance and the summed change is applied with one atomic update per admin, so checkout credits
+     * committed meanwhile are kept. Each supplier's share is recorded as a settlement line and reaches its
+     * wallet with the next settlement cycle. With {@code failFast} off, an order that cannot be settled is
+     * logged and left pending instead of failing the batch.
+     */
+    private List<Order> settlePayouts(List<Order> orders, boolean failFast) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> supplierIds = new HashSet<>();
+        for (Order order : orders) {
+            supplierIds.addAll(collectSupplierAmounts(order).keySet());
+        }
+        Map<Long, Supplier> suppliers = new HashMap<>();
+        supplierRepository.findAllById(supplierIds).forEach(supplier -> suppliers.put(supplier.getId(), supplier));
+
+        Map<Order, Map<Long, BigDecimal>> credits = new LinkedHashMap<>();
+        Map<Long, BigDecimal> adminBalances = new HashMap<>();
+        Map<Long, BigDecimal> adminDeltas = new TreeMap<>();
+        List<Order> settled = new ArrayList<>();
+        for (Order order : orders) {
+            try {
+                credits.put(order, settlePayout(order, suppliers, adminBalances, adminDeltas));
+                settled.add(order);
+            } catch (RuntimeException e) {
+                if (failFast) {
+                    throw e;
+                }
+                log.warn("Left payout of order {} pending: {}", order.getId(), e.getMessage());
+            }
+        }
+
+        credits.forEach((order, shares) ->
+                supplierSettlementService.record(SettlementLineTypes.ORDER_PAYOUT, order.getId(), null, shares));
+        adminDeltas.forEach((adminId, delta) -> {
+            if (delta.signum() != 0) {
+                adminRepository.creditWallet(adminId, delta);
+            }
+        });
+        orderRepository.saveAll(settled);
+        return settled;
+    }
+
+    // 校验并结算单个订单，记录管理员余额变动并更新订单状态，返回各供应商应得的金额；校验失败时不做任何修改
+    private Map<Long, BigDecimal> settlePayout(Order order,
+                                               Map<Long, Supplier> suppliers,
+                                               Map<Long, BigDecimal> adminBalances,
+                                               Map<Long, BigDecimal> adminDeltas) {
         if (!PAYOUT_PENDING.equals(order.getPayoutStatus())) {
             throw new RuntimeException("当前订单没有待批准的货款");
         }
@@ -451,7 +687,7 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
             holdingAmount = BigDecimal.ZERO;
         }
 
-        BigDecimal commission = totalAmount.multiply(ADMIN_COMMISSION_RATE).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal commission = SupplierPayouts.commissionOf(totalAmount);
         if (commission.compareTo(holdingAmount) > 0) {
             commission = holdingAmount;
         }
@@ -461,7 +697,7 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
             payoutPool = BigDecimal.ZERO;
         }
 
-        BigDecimal adminBalance = resolveBalance(admin.getWalletBalance());
+        BigDecimal adminBalance = adminBalances.getOrDefault(admin.getId(), resolveBalance(admin.getWalletBalance()));
         boolean hasHeldFunds = holdingAmount.compareTo(BigDecimal.ZERO) > 0
                 && adminBalance.compareTo(holdingAmount) >= 0;
 
@@ -480,9 +716,6 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
             updatedAdminBalance = adminBalance.add(commission);
         }
 
-        admin.setWalletBalance(updatedAdminBalance);
-        adminRepository.save(admin);
-
         BigDecimal supplierDistribution = hasHeldFunds
                 ? payoutPool
                 : totalAmount.subtract(commission).setScale(2, RoundingMode.HALF_UP);
@@ -490,13 +723,19 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
             supplierDistribution = BigDecimal.ZERO;
         }
 
-        distributeToSuppliers(order, supplierDistribution);
+        Map<Long, BigDecimal> payouts = calculateSupplierPayouts(order, supplierDistribution);
+        for (Long supplierId : payouts.keySet()) {
+            if (!suppliers.containsKey(supplierId)) {
+                throw new RuntimeException("供应商不存在: " + supplierId);
+            }
+        }
 
+        adminBalances.put(admin.getId(), updatedAdminBalance);
+        adminDeltas.merge(admin.getId(), updatedAdminBalance.subtract(adminBalance), BigDecimal::add);
         order.setPayoutStatus(PAYOUT_APPROVED);
         order.setAdminHoldingAmount(BigDecimal.ZERO);
         order.setAdminApprovalTime(new Date());
-
-        orderRepository.save(order);
+        return payouts;
     }
 
     private boolean shouldAutoPay(Order order) {
@@ -544,6 +783,10 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
             admin = selectOrderAdmin();
         }
         BigDecimal adminBalance = resolveBalance(admin.getWalletBalance());
+        // 订单可能刚被超时关闭或取消，只有仍为待支付时才能扣款
+        if (orderRepository.updateStatusIfCurrent(order.getId(), PENDING_PAYMENT, PENDING_SHIPMENT) == 0) {
+            throw new RuntimeException("订单已取消或已支付");
+        }
 
         order.setStatus(PENDING_SHIPMENT);
         order.setPaymentMethod(normalizedMethod);
@@ -563,7 +806,9 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
         admin.setWalletBalance(adminBalance.add(totalAmount));
         adminRepository.save(admin);
 
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        consumerOrderCountService.recordTransition(consumer.getId(), PENDING_PAYMENT, PENDING_SHIPMENT);
+        return saved;
     }
 
     @Transactional
@@ -679,13 +924,6 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
         return report;
     }
     
-    // 生成订单编号
-    private String generateOrderNo() {
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        String random = UUID.randomUUID().toString().substring(0, 8);
-        return timestamp + random;
-    }
-    
     // 计算订单总金额和总数量
     private void calculateOrderAmount(Order order) {
         BigDecimal totalAmount = BigDecimal.ZERO;
@@ -736,112 +974,55 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
             // 扣减库存
             product.setStock(product.getStock() - item.getQuantity());
             productRepository.save(product);
+            productStatisticsService.refreshProduct(product.getId());
         }
     }
 
     // 恢复库存
     private void restoreStock(Order order) {
+        // 同一商品、尺码的数量先合并，按主键顺序用增量更新恢复，不覆盖并发结算的扣减
+        Map<Long, Integer> productQuantities = new TreeMap<>();
+        Map<Long, Map<String, Integer>> sizeQuantities = new TreeMap<>();
         for (OrderItem item : order.getOrderItems()) {
-            Product product = productRepository.findById(item.getProduct().getId())
-                    .orElseThrow(() -> new RuntimeException("产品不存在: " + item.getProduct().getId()));
-
-            // 恢复库存
-            product.setStock(product.getStock() + item.getQuantity());
-            productRepository.save(product);
-
+            if (item.getProduct() == null || item.getProduct().getId() == null || item.getQuantity() == null) {
+                continue;
+            }
+            Long productId = item.getProduct().getId();
+            productQuantities.merge(productId, item.getQuantity(), Integer::sum);
             if (item.getSize() != null && !item.getSize().isBlank()) {
-                ProductSizeAllocation allocation = productSizeAllocationRepository
-                        .findByProductIdAndSizeLabel(product.getId(), item.getSize())
-                        .orElse(null);
-                if (allocation == null) {
-                    allocation = new ProductSizeAllocation();
-                    allocation.setProduct(product);
-                    allocation.setSizeLabel(item.getSize());
-                    allocation.setQuantity(0);
-                }
-                allocation.setQuantity(allocation.getQuantity() + item.getQuantity());
-                productSizeAllocationRepository.save(allocation);
+                sizeQuantities.computeIfAbsent(productId, id -> new TreeMap<>())
+                        .merge(item.getSize(), item.getQuantity(), Integer::sum);
             }
         }
+        stockRestorer.restore(productQuantities, sizeQuantities);
+        productQuantities.keySet().forEach(productStatisticsService::refreshProduct);
     }
 
-    private void distributeToSuppliers(Order order, BigDecimal payoutPool) {
-        BigDecimal effectivePool = payoutPool == null ? BigDecimal.ZERO : payoutPool;
-        if (effectivePool.compareTo(BigDecimal.ZERO) <= 0) {
-            return;
-        }
-
-        Map<Long, BigDecimal> payouts = calculateSupplierPayouts(order, effectivePool);
-        for (Map.Entry<Long, BigDecimal> entry : payouts.entrySet()) {
-            Supplier supplier = supplierRepository.findById(entry.getKey())
-                    .orElseThrow(() -> new RuntimeException("供应商不存在: " + entry.getKey()));
-            BigDecimal current = supplier.getWalletBalance() == null
-                    ? BigDecimal.valueOf(1000L)
-                    : supplier.getWalletBalance();
-            supplier.setWalletBalance(current.add(entry.getValue()));
-            supplierRepository.save(supplier);
-        }
-    }
-
+    // 撤销已结算订单时记录扣回行，供应商余额在下一个结算周期统一扣减
     private BigDecimal rollbackSupplierDistribution(Order order) {
         BigDecimal totalAmount = Optional.ofNullable(order.getTotalAmount()).orElse(BigDecimal.ZERO);
-        BigDecimal commission = totalAmount.multiply(ADMIN_COMMISSION_RATE).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal commission = SupplierPayouts.commissionOf(totalAmount);
         BigDecimal payoutPool = totalAmount.subtract(commission);
         if (payoutPool.compareTo(BigDecimal.ZERO) < 0) {
             payoutPool = BigDecimal.ZERO;
         }
 
         Map<Long, BigDecimal> payouts = calculateSupplierPayouts(order, payoutPool);
+        Map<Long, BigDecimal> debits = new TreeMap<>();
         BigDecimal recovered = BigDecimal.ZERO;
         for (Map.Entry<Long, BigDecimal> entry : payouts.entrySet()) {
-            Supplier supplier = supplierRepository.findById(entry.getKey())
-                    .orElseThrow(() -> new RuntimeException("供应商不存在: " + entry.getKey()));
-            BigDecimal current = supplier.getWalletBalance() == null
-                    ? BigDecimal.valueOf(1000L)
-                    : supplier.getWalletBalance();
-            BigDecimal updated = current.subtract(entry.getValue());
-            if (updated.compareTo(BigDecimal.ZERO) < 0) {
-                updated = BigDecimal.ZERO;
+            if (!supplierRepository.existsById(entry.getKey())) {
+                throw new RuntimeException("供应商不存在: " + entry.getKey());
             }
-            supplier.setWalletBalance(updated);
-            supplierRepository.save(supplier);
+            debits.put(entry.getKey(), entry.getValue().negate());
             recovered = recovered.add(entry.getValue());
         }
+        supplierSettlementService.record(SettlementLineTypes.ORDER_REVOKED, order.getId(), null, debits);
         return recovered;
     }
 
     private Map<Long, BigDecimal> calculateSupplierPayouts(Order order, BigDecimal payoutPool) {
-        Map<Long, BigDecimal> baseAmounts = collectSupplierAmounts(order);
-        if (baseAmounts.isEmpty() || payoutPool.compareTo(BigDecimal.ZERO) <= 0) {
-            return Map.of();
-        }
-
-        BigDecimal totalBase = baseAmounts.values().stream()
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        if (totalBase.compareTo(BigDecimal.ZERO) <= 0) {
-            return Map.of();
-        }
-
-        LinkedHashMap<Long, BigDecimal> payouts = new LinkedHashMap<>();
-        BigDecimal distributed = BigDecimal.ZERO;
-        Long lastSupplierId = null;
-
-        for (Map.Entry<Long, BigDecimal> entry : baseAmounts.entrySet()) {
-            lastSupplierId = entry.getKey();
-            BigDecimal ratio = entry.getValue().divide(totalBase, 10, RoundingMode.HALF_UP);
-            BigDecimal share = payoutPool.multiply(ratio).setScale(2, RoundingMode.HALF_UP);
-            payouts.put(entry.getKey(), share);
-            distributed = distributed.add(share);
-        }
-
-        if (lastSupplierId != null) {
-            BigDecimal remainder = payoutPool.subtract(distributed);
-            if (remainder.compareTo(BigDecimal.ZERO) != 0) {
-                payouts.computeIfPresent(lastSupplierId, (id, amount) -> amount.add(remainder));
-            }
-        }
-
-        return payouts;
+        return SupplierPayouts.split(collectSupplierAmounts(order), payoutPool);
     }
 
     private Pageable resolveAdminPageable(Pageable pageable) {
@@ -919,6 +1100,10 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
         return new LinkedHashMap<>(new TreeMap<>(earnings));
     }
 
+    private static Long consumerIdOf(Order order) {
+        return order.getConsumer() == null ? null : order.getConsumer().getId();
+    }
+
     private Consumer attachConsumer(Order order) {
         if (order.getConsumer() == null || order.getConsumer().getId() == null) {
             return null;
@@ -950,8 +1135,4 @@ public class OrderServiceImpl extends BaseServiceImpl<Order, Long> implements Or
     private BigDecimal resolveBalance(BigDecimal balance) {
         return balance == null ? DEFAULT_WALLET_BALANCE : balance;
     }
-
-    private String generateConsumerLookupId() {
-        return "C" + UUID.randomUUID().toString().replaceAll("-", "").substring(0, 12).toUpperCase();
-    }
 }
@@ -0,0 +1,287 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.dto.FacetCountDTO;
+import com.example.silkmall.dto.ProductCatalogEntryDTO;
+import com.example.silkmall.dto.ProductFacetsDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bitset index over the product catalogue. Every product gets a dense ordinal and is registered in
+ * one bitset per category, supplier, supplier level, status and price bucket. Facet counts are the
+ * cardinalities of the filtered result set intersected with each value's bitset, computed in one pass
+ * over memory instead of a {@code GROUP BY} per facet.
+ *
+ * <p>Each facet is counted with every filter applied except the one on its own dimension, so a
+ * sidebar still shows how many products the sibling categories or price ranges would return.</p>
+ *
+ * <p>Not thread-safe; callers guard it with their own lock.</p>
+ */
+final class ProductFacetIndex {
+
+    static final BigDecimal[] PRICE_BOUNDARIES = {
+            BigDecimal.valueOf(100),
+            BigDecimal.valueOf(300),
+            BigDecimal.valueOf(500),
+            BigDecimal.valueOf(1000)
+    };
+
+    private static final Comparator<FacetCountDTO> BY_COUNT = Comparator.comparing(FacetCountDTO::getCount).reversed()
+            .thenComparing(FacetCountDTO::getLabel, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<ProductCatalogEntryDTO> slots = new ArrayList<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private final Map<Long, BitSet> byCategory = new HashMap<>();
+    private final Map<Long, BitSet> bySupplier = new HashMap<>();
+    private final Map<String, BitSet> bySupplierLevel = new HashMap<>();
+    private final Map<String, BitSet> byStatus = new HashMap<>();
+    private final BitSet[] byPriceBucket = new BitSet[PRICE_BOUNDARIES.length + 1];
+    private final Map<Long, String> categoryNames = new HashMap<>();
+
+    ProductFacetIndex() {
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            byPriceBucket[i] = new BitSet();
+        }
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    void put(ProductCatalogEntryDTO product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        remove(product.getId());
+        Integer reused = freeOrdinals.poll();
+        int ordinal = reused != null ? reused : slots.size();
+        if (reused != null) {
+            slots.set(ordinal, product);
+        } else {
+            slots.add(product);
+        }
+        ordinals.put(product.getId(), ordinal);
+        live.set(ordinal);
+        if (product.getCategoryId() != null) {
+            byCategory.computeIfAbsent(product.getCategoryId(), id -> new BitSet()).set(ordinal);
+            if (product.getCategoryName() != null) {
+                categoryNames.put(product.getCategoryId(), product.getCategoryName());
+            }
+        }
+        if (product.getSupplierId() != null) {
+            bySupplier.computeIfAbsent(product.getSupplierId(), id -> new BitSet()).set(ordinal);
+        }
+        String level = normalize(product.getSupplierLevel());
+        if (level != null) {
+            bySupplierLevel.computeIfAbsent(level, key -> new BitSet()).set(ordinal);
+        }
+        String status = normalize(product.getStatus());
+        if (status != null) {
+            byStatus.computeIfAbsent(status, key -> new BitSet()).set(ordinal);
+        }
+        byPriceBucket[priceBucket(product.getPrice())].set(ordinal);
+    }
+
+    void remove(Long productId) {
+        Integer ordinal = ordinals.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+        ProductCatalogEntryDTO product = slots.set(ordinal, null);
+        live.clear(ordinal);
+        clear(byCategory.get(product.getCategoryId()), ordinal);
+        clear(bySupplier.get(product.getSupplierId()), ordinal);
+        clear(bySupplierLevel.get(normalize(product.getSupplierLevel())), ordinal);
+        clear(byStatus.get(normalize(product.getStatus())), ordinal);
+        byPriceBucket[priceBucket(product.getPrice())].clear(ordinal);
+        freeOrdinals.push(ordinal);
+    }
+
+    void renameCategory(Long categoryId, String name) {
+        if (categoryId == null) {
+            return;
+        }
+        if (name == null) {
+            categoryNames.remove(categoryId);
+        } else {
+            categoryNames.put(categoryId, name);
+        }
+    }
+
+    void changeSupplierLevel(Long supplierId, String supplierLevel) {
+        BitSet products = bySupplier.get(supplierId);
+        if (products == null) {
+            return;
+        }
+        String level = normalize(supplierLevel);
+        for (int ordinal = products.nextSetBit(0); ordinal >= 0; ordinal = products.nextSetBit(ordinal + 1)) {
+            ProductCatalogEntryDTO product = slots.get(ordinal);
+            String previous = normalize(product.getSupplierLevel());
+            if (Objects.equals(previous, level)) {
+                continue;
+            }
+            clear(bySupplierLevel.get(previous), ordinal);
+            if (level != null) {
+                bySupplierLevel.computeIfAbsent(level, key -> new BitSet()).set(ordinal);
+            }
+            product.setSupplierLevel(supplierLevel);
+        }
+    }
+
+    BitSet ordinalsOf(Collection<Long> productIds) {
+        BitSet matches = new BitSet();
+        for (Long productId : productIds) {
+            Integer ordinal = ordinals.get(productId);
+            if (ordinal != null) {
+                matches.set(ordinal);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @param keywordMatches ordinals matching the keyword, or {@code null} when no keyword was given
+     * @param categoryIds    categories any of which a product may belong to, or {@code null} for no filter
+     */
+    ProductFacetsDTO count(BitSet keywordMatches,
+                           Collection<Long> categoryIds,
+                           Long supplierId,
+                           BigDecimal minPrice,
+                           BigDecimal maxPrice,
+                           String status) {
+        BitSet base = (BitSet) live.clone();
+        if (keywordMatches != null) {
+            base.and(keywordMatches);
+        }
+        if (supplierId != null) {
+            base.and(bySupplier.getOrDefault(supplierId, new BitSet()));
+        }
+        String normalizedStatus = normalize(status);
+        if (normalizedStatus != null) {
+            base.and(byStatus.getOrDefault(normalizedStatus, new BitSet()));
+        }
+
+        BitSet categoryFilter = null;
+        if (categoryIds != null) {
+            categoryFilter = new BitSet();
+            for (Long categoryId : categoryIds) {
+                BitSet members = byCategory.get(categoryId);
+                if (members != null) {
+                    categoryFilter.or(members);
+                }
+            }
+        }
+        BitSet priceFilter = (minPrice == null && maxPrice == null) ? null : priceRange(base, minPrice, maxPrice);
+
+        BitSet withoutCategory = intersect(base, priceFilter);
+        BitSet withoutPrice = intersect(base, categoryFilter);
+        BitSet all = intersect(withoutCategory, categoryFilter);
+
+        ProductFacetsDTO facets = new ProductFacetsDTO();
+        facets.setTotal((long) all.cardinality());
+
+        for (Map.Entry<Long, BitSet> entry : byCategory.entrySet()) {
+            long count = intersectionCount(withoutCategory, entry.getValue());
+            if (count > 0 || (categoryIds != null && categoryIds.contains(entry.getKey()))) {
+                String id = String.valueOf(entry.getKey());
+                facets.getCategories().add(new FacetCountDTO(id, categoryNames.getOrDefault(entry.getKey(), id), count));
+            }
+        }
+        facets.getCategories().sort(BY_COUNT);
+
+        for (Map.Entry<String, BitSet> entry : bySupplierLevel.entrySet()) {
+            long count = intersectionCount(all, entry.getValue());
+            if (count > 0) {
+                facets.getSupplierLevels().add(new FacetCountDTO(entry.getKey(), entry.getKey(), count));
+            }
+        }
+        facets.getSupplierLevels().sort(BY_COUNT);
+
+        for (int bucket = 0; bucket < byPriceBucket.length; bucket++) {
+            String range = bucketRange(bucket);
+            facets.getPriceBuckets().add(new FacetCountDTO(range, range,
+                    intersectionCount(withoutPrice, byPriceBucket[bucket])));
+        }
+        return facets;
+    }
+
+    private BitSet priceRange(BitSet candidates, BigDecimal minPrice, BigDecimal maxPrice) {
+        BitSet matches = new BitSet();
+        for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+            BigDecimal price = slots.get(ordinal).getPrice();
+            if (price == null) {
+                continue;
+            }
+            if (minPrice != null && price.compareTo(minPrice) < 0) {
+                continue;
+            }
+            if (maxPrice != null && price.compareTo(maxPrice) > 0) {
+                continue;
+            }
+            matches.set(ordinal);
+        }
+        return matches;
+    }
+
+    static int priceBucket(BigDecimal price) {
+        if (price == null) {
+            return 0;
+        }
+        for (int i = 0; i < PRICE_BOUNDARIES.length; i++) {
+            if (price.compareTo(PRICE_BOUNDARIES[i]) < 0) {
+                return i;
+            }
+        }
+        return PRICE_BOUNDARIES.length;
+    }
+
+    // 价格区间以 "下限-上限" 表示，最高一档没有上限，例如 "1000-"
+    static String bucketRange(int bucket) {
+        String lower = bucket == 0 ? "0" : PRICE_BOUNDARIES[bucket - 1].toPlainString();
+        String upper = bucket < PRICE_BOUNDARIES.length ? PRICE_BOUNDARIES[bucket].toPlainString() : "";
+        return lower + "-" + upper;
+    }
+
+    private static BitSet intersect(BitSet left, BitSet right) {
+        BitSet result = (BitSet) left.clone();
+        if (right != null) {
+            result.and(right);
+        }
+        return result;
+    }
+
+    private static long intersectionCount(BitSet left, BitSet right) {
+        if (!left.intersects(right)) {
+            return 0;
+        }
+        BitSet result = (BitSet) left.clone();
+        result.and(right);
+        return result.cardinality();
+    }
+
+    private static void clear(BitSet bits, int ordinal) {
+        if (bits != null) {
+            bits.clear(ordinal);
+        }
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toUpperCase(Locale.ROOT);
+    }
+}
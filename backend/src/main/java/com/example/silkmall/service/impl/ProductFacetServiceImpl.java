@@ -0,0 +1,132 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.common.TransactionCallbacks;
+import com.example.silkmall.dto.ProductCatalogEntryDTO;
+import com.example.silkmall.dto.ProductFacetsDTO;
+import com.example.silkmall.repository.ProductRepository;
+import com.example.silkmall.service.ProductFacetService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps a {@link ProductFacetIndex} in sync with the catalogue and answers facet counts for the
+ * advanced search filters. Only a keyword needs the database (one id-only query); category, supplier,
+ * status and price filters are resolved entirely against the in-memory bitsets. A category filter
+ * covers the category's whole subtree, taken from the {@link CategoryTreeCache}.
+ */
+@Service
+public class ProductFacetServiceImpl implements ProductFacetService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductFacetServiceImpl.class);
+
+    private final ProductRepository productRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private ProductFacetIndex index = new ProductFacetIndex();
+
+    @Autowired
+    public ProductFacetServiceImpl(ProductRepository productRepository, CategoryTreeCache categoryTreeCache) {
+        this.productRepository = productRepository;
+        this.categoryTreeCache = categoryTreeCache;
+    }
+
+    @Override
+    public ProductFacetsDTO countFacets(String keyword,
+                                        Long categoryId,
+                                        Long supplierId,
+                                        BigDecimal minPrice,
+                                        BigDecimal maxPrice,
+                                        String status) {
+        List<Long> keywordMatches = null;
+        if (keyword != null && !keyword.isBlank()) {
+            String pattern = "%" + keyword.trim().toLowerCase(Locale.ROOT) + "%";
+            keywordMatches = productRepository.findIdsByKeyword(pattern);
+        }
+        List<Long> categoryScope = null;
+        if (categoryId != null) {
+            List<Long> subtree = categoryTreeCache.subtreeIds(categoryId);
+            categoryScope = subtree.isEmpty() ? List.of(categoryId) : subtree;
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet keywordOrdinals = keywordMatches == null ? null : index.ordinalsOf(keywordMatches);
+            return index.count(keywordOrdinals, categoryScope, supplierId, minPrice, maxPrice, status);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public void rebuild() {
+        ProductFacetIndex rebuilt = new ProductFacetIndex();
+        productRepository.findCatalogEntries().forEach(rebuilt::put);
+        lock.writeLock().lock();
+        try {
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built product facet index with {} products", rebuilt.size());
+    }
+
+    @Override
+    public void refreshProduct(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            ProductCatalogEntryDTO current = productRepository.findCatalogEntryById(productId).orElse(null);
+            lock.writeLock().lock();
+            try {
+                if (current == null) {
+                    index.remove(productId);
+                } else {
+                    index.put(current);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void refreshCategory(Long categoryId, String name) {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                index.renameCategory(categoryId, name);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void refreshSupplier(Long supplierId, String supplierLevel) {
+        if (supplierId == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                index.changeSupplierLevel(supplierId, supplierLevel);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.common.DataFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads product import rows one at a time from a CSV (with header) or NDJSON upload. Malformed rows are
+ * returned with {@link Row#error()} set rather than failing the whole file.
+ */
+final class ProductImportReader implements Closeable {
+
+    record Row(int line, String name, String description, String price, String unit, String stock,
+               String status, String category, Map<String, String> sizes, List<String> images,
+               String mainImage, String error) {
+
+        static Row invalid(int line, String name, String error) {
+            return new Row(line, name, null, null, null, null, null, null, Map.of(), List.of(), null, error);
+        }
+    }
+
+    private final DataFormat format;
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> columns;
+    private int line = 1;
+
+    ProductImportReader(DataFormat format, InputStream input, ObjectMapper objectMapper) {
+        this.format = format;
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return the next row, or {@code null} at the end of the input
+     */
+    Row next() throws IOException {
+        return format == DataFormat.NDJSON ? nextJson() : nextCsv();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Row nextCsv() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+        while (true) {
+            int start = line;
+            List<String> fields = readCsvRecord();
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            String name = cell(fields, "name");
+            try {
+                return new Row(start, name, cell(fields, "description"), cell(fields, "price"),
+                        cell(fields, "unit"), cell(fields, "stock"), cell(fields, "status"),
+                        cell(fields, "category"), parseSizes(cell(fields, "sizes")),
+                        parseImages(cell(fields, "images")), cell(fields, "mainimage"), null);
+            } catch (RuntimeException e) {
+                return Row.invalid(start, name, e.getMessage());
+            }
+        }
+    }
+
+    private void readHeader() throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        List<String> header = readCsvRecord();
+        if (header == null) {
+            throw new RuntimeException("导入文件为空");
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(columnKey(header.get(i)), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price")) {
+            throw new RuntimeException("导入文件缺少 name 或 price 列");
+        }
+    }
+
+    // 按 RFC 4180 读取一条记录，引号内允许逗号、双引号转义和换行
+    private List<String> readCsvRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean read = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            read = true;
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (ch == '\n') {
+                        line++;
+                    }
+                    field.append(ch);
+                }
+            } else if (ch == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+        }
+        if (!read) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private String cell(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Row nextJson() throws IOException {
+        while (true) {
+            String text = reader.readLine();
+            int current = line++;
+            if (text == null) {
+                return null;
+            }
+            if (text.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                return Row.invalid(current, null, "不是有效的 JSON");
+            }
+            if (node == null || !node.isObject()) {
+                return Row.invalid(current, null, "每行必须是一个 JSON 对象");
+            }
+            String name = text(node, "name");
+            try {
+                return new Row(current, name, text(node, "description"), text(node, "price"), text(node, "unit"),
+                        text(node, "stock"), text(node, "status"), text(node, "category"), jsonSizes(node.get("sizes")),
+                        jsonImages(node.get("images")), text(node, "mainImage"), null);
+            } catch (RuntimeException e) {
+                return Row.invalid(current, name, e.getMessage());
+            }
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        String text = value.asText().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static Map<String, String> jsonSizes(JsonNode sizes) {
+        if (sizes == null || sizes.isNull()) {
+            return Map.of();
+        }
+        if (sizes.isTextual()) {
+            return parseSizes(sizes.asText());
+        }
+        if (!sizes.isObject()) {
+            throw new RuntimeException("sizes 必须是尺码到数量的对象");
+        }
+        Map<String, String> result = new LinkedHashMap<>();
+        sizes.fields().forEachRemaining(entry -> result.put(entry.getKey().trim(), entry.getValue().asText().trim()));
+        return result;
+    }
+
+    private static List<String> jsonImages(JsonNode images) {
+        if (images == null || images.isNull()) {
+            return List.of();
+        }
+        if (images.isTextual()) {
+            return parseImages(images.asText());
+        }
+        if (!images.isArray()) {
+            throw new RuntimeException("images 必须是图片地址数组");
+        }
+        List<String> result = new ArrayList<>();
+        images.forEach(image -> {
+            String value = image.asText().trim();
+            if (!value.isEmpty()) {
+                result.add(value);
+            }
+        });
+        return result;
+    }
+
+    private static Map<String, String> parseSizes(String value) {
+        if (value == null || value.isBlank()) {
+            return Map.of();
+        }
+        Map<String, String> sizes = new LinkedHashMap<>();
+        for (String entry : value.split(";")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new RuntimeException("尺码格式应为 尺码:数量，多个尺码用分号分隔");
+            }
+            sizes.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+        }
+        return sizes;
+    }
+
+    private static List<String> parseImages(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        List<String> images = new ArrayList<>();
+        for (String image : value.split("\\|")) {
+            if (!image.isBlank()) {
+                images.add(image.trim());
+            }
+        }
+        return images;
+    }
+
+    private static String columnKey(String header) {
+        return header.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,321 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.common.DataFormat;
+import com.example.silkmall.dto.ProductImportErrorDTO;
+import com.example.silkmall.dto.ProductImportResultDTO;
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.ProductSizeAllocation;
+import com.example.silkmall.repository.ProductSizeAllocationRepository;
+import com.example.silkmall.repository.SupplierRepository;
+import com.example.silkmall.service.ProductFacetService;
+import com.example.silkmall.service.ProductImportService;
+import com.example.silkmall.service.ProductStatisticsService;
+import com.example.silkmall.service.ProductSuggestionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportServiceImpl.class);
+
+    static final int CHUNK_SIZE = 500;
+    // 与 products 表的列定义一致：字符串列为 varchar(255)，价格为 decimal(38,2)
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+    private static final int MAX_UNIT_LENGTH = 255;
+    private static final int MAX_PRICE_INTEGER_DIGITS = 36;
+    private static final int MAX_SIZE_LABEL_LENGTH = 20;
+    private static final int MAX_IMAGE_URL_LENGTH = 255;
+    private static final Set<String> STATUSES = Set.of("ON_SALE", "OFF_SALE");
+
+    private static final String INSERT_PRODUCT = "insert into products (name, description, price, unit, stock, "
+            + "sales, main_image, status, created_at, updated_at, category_id, supplier_id) "
+            + "values (?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_IMAGE =
+            "insert into product_images (image_url, sort_order, created_at, product_id) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final SupplierRepository supplierRepository;
+    private final ProductSizeAllocationRepository productSizeAllocationRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ProductSuggestionService productSuggestionService;
+    private final ProductFacetService productFacetService;
+    private final ProductStatisticsService productStatisticsService;
+    private final ObjectMapper objectMapper;
+
+    public ProductImportServiceImpl(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    EntityManager entityManager,
+                                    SupplierRepository supplierRepository,
+                                    ProductSizeAllocationRepository productSizeAllocationRepository,
+                                    CategoryTreeCache categoryTreeCache,
+                                    ProductSuggestionService productSuggestionService,
+                                    ProductFacetService productFacetService,
+                                    ProductStatisticsService productStatisticsService,
+                                    ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.supplierRepository = supplierRepository;
+        this.productSizeAllocationRepository = productSizeAllocationRepository;
+        this.categoryTreeCache = categoryTreeCache;
+        this.productSuggestionService = productSuggestionService;
+        this.productFacetService = productFacetService;
+        this.productStatisticsService = productStatisticsService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ProductImportResultDTO importProducts(Long supplierId, DataFormat format, InputStream input)
+            throws IOException {
+        if (supplierId == null || !supplierRepository.existsById(supplierId)) {
+            throw new RuntimeException("供应商不存在");
+        }
+        ProductImportResultDTO result = new ProductImportResultDTO();
+        try (ProductImportReader reader = new ProductImportReader(format, input, objectMapper)) {
+            List<ProductImportReader.Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            ProductImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(supplierId, chunk, result);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(supplierId, chunk, result);
+            }
+        }
+        if (result.getImportedCount() > 0) {
+            // 逐个刷新上千个商品不如整体重建一次
+            productSuggestionService.rebuild();
+            productFacetService.rebuild();
+            productStatisticsService.reconcile();
+        }
+        log.info("Imported {} of {} products for supplier {}", result.getImportedCount(), result.getTotalRows(),
+                supplierId);
+        return result;
+    }
+
+    private void importChunk(Long supplierId, List<ProductImportReader.Row> rows, ProductImportResultDTO result) {
+        result.setTotalRows(result.getTotalRows() + rows.size());
+        // 校验只读内存中的分类快照，可以并行
+        List<Validated> validated = rows.parallelStream().map(this::validate).toList();
+        List<ImportedProduct> products = new ArrayList<>();
+        for (Validated entry : validated) {
+            if (entry.error() != null) {
+                result.getErrors().add(new ProductImportErrorDTO(entry.row().line(), entry.row().name(), entry.error()));
+            } else {
+                products.add(entry.product());
+            }
+        }
+        if (products.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeChunk(supplierId, products));
+            result.setImportedCount(result.getImportedCount() + products.size());
+        } catch (RuntimeException e) {
+            // 整批写入失败时逐行重试，只报告真正写不进去的行
+            log.warn("Product import chunk for supplier {} failed, retrying row by row", supplierId, e);
+            for (ImportedProduct product : products) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> writeChunk(supplierId, List.of(product)));
+                    result.setImportedCount(result.getImportedCount() + 1);
+                } catch (RuntimeException rowError) {
+                    result.getErrors().add(new ProductImportErrorDTO(product.line(), product.name(),
+                            "写入失败: " + rowError.getMessage()));
+                }
+            }
+        }
+    }
+
+    private Validated validate(ProductImportReader.Row row) {
+        if (row.error() != null) {
+            return new Validated(row, null, row.error());
+        }
+        String name = row.name();
+        if (name == null) {
+            return new Validated(row, null, "商品名称不能为空");
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            return new Validated(row, null, "商品名称过长");
+        }
+
+        BigDecimal price;
+        try {
+            price = row.price() == null ? null : new BigDecimal(row.price());
+        } catch (NumberFormatException e) {
+            return new Validated(row, null, "价格格式不正确: " + row.price());
+        }
+        if (price == null || price.signum() <= 0) {
+            return new Validated(row, null, "价格必须大于0");
+        }
+        if (price.precision() - price.scale() > MAX_PRICE_INTEGER_DIGITS) {
+            return new Validated(row, null, "价格超出范围");
+        }
+        if (row.description() != null && row.description().length() > MAX_DESCRIPTION_LENGTH) {
+            return new Validated(row, null, "商品描述不能超过" + MAX_DESCRIPTION_LENGTH + "个字符");
+        }
+        if (row.unit() != null && row.unit().length() > MAX_UNIT_LENGTH) {
+            return new Validated(row, null, "计量单位不能超过" + MAX_UNIT_LENGTH + "个字符");
+        }
+
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : row.sizes().entrySet()) {
+            String label = entry.getKey();
+            if (label.isEmpty() || label.length() > MAX_SIZE_LABEL_LENGTH) {
+                return new Validated(row, null, "尺码名称不能为空且不能超过" + MAX_SIZE_LABEL_LENGTH + "个字符");
+            }
+            Integer quantity = parseQuantity(entry.getValue());
+            if (quantity == null) {
+                return new Validated(row, null, "尺码" + label + "的数量必须是非负整数");
+            }
+            if (quantity > 0) {
+                sizes.merge(label, quantity, Integer::sum);
+            }
+        }
+        int sizeTotal = sizes.values().stream().mapToInt(Integer::intValue).sum();
+        Integer stock = row.stock() == null ? null : parseQuantity(row.stock());
+        if (row.stock() != null && stock == null) {
+            return new Validated(row, null, "库存必须是非负整数");
+        }
+        if (!sizes.isEmpty()) {
+            if (stock != null && stock != sizeTotal) {
+                return new Validated(row, null, "尺码分配数量与库存不一致");
+            }
+            stock = sizeTotal;
+        }
+
+        String status = row.status() == null ? "OFF_SALE" : row.status().toUpperCase(Locale.ROOT);
+        if (!STATUSES.contains(status)) {
+            return new Validated(row, null, "状态只能是 ON_SALE 或 OFF_SALE");
+        }
+
+        Long categoryId = null;
+        if (row.category() != null) {
+            categoryId = categoryTreeCache.findIdByName(row.category()).orElse(null);
+            if (categoryId == null) {
+                return new Validated(row, null, "分类不存在或名称不唯一: " + row.category());
+            }
+        }
+
+        for (String image : row.images()) {
+            if (image.length() > MAX_IMAGE_URL_LENGTH) {
+                return new Validated(row, null, "图片地址过长");
+            }
+        }
+        String mainImage = row.mainImage() != null ? row.mainImage()
+                : row.images().isEmpty() ? null : row.images().get(0);
+
+        return new Validated(row, new ImportedProduct(row.line(), name, row.description(), price, row.unit(),
+                stock == null ? 0 : stock, status, categoryId, sizes, row.images(), mainImage), null);
+    }
+
+    private static Integer parseQuantity(String value) {
+        try {
+            int quantity = Integer.parseInt(value.trim());
+            return quantity < 0 ? null : quantity;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void writeChunk(Long supplierId, List<ImportedProduct> products) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_PRODUCT, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ImportedProduct product = products.get(i);
+                        ps.setString(1, product.name());
+                        ps.setString(2, product.description());
+                        ps.setBigDecimal(3, product.price());
+                        ps.setString(4, product.unit());
+                        ps.setInt(5, product.stock());
+                        ps.setString(6, product.mainImage());
+                        ps.setString(7, product.status());
+                        ps.setTimestamp(8, now);
+                        ps.setTimestamp(9, now);
+                        if (product.categoryId() == null) {
+                            ps.setNull(10, Types.BIGINT);
+                        } else {
+                            ps.setLong(10, product.categoryId());
+                        }
+                        ps.setLong(11, supplierId);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return products.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != products.size()) {
+            throw new RuntimeException("批量写入商品未返回全部主键");
+        }
+
+        List<Object[]> images = new ArrayList<>();
+        List<ProductSizeAllocation> allocations = new ArrayList<>();
+        for (int i = 0; i < products.size(); i++) {
+            ImportedProduct product = products.get(i);
+            Long productId = ((Number) generated.get(i).values().iterator().next()).longValue();
+            for (int sort = 0; sort < product.images().size(); sort++) {
+                images.add(new Object[]{product.images().get(sort), sort, now, productId});
+            }
+            Product reference = entityManager.getReference(Product.class, productId);
+            product.sizes().forEach((label, quantity) -> {
+                ProductSizeAllocation allocation = new ProductSizeAllocation();
+                allocation.setProduct(reference);
+                allocation.setSizeLabel(label);
+                allocation.setQuantity(quantity);
+                allocations.add(allocation);
+            });
+        }
+        if (!images.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_IMAGE, images);
+        }
+        if (!allocations.isEmpty()) {
+            // 尺码主键来自池化的表生成器，交给 Hibernate 按批写入
+            productSizeAllocationRepository.saveAll(allocations);
+            entityManager.flush();
+        }
+        entityManager.clear();
+    }
+
+    private record ImportedProduct(int line, String name, String description, BigDecimal price, String unit,
+                                   int stock, String status, Long categoryId, Map<String, Integer> sizes,
+                                   List<String> images, String mainImage) {
+    }
+
+    private record Validated(ProductImportReader.Row row, ImportedProduct product, String error) {
+    }
+}
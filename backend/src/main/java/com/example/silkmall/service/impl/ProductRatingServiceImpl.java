@@ -0,0 +1,136 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.dto.ProductRatingDTO;
+import com.example.silkmall.entity.ProductRatingStats;
+import com.example.silkmall.repository.ProductRatingStatsRepository;
+import com.example.silkmall.service.ProductRatingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains {@link ProductRatingStats} with single-statement delta updates issued in the review write's
+ * own transaction, so the aggregate commits or rolls back together with the review. A product without
+ * a stats row (its first review since the last rebuild) gets an empty row inserted, ignoring a row a
+ * concurrent first review created meanwhile, and the delta is applied to it. The whole table is rebuilt
+ * from the reviews on startup.
+ */
+@Service
+public class ProductRatingServiceImpl implements ProductRatingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductRatingServiceImpl.class);
+
+    private final ProductRatingStatsRepository statsRepository;
+
+    @Autowired
+    public ProductRatingServiceImpl(ProductRatingStatsRepository statsRepository) {
+        this.statsRepository = statsRepository;
+    }
+
+    @Override
+    public ProductRatingDTO getRating(Long productId) {
+        return statsRepository.findById(productId)
+                .map(ProductRatingServiceImpl::toDto)
+                .orElseGet(() -> empty(productId));
+    }
+
+    @Override
+    public Map<Long, ProductRatingDTO> getRatings(Collection<Long> productIds) {
+        Map<Long, ProductRatingDTO> ratings = new HashMap<>();
+        if (productIds == null || productIds.isEmpty()) {
+            return ratings;
+        }
+        statsRepository.findAllById(productIds).forEach(stats -> ratings.put(stats.getProductId(), toDto(stats)));
+        for (Long productId : productIds) {
+            ratings.computeIfAbsent(productId, ProductRatingServiceImpl::empty);
+        }
+        return ratings;
+    }
+
+    @Override
+    @Transactional
+    public void recordAdded(Long productId, int rating) {
+        apply(productId, 1, rating, 0, rating);
+    }
+
+    @Override
+    @Transactional
+    public void recordChanged(Long productId, int previousRating, int rating) {
+        if (previousRating == rating) {
+            return;
+        }
+        apply(productId, 0, rating - previousRating, previousRating, rating);
+    }
+
+    @Override
+    @Transactional
+    public void recordRemoved(Long productId, int rating) {
+        apply(productId, -1, -rating, rating, 0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    @Override
+    public void rebuild() {
+        statsRepository.deleteAllDirectly();
+        int products = statsRepository.insertAllFromReviews();
+        log.info("Rebuilt rating stats for {} products", products);
+    }
+
+    private void apply(Long productId, long countDelta, long sumDelta, int removedStar, int addedStar) {
+        if (productId == null) {
+            return;
+        }
+        long[] stars = new long[6];
+        stars[removedStar]--;
+        stars[addedStar]++;
+        if (applyDelta(productId, countDelta, sumDelta, stars) == 0) {
+            // 启动时已按评价重建，缺行说明此前没有评价，先补一条空行再累加本次变更
+            statsRepository.insertEmptyIfAbsent(productId);
+            applyDelta(productId, countDelta, sumDelta, stars);
+        }
+    }
+
+    private int applyDelta(Long productId, long countDelta, long sumDelta, long[] stars) {
+        return statsRepository.applyDelta(productId, countDelta, sumDelta,
+                stars[1], stars[2], stars[3], stars[4], stars[5]);
+    }
+
+    private static ProductRatingDTO toDto(ProductRatingStats stats) {
+        ProductRatingDTO dto = new ProductRatingDTO();
+        dto.setProductId(stats.getProductId());
+        long count = stats.getRatingCount() == null ? 0L : Math.max(stats.getRatingCount(), 0L);
+        long sum = stats.getRatingSum() == null ? 0L : stats.getRatingSum();
+        dto.setCount(count);
+        dto.setAverage(count == 0 ? BigDecimal.ZERO
+                : BigDecimal.valueOf(sum).divide(BigDecimal.valueOf(count), 1, RoundingMode.HALF_UP));
+        dto.setHistogram(List.of(
+                orZero(stats.getOneStar()),
+                orZero(stats.getTwoStar()),
+                orZero(stats.getThreeStar()),
+                orZero(stats.getFourStar()),
+                orZero(stats.getFiveStar())));
+        return dto;
+    }
+
+    private static ProductRatingDTO empty(Long productId) {
+        ProductRatingDTO dto = new ProductRatingDTO();
+        dto.setProductId(productId);
+        return dto;
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0L : Math.max(value, 0L);
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.silkmall.service.impl;
 
+import com.example.silkmall.common.FeedCursor;
+import com.example.silkmall.dto.CursorPageDTO;
+import com.example.silkmall.dto.ReviewFeedItemDTO;
 import com.example.silkmall.entity.Admin;
 import com.example.silkmall.entity.Consumer;
 import com.example.silkmall.entity.OrderItem;
@@ -12,8 +15,11 @@ import com.example.silkmall.repository.ProductRepository;
 import com.example.silkmall.repository.ProductReviewRepository;
 import com.example.silkmall.repository.SupplierRepository;
 import com.example.silkmall.security.CustomUserDetails;
+import com.example.silkmall.service.ProductRatingService;
 import com.example.silkmall.service.ProductReviewService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,24 +29,29 @@ import static com.example.silkmall.common.OrderStatuses.DELIVERED;
 
 @Service
 public class ProductReviewServiceImpl extends BaseServiceImpl<ProductReview, Long> implements ProductReviewService {
+    private static final int MAX_FEED_SIZE = 50;
+
     private final ProductReviewRepository reviewRepository;
     private final OrderItemRepository orderItemRepository;
     private final ProductRepository productRepository;
     private final SupplierRepository supplierRepository;
     private final AdminRepository adminRepository;
+    private final ProductRatingService productRatingService;
 
     @Autowired
     public ProductReviewServiceImpl(ProductReviewRepository reviewRepository,
                                     OrderItemRepository orderItemRepository,
                                     ProductRepository productRepository,
                                     SupplierRepository supplierRepository,
-                                    AdminRepository adminRepository) {
+                                    AdminRepository adminRepository,
+                                    ProductRatingService productRatingService) {
         super(reviewRepository);
         this.reviewRepository = reviewRepository;
         this.orderItemRepository = orderItemRepository;
         this.productRepository = productRepository;
         this.supplierRepository = supplierRepository;
         this.adminRepository = adminRepository;
+        this.productRatingService = productRatingService;
     }
 
     @Override
@@ -81,7 +92,9 @@ public class ProductReviewServiceImpl extends BaseServiceImpl<ProductReview, Lon
             default -> throw new RuntimeException("仅消费者或管理员可对订单进行评价");
         }
 
-        return reviewRepository.save(review);
+        ProductReview saved = reviewRepository.save(review);
+        productRatingService.recordAdded(saved.getProduct().getId(), saved.getRating());
+        return saved;
     }
 
     @Override
@@ -117,7 +130,9 @@ public class ProductReviewServiceImpl extends BaseServiceImpl<ProductReview, Lon
             default -> throw new RuntimeException("仅供应商或管理员可直接评价商品");
         }
 
-        return reviewRepository.save(review);
+        ProductReview saved = reviewRepository.save(review);
+        productRatingService.recordAdded(product.getId(), saved.getRating());
+        return saved;
     }
 
     @Override
@@ -127,13 +142,20 @@ public class ProductReviewServiceImpl extends BaseServiceImpl<ProductReview, Lon
                 .orElseThrow(() -> new RuntimeException("评价不存在"));
 
         assertCanEdit(existing, author);
+        Integer previousRating = existing.getRating();
         if (rating != null) {
             existing.setRating(normalizeRating(rating));
         }
         if (comment != null) {
             existing.setComment(normalizeComment(comment));
         }
-        return reviewRepository.save(existing);
+        ProductReview saved = reviewRepository.save(existing);
+        if (previousRating == null) {
+            productRatingService.recordAdded(saved.getProduct().getId(), saved.getRating());
+        } else {
+            productRatingService.recordChanged(saved.getProduct().getId(), previousRating, saved.getRating());
+        }
+        return saved;
     }
 
     @Override
@@ -146,6 +168,9 @@ public class ProductReviewServiceImpl extends BaseServiceImpl<ProductReview, Lon
             throw new RuntimeException("没有权限删除该评价");
         }
         reviewRepository.delete(existing);
+        if (existing.getRating() != null) {
+            productRatingService.recordRemoved(existing.getProduct().getId(), existing.getRating());
+        }
     }
 
     @Override
@@ -163,6 +188,51 @@ public class ProductReviewServiceImpl extends BaseServiceImpl<ProductReview, Lon
         return reviewRepository.findByConsumer_IdOrderByCreatedAtDesc(consumerId);
     }
 
+    @Override
+    public CursorPageDTO<ReviewFeedItemDTO> findProductFeed(Long productId, String cursor, int size) {
+        FeedCursor after = FeedCursor.decode(cursor);
+        int pageSize = feedSize(size);
+        List<ReviewFeedItemDTO> rows = after == null
+                ? reviewRepository.findProductFeed(productId, probe(pageSize))
+                : reviewRepository.findProductFeedAfter(productId, after.getCreatedAt(), after.getId(), probe(pageSize));
+        return toFeedPage(rows, pageSize);
+    }
+
+    @Override
+    public CursorPageDTO<ReviewFeedItemDTO> findConsumerFeed(Long consumerId, String cursor, int size) {
+        FeedCursor after = FeedCursor.decode(cursor);
+        int pageSize = feedSize(size);
+        List<ReviewFeedItemDTO> rows = after == null
+                ? reviewRepository.findConsumerFeed(consumerId, probe(pageSize))
+                : reviewRepository.findConsumerFeedAfter(consumerId, after.getCreatedAt(), after.getId(), probe(pageSize));
+        return toFeedPage(rows, pageSize);
+    }
+
+    @Override
+    public List<ReviewFeedItemDTO> findOrderFeed(Long orderId) {
+        return reviewRepository.findOrderFeed(orderId);
+    }
+
+    private static int feedSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_FEED_SIZE);
+    }
+
+    // 多取一行用来判断是否还有下一页
+    private static Pageable probe(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    private static CursorPageDTO<ReviewFeedItemDTO> toFeedPage(List<ReviewFeedItemDTO> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<ReviewFeedItemDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ReviewFeedItemDTO last = items.get(items.size() - 1);
+            nextCursor = FeedCursor.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPageDTO<>(List.copyOf(items), nextCursor, hasMore);
+    }
+
     private void applyAuthorInfo(ProductReview review, Long authorId, String authorName, String role) {
         review.setAuthorId(authorId);
         review.setAuthorName(authorName);
@@ -1,11 +1,22 @@
 package com.example.silkmall.service.impl;
 
+import com.example.silkmall.dto.CategoryNodeDTO;
 import com.example.silkmall.dto.ProductOverviewDTO;
+import com.example.silkmall.dto.SizeAllocationQuantityDTO;
+import com.example.silkmall.entity.Category;
 import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.ProductImage;
 import com.example.silkmall.entity.ProductSizeAllocation;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.repository.ProductImageRepository;
 import com.example.silkmall.repository.ProductRepository;
 import com.example.silkmall.repository.ProductSizeAllocationRepository;
+import com.example.silkmall.service.ProductFacetService;
 import com.example.silkmall.service.ProductService;
+import com.example.silkmall.service.ProductStatisticsService;
+import com.example.silkmall.service.ProductSuggestionService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Join;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -15,23 +26,51 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProductServiceImpl extends BaseServiceImpl<Product, Long> implements ProductService {
     private final ProductRepository productRepository;
     private final ProductSizeAllocationRepository productSizeAllocationRepository;
+    private final ProductSuggestionService productSuggestionService;
+    private final ProductFacetService productFacetService;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ProductStatisticsService productStatisticsService;
+    private final CartStore cartStore;
+    private final ProductImageRepository productImageRepository;
+    private final EntityManager entityManager;
 
     @Autowired
     public ProductServiceImpl(ProductRepository productRepository,
-                              ProductSizeAllocationRepository productSizeAllocationRepository) {
+                              ProductSizeAllocationRepository productSizeAllocationRepository,
+                              ProductSuggestionService productSuggestionService,
+                              ProductFacetService productFacetService,
+                              CategoryTreeCache categoryTreeCache,
+                              ProductStatisticsService productStatisticsService,
+                              CartStore cartStore,
+                              ProductImageRepository productImageRepository,
+                              EntityManager entityManager) {
         super(productRepository);
         this.productRepository = productRepository;
         this.productSizeAllocationRepository = productSizeAllocationRepository;
+        this.productSuggestionService = productSuggestionService;
+        this.productFacetService = productFacetService;
+        this.categoryTreeCache = categoryTreeCache;
+        this.productStatisticsService = productStatisticsService;
+        this.cartStore = cartStore;
+        this.productImageRepository = productImageRepository;
+        this.entityManager = entityManager;
     }
     
     @Override
@@ -41,7 +80,11 @@ public class ProductServiceImpl extends BaseServiceImpl<Product, Long> implement
     
     @Override
     public Page<Product> findByCategoryId(Long categoryId, Pageable pageable) {
-        return productRepository.findByCategoryId(categoryId, pageable);
+        CategoryNodeDTO category = numberedCategory(categoryId);
+        if (category == null) {
+            return productRepository.findByCategoryId(categoryId, pageable);
+        }
+        return productRepository.findByCategoryTree(category.getLft(), category.getRgt(), pageable);
     }
     
     @Override
@@ -102,8 +145,16 @@ public class ProductServiceImpl extends BaseServiceImpl<Product, Long> implement
         }
 
         if (categoryId != null) {
-            specification = specification.and((root, query, cb) ->
-                    cb.equal(root.get("category").get("id"), categoryId));
+            CategoryNodeDTO category = numberedCategory(categoryId);
+            if (category == null) {
+                specification = specification.and((root, query, cb) ->
+                        cb.equal(root.get("category").get("id"), categoryId));
+            } else {
+                specification = specification.and((root, query, cb) -> {
+                    Join<Product, Category> categoryJoin = root.join("category");
+                    return cb.between(categoryJoin.get("lft"), category.getLft(), category.getRgt());
+                });
+            }
         }
 
         if (supplierId != null) {
@@ -130,19 +181,28 @@ public class ProductServiceImpl extends BaseServiceImpl<Product, Long> implement
         return productRepository.findAll(specification, pageable);
     }
 
+    // 分类及其全部子孙分类用一个 lft 区间条件匹配；尚未编号的分类退回按分类 id 精确匹配
+    private CategoryNodeDTO numberedCategory(Long categoryId) {
+        return categoryTreeCache.find(categoryId)
+                .filter(category -> category.getLft() != null && category.getRgt() != null)
+                .orElse(null);
+    }
+
     @Transactional
     @Override
     public void updateStock(Long id, Integer quantity) {
-        Product product = findById(id)
-                .orElseThrow(() -> new RuntimeException("产品不存在"));
-        
-        int newStock = product.getStock() + quantity;
-        if (newStock < 0) {
+        if (!productRepository.existsById(id)) {
+            throw new RuntimeException("产品不存在");
+        }
+        // 按尺码管理的商品只能逐尺码调整，否则总库存会与尺码合计脱节
+        if (productSizeAllocationRepository.existsByProductId(id)) {
+            throw new RuntimeException("该商品按尺码管理库存，请指定尺码");
+        }
+        if (productRepository.adjustStock(id, quantity) == 0) {
             throw new RuntimeException("库存不足");
         }
-        
-        product.setStock(newStock);
-        productRepository.save(product);
+        productStatisticsService.refreshProduct(id);
+        cartStore.evictProduct(id);
     }
     
     @Transactional
@@ -153,6 +213,7 @@ public class ProductServiceImpl extends BaseServiceImpl<Product, Long> implement
         
         product.setSales(product.getSales() + quantity);
         productRepository.save(product);
+        refreshCatalogIndexes(id);
     }
     
     @Override
@@ -166,6 +227,7 @@ public class ProductServiceImpl extends BaseServiceImpl<Product, Long> implement
         
         product.setStatus("ON_SALE");
         productRepository.save(product);
+        refreshCatalogIndexes(id);
     }
     
     @Override
@@ -175,14 +237,15 @@ public class ProductServiceImpl extends BaseServiceImpl<Product, Long> implement
         
         product.setStatus("OFF_SALE");
         productRepository.save(product);
+        refreshCatalogIndexes(id);
     }
     
+    @Transactional
     @Override
     public Product save(Product product) {
-        if (product.getId() != null && product.getCreatedAt() == null) {
-            productRepository.findById(product.getId())
-                    .map(Product::getCreatedAt)
-                    .ifPresent(product::setCreatedAt);
+        checkSizeTotal(product);
+        if (product.getId() != null) {
+            productRepository.findLockedById(product.getId()).ifPresent(stored -> applyStockChange(product, stored));
         }
         // 初始化销量为0
         if (product.getSales() == null) {
@@ -202,26 +265,40 @@ public class ProductServiceImpl extends BaseServiceImpl<Product, Long> implement
             product.setUnit(trimmedUnit.isEmpty() ? null : trimmedUnit);
         }
 
+        // 请求体里的分类、供应商只带 id，换成受管引用，返回结果才能带出名称
+        if (product.getCategory() != null && product.getCategory().getId() != null) {
+            product.setCategory(entityManager.getReference(Category.class, product.getCategory().getId()));
+        }
+        if (product.getSupplier() != null && product.getSupplier().getId() != null) {
+            product.setSupplier(entityManager.getReference(Supplier.class, product.getSupplier().getId()));
+        }
+
+        boolean created = product.getId() == null;
         Product persisted = super.save(product);
-        syncSizeAllocations(persisted, product.getSizeQuantities());
+        syncSizeAllocations(persisted, created, product.getSizeQuantities(), product.getExpectedSizeQuantities());
+        refreshCatalogIndexes(persisted.getId());
         return withSizeAllocations(persisted);
     }
 
     @Override
-    public ProductOverviewDTO getProductOverview() {
-        ProductOverviewDTO overview = new ProductOverviewDTO();
-        overview.setTotalProducts(productRepository.count());
-        overview.setOnSaleProducts(productRepository.countByStatus("ON_SALE"));
-        overview.setOffSaleProducts(productRepository.countByStatus("OFF_SALE"));
-        overview.setSoldOutProducts(productRepository.countByStockLessThanEqual(0));
+    public void deleteById(Long id) {
+        super.deleteById(id);
+        refreshCatalogIndexes(id);
+    }
 
-        Long totalStock = productRepository.sumStock();
-        overview.setTotalStock(totalStock != null ? totalStock : 0L);
+    @Override
+    public ProductOverviewDTO getProductOverview() {
+        return productStatisticsService.getOverview();
+    }
 
-        Long totalSalesVolume = productRepository.sumSales();
-        overview.setTotalSalesVolume(totalSalesVolume != null ? totalSalesVolume : 0L);
+    @Override
+    public ProductOverviewDTO getSupplierProductOverview(Long supplierId) {
+        return productStatisticsService.getSupplierOverview(supplierId);
+    }
 
-        return overview;
+    @Override
+    public Optional<String> findMainImage(Long id) {
+        return productRepository.findMainImageById(id).filter(image -> !image.isBlank());
     }
 
     @Override
@@ -241,36 +318,158 @@ public class ProductServiceImpl extends BaseServiceImpl<Product, Long> implement
         return product;
     }
 
-    private void syncSizeAllocations(Product product, Map<String, Integer> sizeQuantities) {
-        if (product == null || product.getId() == null) {
-            return;
+    @Transactional(readOnly = true)
+    @Override
+    public void streamCatalogue(int chunkSize, Consumer<List<Product>> chunkConsumer) {
+        try (Stream<Product> products = productRepository.streamCatalogue()) {
+            List<Product> chunk = new ArrayList<>(chunkSize);
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    emitCatalogueChunk(chunk, chunkConsumer);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                emitCatalogueChunk(chunk, chunkConsumer);
+            }
         }
-        productSizeAllocationRepository.deleteByProductId(product.getId());
+    }
+
+    // 每块商品一次性加载尺码和图片，交给调用方后清空持久化上下文
+    private void emitCatalogueChunk(List<Product> chunk, Consumer<List<Product>> chunkConsumer) {
+        List<Long> ids = chunk.stream().map(Product::getId).toList();
+        Map<Long, List<ProductSizeAllocation>> allocations = productSizeAllocationRepository.findByProductIdIn(ids)
+                .stream()
+                .collect(Collectors.groupingBy(allocation -> allocation.getProduct().getId()));
+        Map<Long, List<ProductImage>> images = productImageRepository.findByProductIdIn(ids)
+                .stream()
+                .collect(Collectors.groupingBy(image -> image.getProduct().getId()));
+        for (Product product : chunk) {
+            List<ProductSizeAllocation> sizes = allocations.getOrDefault(product.getId(), List.of());
+            product.setSizeAllocations(sizes);
+            product.setSizeQuantities(sizes.stream().collect(Collectors.toMap(
+                    ProductSizeAllocation::getSizeLabel,
+                    a -> a.getQuantity() == null ? 0 : a.getQuantity(),
+                    Integer::sum)));
+            product.setImages(images.getOrDefault(product.getId(), List.of()));
+        }
+        chunkConsumer.accept(chunk);
+        entityManager.clear();
+    }
+
+    private void refreshCatalogIndexes(Long productId) {
+        productSuggestionService.refreshProduct(productId);
+        productFacetService.refreshProduct(productId);
+        productStatisticsService.refreshProduct(productId);
+        cartStore.evictProduct(productId);
+    }
+
+    private void checkSizeTotal(Product product) {
+        Map<String, Integer> sizeQuantities = product.getSizeQuantities();
         if (sizeQuantities == null || sizeQuantities.isEmpty()) {
-            product.setSizeQuantities(Map.of());
-            product.setSizeAllocations(List.of());
             return;
         }
         int total = sizeQuantities.values().stream()
                 .filter(Objects::nonNull)
                 .mapToInt(Integer::intValue)
                 .sum();
-        if (total != product.getStock()) {
+        if (total != (product.getStock() == null ? 0 : product.getStock())) {
             throw new RuntimeException("尺码分配数量与库存不一致");
         }
-        List<ProductSizeAllocation> allocations = sizeQuantities.entrySet().stream()
-                .filter(entry -> entry.getValue() != null && entry.getValue() > 0)
-                .map(entry -> {
-                    ProductSizeAllocation allocation = new ProductSizeAllocation();
-                    allocation.setProduct(product);
-                    allocation.setSizeLabel(entry.getKey());
-                    allocation.setQuantity(entry.getValue());
-                    return allocation;
-                })
-                .toList();
-        productSizeAllocationRepository.saveAll(allocations);
-        product.setSizeAllocations(allocations);
-        product.setSizeQuantities(
-                allocations.stream().collect(Collectors.toMap(ProductSizeAllocation::getSizeLabel, ProductSizeAllocation::getQuantity)));
+    }
+
+    /**
+     * Turns the submitted stock of an existing product into the change the user made since the edit form
+     * was loaded ({@code expectedStock}) and applies it to the stock locked here, so orders placed in the
+     * meantime keep their decrements. Without {@code expectedStock} the submitted value replaces the stock.
+     */
+    private void applyStockChange(Product product, Product stored) {
+        if (product.getCreatedAt() == null) {
+            product.setCreatedAt(stored.getCreatedAt());
+        }
+        int storedStock = stored.getStock() == null ? 0 : stored.getStock();
+        if (product.getStock() == null) {
+            product.setStock(storedStock);
+            return;
+        }
+        int seen = product.getExpectedStock() == null ? storedStock : product.getExpectedStock();
+        int stock = storedStock + product.getStock() - seen;
+        if (stock < 0) {
+            throw new RuntimeException("库存已发生变化，请刷新后重试");
+        }
+        product.setStock(stock);
+    }
+
+    /**
+     * Brings the stored allocations in line with {@code sizeQuantities}. Sizes the user left at the quantity
+     * the edit form showed ({@code expectedSizeQuantities}, or the stored quantity when absent) are not
+     * written; new sizes are inserted in one batch, and changed or removed sizes are updated or deleted only
+     * while they still hold the quantity the form showed. A concurrent order that has already taken stock
+     * from an edited size makes the save fail instead of being overwritten.
+     */
+    private void syncSizeAllocations(Product product,
+                                     boolean created,
+                                     Map<String, Integer> sizeQuantities,
+                                     Map<String, Integer> expectedSizeQuantities) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        Map<String, Integer> desired = new LinkedHashMap<>();
+        if (sizeQuantities != null) {
+            sizeQuantities.forEach((label, quantity) -> {
+                if (quantity != null && quantity > 0) {
+                    desired.put(label, quantity);
+                }
+            });
+        }
+
+        // 新建的商品还没有尺码行，不必查询
+        Map<String, SizeAllocationQuantityDTO> stored = new HashMap<>();
+        if (!created) {
+            productSizeAllocationRepository.findQuantitiesByProductId(product.getId())
+                    .forEach(row -> stored.put(row.getSizeLabel(), row));
+        }
+        Map<String, Integer> seen = new HashMap<>();
+        if (expectedSizeQuantities != null) {
+            expectedSizeQuantities.forEach((label, quantity) -> {
+                if (quantity != null) {
+                    seen.put(label, quantity);
+                }
+            });
+        } else {
+            stored.forEach((label, row) -> seen.put(label, row.getQuantity()));
+        }
+
+        List<ProductSizeAllocation> inserts = new ArrayList<>();
+        desired.forEach((label, quantity) -> {
+            SizeAllocationQuantityDTO current = stored.remove(label);
+            int expected = seen.getOrDefault(label, 0);
+            if (current == null) {
+                if (expected > 0) {
+                    throw new RuntimeException("尺码" + label + "库存已发生变化，请刷新后重试");
+                }
+                ProductSizeAllocation allocation = new ProductSizeAllocation();
+                allocation.setProduct(product);
+                allocation.setSizeLabel(label);
+                allocation.setQuantity(quantity);
+                inserts.add(allocation);
+            } else if (quantity != expected
+                    && productSizeAllocationRepository.updateQuantityIfUnchanged(
+                            current.getId(), expected, quantity) == 0) {
+                throw new RuntimeException("尺码" + label + "库存已发生变化，请刷新后重试");
+            }
+        });
+        for (SizeAllocationQuantityDTO removed : stored.values()) {
+            int expected = seen.getOrDefault(removed.getSizeLabel(), 0);
+            if (productSizeAllocationRepository.deleteIfUnchanged(removed.getId(), expected) == 0) {
+                throw new RuntimeException("尺码" + removed.getSizeLabel() + "库存已发生变化，请刷新后重试");
+            }
+        }
+        if (!inserts.isEmpty()) {
+            productSizeAllocationRepository.saveAll(inserts);
+        }
+        product.setSizeQuantities(desired);
     }
 }
@@ -0,0 +1,181 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.common.TransactionCallbacks;
+import com.example.silkmall.dto.ProductOverviewDTO;
+import com.example.silkmall.dto.ProductStatsEntryDTO;
+import com.example.silkmall.repository.ProductRepository;
+import com.example.silkmall.service.ProductStatisticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the product dashboard totals (product count, on/off sale, sold out, stock and sales volume) in
+ * atomic counters, globally and per supplier, so an overview is read without touching the database.
+ *
+ * <p>Every product write calls {@link #refreshProduct(Long)}; after commit the product's current row is
+ * read back and the difference to the previously counted row is applied. The read and the apply for one
+ * product run under that product's stripe lock, so two refreshes of the same product can never apply an
+ * older row after a newer one. A scheduled reconcile reloads
+ * all rows in one query and replaces the counters, correcting any drift from writes that bypass the
+ * services.</p>
+ */
+@Service
+public class ProductStatisticsServiceImpl implements ProductStatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductStatisticsServiceImpl.class);
+
+    private static final String ON_SALE = "ON_SALE";
+    private static final String OFF_SALE = "OFF_SALE";
+    private static final int LOCK_STRIPES = 64;
+
+    private final ProductRepository productRepository;
+    private final Object writeLock = new Object();
+    private final Object[] productLocks = new Object[LOCK_STRIPES];
+
+    private volatile Tally tally = new Tally();
+    // 对账期间被刷新过的商品；对账结果替换计数器后需要按最新数据重新计入
+    private Set<Long> refreshedDuringReconcile;
+
+    @Autowired
+    public ProductStatisticsServiceImpl(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+        for (int i = 0; i < productLocks.length; i++) {
+            productLocks[i] = new Object();
+        }
+    }
+
+    @Override
+    public ProductOverviewDTO getOverview() {
+        return tally.total.toOverview();
+    }
+
+    @Override
+    public ProductOverviewDTO getSupplierOverview(Long supplierId) {
+        Counters counters = supplierId == null ? null : tally.suppliers.get(supplierId);
+        return counters == null ? new ProductOverviewDTO() : counters.toOverview();
+    }
+
+    @Override
+    public void refreshProduct(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> apply(productId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${product.statistics.reconcile-interval-ms:600000}",
+            initialDelayString = "${product.statistics.reconcile-interval-ms:600000}")
+    @Override
+    public void reconcile() {
+        synchronized (writeLock) {
+            refreshedDuringReconcile = new HashSet<>();
+        }
+        Tally rebuilt = new Tally();
+        for (ProductStatsEntryDTO entry : productRepository.findStatsEntries()) {
+            rebuilt.add(entry);
+        }
+        Set<Long> refreshed;
+        synchronized (writeLock) {
+            long drift = tally.total.products.get() - rebuilt.total.products.get();
+            tally = rebuilt;
+            refreshed = refreshedDuringReconcile;
+            refreshedDuringReconcile = null;
+            if (drift != 0) {
+                log.info("Product statistics reconciled, product count drifted by {}", drift);
+            }
+        }
+        refreshed.forEach(this::apply);
+    }
+
+    private void apply(Long productId) {
+        synchronized (productLocks[Math.floorMod(productId.hashCode(), LOCK_STRIPES)]) {
+            ProductStatsEntryDTO current = productRepository.findStatsEntryById(productId).orElse(null);
+            synchronized (writeLock) {
+                if (refreshedDuringReconcile != null) {
+                    refreshedDuringReconcile.add(productId);
+                }
+                Tally target = tally;
+                target.remove(productId);
+                if (current != null) {
+                    target.add(current);
+                }
+            }
+        }
+    }
+
+    private static final class Tally {
+        private final Map<Long, ProductStatsEntryDTO> products = new HashMap<>();
+        private final Counters total = new Counters();
+        private final Map<Long, Counters> suppliers = new ConcurrentHashMap<>();
+
+        private void add(ProductStatsEntryDTO entry) {
+            products.put(entry.getId(), entry);
+            total.apply(entry, 1);
+            if (entry.getSupplierId() != null) {
+                suppliers.computeIfAbsent(entry.getSupplierId(), id -> new Counters()).apply(entry, 1);
+            }
+        }
+
+        private void remove(Long productId) {
+            ProductStatsEntryDTO previous = products.remove(productId);
+            if (previous == null) {
+                return;
+            }
+            total.apply(previous, -1);
+            if (previous.getSupplierId() != null) {
+                Counters counters = suppliers.get(previous.getSupplierId());
+                if (counters != null) {
+                    counters.apply(previous, -1);
+                }
+            }
+        }
+    }
+
+    private static final class Counters {
+        private final AtomicLong products = new AtomicLong();
+        private final AtomicLong onSale = new AtomicLong();
+        private final AtomicLong offSale = new AtomicLong();
+        private final AtomicLong soldOut = new AtomicLong();
+        private final AtomicLong stock = new AtomicLong();
+        private final AtomicLong sales = new AtomicLong();
+
+        private void apply(ProductStatsEntryDTO entry, int sign) {
+            products.addAndGet(sign);
+            if (ON_SALE.equals(entry.getStatus())) {
+                onSale.addAndGet(sign);
+            } else if (OFF_SALE.equals(entry.getStatus())) {
+                offSale.addAndGet(sign);
+            }
+            int stockValue = entry.getStock() == null ? 0 : entry.getStock();
+            if (entry.getStock() != null && stockValue <= 0) {
+                soldOut.addAndGet(sign);
+            }
+            stock.addAndGet((long) sign * stockValue);
+            sales.addAndGet((long) sign * (entry.getSales() == null ? 0 : entry.getSales()));
+        }
+
+        private ProductOverviewDTO toOverview() {
+            ProductOverviewDTO overview = new ProductOverviewDTO();
+            overview.setTotalProducts(products.get());
+            overview.setOnSaleProducts(onSale.get());
+            overview.setOffSaleProducts(offSale.get());
+            overview.setSoldOutProducts(soldOut.get());
+            overview.setTotalStock(stock.get());
+            overview.setTotalSalesVolume(sales.get());
+            return overview;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.common.TransactionCallbacks;
+import com.example.silkmall.dto.CategoryNodeDTO;
+import com.example.silkmall.dto.ProductCatalogEntryDTO;
+import com.example.silkmall.dto.ProductSuggestionDTO;
+import com.example.silkmall.repository.ProductRepository;
+import com.example.silkmall.service.ProductSuggestionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Serves search-box suggestions from an in-memory {@link SuggestionTrie} of on-sale product names,
+ * enabled category names and supplier company names. Products are weighted by their sales; categories
+ * and suppliers by the summed sales of their on-sale products. The trie is loaded once at startup and
+ * then patched per product, category or supplier change, so lookups never touch the database.
+ */
+@Service
+public class ProductSuggestionServiceImpl implements ProductSuggestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggestionServiceImpl.class);
+
+    static final String TYPE_PRODUCT = "PRODUCT";
+    static final String TYPE_CATEGORY = "CATEGORY";
+    static final String TYPE_SUPPLIER = "SUPPLIER";
+
+    private static final int MAX_SUGGESTIONS = 10;
+
+    private final ProductRepository productRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private SuggestionTrie trie = new SuggestionTrie(MAX_SUGGESTIONS);
+    private Map<Long, ProductCatalogEntryDTO> onSaleProducts = new HashMap<>();
+    private Map<Long, String> enabledCategories = new HashMap<>();
+    private Map<Long, Long> categoryWeights = new HashMap<>();
+    private Map<Long, SupplierTally> suppliers = new HashMap<>();
+
+    @Autowired
+    public ProductSuggestionServiceImpl(ProductRepository productRepository,
+                                        CategoryTreeCache categoryTreeCache) {
+        this.productRepository = productRepository;
+        this.categoryTreeCache = categoryTreeCache;
+    }
+
+    @Override
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        int resolvedLimit = Math.min(Math.max(limit, 1), MAX_SUGGESTIONS);
+        List<SuggestionTrie.Entry> matches;
+        lock.readLock().lock();
+        try {
+            matches = trie.suggest(prefix, resolvedLimit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<ProductSuggestionDTO> result = new ArrayList<>(matches.size());
+        for (SuggestionTrie.Entry entry : matches) {
+            result.add(new ProductSuggestionDTO(entry.type(), entry.refId(), entry.text(), entry.weight()));
+        }
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public void rebuild() {
+        List<ProductCatalogEntryDTO> products = productRepository.findCatalogEntries();
+        List<CategoryNodeDTO> categories = categoryTreeCache.enabled();
+
+        Map<Long, ProductCatalogEntryDTO> productIndex = new HashMap<>();
+        Map<Long, String> categoryIndex = new HashMap<>();
+        Map<Long, Long> weights = new HashMap<>();
+        Map<Long, SupplierTally> supplierIndex = new HashMap<>();
+        for (CategoryNodeDTO category : categories) {
+            categoryIndex.put(category.getId(), category.getName());
+        }
+        for (ProductCatalogEntryDTO product : products) {
+            if (!isOnSale(product)) {
+                continue;
+            }
+            productIndex.put(product.getId(), product);
+            accumulate(product, 1, weights, supplierIndex);
+        }
+
+        List<SuggestionTrie.Entry> entries = new ArrayList<>();
+        productIndex.values().forEach(product -> addIfPresent(entries, productEntry(product)));
+        categoryIndex.forEach((id, name) -> addIfPresent(entries, categoryEntry(id, name, weights)));
+        supplierIndex.forEach((id, tally) -> addIfPresent(entries, supplierEntry(id, tally)));
+
+        SuggestionTrie rebuilt = new SuggestionTrie(MAX_SUGGESTIONS);
+        rebuilt.putAll(entries);
+
+        lock.writeLock().lock();
+        try {
+            trie = rebuilt;
+            onSaleProducts = productIndex;
+            enabledCategories = categoryIndex;
+            categoryWeights = weights;
+            suppliers = supplierIndex;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built product suggestion index with {} entries", rebuilt.size());
+    }
+
+    @Override
+    public void refreshProduct(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> applyProduct(productId,
+                productRepository.findCatalogEntryById(productId).orElse(null)));
+    }
+
+    @Override
+    public void refreshCategory(Long categoryId) {
+        if (categoryId == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> applyCategory(categoryId,
+                categoryTreeCache.find(categoryId).orElse(null)));
+    }
+
+    @Override
+    public void refreshSupplier(Long supplierId, String companyName) {
+        if (supplierId == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                SupplierTally tally = suppliers.get(supplierId);
+                if (tally == null || Objects.equals(tally.name, companyName)) {
+                    return;
+                }
+                tally.name = companyName;
+                putOrRemove(supplierKey(supplierId), supplierEntry(supplierId, tally));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void applyProduct(Long productId, ProductCatalogEntryDTO current) {
+        lock.writeLock().lock();
+        try {
+            ProductCatalogEntryDTO previous = onSaleProducts.remove(productId);
+            if (previous != null) {
+                accumulate(previous, -1, categoryWeights, suppliers);
+            }
+            if (current != null && isOnSale(current)) {
+                onSaleProducts.put(productId, current);
+                accumulate(current, 1, categoryWeights, suppliers);
+            }
+
+            putOrRemove(productKey(productId), current != null && isOnSale(current) ? productEntry(current) : null);
+            refreshGroups(previous);
+            refreshGroups(current);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyCategory(Long categoryId, CategoryNodeDTO category) {
+        lock.writeLock().lock();
+        try {
+            if (category == null || !Boolean.TRUE.equals(category.getEnabled())) {
+                enabledCategories.remove(categoryId);
+            } else {
+                enabledCategories.put(categoryId, category.getName());
+            }
+            putOrRemove(categoryKey(categoryId),
+                    categoryEntry(categoryId, enabledCategories.get(categoryId), categoryWeights));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void refreshGroups(ProductCatalogEntryDTO product) {
+        if (product == null) {
+            return;
+        }
+        Long categoryId = product.getCategoryId();
+        if (categoryId != null) {
+            putOrRemove(categoryKey(categoryId),
+                    categoryEntry(categoryId, enabledCategories.get(categoryId), categoryWeights));
+        }
+        Long supplierId = product.getSupplierId();
+        if (supplierId != null) {
+            SupplierTally tally = suppliers.get(supplierId);
+            putOrRemove(supplierKey(supplierId), tally == null ? null : supplierEntry(supplierId, tally));
+        }
+    }
+
+    private void putOrRemove(String key, SuggestionTrie.Entry entry) {
+        if (entry == null) {
+            trie.remove(key);
+        } else if (!entry.equals(trie.get(key))) {
+            trie.put(entry);
+        }
+    }
+
+    private static void accumulate(ProductCatalogEntryDTO product, int sign,
+                                   Map<Long, Long> categoryWeights, Map<Long, SupplierTally> suppliers) {
+        long sales = sign * salesOf(product);
+        if (product.getCategoryId() != null) {
+            categoryWeights.merge(product.getCategoryId(), sales, Long::sum);
+        }
+        if (product.getSupplierId() == null) {
+            return;
+        }
+        SupplierTally tally = suppliers.computeIfAbsent(product.getSupplierId(), id -> new SupplierTally());
+        if (sign > 0 && product.getSupplierName() != null) {
+            tally.name = product.getSupplierName();
+        }
+        tally.products += sign;
+        tally.sales += sales;
+        if (tally.products <= 0) {
+            suppliers.remove(product.getSupplierId());
+        }
+    }
+
+    private static SuggestionTrie.Entry productEntry(ProductCatalogEntryDTO product) {
+        if (product.getName() == null || product.getName().isBlank()) {
+            return null;
+        }
+        return new SuggestionTrie.Entry(productKey(product.getId()), TYPE_PRODUCT, product.getId(),
+                product.getName().trim(), salesOf(product));
+    }
+
+    private static SuggestionTrie.Entry categoryEntry(Long id, String name, Map<Long, Long> weights) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        return new SuggestionTrie.Entry(categoryKey(id), TYPE_CATEGORY, id, name.trim(),
+                Math.max(weights.getOrDefault(id, 0L), 0L));
+    }
+
+    private static SuggestionTrie.Entry supplierEntry(Long id, SupplierTally tally) {
+        if (tally.name == null || tally.name.isBlank()) {
+            return null;
+        }
+        return new SuggestionTrie.Entry(supplierKey(id), TYPE_SUPPLIER, id, tally.name.trim(),
+                Math.max(tally.sales, 0L));
+    }
+
+    private static void addIfPresent(List<SuggestionTrie.Entry> entries, SuggestionTrie.Entry entry) {
+        if (entry != null) {
+            entries.add(entry);
+        }
+    }
+
+    private static boolean isOnSale(ProductCatalogEntryDTO product) {
+        return "ON_SALE".equalsIgnoreCase(product.getStatus());
+    }
+
+    private static long salesOf(ProductCatalogEntryDTO product) {
+        return product.getSales() == null ? 0L : product.getSales();
+    }
+
+    private static String productKey(Long id) {
+        return TYPE_PRODUCT + ":" + id;
+    }
+
+    private static String categoryKey(Long id) {
+        return TYPE_CATEGORY + ":" + id;
+    }
+
+    private static String supplierKey(Long id) {
+        return TYPE_SUPPLIER + ":" + id;
+    }
+
+    private static final class SupplierTally {
+        private String name;
+        private int products;
+        private long sales;
+    }
+}
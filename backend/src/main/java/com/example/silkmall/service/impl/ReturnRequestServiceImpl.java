@@ -1,5 +1,9 @@
 package com.example.silkmall.service.impl;
 
+import com.example.silkmall.common.SettlementLineTypes;
+import com.example.silkmall.common.SupplierPayouts;
+import com.example.silkmall.dto.BulkReturnResultDTO;
+import com.example.silkmall.dto.StatusCountDTO;
 import com.example.silkmall.entity.Admin;
 import com.example.silkmall.entity.Consumer;
 import com.example.silkmall.entity.Order;
@@ -14,19 +18,33 @@ import com.example.silkmall.repository.OrderRepository;
 import com.example.silkmall.repository.ReturnRequestRepository;
 import com.example.silkmall.repository.SupplierRepository;
 import com.example.silkmall.security.CustomUserDetails;
+import com.example.silkmall.service.ConsumerOrderCountService;
 import com.example.silkmall.service.OrderService;
 import com.example.silkmall.service.ReturnRequestService;
+import com.example.silkmall.service.SupplierSettlementService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 import static com.example.silkmall.common.OrderStatuses.AWAITING_RECEIPT;
 import static com.example.silkmall.common.OrderStatuses.CANCELLED;
@@ -48,13 +66,14 @@ public class ReturnRequestServiceImpl extends BaseServiceImpl<ReturnRequest, Lon
     private static final String ADMIN_STATUS_APPROVED = "APPROVED";
     private static final String ADMIN_STATUS_REJECTED = "REJECTED";
 
-    private static final Set<String> ACTIVE_STATUSES = Set.of(STATUS_PENDING, STATUS_AWAITING_ADMIN);
+    // 进行中的退货，订单在此期间不会被自动确认收货或结算
+    static final Set<String> ACTIVE_STATUSES = Set.of(STATUS_PENDING, STATUS_AWAITING_ADMIN);
     private static final Set<String> RETURNABLE_ORDER_STATUSES =
             Set.of(PENDING_SHIPMENT, SHIPPED, IN_TRANSIT, AWAITING_RECEIPT);
     private static final Set<String> SUPPLIER_PROCESSABLE_STATUSES = Set.of(STATUS_SUPPLIER_APPROVED, STATUS_SUPPLIER_REJECTED);
 
     private static final BigDecimal DEFAULT_WALLET_BALANCE = BigDecimal.valueOf(1000L);
-    private static final BigDecimal COMMISSION_RATE = new BigDecimal("0.05");
+    private static final BigDecimal COMMISSION_RATE = SupplierPayouts.COMMISSION_RATE;
     private static final String CANCELLED_BILL_LABEL = "账单已取消";
 
     private final ReturnRequestRepository returnRequestRepository;
@@ -64,6 +83,9 @@ public class ReturnRequestServiceImpl extends BaseServiceImpl<ReturnRequest, Lon
     private final ConsumerRepository consumerRepository;
     private final AdminRepository adminRepository;
     private final OrderService orderService;
+    private final ConsumerOrderCountService consumerOrderCountService;
+    private final SupplierSettlementService supplierSettlementService;
+    private final TransactionTemplate itemTransaction;
 
     @Autowired
     public ReturnRequestServiceImpl(ReturnRequestRepository returnRequestRepository,
@@ -72,7 +94,10 @@ public class ReturnRequestServiceImpl extends BaseServiceImpl<ReturnRequest, Lon
                                     SupplierRepository supplierRepository,
                                     ConsumerRepository consumerRepository,
                                     AdminRepository adminRepository,
-                                    OrderService orderService) {
+                                    OrderService orderService,
+                                    ConsumerOrderCountService consumerOrderCountService,
+                                    SupplierSettlementService supplierSettlementService,
+                                    PlatformTransactionManager transactionManager) {
         super(returnRequestRepository);
         this.returnRequestRepository = returnRequestRepository;
         this.orderItemRepository = orderItemRepository;
@@ -81,6 +106,10 @@ public class ReturnRequestServiceImpl extends BaseServiceImpl<ReturnRequest, Lon
         this.consumerRepository = consumerRepository;
         this.adminRepository = adminRepository;
         this.orderService = orderService;
+        this.consumerOrderCountService = consumerOrderCountService;
+        this.supplierSettlementService = supplierSettlementService;
+        this.itemTransaction = new TransactionTemplate(transactionManager);
+        this.itemTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Override
@@ -145,7 +174,7 @@ public class ReturnRequestServiceImpl extends BaseServiceImpl<ReturnRequest, Lon
                                               String supplierResolution,
                                               String adminResolution,
                                               CustomUserDetails actor) {
-        ReturnRequest request = returnRequestRepository.findById(id)
+        ReturnRequest request = returnRequestRepository.findDetailedById(id)
                 .orElseThrow(() -> new RuntimeException("退货申请不存在"));
 
         boolean adminActor = isAdmin(actor);
@@ -158,23 +187,100 @@ public class ReturnRequestServiceImpl extends BaseServiceImpl<ReturnRequest, Lon
             return handleAdminDecision(request, normalizedStatus, trimToNull(adminResolution));
         }
 
-        if (actor == null || actor.getUserType() == null || !"supplier".equalsIgnoreCase(actor.getUserType())) {
-            throw new RuntimeException("只有对应商家或管理员可以处理退货");
-        }
-        if (request.getProduct() == null || request.getProduct().getSupplier() == null
-                || !Objects.equals(request.getProduct().getSupplier().getId(), actor.getId())) {
-            throw new RuntimeException("无法处理其他商家的退货申请");
-        }
+        checkSupplierActor(actor);
+        checkSupplierOwnsRequest(request, actor);
         if (!SUPPLIER_PROCESSABLE_STATUSES.contains(normalizedStatus)) {
             throw new RuntimeException("不支持的退货处理状态");
         }
-        if (STATUS_COMPLETED.equalsIgnoreCase(request.getStatus())) {
-            throw new RuntimeException("退货申请已完成处理");
-        }
+        checkNotCompleted(request);
 
         return handleSupplierDecision(request, normalizedStatus, trimToNull(supplierResolution));
     }
 
+    @Override
+    @Transactional
+    public BulkReturnResultDTO processReturnRequests(List<Long> ids,
+                                                     String status,
+                                                     String supplierResolution,
+                                                     String adminResolution,
+                                                     CustomUserDetails actor) {
+        List<Long> distinctIds = ids == null ? List.of()
+                : ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.isEmpty()) {
+            throw new RuntimeException("请选择需要处理的退货申请");
+        }
+        String normalizedStatus = normalize(status);
+        if (normalizedStatus == null) {
+            throw new RuntimeException("退货处理状态不能为空");
+        }
+        boolean adminActor = isAdmin(actor);
+        if (adminActor) {
+            if (!STATUS_COMPLETED.equals(normalizedStatus)) {
+                throw new RuntimeException("管理员仅支持确认退货完成");
+            }
+        } else {
+            checkSupplierActor(actor);
+            if (!SUPPLIER_PROCESSABLE_STATUSES.contains(normalizedStatus)) {
+                throw new RuntimeException("不支持的退货处理状态");
+            }
+        }
+
+        Map<Long, ReturnRequest> loaded = new HashMap<>();
+        returnRequestRepository.findDetailedByIdIn(distinctIds).forEach(request -> loaded.put(request.getId(), request));
+
+        // 先逐条校验，不符合条件的申请记录失败原因；管理员确认在同一事务中统一处理，
+        // 商家处理逐条在独立事务中提交，某条撤销订单失败时只记为该条失败，不会回滚整批
+        Map<Long, BulkReturnResultDTO.ItemOutcome> outcomes = new HashMap<>();
+        List<ReturnRequest> accepted = new ArrayList<>();
+        for (Long id : distinctIds) {
+            ReturnRequest request = loaded.get(id);
+            try {
+                if (request == null) {
+                    throw new RuntimeException("退货申请不存在");
+                }
+                if (adminActor) {
+                    checkAwaitingAdmin(request);
+                } else {
+                    checkSupplierOwnsRequest(request, actor);
+                    checkNotCompleted(request);
+                }
+                accepted.add(request);
+            } catch (RuntimeException e) {
+                outcomes.put(id, failure(id, e.getMessage()));
+            }
+        }
+
+        if (adminActor) {
+            completeAfterReceiptReturns(accepted, trimToNull(adminResolution), outcomes);
+        } else {
+            String resolution = trimToNull(supplierResolution);
+            for (ReturnRequest request : accepted) {
+                Long id = request.getId();
+                try {
+                    ReturnRequest processed = itemTransaction.execute(tx -> handleSupplierDecision(
+                            returnRequestRepository.findDetailedById(id)
+                                    .orElseThrow(() -> new RuntimeException("退货申请不存在")),
+                            normalizedStatus, resolution));
+                    outcomes.put(id, success(processed));
+                } catch (RuntimeException e) {
+                    outcomes.put(id, failure(id, e.getMessage()));
+                }
+            }
+        }
+
+        BulkReturnResultDTO result = new BulkReturnResultDTO();
+        for (Long id : distinctIds) {
+            BulkReturnResultDTO.ItemOutcome outcome = outcomes.get(id);
+            result.getItems().add(outcome);
+            if (outcome.isSuccess()) {
+                result.setProcessedCount(result.getProcessedCount() + 1);
+            } else {
+                result.setFailedCount(result.getFailedCount() + 1);
+            }
+        }
+        return result;
+    }
+
     @Override
     public List<ReturnRequest> findByConsumerId(Long consumerId) {
         return returnRequestRepository.findByConsumerId(consumerId);
@@ -192,27 +298,97 @@ public class ReturnRequestServiceImpl extends BaseServiceImpl<ReturnRequest, Lon
 
     @Override
     public List<ReturnRequest> findAdminQueue(String statusFilter) {
-        List<ReturnRequest> afterReceipt = returnRequestRepository.findByAfterReceiptTrueOrderByRequestedAtDesc();
+        String status = adminQueueStatus(statusFilter);
+        if (status == null) {
+            return returnRequestRepository.findByAfterReceiptTrueOrderByRequestedAtDesc();
+        }
+        return returnRequestRepository.findByAfterReceiptTrueAndStatusOrderByRequestedAtDesc(status);
+    }
+
+    @Override
+    public Page<ReturnRequest> findAdminQueue(String statusFilter, Pageable pageable) {
+        String status = adminQueueStatus(statusFilter);
+        Pageable sorted = newestFirst(pageable);
+        if (status == null) {
+            return returnRequestRepository.findByAfterReceiptTrue(sorted);
+        }
+        return returnRequestRepository.findByAfterReceiptTrueAndStatus(status, sorted);
+    }
+
+    @Override
+    public Page<ReturnRequest> findBySupplierId(Long supplierId, String status, Pageable pageable) {
+        String normalized = normalize(status);
+        Pageable sorted = newestFirst(pageable);
+        if (normalized == null || normalized.equals("ALL")) {
+            return returnRequestRepository.findByProduct_Supplier_Id(supplierId, sorted);
+        }
+        return returnRequestRepository.findByProduct_Supplier_IdAndStatus(supplierId, normalized, sorted);
+    }
+
+    @Override
+    public Page<ReturnRequest> findByConsumerId(Long consumerId, String status, Pageable pageable) {
+        String normalized = normalize(status);
+        Pageable sorted = newestFirst(pageable);
+        if (normalized == null || normalized.equals("ALL")) {
+            return returnRequestRepository.findByConsumerId(consumerId, sorted);
+        }
+        return returnRequestRepository.findByConsumerIdAndStatus(consumerId, normalized, sorted);
+    }
+
+    @Override
+    public Map<String, Long> countAdminQueue() {
+        Map<String, Long> byStatus = toCountMap(returnRequestRepository.countAfterReceiptByStatus());
+        // 键与管理员队列的 status 筛选参数保持一致，PENDING 即等待管理员审批
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put(ADMIN_STATUS_PENDING, byStatus.getOrDefault(STATUS_AWAITING_ADMIN, 0L));
+        counts.put(STATUS_COMPLETED, byStatus.getOrDefault(STATUS_COMPLETED, 0L));
+        counts.put(STATUS_SUPPLIER_REJECTED, byStatus.getOrDefault(STATUS_SUPPLIER_REJECTED, 0L));
+        counts.put("ALL", byStatus.getOrDefault("ALL", 0L));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> countBySupplierId(Long supplierId) {
+        return toCountMap(returnRequestRepository.countBySupplierGroupByStatus(supplierId));
+    }
+
+    @Override
+    public Map<String, Long> countByConsumerId(Long consumerId) {
+        return toCountMap(returnRequestRepository.countByConsumerGroupByStatus(consumerId));
+    }
+
+    private String adminQueueStatus(String statusFilter) {
         String normalized = normalize(statusFilter);
-        if (normalized == null || normalized.equals("PENDING")) {
-            return afterReceipt.stream()
-                    .filter(request -> STATUS_AWAITING_ADMIN.equalsIgnoreCase(request.getStatus()))
-                    .collect(Collectors.toList());
+        if (normalized == null || normalized.equals(ADMIN_STATUS_PENDING)) {
+            return STATUS_AWAITING_ADMIN;
         }
-        if (normalized.equals("ALL")) {
-            return afterReceipt;
+        if (normalized.equals(STATUS_COMPLETED) || normalized.equals(STATUS_SUPPLIER_REJECTED)) {
+            return normalized;
         }
-        if (normalized.equals(STATUS_COMPLETED)) {
-            return afterReceipt.stream()
-                    .filter(request -> STATUS_COMPLETED.equalsIgnoreCase(request.getStatus()))
-                    .collect(Collectors.toList());
+        return null;
+    }
+
+    private Pageable newestFirst(Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            return pageable;
         }
-        if (normalized.equals(STATUS_SUPPLIER_REJECTED)) {
-            return afterReceipt.stream()
-                    .filter(request -> STATUS_SUPPLIER_REJECTED.equalsIgnoreCase(request.getStatus()))
-                    .collect(Collectors.toList());
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                Sort.by(Sort.Order.desc("requestedAt"), Sort.Order.desc("id")));
+    }
+
+    private Map<String, Long> toCountMap(List<StatusCountDTO> rows) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        long total = 0;
+        for (StatusCountDTO row : rows) {
+            long count = row.getCount() == null ? 0L : row.getCount();
+            String status = normalize(row.getStatus());
+            if (status != null) {
+                counts.merge(status, count, Long::sum);
+            }
+            total += count;
         }
-        return afterReceipt;
+        counts.put("ALL", total);
+        return counts;
     }
 
     private ReturnRequest handleSupplierDecision(ReturnRequest request, String status, String resolution) {
@@ -252,17 +428,43 @@ public class ReturnRequestServiceImpl extends BaseServiceImpl<ReturnRequest, Lon
         if (!STATUS_COMPLETED.equals(status)) {
             throw new RuntimeException("管理员仅支持确认退货完成");
         }
+        checkAwaitingAdmin(request);
 
+        Map<Long, BulkReturnResultDTO.ItemOutcome> outcomes = new HashMap<>();
+        completeAfterReceiptReturns(List.of(request), adminResolution, outcomes);
+        BulkReturnResultDTO.ItemOutcome outcome = outcomes.get(request.getId());
+        if (!outcome.isSuccess()) {
+            throw new RuntimeException(outcome.getMessage());
+        }
+        return request;
+    }
+
+    private void checkAwaitingAdmin(ReturnRequest request) {
         if (!Boolean.TRUE.equals(request.getAfterReceipt()) || !Boolean.TRUE.equals(request.getRequiresAdminApproval())) {
             throw new RuntimeException("该退货不需要管理员审批");
         }
-
         if (!STATUS_AWAITING_ADMIN.equalsIgnoreCase(request.getStatus())) {
             throw new RuntimeException("退货申请尚未到达管理员审批阶段");
         }
+    }
 
-        completeAfterReceiptReturn(request, adminResolution);
-        return returnRequestRepository.save(request);
+    private void checkSupplierActor(CustomUserDetails actor) {
+        if (actor == null || actor.getUserType() == null || !"supplier".equalsIgnoreCase(actor.getUserType())) {
+            throw new RuntimeException("只有对应商家或管理员可以处理退货");
+        }
+    }
+
+    private void checkSupplierOwnsRequest(ReturnRequest request, CustomUserDetails actor) {
+        if (request.getProduct() == null || request.getProduct().getSupplier() == null
+                || !Objects.equals(request.getProduct().getSupplier().getId(), actor.getId())) {
+            throw new RuntimeException("无法处理其他商家的退货申请");
+        }
+    }
+
+    private void checkNotCompleted(ReturnRequest request) {
+        if (STATUS_COMPLETED.equalsIgnoreCase(request.getStatus())) {
+            throw new RuntimeException("退货申请已完成处理");
+        }
     }
 
     private void finalizePreDeliveryReturn(ReturnRequest request) {
@@ -293,96 +495,176 @@ public class ReturnRequestServiceImpl extends BaseServiceImpl<ReturnRequest, Lon
         order.setStatus(CANCELLED);
         order.setPayoutStatus(CANCELLED_BILL_LABEL);
         orderRepository.save(order);
+        consumerOrderCountService.recordTransition(
+                order.getConsumer() == null ? null : order.getConsumer().getId(), REVOKED, CANCELLED);
         request.setOrder(order);
     }
 
-    private void completeAfterReceiptReturn(ReturnRequest request, String adminResolution) {
+    /**
+     * Completes after-receipt returns with one conditional wallet update per admin and consumer: every
+     * managing admin is debited its summed commission and every consumer is credited its summed refund.
+     * Supplier shares are recorded as settlement lines, and a supplier covers them with its wallet plus its
+     * not yet settled lines. When an account cannot cover its total, all returns charged to it fail and the
+     * rest proceed.
+     */
+    private void completeAfterReceiptReturns(List<ReturnRequest> requests,
+                                             String adminResolution,
+                                             Map<Long, BulkReturnResultDTO.ItemOutcome> outcomes) {
+        List<ReturnRequest> payable = new ArrayList<>();
+        for (ReturnRequest request : requests) {
+            try {
+                checkParties(request);
+                ensureRefundBreakdown(request);
+                payable.add(request);
+            } catch (RuntimeException e) {
+                outcomes.put(request.getId(), failure(request.getId(), e.getMessage()));
+            }
+        }
+        if (payable.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Supplier> suppliers = new HashMap<>();
+        supplierRepository.findAllById(collectIds(payable, this::supplierIdOf))
+                .forEach(supplier -> suppliers.put(supplier.getId(), supplier));
+
+        // 供应商按钱包加未结算明细核对；剔除失败的申请只会减少其他账户的扣款，因此核对一轮即可
+        Map<Long, BigDecimal> supplierBalances = new HashMap<>();
+        Map<Long, BigDecimal> unsettled = supplierSettlementService.unsettledTotals(suppliers.keySet());
+        suppliers.forEach((id, supplier) -> supplierBalances.put(id,
+                resolveBalance(supplier.getWalletBalance()).add(unsettled.getOrDefault(id, BigDecimal.ZERO))));
+        rejectUncovered(payable, this::supplierIdOf, ReturnRequest::getSupplierShareAmount, supplierBalances,
+                "供应商不存在: ", "供应商钱包余额不足，无法完成退款", outcomes);
+        if (payable.isEmpty()) {
+            return;
+        }
+
+        // 管理员和消费者钱包用带条件的原子更新，不覆盖同时提交的下单扣款或结算入账
+        Map<Long, BigDecimal> adminDebits = sumBy(payable, this::adminIdOf, ReturnRequest::getCommissionAmount);
+        Set<Long> uncoveredAdmins = new HashSet<>();
+        adminDebits.forEach((id, amount) -> {
+            if (amount.compareTo(BigDecimal.ZERO) > 0 && adminRepository.debitWallet(id, amount) == 0) {
+                uncoveredAdmins.add(id);
+            }
+        });
+        rejectOwners(payable, this::adminIdOf, uncoveredAdmins, "管理员钱包余额不足，无法退回提成", outcomes);
+
+        Map<Long, BigDecimal> consumerCredits = sumBy(payable, this::consumerIdOf, ReturnRequest::getRefundAmount);
+        Set<Long> missingConsumers = new HashSet<>();
+        consumerCredits.forEach((id, amount) -> {
+            if (consumerRepository.creditWallet(id, amount) == 0) {
+                missingConsumers.add(id);
+            }
+        });
+        if (!missingConsumers.isEmpty()) {
+            // 退回已为这些申请扣下的管理员提成
+            List<ReturnRequest> orphaned = payable.stream()
+                    .filter(request -> missingConsumers.contains(consumerIdOf(request)))
+                    .toList();
+            sumBy(orphaned, this::adminIdOf, ReturnRequest::getCommissionAmount).forEach((id, amount) -> {
+                if (amount.compareTo(BigDecimal.ZERO) > 0) {
+                    adminRepository.creditWallet(id, amount);
+                }
+            });
+            rejectOwners(payable, this::consumerIdOf, missingConsumers, "消费者不存在", outcomes);
+        }
+        if (payable.isEmpty()) {
+            return;
+        }
+
+        for (ReturnRequest request : payable) {
+            BigDecimal share = request.getSupplierShareAmount();
+            if (share != null) {
+                supplierSettlementService.record(SettlementLineTypes.RETURN_REFUND, resolveOrder(request).getId(),
+                        request.getId(), Map.of(supplierIdOf(request), share.negate()));
+            }
+        }
+
+        Date now = new Date();
+        Map<Long, Order> refundedOrders = new LinkedHashMap<>();
+        for (ReturnRequest request : payable) {
+            request.setStatus(STATUS_COMPLETED);
+            request.setAdminStatus(ADMIN_STATUS_APPROVED);
+            request.setAdminProcessedAt(now);
+            request.setAdminResolution(adminResolution == null ? "管理员已确认退款" : adminResolution);
+            request.setRequiresAdminApproval(false);
+
+            Order order = resolveOrder(request);
+            order.setPayoutStatus("已退款");
+            refundedOrders.put(order.getId(), order);
+            outcomes.put(request.getId(), success(request));
+        }
+        returnRequestRepository.saveAll(payable);
+        orderRepository.saveAll(refundedOrders.values());
+    }
+
+    private void checkParties(ReturnRequest request) {
         Order order = resolveOrder(request);
         if (order == null || order.getId() == null) {
             throw new RuntimeException("退货订单信息不完整");
         }
-
         OrderItem orderItem = request.getOrderItem();
         if (orderItem == null || orderItem.getId() == null) {
             throw new RuntimeException("退货申请缺少订单项信息");
         }
-
-        Product product = orderItem.getProduct();
-        Supplier supplier = product == null ? null : product.getSupplier();
-        if (supplier == null || supplier.getId() == null) {
+        if (supplierIdOf(request) == null) {
             throw new RuntimeException("退货申请缺少供应商信息");
         }
-
-        Consumer consumer = order.getConsumer();
-        if (consumer == null || consumer.getId() == null) {
+        if (consumerIdOf(request) == null) {
             throw new RuntimeException("退货申请缺少消费者信息");
         }
-
-        Admin admin = order.getManagingAdmin();
-        if (admin == null || admin.getId() == null) {
+        if (adminIdOf(request) == null) {
             throw new RuntimeException("订单缺少托管管理员，无法完成退款");
         }
+    }
 
-        BigDecimal refundAmount = ensureRefundBreakdown(request);
-        BigDecimal commission = request.getCommissionAmount();
-        BigDecimal supplierShare = request.getSupplierShareAmount();
-
-        Supplier persistedSupplier = supplierRepository.findById(supplier.getId())
-                .orElseThrow(() -> new RuntimeException("供应商不存在: " + supplier.getId()));
-        Consumer persistedConsumer = consumerRepository.findById(consumer.getId())
-                .orElseThrow(() -> new RuntimeException("消费者不存在: " + consumer.getId()));
-        BigDecimal supplierContribution = supplierShare == null
-                ? refundAmount.setScale(2, RoundingMode.HALF_UP)
-                : supplierShare.setScale(2, RoundingMode.HALF_UP);
-        if (Boolean.TRUE.equals(request.getAfterReceipt())) {
-            BigDecimal normalizedRefund = refundAmount.setScale(2, RoundingMode.HALF_UP);
-            BigDecimal normalizedCommission = commission == null
-                    ? calculateCommission(normalizedRefund)
-                    : commission.setScale(2, RoundingMode.HALF_UP);
-            if (normalizedCommission.compareTo(normalizedRefund) > 0) {
-                normalizedCommission = normalizedRefund;
+    private void rejectUncovered(List<ReturnRequest> payable,
+                                 Function<ReturnRequest, Long> owner,
+                                 Function<ReturnRequest, BigDecimal> amount,
+                                 Map<Long, BigDecimal> balances,
+                                 String missingMessage,
+                                 String insufficientMessage,
+                                 Map<Long, BulkReturnResultDTO.ItemOutcome> outcomes) {
+        Map<Long, BigDecimal> totals = sumBy(payable, owner, amount);
+        Set<Long> missing = new HashSet<>();
+        Set<Long> uncovered = new HashSet<>();
+        totals.forEach((id, total) -> {
+            BigDecimal balance = balances.get(id);
+            if (balance == null) {
+                missing.add(id);
+            } else if (total.compareTo(BigDecimal.ZERO) > 0 && balance.compareTo(total) < 0) {
+                uncovered.add(id);
             }
-            BigDecimal normalizedSupplierShare = normalizedRefund.subtract(normalizedCommission)
-                    .setScale(2, RoundingMode.HALF_UP);
-            if (normalizedSupplierShare.compareTo(BigDecimal.ZERO) < 0) {
-                normalizedSupplierShare = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        });
+        payable.removeIf(request -> {
+            Long id = owner.apply(request);
+            if (missing.contains(id)) {
+                outcomes.put(request.getId(), failure(request.getId(), missingMessage + id));
+                return true;
             }
-            supplierContribution = normalizedSupplierShare;
-            request.setSupplierShareAmount(normalizedSupplierShare);
-            request.setCommissionAmount(normalizedCommission);
-
-            Admin persistedAdmin = adminRepository.findById(admin.getId())
-                    .orElseThrow(() -> new RuntimeException("管理员不存在: " + admin.getId()));
-            BigDecimal adminBalance = resolveBalance(persistedAdmin.getWalletBalance());
-            if (normalizedCommission.compareTo(BigDecimal.ZERO) > 0) {
-                if (adminBalance.compareTo(normalizedCommission) < 0) {
-                    throw new RuntimeException("管理员钱包余额不足，无法退回提成");
-                }
-                persistedAdmin.setWalletBalance(adminBalance.subtract(normalizedCommission));
-                adminRepository.save(persistedAdmin);
+            if (uncovered.contains(id)) {
+                outcomes.put(request.getId(), failure(request.getId(), insufficientMessage));
+                return true;
             }
-            commission = normalizedCommission;
-        }
+            return false;
+        });
+    }
 
-        BigDecimal supplierBalance = resolveBalance(persistedSupplier.getWalletBalance());
-        if (supplierBalance.compareTo(supplierContribution) < 0) {
-            throw new RuntimeException("供应商钱包余额不足，无法完成退款");
+    private void rejectOwners(List<ReturnRequest> payable,
+                              Function<ReturnRequest, Long> owner,
+                              Set<Long> rejected,
+                              String message,
+                              Map<Long, BulkReturnResultDTO.ItemOutcome> outcomes) {
+        if (rejected.isEmpty()) {
+            return;
         }
-        persistedSupplier.setWalletBalance(supplierBalance.subtract(supplierContribution));
-        supplierRepository.save(persistedSupplier);
-
-        BigDecimal consumerBalance = resolveBalance(persistedConsumer.getWalletBalance());
-        persistedConsumer.setWalletBalance(consumerBalance.add(refundAmount));
-        consumerRepository.save(persistedConsumer);
-
-        request.setStatus(STATUS_COMPLETED);
-        request.setAdminStatus(ADMIN_STATUS_APPROVED);
-        request.setAdminProcessedAt(new Date());
-        request.setAdminResolution(adminResolution == null ? "管理员已确认退款" : adminResolution);
-        request.setRequiresAdminApproval(false);
-
-        order.setPayoutStatus("已退款");
-        orderRepository.save(order);
+        payable.removeIf(request -> {
+            if (rejected.contains(owner.apply(request))) {
+                outcomes.put(request.getId(), failure(request.getId(), message));
+                return true;
+            }
+            return false;
+        });
     }
 
     private BigDecimal ensureRefundBreakdown(ReturnRequest request) {
@@ -486,6 +768,49 @@ public class ReturnRequestServiceImpl extends BaseServiceImpl<ReturnRequest, Lon
         return null;
     }
 
+    private Long supplierIdOf(ReturnRequest request) {
+        Product product = request.getOrderItem() == null ? null : request.getOrderItem().getProduct();
+        Supplier supplier = product == null ? null : product.getSupplier();
+        return supplier == null ? null : supplier.getId();
+    }
+
+    private Long adminIdOf(ReturnRequest request) {
+        Order order = resolveOrder(request);
+        Admin admin = order == null ? null : order.getManagingAdmin();
+        return admin == null ? null : admin.getId();
+    }
+
+    private Long consumerIdOf(ReturnRequest request) {
+        Order order = resolveOrder(request);
+        Consumer consumer = order == null ? null : order.getConsumer();
+        return consumer == null ? null : consumer.getId();
+    }
+
+    private static Set<Long> collectIds(List<ReturnRequest> requests, Function<ReturnRequest, Long> owner) {
+        Set<Long> ids = new HashSet<>();
+        requests.forEach(request -> ids.add(owner.apply(request)));
+        return ids;
+    }
+
+    private static Map<Long, BigDecimal> sumBy(List<ReturnRequest> requests,
+                                               Function<ReturnRequest, Long> owner,
+                                               Function<ReturnRequest, BigDecimal> amount) {
+        Map<Long, BigDecimal> totals = new LinkedHashMap<>();
+        for (ReturnRequest request : requests) {
+            BigDecimal value = amount.apply(request);
+            totals.merge(owner.apply(request), value == null ? BigDecimal.ZERO : value, BigDecimal::add);
+        }
+        return totals;
+    }
+
+    private static BulkReturnResultDTO.ItemOutcome success(ReturnRequest request) {
+        return new BulkReturnResultDTO.ItemOutcome(request.getId(), true, request.getStatus(), null);
+    }
+
+    private static BulkReturnResultDTO.ItemOutcome failure(Long id, String message) {
+        return new BulkReturnResultDTO.ItemOutcome(id, false, null, message);
+    }
+
     private BigDecimal resolveBalance(BigDecimal balance) {
         return balance == null ? DEFAULT_WALLET_BALANCE : balance;
     }
@@ -0,0 +1,227 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.dto.BulkStockResultDTO;
+import com.example.silkmall.dto.StockAdjustmentDTO;
+import com.example.silkmall.service.ProductStatisticsService;
+import com.example.silkmall.service.StockAdjustmentService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+@Service
+public class StockAdjustmentServiceImpl implements StockAdjustmentService {
+
+    static final int MAX_ADJUSTMENTS = 5000;
+    private static final int BATCH_SIZE = 500;
+
+    // 条件更新：扣减后不能小于 0，影响行数为 0 即视为库存不足
+    private static final String ADJUST_ALLOCATION = "update product_size_allocations set quantity = quantity + ? "
+            + "where product_id = ? and size_label = ? and quantity + ? >= 0";
+    private static final String ADJUST_PRODUCT =
+            "update products set stock = stock + ?, updated_at = ? where id = ? and stock + ? >= 0";
+    private static final String SYNC_PRODUCT_STOCK = "update products set stock = (select coalesce(sum(a.quantity), 0) "
+            + "from product_size_allocations a where a.product_id = products.id), updated_at = ? where id in (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductStatisticsService productStatisticsService;
+    private final CartStore cartStore;
+
+    public StockAdjustmentServiceImpl(JdbcTemplate jdbcTemplate,
+                                      ProductStatisticsService productStatisticsService,
+                                      CartStore cartStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productStatisticsService = productStatisticsService;
+        this.cartStore = cartStore;
+    }
+
+    @Override
+    @Transactional
+    public BulkStockResultDTO adjustStock(List<StockAdjustmentDTO> adjustments, Long supplierId) {
+        BulkStockResultDTO result = new BulkStockResultDTO();
+        if (adjustments == null || adjustments.isEmpty()) {
+            return result;
+        }
+        if (adjustments.size() > MAX_ADJUSTMENTS) {
+            throw new RuntimeException("单次最多调整" + MAX_ADJUSTMENTS + "条库存");
+        }
+
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (StockAdjustmentDTO adjustment : adjustments) {
+            if (adjustment != null && adjustment.getProductId() != null) {
+                productIds.add(adjustment.getProductId());
+            }
+        }
+        Map<Long, Long> suppliers = loadSuppliers(productIds);
+        Map<Long, Set<String>> sizes = loadSizeLabels(suppliers.keySet());
+
+        List<BulkStockResultDTO.ItemOutcome> outcomes = new ArrayList<>(adjustments.size());
+        List<Integer> sizedLines = new ArrayList<>();
+        List<Integer> plainLines = new ArrayList<>();
+        for (int i = 0; i < adjustments.size(); i++) {
+            StockAdjustmentDTO adjustment = adjustments.get(i);
+            String size = adjustment == null ? null : normalizeSize(adjustment.getSize());
+            BulkStockResultDTO.ItemOutcome outcome = adjustment == null
+                    ? new BulkStockResultDTO.ItemOutcome(null, null, null, false, null)
+                    : new BulkStockResultDTO.ItemOutcome(adjustment.getProductId(), size, adjustment.getDelta(),
+                            false, null);
+            outcomes.add(outcome);
+            String error = validate(adjustment, size, suppliers, sizes, supplierId);
+            if (error != null) {
+                outcome.setMessage(error);
+            } else if (size != null) {
+                sizedLines.add(i);
+            } else {
+                plainLines.add(i);
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Set<Long> touched = new LinkedHashSet<>();
+        List<Long> resized = new ArrayList<>();
+        int[] sizedCounts = jdbcTemplate.batchUpdate(ADJUST_ALLOCATION, argsFor(sizedLines, outcomes, line -> new Object[]{
+                line.getDelta(), line.getProductId(), line.getSize(), line.getDelta()}));
+        record(sizedLines, sizedCounts, outcomes, touched, resized);
+        int[] plainCounts = jdbcTemplate.batchUpdate(ADJUST_PRODUCT, argsFor(plainLines, outcomes, line -> new Object[]{
+                line.getDelta(), now, line.getProductId(), line.getDelta()}));
+        record(plainLines, plainCounts, outcomes, touched, null);
+        syncProductStock(new LinkedHashSet<>(resized), now);
+
+        for (BulkStockResultDTO.ItemOutcome outcome : outcomes) {
+            if (outcome.isSuccess()) {
+                result.setAppliedCount(result.getAppliedCount() + 1);
+            } else {
+                result.setFailedCount(result.getFailedCount() + 1);
+            }
+        }
+        result.setItems(outcomes);
+
+        for (Long productId : touched) {
+            productStatisticsService.refreshProduct(productId);
+            cartStore.evictProduct(productId);
+        }
+        return result;
+    }
+
+    private String validate(StockAdjustmentDTO adjustment,
+                            String size,
+                            Map<Long, Long> suppliers,
+                            Map<Long, Set<String>> sizes,
+                            Long supplierId) {
+        if (adjustment == null || adjustment.getProductId() == null) {
+            return "请指定商品";
+        }
+        if (adjustment.getDelta() == null || adjustment.getDelta() == 0) {
+            return "调整数量不能为0";
+        }
+        if (!suppliers.containsKey(adjustment.getProductId())) {
+            return "产品不存在";
+        }
+        if (supplierId != null && !supplierId.equals(suppliers.get(adjustment.getProductId()))) {
+            return "无权调整该商品库存";
+        }
+        Set<String> labels = sizes.getOrDefault(adjustment.getProductId(), Collections.emptySet());
+        if (size == null) {
+            return labels.isEmpty() ? null : "该商品按尺码管理库存，请指定尺码";
+        }
+        return labels.contains(size) ? null : "尺码" + size + "不存在";
+    }
+
+    private static List<Object[]> argsFor(List<Integer> lines,
+                                          List<BulkStockResultDTO.ItemOutcome> outcomes,
+                                          Function<BulkStockResultDTO.ItemOutcome, Object[]> mapper) {
+        List<Object[]> args = new ArrayList<>(lines.size());
+        for (Integer line : lines) {
+            args.add(mapper.apply(outcomes.get(line)));
+        }
+        return args;
+    }
+
+    private static void record(List<Integer> lines,
+                               int[] counts,
+                               List<BulkStockResultDTO.ItemOutcome> outcomes,
+                               Set<Long> touched,
+                               List<Long> resized) {
+        for (int i = 0; i < lines.size(); i++) {
+            BulkStockResultDTO.ItemOutcome outcome = outcomes.get(lines.get(i));
+            if (counts[i] > 0) {
+                outcome.setSuccess(true);
+                touched.add(outcome.getProductId());
+                if (resized != null) {
+                    resized.add(outcome.getProductId());
+                }
+            } else {
+                outcome.setMessage("库存不足");
+            }
+        }
+    }
+
+    // 按尺码调整后，以尺码合计回写商品总库存，保持两者一致
+    private void syncProductStock(Collection<Long> productIds, Timestamp now) {
+        for (List<Long> chunk : chunks(productIds)) {
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(now);
+            args.addAll(chunk);
+            jdbcTemplate.update(String.format(SYNC_PRODUCT_STOCK, placeholders(chunk.size())), args.toArray());
+        }
+    }
+
+    private Map<Long, Long> loadSuppliers(Collection<Long> productIds) {
+        Map<Long, Long> suppliers = new HashMap<>();
+        for (List<Long> chunk : chunks(productIds)) {
+            jdbcTemplate.query("select id, supplier_id from products where id in (" + placeholders(chunk.size()) + ")",
+                    rs -> {
+                        long supplier = rs.getLong(2);
+                        suppliers.put(rs.getLong(1), rs.wasNull() ? null : supplier);
+                    },
+                    chunk.toArray());
+        }
+        return suppliers;
+    }
+
+    private Map<Long, Set<String>> loadSizeLabels(Collection<Long> productIds) {
+        Map<Long, Set<String>> labels = new HashMap<>();
+        for (List<Long> chunk : chunks(productIds)) {
+            jdbcTemplate.query("select product_id, size_label from product_size_allocations where product_id in ("
+                            + placeholders(chunk.size()) + ")",
+                    rs -> {
+                        labels.computeIfAbsent(rs.getLong(1), id -> new HashSet<>()).add(rs.getString(2));
+                    },
+                    chunk.toArray());
+        }
+        return labels;
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += BATCH_SIZE) {
+            chunks.add(all.subList(from, Math.min(from + BATCH_SIZE, all.size())));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static String normalizeSize(String size) {
+        if (size == null) {
+            return null;
+        }
+        String trimmed = size.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.entity.ProductSizeAllocation;
+import com.example.silkmall.repository.ProductRepository;
+import com.example.silkmall.repository.ProductSizeAllocationRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Puts stock of cancelled or revoked orders back with increment updates, so a checkout decrementing the
+ * same rows meanwhile is never overwritten.
+ */
+@Component
+public class StockRestorer {
+
+    private static final String RESTORE_PRODUCT = "update products set stock = stock + ? where id = ?";
+    private static final String RESTORE_ALLOCATION = "update product_size_allocations set quantity = quantity + ? "
+            + "where product_id = ? and size_label = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+    private final ProductSizeAllocationRepository productSizeAllocationRepository;
+
+    public StockRestorer(JdbcTemplate jdbcTemplate,
+                         ProductRepository productRepository,
+                         ProductSizeAllocationRepository productSizeAllocationRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productRepository = productRepository;
+        this.productSizeAllocationRepository = productSizeAllocationRepository;
+    }
+
+    // 调用方按主键顺序传入合并后的数量，多节点并发时加锁顺序一致
+    public void restore(Map<Long, Integer> productQuantities, Map<Long, Map<String, Integer>> sizeQuantities) {
+        List<Object[]> productArgs = new ArrayList<>(productQuantities.size());
+        productQuantities.forEach((productId, quantity) -> productArgs.add(new Object[]{quantity, productId}));
+        if (!productArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(RESTORE_PRODUCT, productArgs);
+        }
+
+        List<Object[]> sizeArgs = new ArrayList<>();
+        sizeQuantities.forEach((productId, sizes) -> sizes.forEach((size, quantity) ->
+                sizeArgs.add(new Object[]{quantity, productId, size})));
+        if (sizeArgs.isEmpty()) {
+            return;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(RESTORE_ALLOCATION, sizeArgs);
+
+        // 尺码在下单后被删除时，重新建出该尺码
+        List<ProductSizeAllocation> recreated = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                Object[] row = sizeArgs.get(i);
+                ProductSizeAllocation allocation = new ProductSizeAllocation();
+                allocation.setProduct(productRepository.getReferenceById((Long) row[1]));
+                allocation.setSizeLabel((String) row[2]);
+                allocation.setQuantity((Integer) row[0]);
+                recreated.add(allocation);
+            }
+        }
+        if (!recreated.isEmpty()) {
+            productSizeAllocationRepository.saveAll(recreated);
+        }
+    }
+}
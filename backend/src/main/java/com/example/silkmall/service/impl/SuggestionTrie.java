@@ -0,0 +1,236 @@
+package com.example.silkmall.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compressed (radix) prefix trie of suggestion texts. Every node caches the highest weighted entries
+ * of its subtree, so a lookup is a walk down the prefix followed by a copy of that cached list. Writes
+ * re-rank only the nodes on the path of the changed key.
+ *
+ * <p>Not thread-safe; callers guard it with their own lock.</p>
+ */
+final class SuggestionTrie {
+
+    record Entry(String key, String type, Long refId, String text, long weight) {
+    }
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::weight).reversed()
+            .thenComparingInt(entry -> entry.text().length())
+            .thenComparing(Entry::text)
+            .thenComparing(Entry::key);
+
+    private final int capacity;
+    private final Node root = new Node("");
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    SuggestionTrie(int capacity) {
+        this.capacity = Math.max(capacity, 1);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    Entry get(String key) {
+        return entries.get(key);
+    }
+
+    void put(Entry entry) {
+        Entry previous = entries.put(entry.key(), entry);
+        if (previous != null) {
+            detach(previous);
+        }
+        List<Node> path = attach(entry);
+        if (path != null) {
+            rerank(path);
+        }
+    }
+
+    void remove(String key) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            detach(previous);
+        }
+    }
+
+    /**
+     * Bulk load used on rebuilds: inserts everything first and ranks every node once afterwards,
+     * instead of re-ranking the root for each entry.
+     */
+    void putAll(Collection<Entry> batch) {
+        for (Entry entry : batch) {
+            Entry previous = entries.put(entry.key(), entry);
+            if (previous != null) {
+                detach(previous);
+            }
+            attach(entry);
+        }
+        rerankSubtree(root);
+    }
+
+    List<Entry> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Node node = root;
+        int offset = 0;
+        while (offset < normalized.length()) {
+            Node child = node.children.get(normalized.charAt(offset));
+            if (child == null) {
+                return List.of();
+            }
+            int remaining = normalized.length() - offset;
+            int compared = Math.min(remaining, child.label.length());
+            if (!normalized.regionMatches(offset, child.label, 0, compared)) {
+                return List.of();
+            }
+            node = child;
+            offset += compared;
+        }
+        Entry[] top = node.top;
+        return List.of(Arrays.copyOf(top, Math.min(limit, top.length)));
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private List<Node> attach(Entry entry) {
+        String key = normalize(entry.text());
+        if (key.isEmpty()) {
+            return null;
+        }
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int offset = 0;
+        while (offset < key.length()) {
+            char next = key.charAt(offset);
+            Node child = node.children.get(next);
+            if (child == null) {
+                child = new Node(key.substring(offset));
+                node.children.put(next, child);
+                path.add(child);
+                node = child;
+                break;
+            }
+            int common = commonPrefixLength(child.label, key, offset);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                split.top = child.top;
+                node.children.put(next, split);
+                child = split;
+            }
+            path.add(child);
+            node = child;
+            offset += common;
+        }
+        node.terminals.add(entry);
+        return path;
+    }
+
+    private void detach(Entry entry) {
+        String key = normalize(entry.text());
+        if (key.isEmpty()) {
+            return;
+        }
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int offset = 0;
+        while (offset < key.length()) {
+            Node child = node.children.get(key.charAt(offset));
+            if (child == null || !key.startsWith(child.label, offset)) {
+                return;
+            }
+            path.add(child);
+            node = child;
+            offset += child.label.length();
+        }
+        node.terminals.removeIf(terminal -> terminal.key().equals(entry.key()));
+        compact(path);
+        rerank(path);
+    }
+
+    // 删除后清理空节点，并把只剩一个子节点的中间节点与其子节点合并，保持树的压缩形态
+    private void compact(List<Node> path) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            Node parent = path.get(i - 1);
+            if (!node.terminals.isEmpty()) {
+                return;
+            }
+            if (node.children.isEmpty()) {
+                parent.children.remove(node.label.charAt(0));
+                path.remove(i);
+                continue;
+            }
+            if (node.children.size() == 1) {
+                Node only = node.children.values().iterator().next();
+                only.label = node.label + only.label;
+                parent.children.put(only.label.charAt(0), only);
+                path.set(i, only);
+            }
+            return;
+        }
+    }
+
+    private void rerank(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            rank(path.get(i));
+        }
+    }
+
+    private void rerankSubtree(Node node) {
+        for (Node child : node.children.values()) {
+            rerankSubtree(child);
+        }
+        rank(node);
+    }
+
+    private void rank(Node node) {
+        List<Entry> candidates = new ArrayList<>(node.terminals);
+        for (Node child : node.children.values()) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        if (candidates.isEmpty()) {
+            node.top = NO_ENTRIES;
+            return;
+        }
+        candidates.sort(RANKING);
+        int size = Math.min(capacity, candidates.size());
+        node.top = candidates.subList(0, size).toArray(NO_ENTRIES);
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int length = 0;
+        while (length < max && label.charAt(length) == key.charAt(offset + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static final class Node {
+        private String label;
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final List<Entry> terminals = new ArrayList<>(1);
+        private Entry[] top = NO_ENTRIES;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.example.silkmall.service.impl;
 
 import com.example.silkmall.entity.Supplier;
 import com.example.silkmall.repository.SupplierRepository;
+import com.example.silkmall.service.ProductFacetService;
+import com.example.silkmall.service.ProductSuggestionService;
 import com.example.silkmall.service.SupplierService;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,11 +20,25 @@ import java.util.Locale;
 @Service
 public class SupplierServiceImpl extends UserServiceImpl<Supplier> implements SupplierService {
     private final SupplierRepository supplierRepository;
+    private final ProductSuggestionService productSuggestionService;
+    private final ProductFacetService productFacetService;
     
     @Autowired
-    public SupplierServiceImpl(SupplierRepository supplierRepository, PasswordEncoder passwordEncoder) {
+    public SupplierServiceImpl(SupplierRepository supplierRepository, PasswordEncoder passwordEncoder,
+                               ProductSuggestionService productSuggestionService,
+                               ProductFacetService productFacetService) {
         super(supplierRepository, passwordEncoder);
         this.supplierRepository = supplierRepository;
+        this.productSuggestionService = productSuggestionService;
+        this.productFacetService = productFacetService;
+    }
+
+    @Override
+    public Supplier save(Supplier supplier) {
+        Supplier saved = super.save(supplier);
+        productSuggestionService.refreshSupplier(saved.getId(), saved.getCompanyName());
+        productFacetService.refreshSupplier(saved.getId(), saved.getSupplierLevel());
+        return saved;
     }
     
     @Override
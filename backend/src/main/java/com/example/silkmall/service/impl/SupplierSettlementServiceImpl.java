@@ -0,0 +1,209 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.common.SettlementLineTypes;
+import com.example.silkmall.dto.SettlementTotalsDTO;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.entity.SupplierSettlementCycle;
+import com.example.silkmall.entity.SupplierSettlementLine;
+import com.example.silkmall.entity.SupplierStatement;
+import com.example.silkmall.repository.SupplierRepository;
+import com.example.silkmall.repository.SupplierSettlementCycleRepository;
+import com.example.silkmall.repository.SupplierSettlementLineRepository;
+import com.example.silkmall.repository.SupplierStatementRepository;
+import com.example.silkmall.service.SupplierSettlementService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 按结算周期汇总供应商未结算流水，统一更新钱包并生成对账单
+@Service
+public class SupplierSettlementServiceImpl implements SupplierSettlementService {
+
+    private static final Logger log = LoggerFactory.getLogger(SupplierSettlementServiceImpl.class);
+
+    private static final BigDecimal DEFAULT_WALLET_BALANCE = BigDecimal.valueOf(1000L);
+
+    private final SupplierSettlementLineRepository lineRepository;
+    private final SupplierSettlementCycleRepository cycleRepository;
+    private final SupplierStatementRepository statementRepository;
+    private final SupplierRepository supplierRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Pageable batch;
+
+    public SupplierSettlementServiceImpl(SupplierSettlementLineRepository lineRepository,
+                                         SupplierSettlementCycleRepository cycleRepository,
+                                         SupplierStatementRepository statementRepository,
+                                         SupplierRepository supplierRepository,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${settlement.batch-size:100}") int batchSize) {
+        this.lineRepository = lineRepository;
+        this.cycleRepository = cycleRepository;
+        this.statementRepository = statementRepository;
+        this.supplierRepository = supplierRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batch = PageRequest.of(0, Math.max(batchSize, 1));
+    }
+
+    @Transactional
+    @Override
+    public List<SupplierSettlementLine> record(String type, Long orderId, Long returnRequestId,
+                                               Map<Long, BigDecimal> amounts) {
+        List<SupplierSettlementLine> lines = new ArrayList<>();
+        amounts.forEach((supplierId, amount) -> {
+            if (amount != null && amount.signum() != 0) {
+                lines.add(new SupplierSettlementLine(supplierId, orderId, returnRequestId, type, amount));
+            }
+        });
+        return lines.isEmpty() ? lines : lineRepository.saveAll(lines);
+    }
+
+    @Override
+    public Map<Long, BigDecimal> unsettledTotals(Collection<Long> supplierIds) {
+        Map<Long, BigDecimal> totals = new HashMap<>();
+        if (supplierIds == null || supplierIds.isEmpty()) {
+            return totals;
+        }
+        for (SettlementTotalsDTO row : lineRepository.sumUnsettled(supplierIds)) {
+            totals.put(row.getSupplierId(), row.getNet());
+        }
+        return totals;
+    }
+
+    @Scheduled(cron = "${settlement.cycle-cron:0 0 * * * *}")
+    public void scheduledCycle() {
+        runCycle();
+    }
+
+    @Override
+    public SupplierSettlementCycle runCycle() {
+        SupplierSettlementCycle cycle = null;
+        int suppliers = 0;
+        int lines = 0;
+        Long afterId = 0L;
+        while (true) {
+            List<Long> supplierIds = lineRepository.findUnsettledSupplierIds(afterId, batch);
+            if (supplierIds.isEmpty()) {
+                break;
+            }
+            if (cycle == null) {
+                cycle = cycleRepository.save(new SupplierSettlementCycle());
+            }
+            afterId = supplierIds.get(supplierIds.size() - 1);
+            Long cycleId = cycle.getId();
+            try {
+                List<SupplierStatement> statements = transactionTemplate.execute(status -> settle(supplierIds, cycleId));
+                suppliers += statements.size();
+                lines += statements.stream().mapToInt(SupplierStatement::getLineCount).sum();
+            } catch (RuntimeException e) {
+                // 该批次的结算行保持未结算状态，下一个周期重试
+                log.warn("Settlement of suppliers {}..{} failed: {}", supplierIds.get(0), afterId, e.getMessage());
+            }
+        }
+        if (cycle == null) {
+            return null;
+        }
+        cycle.setSupplierCount(suppliers);
+        cycle.setLineCount(lines);
+        cycle.setCompletedAt(new Date());
+        cycle = cycleRepository.save(cycle);
+        log.info("Settlement cycle {} settled {} lines for {} suppliers", cycle.getId(), lines, suppliers);
+        return cycle;
+    }
+
+    private List<SupplierStatement> settle(List<Long> supplierIds, Long cycleId) {
+        Map<Long, Supplier> suppliers = new HashMap<>();
+        supplierRepository.lockAllById(supplierIds).forEach(supplier -> suppliers.put(supplier.getId(), supplier));
+        lineRepository.assignCycle(suppliers.keySet(), cycleId);
+
+        List<Supplier> updated = new ArrayList<>();
+        List<SupplierStatement> statements = new ArrayList<>();
+        List<SupplierSettlementLine> carried = new ArrayList<>();
+        for (SettlementTotalsDTO totals : lineRepository.sumByCycle(suppliers.keySet(), cycleId)) {
+            Supplier supplier = suppliers.get(totals.getSupplierId());
+            BigDecimal opening = supplier.getWalletBalance() == null
+                    ? DEFAULT_WALLET_BALANCE
+                    : supplier.getWalletBalance();
+            BigDecimal credits = totals.getCredits();
+            BigDecimal net = totals.getNet();
+            int lineCount = totals.getLineCount().intValue();
+            BigDecimal shortfall = opening.add(net).negate();
+            if (shortfall.signum() > 0) {
+                // 余额不足抵扣的部分结转为下一周期的欠款，本期以一条结转入账行平账
+                SupplierSettlementLine settledPart = new SupplierSettlementLine(
+                        supplier.getId(), null, null, SettlementLineTypes.CARRIED_FORWARD, shortfall);
+                settledPart.setCycleId(cycleId);
+                carried.add(settledPart);
+                carried.add(new SupplierSettlementLine(
+                        supplier.getId(), null, null, SettlementLineTypes.CARRIED_FORWARD, shortfall.negate()));
+                credits = credits.add(shortfall);
+                net = net.add(shortfall);
+                lineCount++;
+            }
+            BigDecimal closing = opening.add(net);
+            supplier.setWalletBalance(closing);
+            updated.add(supplier);
+
+            SupplierStatement statement = new SupplierStatement();
+            statement.setSupplierId(supplier.getId());
+            statement.setCycleId(cycleId);
+            statement.setPeriodStart(totals.getFirstLineAt());
+            statement.setPeriodEnd(totals.getLastLineAt());
+            statement.setOpeningBalance(opening);
+            statement.setCreditTotal(credits);
+            statement.setDebitTotal(totals.getDebits().negate());
+            statement.setNetAmount(net);
+            statement.setClosingBalance(closing);
+            statement.setLineCount(lineCount);
+            statements.add(statement);
+        }
+        if (!carried.isEmpty()) {
+            lineRepository.saveAll(carried);
+        }
+        supplierRepository.saveAll(updated);
+        return statementRepository.saveAll(statements);
+    }
+
+    @Override
+    public Page<SupplierStatement> findStatements(Long supplierId, Pageable pageable) {
+        return statementRepository.findBySupplierId(supplierId, newestFirst(pageable));
+    }
+
+    @Override
+    public Page<SupplierSettlementLine> findStatementLines(Long supplierId, Long statementId, Pageable pageable) {
+        SupplierStatement statement = statementRepository.findByIdAndSupplierId(statementId, supplierId)
+                .orElseThrow(() -> new RuntimeException("结算单不存在"));
+        return lineRepository.findBySupplierIdAndCycleId(supplierId, statement.getCycleId(), newestFirst(pageable));
+    }
+
+    @Override
+    public Page<SupplierSettlementLine> findPendingLines(Long supplierId, Pageable pageable) {
+        return lineRepository.findBySupplierIdAndCycleIdIsNull(supplierId, newestFirst(pageable));
+    }
+
+    private Pageable newestFirst(Pageable pageable) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "id"));
+        }
+        if (pageable.getSort().isSorted()) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "id"));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.silkmall.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderNumbersTest {
+
+    private static final int THREADS = 16;
+    private static final int IDS_PER_THREAD = 100_000;
+
+    @Test
+    void idsStayUniqueAndIncreasingUnderManyThreads() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+
+        long[][] perThread = new long[THREADS][];
+        runConcurrently(thread -> {
+            long[] ids = new long[IDS_PER_THREAD];
+            for (int i = 0; i < IDS_PER_THREAD; i++) {
+                ids[i] = generator.nextId();
+            }
+            perThread[thread] = ids;
+        });
+
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        int nonIncreasingThreads = 0;
+        for (int thread = 0; thread < THREADS; thread++) {
+            if (firstNonIncreasing(perThread[thread]) >= 0) {
+                nonIncreasingThreads++;
+            }
+            System.arraycopy(perThread[thread], 0, all, thread * IDS_PER_THREAD, IDS_PER_THREAD);
+        }
+        assertThat(nonIncreasingThreads).isZero();
+
+        // 排序后严格递增即没有重复
+        Arrays.sort(all);
+        assertThat(firstNonIncreasing(all)).isEqualTo(-1);
+    }
+
+    @Test
+    void formatsKeepTheExistingShapeAndDifferAcrossNodes() {
+        long now = System.currentTimeMillis();
+        OrderNumbers first = new OrderNumbers(new SnowflakeIdGenerator(1, () -> now));
+        OrderNumbers second = new OrderNumbers(new SnowflakeIdGenerator(2, () -> now));
+
+        String orderNo = first.nextOrderNo();
+        assertThat(orderNo).hasSize(21).startsWith(String.valueOf(now)).matches("\\d{13}[0-9a-f]{8}");
+        assertThat(first.nextConsumerLookupId()).matches("C[0-9A-F]{16}");
+
+        Set<String> values = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(first.nextOrderNo());
+            values.add(second.nextOrderNo());
+            values.add(first.nextConsumerLookupId());
+            values.add(second.nextConsumerLookupId());
+        }
+        assertThat(values).hasSize(4000);
+    }
+
+    @Test
+    void lookupIdsDoNotFollowTheClock() {
+        long now = System.currentTimeMillis();
+        OrderNumbers numbers = new OrderNumbers(new SnowflakeIdGenerator(1, () -> now));
+
+        // 同一毫秒内连续生成的查询编号也不共享时间前缀
+        String first = numbers.nextConsumerLookupId();
+        String second = numbers.nextConsumerLookupId();
+        assertThat(first.substring(0, 9)).isNotEqualTo(second.substring(0, 9));
+        assertThat(OrderNumbers.formatLookupId(-1L)).isEqualTo("CFFFFFFFFFFFFFFFF");
+        assertThat(OrderNumbers.formatLookupId(0xABCL)).isEqualTo("C0000000000000ABC");
+    }
+
+    @Test
+    void sequenceOverflowAndClockRollbackNeverRepeatAnId() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH + 1_000_000L);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, clock::get);
+
+        long[] ids = new long[5100];
+        for (int i = 0; i < 5000; i++) {
+            ids[i] = generator.nextId();
+        }
+        clock.addAndGet(-10_000L);
+        for (int i = 5000; i < ids.length; i++) {
+            ids[i] = generator.nextId();
+        }
+
+        assertThat(firstNonIncreasing(ids)).isEqualTo(-1);
+        assertThat(SnowflakeIdGenerator.timestampOf(ids[0])).isEqualTo(SnowflakeIdGenerator.EPOCH + 1_000_000L);
+    }
+
+    // 返回第一个不大于前一个值的下标，全部严格递增时返回 -1
+    private static int firstNonIncreasing(long[] ids) {
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i] <= ids[i - 1]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void runConcurrently(ThreadBody body) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int index = thread;
+                Callable<Void> task = () -> {
+                    start.await();
+                    body.run(index);
+                    return null;
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadBody {
+        void run(int thread) throws Exception;
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -22,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.test.context.TestPropertySource;
 
 import java.math.BigDecimal;
+import java.net.URI;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,7 +38,8 @@ import static org.junit.jupiter.api.Assertions.*;
         "spring.jpa.hibernate.ddl-auto=create-drop",
         "spring.jpa.show-sql=false",
         "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
-        "spring.main.allow-circular-references=true"
+        "spring.main.allow-circular-references=true",
+        "product.images.allowed-origins=https://cdn.example.com"
 })
 class ProductControllerIntegrationTest {
 
@@ -136,4 +139,42 @@ class ProductControllerIntegrationTest {
             SecurityContextHolder.clearContext();
         }
     }
+
+    @Test
+    void mainImageRedirectsOnlyToSitePathsAndAllowedOrigins() {
+        assertEquals(URI.create("/uploads/silk.png"), mainImageOf("/uploads/silk.png").getHeaders().getLocation());
+        assertEquals(URI.create("https://cdn.example.com/silk.png"),
+                mainImageOf("https://cdn.example.com/silk.png").getHeaders().getLocation());
+
+        assertEquals(HttpStatus.NOT_FOUND, mainImageOf("https://evil.example.org/silk.png").getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, mainImageOf("//evil.example.org/silk.png").getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, mainImageOf("javascript:alert(1)").getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, mainImageOf("uploads/silk image.png").getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, mainImageOf("http://cdn.example.com:8443/silk.png").getStatusCode());
+    }
+
+    @Test
+    void mainImageServesOnlyInlineRasterImages() {
+        ResponseEntity<?> png = mainImageOf("data:image/png;base64,iVBORw0KGgo=");
+        assertEquals(HttpStatus.OK, png.getStatusCode());
+        assertEquals(MediaType.IMAGE_PNG, png.getHeaders().getContentType());
+        assertEquals("nosniff", png.getHeaders().getFirst("X-Content-Type-Options"));
+        assertEquals("sandbox", png.getHeaders().getFirst("Content-Security-Policy"));
+        assertEquals(HttpStatus.OK, mainImageOf("data:IMAGE/WEBP;base64,UklGRg==").getStatusCode());
+
+        assertEquals(HttpStatus.NOT_FOUND, mainImageOf("data:text/html,<script>alert(1)</script>").getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND,
+                mainImageOf("data:image/svg+xml;base64,PHN2ZyBvbmxvYWQ9YWxlcnQoMSk+").getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, mainImageOf("data:,<script>alert(1)</script>").getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, mainImageOf("data:image/png;base64").getStatusCode());
+    }
+
+    private ResponseEntity<?> mainImageOf(String mainImage) {
+        Product product = new Product();
+        product.setName("图片跳转测试商品");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(1);
+        product.setMainImage(mainImage);
+        return productController.getMainImage(productService.save(product).getId());
+    }
 }
@@ -0,0 +1,120 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.dto.CartCheckoutResultDTO;
+import com.example.silkmall.dto.CartItemDTO;
+import com.example.silkmall.entity.Consumer;
+import com.example.silkmall.entity.Order;
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.ProductSizeAllocation;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.repository.ProductSizeAllocationRepository;
+import com.example.silkmall.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.example.silkmall.common.OrderStatuses.PENDING_SHIPMENT;
+import static com.example.silkmall.support.TestFixtures.sizes;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CartCheckoutServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartCheckoutService cartCheckoutService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductSizeAllocationRepository productSizeAllocationRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void checkoutCreatesOnePaidOrderPerSupplier() {
+        Consumer consumer = fixtures.registerConsumer("cart-checkout-consumer", "18810000001");
+        Product silk = fixtures.saveProduct("Checkout Silk", fixtures.registerSupplier("cart-checkout-a", "18810000002"), "120.00", 10);
+        Product scarf = fixtures.saveProduct("Checkout Scarf", fixtures.registerSupplier("cart-checkout-b", "18810000003"), "30.00", 10);
+
+        CartItemDTO first = cartService.addItem(consumer.getId(), silk.getId(), 2);
+        CartItemDTO second = cartService.addItem(consumer.getId(), scarf.getId(), 3);
+
+        CartCheckoutResultDTO result = cartCheckoutService.checkout(consumer.getId(),
+                List.of(first.getId(), second.getId()), null, null, null);
+
+        assertThat(result.getPaidAmount()).isEqualByComparingTo("330.00");
+        assertThat(result.getBalance()).isEqualByComparingTo("670.00");
+        assertThat(result.getRemovedCount()).isEqualTo(2);
+        assertThat(result.getOrderIds()).hasSize(2);
+        List<Order> orders = result.getOrderIds().stream()
+                .map(orderId -> orderService.findById(orderId).orElseThrow())
+                .toList();
+        assertThat(orders).extracting(Order::getStatus).containsOnly(PENDING_SHIPMENT);
+        assertThat(orders).extracting(Order::getTotalQuantity).containsExactlyInAnyOrder(2, 3);
+        assertThat(productService.findById(silk.getId()).orElseThrow().getStock()).isEqualTo(8);
+        assertThat(productService.findById(scarf.getId()).orElseThrow().getStock()).isEqualTo(7);
+        assertThat(cartService.getCartItems(consumer.getId())).isEmpty();
+    }
+
+    @Test
+    void checkoutRollsBackWhenStockRunsOut() {
+        Consumer consumer = fixtures.registerConsumer("cart-rollback-consumer", "18810000011");
+        Supplier supplier = fixtures.registerSupplier("cart-rollback-supplier", "18810000012");
+        Product plenty = fixtures.saveProduct("Rollback Plenty", supplier, "10.00", 10);
+        Product scarce = fixtures.saveProduct("Rollback Scarce", supplier, "10.00", 5);
+
+        CartItemDTO first = cartService.addItem(consumer.getId(), plenty.getId(), 2);
+        CartItemDTO second = cartService.addItem(consumer.getId(), scarce.getId(), 5);
+        productService.updateStock(scarce.getId(), -4);
+
+        assertThatThrownBy(() -> cartCheckoutService.checkout(consumer.getId(),
+                List.of(first.getId(), second.getId()), null, null, null))
+                .hasMessageContaining("库存不足");
+
+        assertThat(productService.findById(plenty.getId()).orElseThrow().getStock()).isEqualTo(10);
+        assertThat(cartService.getCartItems(consumer.getId())).hasSize(2);
+    }
+
+    @Test
+    void checkoutRequiresAnExistingSizeForSizedProducts() {
+        Consumer consumer = fixtures.registerConsumer("cart-size-consumer", "18810000021");
+        Supplier supplier = fixtures.registerSupplier("cart-size-supplier", "18810000022");
+        Product plain = fixtures.saveProduct("Size Check Plain", supplier, "10.00", 10);
+        Product sized = fixtures.saveProduct("Size Check Robe", supplier, "10.00", sizes("S", 3, "M", 3));
+
+        CartItemDTO first = cartService.addItem(consumer.getId(), plain.getId(), 1);
+        CartItemDTO second = cartService.addItem(consumer.getId(), sized.getId(), 1);
+        List<Long> itemIds = List.of(first.getId(), second.getId());
+
+        assertThatThrownBy(() -> cartCheckoutService.checkout(consumer.getId(), itemIds, null, null, null))
+                .hasMessage("该商品按尺码管理库存，请指定尺码");
+        assertThatThrownBy(() -> cartCheckoutService.checkout(consumer.getId(), itemIds,
+                Map.of(second.getId(), "XL"), null, null))
+                .hasMessage("尺码XL不存在");
+
+        assertThat(productService.findById(plain.getId()).orElseThrow().getStock()).isEqualTo(10);
+        assertThat(productService.findById(sized.getId()).orElseThrow().getStock()).isEqualTo(6);
+        assertThat(cartService.getCartItems(consumer.getId())).hasSize(2);
+
+        cartCheckoutService.checkout(consumer.getId(), itemIds, Map.of(second.getId(), "M"), null, null);
+        assertThat(productService.findById(sized.getId()).orElseThrow().getStock()).isEqualTo(5);
+        assertThat(productSizeAllocationRepository.findByProductId(sized.getId()))
+                .extracting(ProductSizeAllocation::getSizeLabel, ProductSizeAllocation::getQuantity)
+                .containsExactlyInAnyOrder(tuple("S", 3), tuple("M", 2));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.entity.Consumer;
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.service.impl.CartStore;
+import com.example.silkmall.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.silkmall.support.TestFixtures.sizes;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CartListingQueryCountTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void coldCartIsListedWithOneStatementRegardlessOfItemCount() {
+        Supplier supplier = fixtures.registerSupplier("cart-count-supplier", "18820000031");
+        Consumer small = fixtures.registerConsumer("cart-count-small", "18820000032");
+        Consumer large = fixtures.registerConsumer("cart-count-large", "18820000033");
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            products.add(i % 2 == 0
+                    ? fixtures.saveProduct("Cart Count Silk " + i, supplier, "30.00", sizes("S", 2, "M", 3))
+                    : fixtures.saveProduct("Cart Count Silk " + i, supplier, "30.00", 5));
+        }
+        cartService.addItem(small.getId(), products.get(0).getId(), 1);
+        for (Product product : products) {
+            cartService.addItem(large.getId(), product.getId(), 1);
+        }
+
+        assertThat(listingStatements(small, products)).isEqualTo(1);
+        assertThat(listingStatements(large, products)).isEqualTo(1);
+        assertThat(cartService.getCartItems(large.getId()))
+                .hasSize(products.size())
+                .allSatisfy(item -> assertThat(item.getProduct().getName()).startsWith("Cart Count Silk"));
+    }
+
+    // 丢弃购物车和商品缓存后重新列出购物车，返回执行的语句数
+    private long listingStatements(Consumer consumer, List<Product> products) {
+        cartService.flush(consumer.getId());
+        cartStore.invalidate(consumer.getId());
+        products.forEach(product -> cartStore.evictProduct(product.getId()));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        cartService.getCartItems(consumer.getId());
+        return statistics.getPrepareStatementCount();
+    }
+}
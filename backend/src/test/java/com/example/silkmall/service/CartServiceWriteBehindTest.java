@@ -0,0 +1,137 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.dto.CartItemDTO;
+import com.example.silkmall.entity.Consumer;
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.repository.CartItemRepository;
+import com.example.silkmall.repository.ConsumerRepository;
+import com.example.silkmall.repository.ProductRepository;
+import com.example.silkmall.service.impl.CartStore;
+import com.example.silkmall.service.impl.NewConsumerServiceImpl;
+import com.example.silkmall.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CartServiceWriteBehindTest {
+
+    @Autowired
+    private NewConsumerServiceImpl newConsumerService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private ConsumerRepository consumerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void quantityEditsAreCoalescedUntilFlush() {
+        Consumer consumer = new Consumer();
+        consumer.setUsername("cart-write-behind");
+        consumer.setPassword("password");
+        consumer.setEmail("cart-write-behind@example.com");
+        consumer.setPhone("18820000001");
+        consumer.setRole("consumer");
+        consumer = newConsumerService.register(consumer);
+
+        Product product = new Product();
+        product.setName("Write Behind Silk");
+        product.setPrice(new BigDecimal("50.00"));
+        product.setStock(20);
+        product.setStatus("ON_SALE");
+        product = productService.save(product);
+
+        CartItemDTO added = cartService.addItem(consumer.getId(), product.getId(), 1);
+        assertThat(cartItemRepository.findById(added.getId())).isPresent();
+
+        cartService.updateQuantity(consumer.getId(), added.getId(), 2);
+        cartService.updateQuantity(consumer.getId(), added.getId(), 5);
+        assertThat(cartService.getCartItems(consumer.getId()))
+                .singleElement()
+                .extracting(CartItemDTO::getQuantity)
+                .isEqualTo(5);
+
+        cartService.flush(consumer.getId());
+        assertThat(cartItemRepository.findById(added.getId()).orElseThrow().getQuantity()).isEqualTo(5);
+
+        cartService.removeItem(consumer.getId(), added.getId());
+        assertThat(cartService.getCartItems(consumer.getId())).isEmpty();
+        cartService.flush(consumer.getId());
+        assertThat(cartItemRepository.findById(added.getId())).isEmpty();
+    }
+
+    @Test
+    void editsMadeBeforeAnInvalidationCommitsAreKept() {
+        Consumer consumer = fixtures.registerConsumer("cart-invalidate-consumer", "18820000002");
+        Supplier supplier = fixtures.registerSupplier("cart-invalidate-supplier", "18820000003");
+        Product product = fixtures.saveProduct("Invalidate Silk", supplier, "50.00", 20);
+        CartItemDTO added = cartService.addItem(consumer.getId(), product.getId(), 1);
+
+        // 结算已刷新购物车、尚未提交时，消费者又修改了数量
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            cartStore.invalidate(consumer.getId());
+            cartService.updateQuantity(consumer.getId(), added.getId(), 4);
+        });
+
+        assertThat(cartItemRepository.findById(added.getId()).orElseThrow().getQuantity()).isEqualTo(4);
+        assertThat(cartService.getCartItems(consumer.getId()))
+                .singleElement()
+                .extracting(CartItemDTO::getQuantity)
+                .isEqualTo(4);
+    }
+
+    @Test
+    void evictedCartsKeepEveryEdit() {
+        Consumer first = fixtures.registerConsumer("cart-evict-first", "18820000004");
+        Consumer second = fixtures.registerConsumer("cart-evict-second", "18820000005");
+        Supplier supplier = fixtures.registerSupplier("cart-evict-supplier", "18820000006");
+        Product product = fixtures.saveProduct("Evict Silk", supplier, "50.00", 20);
+        CartStore store = new CartStore(cartItemRepository, consumerRepository, productRepository,
+                transactionManager, 1, 100, 30_000);
+
+        Long itemId = store.add(first.getId(), product.getId(), 1).itemId();
+        store.update(first.getId(), itemId, 3);
+        // 只容纳一位消费者，读取第二位的购物车会挤出第一位
+        store.lines(second.getId());
+        store.update(first.getId(), itemId, 4);
+        store.lines(second.getId());
+        store.flushDirty();
+        assertThat(cartItemRepository.findById(itemId).orElseThrow().getQuantity()).isEqualTo(4);
+
+        store.update(first.getId(), itemId, 6);
+        store.lines(second.getId());
+        store.flush(first.getId());
+        assertThat(cartItemRepository.findById(itemId).orElseThrow().getQuantity()).isEqualTo(6);
+        assertThat(store.lines(first.getId())).singleElement()
+                .extracting(CartStore.CartLine::quantity)
+                .isEqualTo(6);
+    }
+}
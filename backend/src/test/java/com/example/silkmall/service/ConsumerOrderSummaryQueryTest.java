@@ -0,0 +1,121 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.dto.CartCheckoutResultDTO;
+import com.example.silkmall.dto.CartItemDTO;
+import com.example.silkmall.dto.ConsumerOrderSummaryDTO;
+import com.example.silkmall.entity.Consumer;
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.silkmall.common.OrderStatuses.PENDING_SHIPMENT;
+import static com.example.silkmall.common.OrderStatuses.SHIPPED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ConsumerOrderSummaryQueryTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartCheckoutService cartCheckoutService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ConsumerOrderCountService consumerOrderCountService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void orderHistoryPageAndBadgesUseAConstantNumberOfQueries() {
+        Consumer consumer = fixtures.registerConsumer("order-summary-consumer", "18830000001");
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Supplier supplier = fixtures.registerSupplier("order-summary-supplier-" + i, "1883000001" + i);
+            Product product = fixtures.saveProduct("Order Summary Silk " + i, supplier, "50.00", 10);
+            CartItemDTO item = cartService.addItem(consumer.getId(), product.getId(), 2);
+            itemIds.add(item.getId());
+        }
+        CartCheckoutResultDTO checkout = cartCheckoutService.checkout(consumer.getId(), itemIds, null, null, null);
+        assertThat(checkout.getOrderIds()).hasSize(4);
+        orderService.shipOrder(checkout.getOrderIds().get(0));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<ConsumerOrderSummaryDTO> page = orderService.findConsumerSummaries(consumer.getId(), null, PageRequest.of(0, 3));
+        Map<String, Long> counts = orderService.countConsumerOrders(consumer.getId());
+
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getContent()).hasSize(3);
+        assertThat(page.getContent()).allSatisfy(summary -> {
+            assertThat(summary.getItems()).hasSize(1);
+            assertThat(summary.getItems().get(0).getQuantity()).isEqualTo(2);
+            assertThat(summary.getProductNames()).singleElement().asString().startsWith("Order Summary Silk ");
+        });
+        assertThat(counts).containsEntry(PENDING_SHIPMENT, 3L).containsEntry(SHIPPED, 1L).containsEntry("ALL", 4L);
+        // 订单头分页、计数、批量订单项各一条，再加一条计数器查询
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+
+        Page<ConsumerOrderSummaryDTO> shipped = orderService.findConsumerSummaries(consumer.getId(), SHIPPED, PageRequest.of(0, 10));
+        assertThat(shipped.getContent()).extracting(ConsumerOrderSummaryDTO::getId)
+                .containsExactly(checkout.getOrderIds().get(0));
+
+        consumerOrderCountService.rebuild();
+        assertThat(orderService.countConsumerOrders(consumer.getId())).isEqualTo(counts);
+    }
+
+    @Test
+    void concurrentFirstOrdersInAStatusBothCount() throws Exception {
+        Long consumerId = fixtures.registerConsumer("order-count-race-consumer", "18830000021").getId();
+
+        // 第一笔变更建行后暂不提交，第二笔在其提交前写入，两者都应计入
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstApplied = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            consumerOrderCountService.recordCreated(consumerId, PENDING_SHIPMENT);
+            firstApplied.countDown();
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(firstApplied.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> second = CompletableFuture.runAsync(
+                () -> consumerOrderCountService.recordCreated(consumerId, PENDING_SHIPMENT));
+        CompletableFuture.allOf(first, second).get(30, TimeUnit.SECONDS);
+
+        assertThat(consumerOrderCountService.countByStatus(consumerId))
+                .containsEntry(PENDING_SHIPMENT, 2L).containsEntry("ALL", 2L);
+    }
+}
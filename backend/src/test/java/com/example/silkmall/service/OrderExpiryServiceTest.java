@@ -0,0 +1,179 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.entity.Consumer;
+import com.example.silkmall.entity.Order;
+import com.example.silkmall.entity.OrderItem;
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.ProductSizeAllocation;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.repository.OrderRepository;
+import com.example.silkmall.repository.ProductRepository;
+import com.example.silkmall.repository.ProductSizeAllocationRepository;
+import com.example.silkmall.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static com.example.silkmall.support.TestFixtures.sizes;
+import static com.example.silkmall.common.OrderStatuses.CANCELLED;
+import static com.example.silkmall.common.OrderStatuses.PENDING_PAYMENT;
+import static com.example.silkmall.common.OrderStatuses.PENDING_SHIPMENT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 超时设为 0 分钟，订单一提交即到期；轮询间隔拉长，由测试手动触发
+@SpringBootTest(properties = {"order.expiry.timeout-minutes=0", "order.expiry.poll-interval-ms=3600000"})
+@ActiveProfiles("test")
+class OrderExpiryServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderExpiryService orderExpiryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSizeAllocationRepository productSizeAllocationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void expiredOrdersAreCancelledOnceAndReleaseTheirStock() {
+        Consumer consumer = fixtures.saveConsumer("expiry-consumer", "18880000011", null);
+        Supplier supplier = fixtures.saveSupplier("expiry-supplier", "18880000012", null);
+        Product sized = fixtures.saveProduct("Expiry Sized Silk", supplier, "20.00", sizes("S", 5, "M", 5));
+        Product plain = fixtures.saveProduct("Expiry Plain Silk", supplier, "20.00", 10);
+
+        Order unpaid = orderService.createOrder(order(consumer, null, item(sized, "S", 2), item(plain, null, 3)));
+        Order paid = orderService.createOrder(order(consumer, "WALLET", item(plain, null, 1)));
+        assertThat(stockOf(sized)).isEqualTo(8);
+        assertThat(stockOf(plain)).isEqualTo(6);
+
+        // 模拟另一节点也跟踪了已支付的订单
+        orderExpiryService.track(paid.getId(), paid.getOrderTime());
+        orderExpiryService.expireDue();
+
+        assertThat(statusOf(unpaid)).isEqualTo(CANCELLED);
+        assertThat(statusOf(paid)).isEqualTo(PENDING_SHIPMENT);
+        assertThat(stockOf(sized)).isEqualTo(10);
+        assertThat(allocations(sized)).containsExactlyInAnyOrderEntriesOf(sizes("S", 5, "M", 5));
+        assertThat(stockOf(plain)).isEqualTo(9);
+        assertThat(orderService.countConsumerOrders(consumer.getId()))
+                .containsEntry(CANCELLED, 1L)
+                .containsEntry(PENDING_SHIPMENT, 1L)
+                .doesNotContainEntry(PENDING_PAYMENT, 1L);
+
+        // 再次跟踪（如重建或其他节点）不会重复恢复库存
+        orderExpiryService.track(unpaid.getId(), unpaid.getOrderTime());
+        assertThat(orderExpiryService.expireDue()).isZero();
+        assertThat(stockOf(plain)).isEqualTo(9);
+        assertThatThrownBy(() -> orderService.payOrder(unpaid.getId(), "WALLET"))
+                .hasMessage("只有待支付的订单才能支付");
+        assertThatThrownBy(() -> orderService.cancelOrder(unpaid.getId()))
+                .hasMessage("只有待支付的订单才能取消");
+    }
+
+    @Test
+    void rebuildPicksUpUnpaidOrdersThisNodeNeverTracked() {
+        Consumer consumer = fixtures.saveConsumer("expiry-rebuild-consumer", "18880000013", null);
+        Supplier supplier = fixtures.saveSupplier("expiry-rebuild-supplier", "18880000014", null);
+        Product plain = fixtures.saveProduct("Expiry Rebuild Silk", supplier, "20.00", 10);
+
+        // 直接落库的待付款订单，相当于其他节点或重启前创建、本节点队列里没有
+        Order foreign = order(consumer, null, item(plain, null, 4));
+        foreign.setOrderNo("EXPIRY-" + System.nanoTime());
+        foreign.setStatus(PENDING_PAYMENT);
+        foreign.getOrderItems().forEach(item -> item.setOrder(foreign));
+        Order stored = orderRepository.save(foreign);
+
+        orderExpiryService.expireDue();
+        assertThat(statusOf(stored)).isEqualTo(PENDING_PAYMENT);
+
+        assertThat(orderExpiryService.rebuild()).isPositive();
+        assertThat(orderExpiryService.rebuild()).isZero();
+        orderExpiryService.expireDue();
+        assertThat(statusOf(stored)).isEqualTo(CANCELLED);
+        assertThat(stockOf(plain)).isEqualTo(14);
+    }
+
+    @Test
+    void cancellingKeepsStockSoldMeanwhile() {
+        Consumer consumer = fixtures.saveConsumer("expiry-cancel-consumer", "18880000015", null);
+        Supplier supplier = fixtures.saveSupplier("expiry-cancel-supplier", "18880000016", null);
+        Product sized = fixtures.saveProduct("Expiry Cancel Silk", supplier, "20.00", sizes("S", 5, "M", 5));
+        Order unpaid = orderService.createOrder(order(consumer, null, item(sized, "S", 2)));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // 取消前商品已在当前事务中读出，随后另一个事务卖出 3 件
+            productRepository.findById(sized.getId()).orElseThrow();
+            CompletableFuture.runAsync(() -> {
+                jdbcTemplate.update("update products set stock = stock - 3 where id = ?", sized.getId());
+                jdbcTemplate.update("update product_size_allocations set quantity = quantity - 3 "
+                        + "where product_id = ? and size_label = 'S'", sized.getId());
+            }).join();
+            orderService.cancelOrder(unpaid.getId());
+        });
+
+        assertThat(statusOf(unpaid)).isEqualTo(CANCELLED);
+        assertThat(stockOf(sized)).isEqualTo(7);
+        assertThat(allocations(sized)).containsExactlyInAnyOrderEntriesOf(sizes("S", 2, "M", 5));
+    }
+
+    private String statusOf(Order order) {
+        return orderService.findById(order.getId()).orElseThrow().getStatus();
+    }
+
+    private int stockOf(Product product) {
+        return productService.findById(product.getId()).orElseThrow().getStock();
+    }
+
+    private Map<String, Integer> allocations(Product product) {
+        return productSizeAllocationRepository.findByProductId(product.getId()).stream()
+                .collect(Collectors.toMap(ProductSizeAllocation::getSizeLabel, ProductSizeAllocation::getQuantity));
+    }
+
+    private static OrderItem item(Product product, String size, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setSize(size);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static Order order(Consumer consumer, String paymentMethod, OrderItem... items) {
+        Order order = new Order();
+        order.setConsumer(consumer);
+        order.setPaymentMethod(paymentMethod);
+        order.setShippingAddress("Expiry Address");
+        order.setRecipientName("Expiry Recipient");
+        order.setRecipientPhone("18880000000");
+        order.setOrderItems(new ArrayList<>(List.of(items)));
+        return order;
+    }
+}
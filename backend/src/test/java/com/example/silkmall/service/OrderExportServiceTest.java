@@ -0,0 +1,100 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.common.DataFormat;
+import com.example.silkmall.entity.Consumer;
+import com.example.silkmall.entity.Order;
+import com.example.silkmall.entity.OrderItem;
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.support.TestFixtures;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderExportServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void exportCarriesItemsCommissionAndSupplierSplit() throws Exception {
+        Consumer consumer = fixtures.registerConsumer("export-consumer", "18880000001");
+        Supplier first = fixtures.registerSupplier("export-supplier-a", "18880000011");
+        Supplier second = fixtures.registerSupplier("export-supplier-b", "18880000012");
+        Product firstProduct = fixtures.saveProduct("Export, Silk \"A\"", first, "50.00", 10);
+        Product secondProduct = fixtures.saveProduct("=HYPERLINK(\"http://evil.example\")", second, "50.00", 10);
+
+        Order order = new Order();
+        order.setConsumer(consumer);
+        order.setShippingAddress("Export Address");
+        order.setRecipientName("Export Recipient");
+        order.setRecipientPhone("18880000002");
+        order.setOrderItems(List.of(orderItem(firstProduct, 2), orderItem(secondProduct, 1)));
+        Order created = orderService.createOrder(order);
+        LocalDate today = LocalDate.now();
+
+        String csv = export(today, DataFormat.CSV);
+        List<String> lines = csv.lines().filter(line -> line.contains(created.getOrderNo())).toList();
+        assertThat(csv).startsWith("\uFEFForder_id,order_no,");
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).contains("\"Export, Silk \"\"A\"\"\"")
+                .contains(",150.00,", ",7.50,142.50,").endsWith(",95.00");
+        assertThat(lines.get(1)).contains(",\"'=HYPERLINK(\"\"http://evil.example\"\")\",").endsWith(",47.50");
+
+        String ndjson = export(today, DataFormat.NDJSON);
+        JsonNode exported = null;
+        for (String line : ndjson.lines().toList()) {
+            JsonNode node = objectMapper.readTree(line);
+            if (created.getOrderNo().equals(node.get("orderNo").asText())) {
+                exported = node;
+            }
+        }
+        assertThat(exported).isNotNull();
+        assertThat(exported.get("commission").decimalValue()).isEqualByComparingTo("7.50");
+        assertThat(exported.get("items")).hasSize(2);
+        assertThat(exported.get("supplierPayouts").get(0).get("supplierId").asLong()).isEqualTo(first.getId());
+        assertThat(exported.get("supplierPayouts").get(0).get("amount").decimalValue()).isEqualByComparingTo("95.00");
+        assertThat(exported.get("supplierPayouts").get(1).get("amount").decimalValue()).isEqualByComparingTo("47.50");
+
+        assertThat(export(today.minusDays(3), today.minusDays(1), DataFormat.CSV))
+                .doesNotContain(created.getOrderNo());
+    }
+
+    private String export(LocalDate day, DataFormat format) throws Exception {
+        return export(day, day, format);
+    }
+
+    private String export(LocalDate from, LocalDate to, DataFormat format) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        orderExportService.exportOrders(from, to, format, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private OrderItem orderItem(Product product, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.entity.Consumer;
+import com.example.silkmall.entity.Order;
+import com.example.silkmall.entity.OrderItem;
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.repository.OrderRepository;
+import com.example.silkmall.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderInsertBatchingTest {
+
+    private static final int ITEMS_PER_ORDER = 20;
+    private static final int SIZES_PER_PRODUCT = 8;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void orderItemsAndSizeAllocationsAreInsertedInBatches() {
+        Consumer consumer = fixtures.registerConsumer("batching-consumer", "18850000001");
+        Supplier supplier = fixtures.registerSupplier("batching-supplier", "18850000011");
+        Product product = fixtures.saveProduct("Batching Silk", supplier, "50.00", 100);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> orderRepository.save(order(consumer, product, ITEMS_PER_ORDER)));
+        long orderStatements = statistics.getPrepareStatementCount();
+
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (int i = 0; i < SIZES_PER_PRODUCT; i++) {
+            sizes.put("S" + i, 5);
+        }
+        statistics.clear();
+        Product sized = fixtures.saveProduct("Batching Sized Silk", supplier, "50.00", sizes);
+        long productStatements = statistics.getPrepareStatementCount();
+        assertThat(sized.getSizeAllocations()).hasSize(SIZES_PER_PRODUCT);
+
+        statistics.clear();
+        orderService.createOrder(order(consumer, product, 1));
+        long singleItemCheckout = statistics.getPrepareStatementCount();
+        statistics.clear();
+        orderService.createOrder(order(consumer, product, 5));
+        long fiveItemCheckout = statistics.getPrepareStatementCount();
+
+        // 订单头一条 + 订单项一个批次
+        assertThat(orderStatements).isLessThanOrEqualTo(2);
+        // 尺码一个批次写入，不再逐条插入
+        assertThat(productStatements).isLessThanOrEqualTo(7);
+        // 订单项随数量增加只多出逐商品的库存语句，插入仍是一个批次
+        assertThat(singleItemCheckout).isLessThanOrEqualTo(9);
+        assertThat(fiveItemCheckout).isLessThanOrEqualTo(11);
+    }
+
+    @Test
+    void idGeneratorsAreSeededBeforeTheEntityManagerFactoryStarts() {
+        assertThat(beanFactory.getBeanDefinition("entityManagerFactory").getDependsOn())
+                .contains("idGeneratorSeeder");
+    }
+
+    private Order order(Consumer consumer, Product product, int items) {
+        Order order = new Order();
+        order.setConsumer(consumer);
+        order.setOrderNo("BATCH-" + System.nanoTime());
+        order.setStatus("待付款");
+        order.setTotalAmount(new BigDecimal("1.00"));
+        order.setTotalQuantity(items);
+        order.setShippingAddress("Batching Address");
+        order.setRecipientName("Batching Recipient");
+        order.setRecipientPhone("18850000002");
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setProduct(product);
+            item.setQuantity(1);
+            item.setUnitPrice(product.getPrice());
+            item.setTotalPrice(product.getPrice());
+            orderItems.add(item);
+        }
+        order.setOrderItems(orderItems);
+        return order;
+    }
+}
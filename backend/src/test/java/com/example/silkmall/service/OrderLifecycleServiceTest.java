@@ -0,0 +1,193 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.entity.Consumer;
+import com.example.silkmall.entity.Order;
+import com.example.silkmall.entity.OrderItem;
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.repository.AdminRepository;
+import com.example.silkmall.repository.SupplierRepository;
+import com.example.silkmall.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.example.silkmall.common.OrderStatuses.AWAITING_RECEIPT;
+import static com.example.silkmall.common.OrderStatuses.DELIVERED;
+import static com.example.silkmall.common.PayoutStatuses.APPROVED;
+import static com.example.silkmall.common.PayoutStatuses.PENDING;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderLifecycleServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderLifecycleService orderLifecycleService;
+
+    @Autowired
+    private SupplierSettlementService supplierSettlementService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartCheckoutService cartCheckoutService;
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void confirmsStaleDeliveriesAndCreditsEachSupplierOnce() {
+        Consumer consumer = fixtures.saveConsumer("lifecycle-consumer", "18890000011", "5000.00");
+        Supplier silk = fixtures.saveSupplier("lifecycle-silk", "18890000012", null);
+        Supplier scarf = fixtures.saveSupplier("lifecycle-scarf", "18890000013", null);
+        Product silkProduct = fixtures.saveProduct("Lifecycle Silk", silk, "100.00", 100);
+        Product scarfProduct = fixtures.saveProduct("Lifecycle Scarf", scarf, "50.00", 100);
+
+        List<Order> stale = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            stale.add(deliver(order(consumer, item(silkProduct, 1), item(scarfProduct, 2))));
+        }
+        Order recent = deliver(order(consumer, item(silkProduct, 1)));
+        for (Order order : stale) {
+            jdbcTemplate.update("update orders set delivery_time = ? where id = ?",
+                    Timestamp.valueOf(LocalDateTime.now().minusDays(8)), order.getId());
+        }
+
+        orderLifecycleService.autoConfirmReceipts();
+
+        for (Order order : stale) {
+            Order reloaded = orderService.findById(order.getId()).orElseThrow();
+            assertThat(reloaded.getStatus()).isEqualTo(DELIVERED);
+            assertThat(reloaded.getConsumerConfirmationTime()).isNotNull();
+            assertThat(reloaded.getPayoutStatus()).isEqualTo(APPROVED);
+            assertThat(reloaded.getAdminHoldingAmount()).isEqualByComparingTo("0");
+        }
+        Order untouched = orderService.findById(recent.getId()).orElseThrow();
+        assertThat(untouched.getStatus()).isEqualTo(AWAITING_RECEIPT);
+        assertThat(untouched.getPayoutStatus()).isEqualTo(PENDING);
+
+        // 三个订单各 100 + 100，扣除 5% 提成后记入结算行，结算周期按供应商合并入账，每个供应商只写一次
+        assertThat(balanceOf(silk)).isEqualByComparingTo("1000.00");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        supplierSettlementService.runCycle();
+        long supplierUpdates = statistics.getEntityStatistics(Supplier.class.getName()).getUpdateCount();
+        assertThat(balanceOf(silk)).isEqualByComparingTo("1285.00");
+        assertThat(balanceOf(scarf)).isEqualByComparingTo("1285.00");
+        assertThat(supplierUpdates).isEqualTo(2);
+
+        orderLifecycleService.autoConfirmReceipts();
+        orderLifecycleService.finalizePendingPayouts();
+        supplierSettlementService.runCycle();
+        assertThat(balanceOf(silk)).isEqualByComparingTo("1285.00");
+        assertThat(orderService.findById(recent.getId()).orElseThrow().getStatus()).isEqualTo(AWAITING_RECEIPT);
+    }
+
+    @Test
+    void settlesPayoutsLeftPendingAfterConfirmation() {
+        Consumer consumer = fixtures.saveConsumer("lifecycle-payout-consumer", "18890000014", "5000.00");
+        Supplier supplier = fixtures.saveSupplier("lifecycle-payout-supplier", "18890000015", null);
+        Product product = fixtures.saveProduct("Lifecycle Payout Silk", supplier, "40.00", 100);
+        Order order = deliver(order(consumer, item(product, 5)));
+        // 模拟确认收货后结算未完成的订单
+        jdbcTemplate.update("update orders set status = ?, consumer_confirmation_time = ? where id = ?",
+                DELIVERED, Timestamp.valueOf(LocalDateTime.now()), order.getId());
+
+        orderLifecycleService.finalizePendingPayouts();
+        supplierSettlementService.runCycle();
+
+        assertThat(orderService.findById(order.getId()).orElseThrow().getPayoutStatus()).isEqualTo(APPROVED);
+        assertThat(balanceOf(supplier)).isEqualByComparingTo("1190.00");
+    }
+
+    @Test
+    void payoutBatchKeepsCheckoutCreditsCommittedMeanwhile() {
+        Consumer consumer = fixtures.saveConsumer("lifecycle-race-consumer", "18890000016", "5000.00");
+        Consumer shopper = fixtures.registerConsumer("lifecycle-race-shopper", "18890000017");
+        Supplier supplier = fixtures.saveSupplier("lifecycle-race-supplier", "18890000018", null);
+        Product product = fixtures.saveProduct("Lifecycle Race Silk", supplier, "40.00", 100);
+        Order order = deliver(order(consumer, item(product, 5)));
+        jdbcTemplate.update("update orders set status = ?, consumer_confirmation_time = ? where id = ?",
+                DELIVERED, Timestamp.valueOf(LocalDateTime.now()), order.getId());
+        Long adminId = orderService.findById(order.getId()).orElseThrow().getManagingAdmin().getId();
+        BigDecimal before = adminRepository.findById(adminId).orElseThrow().getWalletBalance();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // 结算批次先读到管理员余额，随后另一笔下单把 40 元货款记入管理员钱包并提交
+            adminRepository.findById(adminId).orElseThrow();
+            CompletableFuture.runAsync(() -> {
+                Long cartItemId = cartService.addItem(shopper.getId(), product.getId(), 1).getId();
+                cartCheckoutService.checkout(shopper.getId(), List.of(cartItemId), null, null, null);
+            }).join();
+            assertThat(orderService.finalizePayouts(List.of(order.getId()))).isEqualTo(1);
+        });
+
+        // 释放托管的 200 元，留下 10 元提成；下单记入的 40 元不能被覆盖
+        assertThat(adminRepository.findById(adminId).orElseThrow().getWalletBalance())
+                .isEqualByComparingTo(before.add(new BigDecimal("40.00")).subtract(new BigDecimal("190.00")));
+    }
+
+    private Order deliver(Order order) {
+        Order created = orderService.createOrder(order);
+        orderService.shipOrder(created.getId());
+        orderService.markInTransit(created.getId());
+        orderService.deliverOrder(created.getId());
+        return created;
+    }
+
+    private BigDecimal balanceOf(Supplier supplier) {
+        BigDecimal balance = supplierRepository.findById(supplier.getId()).orElseThrow().getWalletBalance();
+        return balance == null ? BigDecimal.valueOf(1000L) : balance;
+    }
+
+    private static OrderItem item(Product product, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static Order order(Consumer consumer, OrderItem... items) {
+        Order order = new Order();
+        order.setConsumer(consumer);
+        order.setPaymentMethod("WALLET");
+        order.setShippingAddress("Lifecycle Address");
+        order.setRecipientName("Lifecycle Recipient");
+        order.setRecipientPhone("18890000000");
+        order.setOrderItems(new ArrayList<>(List.of(items)));
+        return order;
+    }
+}
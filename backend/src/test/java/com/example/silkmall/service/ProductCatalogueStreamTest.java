@@ -0,0 +1,62 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductCatalogueStreamTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void catalogueIsStreamedInChunksWithSizesLoadedPerChunk() {
+        Supplier supplier = fixtures.registerSupplier("catalogue-stream-supplier", "18870000011");
+        List<Long> savedIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Map<String, Integer> sizes = i % 2 == 0 ? Map.of("S", 3, "M", 2) : Map.of();
+            savedIds.add(fixtures.saveProduct("Catalogue Silk " + i, supplier, "60.00", sizes).getId());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Integer> chunkSizes = new ArrayList<>();
+        Map<Long, Map<String, Integer>> streamedSizes = new HashMap<>();
+        productService.streamCatalogue(CHUNK_SIZE, chunk -> {
+            chunkSizes.add(chunk.size());
+            chunk.forEach(product -> streamedSizes.put(product.getId(), product.getSizeQuantities()));
+        });
+
+        assertThat(chunkSizes).allMatch(size -> size <= CHUNK_SIZE);
+        assertThat(streamedSizes).containsKeys(savedIds.toArray(Long[]::new));
+        assertThat(streamedSizes.get(savedIds.get(0))).containsEntry("S", 3).containsEntry("M", 2);
+        assertThat(streamedSizes.get(savedIds.get(1))).isEmpty();
+        // 游标查询一条，每块尺码和图片各一条（其他测试的商品分类另需少量查询）
+        assertThat(statistics.getPrepareStatementCount())
+                .isLessThanOrEqualTo(1 + 3L * chunkSizes.size());
+    }
+}
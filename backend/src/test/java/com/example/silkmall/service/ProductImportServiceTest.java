@@ -0,0 +1,169 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.common.DataFormat;
+import com.example.silkmall.dto.ProductImportErrorDTO;
+import com.example.silkmall.dto.ProductImportResultDTO;
+import com.example.silkmall.entity.Category;
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.ProductSizeAllocation;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.repository.ProductImageRepository;
+import com.example.silkmall.repository.ProductRepository;
+import com.example.silkmall.repository.ProductSizeAllocationRepository;
+import com.example.silkmall.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductImportServiceTest {
+
+    private static final int SKUS = 5000;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSizeAllocationRepository productSizeAllocationRepository;
+
+    @Autowired
+    private ProductImageRepository productImageRepository;
+
+    @MockitoSpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void csvImportCreatesValidRowsAndReportsBadOnes() throws Exception {
+        Supplier supplier = fixtures.registerSupplier("import-csv-supplier", "18890000011");
+        Category category = new Category();
+        category.setName("Import Scarves");
+        category.setEnabled(true);
+        categoryService.save(category);
+
+        StringBuilder csv = new StringBuilder("name,description,price,stock,status,category,sizes,images\n");
+        for (int i = 0; i < SKUS; i++) {
+            csv.append("Import SKU ").append(i).append(",Bulk row,19.90,,ON_SALE,import scarves,S:2;M:3,")
+                    .append("/img/").append(i).append("-a.jpg|/img/").append(i).append("-b.jpg\n");
+        }
+        csv.append("\"Import, quoted \"\"silk\"\"\",\"two\nlines\",25,4,,,,\n");
+        csv.append("Import missing price,,,,,,,\n");
+        csv.append("Import bad size,,10,,,,S:many,\n");
+        csv.append("Import unknown category,,10,,,No Such Category,,\n");
+
+        ProductImportResultDTO result = productImportService.importProducts(supplier.getId(), DataFormat.CSV,
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getTotalRows()).isEqualTo(SKUS + 4);
+        assertThat(result.getImportedCount()).isEqualTo(SKUS + 1);
+        // 表头占第 1 行，带换行的引号记录占两行
+        assertThat(result.getErrors()).extracting(ProductImportErrorDTO::getRow)
+                .containsExactly(SKUS + 4, SKUS + 5, SKUS + 6);
+        assertThat(result.getErrors().get(1).getMessage()).contains("尺码");
+        assertThat(result.getErrors().get(2).getMessage()).contains("No Such Category");
+
+        Product first = productRepository.findByNameContaining("Import SKU 0", PageRequest.of(0, 1))
+                .getContent().get(0);
+        assertThat(first.getStock()).isEqualTo(5);
+        assertThat(first.getCategory().getId()).isEqualTo(category.getId());
+        assertThat(first.getSupplier().getId()).isEqualTo(supplier.getId());
+        assertThat(first.getMainImage()).isEqualTo("/img/0-a.jpg");
+        Map<String, Integer> sizes = productSizeAllocationRepository.findByProductId(first.getId()).stream()
+                .collect(Collectors.toMap(ProductSizeAllocation::getSizeLabel, ProductSizeAllocation::getQuantity));
+        assertThat(sizes).containsEntry("S", 2).containsEntry("M", 3);
+        assertThat(productImageRepository.findByProductId(first.getId())).hasSize(2);
+
+        Product quoted = productRepository.findByNameContaining("quoted", PageRequest.of(0, 1)).getContent().get(0);
+        assertThat(quoted.getName()).isEqualTo("Import, quoted \"silk\"");
+        assertThat(quoted.getDescription()).isEqualTo("two\nlines");
+        assertThat(quoted.getStatus()).isEqualTo("OFF_SALE");
+    }
+
+    @Test
+    void ndjsonImportAcceptsNestedSizesAndImages() throws Exception {
+        Supplier supplier = fixtures.registerSupplier("import-json-supplier", "18890000012");
+        String ndjson = String.join("\n", List.of(
+                "{\"name\":\"Import Json Robe\",\"price\":88.5,\"sizes\":{\"L\":4},\"images\":[\"/img/robe.jpg\"]}",
+                "",
+                "{\"name\":\"Import Json Broken\",\"price\":-1}",
+                "not json"));
+
+        ProductImportResultDTO result = productImportService.importProducts(supplier.getId(), DataFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImportedCount()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(ProductImportErrorDTO::getRow).containsExactly(3, 4);
+        Product robe = productRepository.findByNameContaining("Import Json Robe", PageRequest.of(0, 1))
+                .getContent().get(0);
+        assertThat(robe.getStock()).isEqualTo(4);
+        assertThat(robe.getPrice()).isEqualByComparingTo("88.5");
+    }
+
+    @Test
+    void aRowTheDatabaseRejectsOnlyFailsItself() throws Exception {
+        Supplier supplier = fixtures.registerSupplier("import-reject-supplier", "18890000013");
+        // 数据库拒绝名为 Import Reject Poison 的商品，所在整批写入失败
+        doAnswer(invocation -> {
+            BatchPreparedStatementSetter setter = invocation.getArgument(1);
+            PreparedStatement statement = mock(PreparedStatement.class);
+            for (int i = 0; i < setter.getBatchSize(); i++) {
+                setter.setValues(statement, i);
+            }
+            boolean poisoned = mockingDetails(statement).getInvocations().stream()
+                    .anyMatch(call -> call.getArguments().length == 2
+                            && "Import Reject Poison".equals(call.getArgument(1)));
+            if (poisoned) {
+                throw new DataIntegrityViolationException("rejected");
+            }
+            return invocation.callRealMethod();
+        }).when(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+
+        String csv = "name,description,unit,price\n"
+                + "Import Reject Scarf,,,10\n"
+                + "Import Reject Poison,,,10\n"
+                + "Import Reject Long,\"" + "x".repeat(256) + "\",,10\n"
+                + "Import Reject Unit,,\"" + "y".repeat(256) + "\",10\n"
+                + "Import Reject Robe,,,10\n";
+        ProductImportResultDTO result = productImportService.importProducts(supplier.getId(), DataFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImportedCount()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ProductImportErrorDTO::getRow).containsExactly(4, 5, 3);
+        assertThat(result.getErrors()).extracting(ProductImportErrorDTO::getMessage)
+                .containsExactly("商品描述不能超过255个字符", "计量单位不能超过255个字符", "写入失败: rejected");
+        assertThat(productRepository.findByNameContaining("Import Reject", PageRequest.of(0, 5)).getContent())
+                .extracting(Product::getName)
+                .containsExactlyInAnyOrder("Import Reject Scarf", "Import Reject Robe");
+    }
+}
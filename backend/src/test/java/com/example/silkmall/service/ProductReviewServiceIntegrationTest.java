@@ -1,6 +1,9 @@
 package com.example.silkmall.service;
 
 import com.example.silkmall.common.OrderStatuses;
+import com.example.silkmall.dto.CursorPageDTO;
+import com.example.silkmall.dto.ProductRatingDTO;
+import com.example.silkmall.dto.ReviewFeedItemDTO;
 import com.example.silkmall.entity.Admin;
 import com.example.silkmall.entity.Consumer;
 import com.example.silkmall.entity.Order;
@@ -19,10 +22,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -45,6 +53,9 @@ class ProductReviewServiceIntegrationTest {
     @Autowired
     private ProductReviewRepository productReviewRepository;
 
+    @Autowired
+    private ProductRatingService productRatingService;
+
     @Autowired
     private ConsumerRepository consumerRepository;
 
@@ -60,6 +71,9 @@ class ProductReviewServiceIntegrationTest {
     @Autowired
     private OrderItemRepository orderItemRepository;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Test
     void consumerCanSubmitReviewAfterAdminReviewForSameOrderItem() {
         Consumer consumer = new Consumer();
@@ -151,6 +165,67 @@ class ProductReviewServiceIntegrationTest {
                 .orElseThrow();
         assertThat(savedConsumerReview.getConsumer()).isNotNull();
         assertThat(savedConsumerReview.getConsumer().getId()).isEqualTo(consumer.getId());
+
+        ProductRatingDTO rating = productRatingService.getRating(product.getId());
+        assertThat(rating.getCount()).isEqualTo(2L);
+        assertThat(rating.getAverage()).isEqualByComparingTo("4.5");
+        assertThat(rating.getHistogram()).containsExactly(0L, 0L, 0L, 1L, 1L);
+
+        CursorPageDTO<ReviewFeedItemDTO> firstPage = productReviewService.findProductFeed(product.getId(), null, 1);
+        assertThat(firstPage.getItems()).hasSize(1);
+        assertThat(firstPage.isHasMore()).isTrue();
+        CursorPageDTO<ReviewFeedItemDTO> secondPage =
+                productReviewService.findProductFeed(product.getId(), firstPage.getNextCursor(), 1);
+        assertThat(secondPage.getItems()).hasSize(1);
+        assertThat(secondPage.isHasMore()).isFalse();
+        assertThat(secondPage.getNextCursor()).isNull();
+        assertThat(List.of(firstPage.getItems().get(0).getAuthorRole(), secondPage.getItems().get(0).getAuthorRole()))
+                .containsExactlyInAnyOrder("ADMIN", "CONSUMER");
+        assertThat(productReviewService.findConsumerFeed(consumer.getId(), null, 10).getItems())
+                .extracting(ReviewFeedItemDTO::getRating)
+                .containsExactly(5);
+
+        productReviewService.updateReview(savedConsumerReview.getId(), 2, null, consumerDetails);
+        ProductReview savedAdminReview = reviews.stream()
+                .filter(review -> "ADMIN".equals(review.getAuthorRole()))
+                .findFirst()
+                .orElseThrow();
+        productReviewService.deleteReview(savedAdminReview.getId(), adminDetails);
+
+        rating = productRatingService.getRating(product.getId());
+        assertThat(rating.getCount()).isEqualTo(1L);
+        assertThat(rating.getAverage()).isEqualByComparingTo("2.0");
+        assertThat(rating.getHistogram()).containsExactly(0L, 1L, 0L, 0L, 0L);
     }
-}
 
+    @Test
+    void concurrentFirstRatingsOfAProductBothCount() throws Exception {
+        Product product = new Product();
+        product.setName("Silk Fan");
+        product.setPrice(BigDecimal.valueOf(99));
+        product.setStock(10);
+        product.setStatus("ON_SALE");
+        Long productId = productRepository.save(product).getId();
+
+        // 第一条评价建行后暂不提交，第二条在其提交前写入，两者都应计入统计
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstApplied = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            productRatingService.recordAdded(productId, 5);
+            firstApplied.countDown();
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(firstApplied.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> productRatingService.recordAdded(productId, 3));
+        CompletableFuture.allOf(first, second).get(30, TimeUnit.SECONDS);
+
+        ProductRatingDTO rating = productRatingService.getRating(productId);
+        assertThat(rating.getCount()).isEqualTo(2L);
+        assertThat(rating.getAverage()).isEqualByComparingTo("4.0");
+        assertThat(rating.getHistogram()).containsExactly(0L, 0L, 1L, 0L, 1L);
+    }
+}
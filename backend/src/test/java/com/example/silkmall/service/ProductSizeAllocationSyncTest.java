@@ -0,0 +1,145 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.ProductSizeAllocation;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.repository.ProductRepository;
+import com.example.silkmall.repository.ProductSizeAllocationRepository;
+import com.example.silkmall.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.example.silkmall.support.TestFixtures.sizes;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductSizeAllocationSyncTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSizeAllocationRepository productSizeAllocationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void savingAProductOnlyWritesTheSizesThatChanged() {
+        Supplier supplier = fixtures.registerSupplier("size-sync-supplier", "18860000011");
+        Product created = productService.save(product(null, supplier, "Size Sync Silk", sizes("S", 5, "M", 5, "L", 5)));
+        Map<String, Long> originalIds = allocationIds(created.getId());
+        assertThat(originalIds).containsOnlyKeys("S", "M", "L");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        productService.save(product(created.getId(), supplier, "Size Sync Silk, new description", sizes("S", 5, "M", 5, "L", 5)));
+        EntityStatistics allocationWrites = statistics.getEntityStatistics(ProductSizeAllocation.class.getName());
+        assertThat(allocationWrites.getInsertCount()).isZero();
+        assertThat(allocationWrites.getDeleteCount()).isZero();
+        assertThat(allocationIds(created.getId())).isEqualTo(originalIds);
+
+        Product updated = productService.save(product(created.getId(), supplier, "Size Sync Silk", sizes("M", 3, "L", 5, "XL", 2)));
+        assertThat(updated.getSizeQuantities()).containsExactlyInAnyOrderEntriesOf(sizes("M", 3, "L", 5, "XL", 2));
+        Map<String, Long> updatedIds = allocationIds(created.getId());
+        assertThat(updatedIds).containsOnlyKeys("M", "L", "XL");
+        assertThat(updatedIds.get("M")).isEqualTo(originalIds.get("M"));
+        assertThat(updatedIds.get("L")).isEqualTo(originalIds.get("L"));
+    }
+
+    @Test
+    void conditionalWritesLeaveConcurrentDecrementsInPlace() {
+        Supplier supplier = fixtures.registerSupplier("size-race-supplier", "18860000012");
+        Product created = productService.save(product(null, supplier, "Size Race Silk", sizes("S", 4, "M", 4)));
+        Map<String, Long> ids = allocationIds(created.getId());
+
+        // 供应商读取到 S=4 之后，一笔订单先扣减了 1 件
+        Integer updated = transactionTemplate.execute(status -> {
+            productSizeAllocationRepository.decrementQuantity(created.getId(), "S", 1);
+            return productSizeAllocationRepository.updateQuantityIfUnchanged(ids.get("S"), 4, 10);
+        });
+        Integer deleted = transactionTemplate.execute(status ->
+                productSizeAllocationRepository.deleteIfUnchanged(ids.get("S"), 4));
+
+        assertThat(updated).isZero();
+        assertThat(deleted).isZero();
+        assertThat(productSizeAllocationRepository.findById(ids.get("S")))
+                .get().extracting(ProductSizeAllocation::getQuantity).isEqualTo(3);
+    }
+
+    @Test
+    void savingAStaleEditFormOnlyAppliesTheUsersChanges() {
+        Supplier supplier = fixtures.registerSupplier("size-stale-supplier", "18860000013");
+        Product created = productService.save(product(null, supplier, "Size Stale Silk", sizes("S", 4, "M", 4)));
+
+        // 供应商打开编辑表单（库存 8，S=4、M=4）后，一笔订单从 S 扣走了 1 件
+        transactionTemplate.executeWithoutResult(status -> {
+            productRepository.decrementStock(created.getId(), 1);
+            productSizeAllocationRepository.decrementQuantity(created.getId(), "S", 1);
+        });
+
+        Product unchanged = productService.save(
+                staleForm(created.getId(), supplier, "Size Stale Silk, new description", sizes("S", 4, "M", 4)));
+        assertThat(unchanged.getStock()).isEqualTo(7);
+        assertThat(unchanged.getSizeQuantities()).containsExactlyInAnyOrderEntriesOf(sizes("S", 3, "M", 4));
+
+        Product restocked = productService.save(
+                staleForm(created.getId(), supplier, "Size Stale Silk", sizes("S", 4, "M", 6)));
+        assertThat(restocked.getStock()).isEqualTo(9);
+        assertThat(restocked.getSizeQuantities()).containsExactlyInAnyOrderEntriesOf(sizes("S", 3, "M", 6));
+
+        assertThatThrownBy(() -> productService.save(
+                staleForm(created.getId(), supplier, "Size Stale Silk", sizes("S", 2, "M", 4))))
+                .hasMessage("尺码S库存已发生变化，请刷新后重试");
+        assertThat(productRepository.findById(created.getId())).get()
+                .extracting(Product::getStock).isEqualTo(9);
+    }
+
+    private Product staleForm(Long id, Supplier supplier, String description, Map<String, Integer> sizes) {
+        Product product = product(id, supplier, description, sizes);
+        product.setExpectedStock(8);
+        product.setExpectedSizeQuantities(sizes("S", 4, "M", 4));
+        return product;
+    }
+
+    private Map<String, Long> allocationIds(Long productId) {
+        return productSizeAllocationRepository.findByProductId(productId).stream()
+                .collect(Collectors.toMap(ProductSizeAllocation::getSizeLabel, ProductSizeAllocation::getId));
+    }
+
+    private Product product(Long id, Supplier supplier, String description, Map<String, Integer> sizes) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Size Sync " + supplier.getUsername());
+        product.setDescription(description);
+        product.setPrice(new BigDecimal("80.00"));
+        product.setStock(sizes.values().stream().mapToInt(Integer::intValue).sum());
+        product.setSales(0);
+        product.setStatus("ON_SALE");
+        product.setSupplier(supplier);
+        product.setSizeQuantities(sizes);
+        return product;
+    }
+}
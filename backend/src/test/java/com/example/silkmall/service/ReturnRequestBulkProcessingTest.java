@@ -0,0 +1,227 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.dto.BulkReturnResultDTO;
+import com.example.silkmall.dto.CartCheckoutResultDTO;
+import com.example.silkmall.entity.Consumer;
+import com.example.silkmall.entity.OrderItem;
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.ReturnRequest;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.repository.AdminRepository;
+import com.example.silkmall.repository.ConsumerRepository;
+import com.example.silkmall.repository.OrderItemRepository;
+import com.example.silkmall.repository.OrderRepository;
+import com.example.silkmall.repository.ReturnRequestRepository;
+import com.example.silkmall.repository.SupplierRepository;
+import com.example.silkmall.security.CustomUserDetails;
+import com.example.silkmall.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.example.silkmall.common.OrderStatuses.CANCELLED;
+import static com.example.silkmall.common.OrderStatuses.PENDING_SHIPMENT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReturnRequestBulkProcessingTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartCheckoutService cartCheckoutService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ReturnRequestService returnRequestService;
+
+    @MockitoSpyBean
+    private SupplierSettlementService supplierSettlementService;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ReturnRequestRepository returnRequestRepository;
+
+    @MockitoSpyBean
+    private ProductStatisticsService productStatisticsService;
+
+    @Autowired
+    private ConsumerRepository consumerRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void bulkApprovalMovesWalletsOncePerPartyAndReportsEachItem() {
+        Consumer consumer = fixtures.registerConsumer("bulk-return-consumer", "18830000001");
+        Supplier supplier = fixtures.registerSupplier("bulk-return-supplier", "18830000002");
+        Product robe = fixtures.saveProduct("Bulk Return Robe", supplier, "100.00", 10);
+        Product scarf = fixtures.saveProduct("Bulk Return Scarf", supplier, "60.00", 10);
+
+        List<Long> cartItemIds = List.of(
+                cartService.addItem(consumer.getId(), robe.getId(), 1).getId(),
+                cartService.addItem(consumer.getId(), scarf.getId(), 1).getId());
+        CartCheckoutResultDTO checkout = cartCheckoutService.checkout(consumer.getId(), cartItemIds, null, null, null);
+        Long orderId = checkout.getOrderIds().get(0);
+        orderService.shipOrder(orderId);
+        orderService.confirmReceipt(orderId);
+
+        List<Long> returnIds = new ArrayList<>();
+        for (OrderItem orderItem : orderItemRepository.findByOrderId(orderId)) {
+            ReturnRequest request = new ReturnRequest();
+            request.setReason("颜色与描述不符");
+            returnIds.add(returnRequestService.createReturnRequest(orderItem.getId(), request).getId());
+        }
+
+        BulkReturnResultDTO supplierResult = returnRequestService.processReturnRequests(
+                returnIds, "APPROVED", null, null, actor(supplier.getId(), "supplier"));
+        assertThat(supplierResult.getProcessedCount()).isEqualTo(2);
+        assertThat(supplierResult.getItems()).extracting(BulkReturnResultDTO.ItemOutcome::getStatus)
+                .containsOnly("AWAITING_ADMIN");
+
+        BigDecimal consumerBefore = consumerRepository.findWalletBalanceById(consumer.getId());
+        assertThat(supplierSettlementService.unsettledTotals(List.of(supplier.getId())))
+                .containsKey(supplier.getId());
+        BigDecimal supplierBefore = supplierRepository.findById(supplier.getId()).orElseThrow().getWalletBalance();
+
+        List<Long> requested = new ArrayList<>(returnIds);
+        requested.add(Long.MAX_VALUE);
+        BulkReturnResultDTO adminResult = returnRequestService.processReturnRequests(
+                requested, "COMPLETED", null, "批量退款", actor(1L, "admin"));
+
+        assertThat(adminResult.getProcessedCount()).isEqualTo(2);
+        assertThat(adminResult.getFailedCount()).isEqualTo(1);
+        assertThat(adminResult.getItems()).extracting(BulkReturnResultDTO.ItemOutcome::getId)
+                .containsExactlyElementsOf(requested);
+        assertThat(adminResult.getItems().get(2).getMessage()).isEqualTo("退货申请不存在");
+        assertThat(consumerRepository.findWalletBalanceById(consumer.getId()))
+                .isEqualByComparingTo(consumerBefore.add(new BigDecimal("160.00")));
+        // 货款 152 尚未结算即被退货扣回，结算周期净额为 0
+        assertThat(supplierSettlementService.unsettledTotals(List.of(supplier.getId())).get(supplier.getId()))
+                .isEqualByComparingTo("0");
+        supplierSettlementService.runCycle();
+        assertThat(supplierRepository.findById(supplier.getId()).orElseThrow().getWalletBalance())
+                .isEqualByComparingTo(supplierBefore);
+        assertThat(returnRequestService.findByConsumerId(consumer.getId()))
+                .extracting(ReturnRequest::getStatus)
+                .containsOnly("COMPLETED");
+    }
+
+    @Test
+    void failedPreDeliveryRevocationOnlyFailsItsOwnItem() {
+        Consumer consumer = fixtures.registerConsumer("bulk-revoke-consumer", "18830000003");
+        Supplier supplier = fixtures.registerSupplier("bulk-revoke-supplier", "18830000004");
+        Product robe = fixtures.saveProduct("Bulk Revoke Robe", supplier, "100.00", 10);
+        Product scarf = fixtures.saveProduct("Bulk Revoke Scarf", supplier, "60.00", 10);
+
+        Long robeOrderId = checkoutOne(consumer, robe);
+        Long scarfOrderId = checkoutOne(consumer, scarf);
+        Long robeReturnId = requestReturn(robeOrderId);
+        Long scarfReturnId = requestReturn(scarfOrderId);
+        BigDecimal consumerBefore = consumerRepository.findWalletBalanceById(consumer.getId());
+
+        // 撤销订单在 OrderService 的事务内失败，以往会把整批标记为仅回滚
+        doThrow(new RuntimeException("库存统计刷新失败"))
+                .when(productStatisticsService).refreshProduct(scarf.getId());
+
+        BulkReturnResultDTO result = returnRequestService.processReturnRequests(
+                List.of(robeReturnId, scarfReturnId), "APPROVED", null, null, actor(supplier.getId(), "supplier"));
+
+        assertThat(result.getProcessedCount()).isEqualTo(1);
+        assertThat(result.getFailedCount()).isEqualTo(1);
+        assertThat(result.getItems().get(0).getStatus()).isEqualTo("COMPLETED");
+        assertThat(result.getItems().get(1).getMessage()).isEqualTo("库存统计刷新失败");
+        assertThat(orderRepository.findById(robeOrderId).orElseThrow().getStatus()).isEqualTo(CANCELLED);
+        assertThat(orderRepository.findById(scarfOrderId).orElseThrow().getStatus()).isEqualTo(PENDING_SHIPMENT);
+        assertThat(returnRequestRepository.findById(scarfReturnId).orElseThrow().getStatus()).isEqualTo("PENDING");
+        assertThat(consumerRepository.findWalletBalanceById(consumer.getId()))
+                .isEqualByComparingTo(consumerBefore.add(new BigDecimal("100.00")));
+    }
+
+    @Test
+    void bulkApprovalKeepsWalletChangesCommittedMeanwhile() {
+        Consumer consumer = fixtures.registerConsumer("bulk-wallet-consumer", "18830000005");
+        Supplier supplier = fixtures.registerSupplier("bulk-wallet-supplier", "18830000006");
+        Product robe = fixtures.saveProduct("Bulk Wallet Robe", supplier, "100.00", 10);
+
+        Long orderId = checkoutOne(consumer, robe);
+        orderService.shipOrder(orderId);
+        orderService.confirmReceipt(orderId);
+        Long returnId = requestReturn(orderId);
+        returnRequestService.processReturnRequests(
+                List.of(returnId), "APPROVED", null, null, actor(supplier.getId(), "supplier"));
+
+        Long adminId = orderRepository.findById(orderId).orElseThrow().getManagingAdmin().getId();
+        BigDecimal consumerBefore = consumerRepository.findWalletBalanceById(consumer.getId());
+        BigDecimal adminBefore = adminRepository.findById(adminId).orElseThrow().getWalletBalance();
+
+        // 批量退款进行中，另一事务提交了这位消费者的下单扣款和管理员的入账
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        doAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+                consumerRepository.debitWallet(consumer.getId(), new BigDecimal("30.00"));
+                adminRepository.creditWallet(adminId, new BigDecimal("7.00"));
+            })).join();
+            return invocation.callRealMethod();
+        }).when(supplierSettlementService).unsettledTotals(any());
+
+        BulkReturnResultDTO result = returnRequestService.processReturnRequests(
+                List.of(returnId), "COMPLETED", null, null, actor(1L, "admin"));
+
+        assertThat(result.getProcessedCount()).isEqualTo(1);
+        assertThat(consumerRepository.findWalletBalanceById(consumer.getId()))
+                .isEqualByComparingTo(consumerBefore.subtract(new BigDecimal("30.00")).add(new BigDecimal("100.00")));
+        // 提成 5% 即 5 元
+        assertThat(adminRepository.findById(adminId).orElseThrow().getWalletBalance())
+                .isEqualByComparingTo(adminBefore.add(new BigDecimal("7.00")).subtract(new BigDecimal("5.00")));
+    }
+
+    private Long checkoutOne(Consumer consumer, Product product) {
+        Long cartItemId = cartService.addItem(consumer.getId(), product.getId(), 1).getId();
+        return cartCheckoutService.checkout(consumer.getId(), List.of(cartItemId), null, null, null)
+                .getOrderIds().get(0);
+    }
+
+    private Long requestReturn(Long orderId) {
+        ReturnRequest request = new ReturnRequest();
+        request.setReason("暂不需要了");
+        Long orderItemId = orderItemRepository.findByOrderId(orderId).get(0).getId();
+        return returnRequestService.createReturnRequest(orderItemId, request).getId();
+    }
+
+    private CustomUserDetails actor(Long id, String userType) {
+        return new CustomUserDetails(id, userType, "password", userType + "@example.com", null,
+                userType, true, Collections.emptyList());
+    }
+}
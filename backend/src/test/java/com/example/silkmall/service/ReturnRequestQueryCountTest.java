@@ -0,0 +1,83 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.dto.CartCheckoutResultDTO;
+import com.example.silkmall.dto.CartItemDTO;
+import com.example.silkmall.entity.Consumer;
+import com.example.silkmall.entity.OrderItem;
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.ReturnRequest;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.repository.OrderItemRepository;
+import com.example.silkmall.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReturnRequestQueryCountTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartCheckoutService cartCheckoutService;
+
+    @Autowired
+    private ReturnRequestService returnRequestService;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void consumerReturnPageIsLoadedWithoutPerRowQueries() {
+        Consumer consumer = fixtures.registerConsumer("return-count-consumer", "18820000001");
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Supplier supplier = fixtures.registerSupplier("return-count-supplier-" + i, "1882000001" + i);
+            Product product = fixtures.saveProduct("Return Count Silk " + i, supplier, "50.00", 10);
+            CartItemDTO item = cartService.addItem(consumer.getId(), product.getId(), 1);
+            itemIds.add(item.getId());
+        }
+        CartCheckoutResultDTO checkout = cartCheckoutService.checkout(consumer.getId(), itemIds, null, null, null);
+        for (Long orderId : checkout.getOrderIds()) {
+            for (OrderItem orderItem : orderItemRepository.findByOrderId(orderId)) {
+                ReturnRequest request = new ReturnRequest();
+                request.setReason("尺码不合适");
+                returnRequestService.createReturnRequest(orderItem.getId(), request);
+            }
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<ReturnRequest> page = returnRequestService.findByConsumerId(consumer.getId(), null, PageRequest.of(0, 3));
+        List<String> rendered = page.getContent().stream()
+                .map(request -> request.getOrder().getId() + ":" + request.getOrderItem().getId() + ":"
+                        + request.getProduct().getName() + ":" + request.getProduct().getSupplier().getCompanyName()
+                        + ":" + request.getConsumer().getUsername())
+                .toList();
+
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(rendered).hasSize(3);
+        // 一条分页查询加一条计数查询，不随返回的行数增长
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.dto.BulkStockResultDTO;
+import com.example.silkmall.dto.StockAdjustmentDTO;
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.ProductSizeAllocation;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.repository.ProductSizeAllocationRepository;
+import com.example.silkmall.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.example.silkmall.support.TestFixtures.sizes;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockAdjustmentServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockAdjustmentService stockAdjustmentService;
+
+    @Autowired
+    private ProductSizeAllocationRepository productSizeAllocationRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void appliesValidLinesAndReportsTheRest() {
+        Supplier supplier = fixtures.registerSupplier("stock-bulk-supplier", "18870000011");
+        Supplier other = fixtures.registerSupplier("stock-bulk-other", "18870000012");
+        Product sized = fixtures.saveProduct("Stock Bulk Sized", supplier, "60.00", sizes("S", 5, "M", 5));
+        Product plain = fixtures.saveProduct("Stock Bulk Plain", supplier, "60.00", 10);
+        plain = productService.findById(plain.getId()).orElseThrow();
+        Product foreign = fixtures.saveProduct("Stock Bulk Foreign", other, "60.00", 10);
+
+        BulkStockResultDTO result = stockAdjustmentService.adjustStock(List.of(
+                new StockAdjustmentDTO(sized.getId(), "S", 3),
+                new StockAdjustmentDTO(sized.getId(), " M ", -2),
+                new StockAdjustmentDTO(sized.getId(), "M", -9),
+                new StockAdjustmentDTO(sized.getId(), "XL", 1),
+                new StockAdjustmentDTO(sized.getId(), null, 1),
+                new StockAdjustmentDTO(plain.getId(), null, -4),
+                new StockAdjustmentDTO(foreign.getId(), null, 1),
+                new StockAdjustmentDTO(-1L, null, 1),
+                new StockAdjustmentDTO(plain.getId(), "", 0)), supplier.getId());
+
+        assertThat(result.getAppliedCount()).isEqualTo(3);
+        assertThat(result.getFailedCount()).isEqualTo(6);
+        assertThat(result.getItems()).extracting(BulkStockResultDTO.ItemOutcome::isSuccess)
+                .containsExactly(true, true, false, false, false, true, false, false, false);
+        assertThat(result.getItems()).extracting(BulkStockResultDTO.ItemOutcome::getMessage)
+                .containsExactly(null, null, "库存不足", "尺码XL不存在", "该商品按尺码管理库存，请指定尺码", null,
+                        "无权调整该商品库存", "产品不存在", "调整数量不能为0");
+
+        assertThat(allocations(sized.getId())).containsExactlyInAnyOrderEntriesOf(sizes("S", 8, "M", 3));
+        assertThat(productService.findById(sized.getId()).orElseThrow().getStock()).isEqualTo(11);
+        assertThat(productService.findById(plain.getId()).orElseThrow().getStock()).isEqualTo(6);
+        assertThat(productService.findById(foreign.getId()).orElseThrow().getStock()).isEqualTo(10);
+    }
+
+    @Test
+    void keepsProductStockEqualToSizeTotalsAcrossAThousandLines() {
+        Supplier supplier = fixtures.registerSupplier("stock-bulk-large", "18870000013");
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            products.add(fixtures.saveProduct("Stock Bulk Large " + i, supplier, "60.00", sizes("S", 50, "M", 50)));
+        }
+        List<StockAdjustmentDTO> adjustments = new ArrayList<>();
+        Map<Long, Integer> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            Product product = products.get(i % products.size());
+            int round = i / products.size();
+            int delta = round % 4 < 2 ? 2 : -1;
+            adjustments.add(new StockAdjustmentDTO(product.getId(), round % 2 == 0 ? "S" : "M", delta));
+            expected.merge(product.getId(), delta, Integer::sum);
+        }
+
+        BulkStockResultDTO result = stockAdjustmentService.adjustStock(adjustments, null);
+
+        assertThat(result.getAppliedCount()).isEqualTo(1000);
+        for (Product product : products) {
+            int sizeTotal = allocations(product.getId()).values().stream().mapToInt(Integer::intValue).sum();
+            assertThat(sizeTotal).isEqualTo(100 + expected.get(product.getId()));
+            assertThat(productService.findById(product.getId()).orElseThrow().getStock()).isEqualTo(sizeTotal);
+        }
+    }
+
+    @Test
+    void singleProductAdjustmentRefusesToOversellOrBypassSizes() {
+        Supplier supplier = fixtures.registerSupplier("stock-single-supplier", "18870000014");
+        Product plain = fixtures.saveProduct("Stock Single Plain", supplier, "60.00", 10);
+        Product sized = fixtures.saveProduct("Stock Single Sized", supplier, "60.00", sizes("S", 5));
+
+        productService.updateStock(plain.getId(), -10);
+        assertThatThrownBy(() -> productService.updateStock(plain.getId(), -1)).hasMessage("库存不足");
+        assertThatThrownBy(() -> productService.updateStock(sized.getId(), 1))
+                .hasMessage("该商品按尺码管理库存，请指定尺码");
+        assertThat(productService.findById(plain.getId()).orElseThrow().getStock()).isZero();
+    }
+
+    private Map<String, Integer> allocations(Long productId) {
+        return productSizeAllocationRepository.findByProductId(productId).stream()
+                .collect(Collectors.toMap(ProductSizeAllocation::getSizeLabel, ProductSizeAllocation::getQuantity));
+    }
+}
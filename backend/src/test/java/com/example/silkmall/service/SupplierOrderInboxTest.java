@@ -0,0 +1,104 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.dto.CartCheckoutResultDTO;
+import com.example.silkmall.dto.CartItemDTO;
+import com.example.silkmall.dto.SupplierOrderItemDTO;
+import com.example.silkmall.dto.SupplierOrderSummaryDTO;
+import com.example.silkmall.entity.Consumer;
+import com.example.silkmall.entity.Order;
+import com.example.silkmall.entity.OrderItem;
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SupplierOrderInboxTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartCheckoutService cartCheckoutService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void supplierInboxReadsOnlyItsOwnLinesPagedInSql() {
+        Consumer consumer = fixtures.registerConsumer("inbox-consumer", "18840000001");
+        Supplier own = fixtures.registerSupplier("inbox-supplier-own", "18840000011");
+        Supplier other = fixtures.registerSupplier("inbox-supplier-other", "18840000012");
+        Product ownProduct = fixtures.saveProduct("Inbox Own Silk", own, "50.00", 10);
+        Product otherProduct = fixtures.saveProduct("Inbox Other Silk", other, "50.00", 10);
+
+        CartItemDTO ownItem = cartService.addItem(consumer.getId(), ownProduct.getId(), 2);
+        CartItemDTO otherItem = cartService.addItem(consumer.getId(), otherProduct.getId(), 1);
+        CartCheckoutResultDTO checkout = cartCheckoutService.checkout(consumer.getId(),
+                List.of(ownItem.getId(), otherItem.getId()), null, null, null);
+        assertThat(checkout.getOrderIds()).hasSize(2);
+
+        Order mixed = new Order();
+        mixed.setConsumer(consumer);
+        mixed.setShippingAddress("Inbox Address");
+        mixed.setRecipientName("Inbox Recipient");
+        mixed.setRecipientPhone("18840000002");
+        mixed.setOrderItems(List.of(orderItem(ownProduct, 1), orderItem(otherProduct, 3)));
+        Order mixedOrder = orderService.createOrder(mixed);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<SupplierOrderSummaryDTO> page = orderService.findSupplierOrders(own.getId(), PageRequest.of(0, 10));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(SupplierOrderSummaryDTO::getId)
+                .containsExactly(mixedOrder.getId(), page.getContent().get(1).getId());
+        Map<Long, SupplierOrderSummaryDTO> byId = page.getContent().stream()
+                .collect(Collectors.toMap(SupplierOrderSummaryDTO::getId, Function.identity()));
+
+        SupplierOrderSummaryDTO mixedSummary = byId.get(mixedOrder.getId());
+        assertThat(mixedSummary.isMixedSuppliers()).isTrue();
+        assertThat(mixedSummary.isCanShip()).isFalse();
+        assertThat(mixedSummary.getItems()).extracting(SupplierOrderItemDTO::getProductId)
+                .containsExactly(ownProduct.getId());
+        assertThat(mixedSummary.getSupplierTotalQuantity()).isEqualTo(1);
+
+        SupplierOrderSummaryDTO paidSummary = page.getContent().get(1);
+        assertThat(checkout.getOrderIds()).contains(paidSummary.getId());
+        assertThat(paidSummary.isMixedSuppliers()).isFalse();
+        assertThat(paidSummary.isCanShip()).isTrue();
+        assertThat(paidSummary.getSupplierTotalAmount()).isEqualByComparingTo("100.00");
+        // 订单号分页、计数、订单头、本供应商订单项、混合供应商判断各一条
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+    }
+
+    private OrderItem orderItem(Product product, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.silkmall.service;
+
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.entity.SupplierSettlementCycle;
+import com.example.silkmall.entity.SupplierSettlementLine;
+import com.example.silkmall.entity.SupplierStatement;
+import com.example.silkmall.repository.SupplierRepository;
+import com.example.silkmall.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static com.example.silkmall.common.SettlementLineTypes.CARRIED_FORWARD;
+import static com.example.silkmall.common.SettlementLineTypes.ORDER_PAYOUT;
+import static com.example.silkmall.common.SettlementLineTypes.ORDER_REVOKED;
+import static com.example.silkmall.common.SettlementLineTypes.RETURN_REFUND;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SupplierSettlementServiceTest {
+
+    @Autowired
+    private SupplierSettlementService supplierSettlementService;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void cycleNetsEachSuppliersLinesIntoOneStatement() {
+        Supplier silk = fixtures.saveSupplier("settlement-silk", "18850000021", "200.00");
+        Supplier scarf = fixtures.saveSupplier("settlement-scarf", "18850000022", "30.00");
+
+        for (long orderId = 1; orderId <= 3; orderId++) {
+            supplierSettlementService.record(ORDER_PAYOUT, orderId, null,
+                    Map.of(silk.getId(), new BigDecimal("95.00"), scarf.getId(), new BigDecimal("10.00")));
+        }
+        supplierSettlementService.record(RETURN_REFUND, 1L, 7L, Map.of(silk.getId(), new BigDecimal("-45.00")));
+        supplierSettlementService.record(ORDER_REVOKED, 2L, null, Map.of(scarf.getId(), new BigDecimal("-80.00")));
+        assertThat(supplierSettlementService.findPendingLines(silk.getId(), PageRequest.of(0, 10)).getTotalElements())
+                .isEqualTo(4);
+
+        SupplierSettlementCycle cycle = supplierSettlementService.runCycle();
+        assertThat(cycle.getCompletedAt()).isNotNull();
+
+        // 200 + 3×95 − 45；扣回超过余额时余额扣到 0，不足部分结转为下一周期的欠款
+        assertThat(balanceOf(silk)).isEqualByComparingTo("440.00");
+        assertThat(balanceOf(scarf)).isEqualByComparingTo("0.00");
+
+        SupplierStatement scarfStatement = supplierSettlementService
+                .findStatements(scarf.getId(), PageRequest.of(0, 5)).getContent().get(0);
+        assertThat(scarfStatement.getOpeningBalance()).isEqualByComparingTo("30.00");
+        assertThat(scarfStatement.getCreditTotal()).isEqualByComparingTo("50.00");
+        assertThat(scarfStatement.getDebitTotal()).isEqualByComparingTo("80.00");
+        assertThat(scarfStatement.getNetAmount()).isEqualByComparingTo("-30.00");
+        assertThat(scarfStatement.getClosingBalance()).isEqualByComparingTo("0.00");
+        assertThat(scarfStatement.getLineCount()).isEqualTo(5);
+        Page<SupplierSettlementLine> carried = supplierSettlementService.findPendingLines(
+                scarf.getId(), PageRequest.of(0, 10));
+        assertThat(carried.getContent()).singleElement().satisfies(line -> {
+            assertThat(line.getType()).isEqualTo(CARRIED_FORWARD);
+            assertThat(line.getAmount()).isEqualByComparingTo("-20.00");
+        });
+
+        Page<SupplierStatement> statements = supplierSettlementService.findStatements(silk.getId(), PageRequest.of(0, 5));
+        assertThat(statements.getTotalElements()).isEqualTo(1);
+        SupplierStatement statement = statements.getContent().get(0);
+        assertThat(statement.getCycleId()).isEqualTo(cycle.getId());
+        assertThat(statement.getOpeningBalance()).isEqualByComparingTo("200.00");
+        assertThat(statement.getCreditTotal()).isEqualByComparingTo("285.00");
+        assertThat(statement.getDebitTotal()).isEqualByComparingTo("45.00");
+        assertThat(statement.getNetAmount()).isEqualByComparingTo("240.00");
+        assertThat(statement.getClosingBalance()).isEqualByComparingTo("440.00");
+        assertThat(statement.getLineCount()).isEqualTo(4);
+
+        Page<SupplierSettlementLine> lines = supplierSettlementService.findStatementLines(
+                silk.getId(), statement.getId(), PageRequest.of(0, 3));
+        assertThat(lines.getTotalElements()).isEqualTo(4);
+        assertThat(lines.getContent()).hasSize(3);
+        assertThat(lines.getContent().get(0).getType()).isEqualTo(RETURN_REFUND);
+        assertThat(supplierSettlementService.findPendingLines(silk.getId(), PageRequest.of(0, 10))).isEmpty();
+
+        // 再次结算不会重复入账，欠款在余额补足前继续结转
+        supplierSettlementService.runCycle();
+        assertThat(balanceOf(silk)).isEqualByComparingTo("440.00");
+        assertThat(supplierSettlementService.findStatements(silk.getId(), PageRequest.of(0, 5)).getTotalElements())
+                .isEqualTo(1);
+        assertThat(balanceOf(scarf)).isEqualByComparingTo("0.00");
+        assertThat(supplierSettlementService.findPendingLines(scarf.getId(), PageRequest.of(0, 10)).getContent())
+                .singleElement().satisfies(line -> assertThat(line.getAmount()).isEqualByComparingTo("-20.00"));
+
+        supplierSettlementService.record(ORDER_PAYOUT, 4L, null, Map.of(scarf.getId(), new BigDecimal("50.00")));
+        supplierSettlementService.runCycle();
+        assertThat(balanceOf(scarf)).isEqualByComparingTo("30.00");
+        assertThat(supplierSettlementService.findPendingLines(scarf.getId(), PageRequest.of(0, 10))).isEmpty();
+    }
+
+    private BigDecimal balanceOf(Supplier supplier) {
+        return supplierRepository.findById(supplier.getId()).orElseThrow().getWalletBalance();
+    }
+}
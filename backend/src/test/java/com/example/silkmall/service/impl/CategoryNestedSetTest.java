@@ -0,0 +1,45 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.dto.CategoryNodeDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryNestedSetTest {
+
+    @Test
+    void descendantsFallInsideTheirAncestorsInterval() {
+        Map<Long, CategoryNestedSet.Bounds> bounds = CategoryNestedSet.number(List.of(
+                node(1L, null),
+                node(2L, 1L),
+                node(3L, 2L),
+                node(4L, 1L),
+                node(5L, null)));
+
+        assertThat(bounds.get(1L)).isEqualTo(new CategoryNestedSet.Bounds(1, 8));
+        assertThat(bounds.get(2L)).isEqualTo(new CategoryNestedSet.Bounds(2, 5));
+        assertThat(bounds.get(3L)).isEqualTo(new CategoryNestedSet.Bounds(3, 4));
+        assertThat(bounds.get(4L)).isEqualTo(new CategoryNestedSet.Bounds(6, 7));
+        assertThat(bounds.get(5L)).isEqualTo(new CategoryNestedSet.Bounds(9, 10));
+    }
+
+    @Test
+    void cyclicParentsStillReceiveDisjointBounds() {
+        Map<Long, CategoryNestedSet.Bounds> bounds = CategoryNestedSet.number(List.of(
+                node(1L, 2L),
+                node(2L, 1L),
+                node(3L, null)));
+
+        assertThat(bounds).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(bounds.get(3L)).isEqualTo(new CategoryNestedSet.Bounds(1, 2));
+        assertThat(bounds.get(1L).lft()).isLessThan(bounds.get(2L).lft());
+        assertThat(bounds.get(2L).rgt()).isLessThan(bounds.get(1L).rgt());
+    }
+
+    private static CategoryNodeDTO node(Long id, Long parentId) {
+        return new CategoryNodeDTO(id, "分类" + id, null, 0, null, true, parentId, null, null, null, null);
+    }
+}
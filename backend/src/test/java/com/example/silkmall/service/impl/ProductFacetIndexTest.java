@@ -0,0 +1,64 @@
+package com.example.silkmall.service.impl;
+
+import com.example.silkmall.dto.FacetCountDTO;
+import com.example.silkmall.dto.ProductCatalogEntryDTO;
+import com.example.silkmall.dto.ProductFacetsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductFacetIndexTest {
+
+    @Test
+    void countsEachFacetWithTheOtherFiltersApplied() {
+        ProductFacetIndex index = new ProductFacetIndex();
+        index.put(product(1L, "59.00", 10L, "家纺", 100L, "GOLD"));
+        index.put(product(2L, "159.00", 10L, "家纺", 200L, "SILVER"));
+        index.put(product(3L, "259.00", 20L, "服饰", 100L, "GOLD"));
+        index.put(product(4L, "1299.00", 20L, "服饰", 100L, "GOLD"));
+
+        ProductFacetsDTO facets = index.count(null, List.of(10L), null, null, null, "ON_SALE");
+
+        assertThat(facets.getTotal()).isEqualTo(2L);
+        assertThat(counts(facets.getCategories())).containsEntry("10", 2L).containsEntry("20", 2L);
+        assertThat(counts(facets.getSupplierLevels())).containsEntry("GOLD", 1L).containsEntry("SILVER", 1L);
+        assertThat(counts(facets.getPriceBuckets()))
+                .containsEntry("0-100", 1L)
+                .containsEntry("100-300", 1L)
+                .containsEntry("1000-", 0L);
+
+        ProductFacetsDTO priced = index.count(index.ordinalsOf(List.of(2L, 3L, 4L)), null, 100L,
+                new BigDecimal("200"), null, null);
+        assertThat(priced.getTotal()).isEqualTo(2L);
+        assertThat(counts(priced.getPriceBuckets())).containsEntry("100-300", 1L).containsEntry("1000-", 1L);
+    }
+
+    @Test
+    void removalAndSupplierLevelChangesAreReflected() {
+        ProductFacetIndex index = new ProductFacetIndex();
+        index.put(product(1L, "59.00", 10L, "家纺", 100L, "GOLD"));
+        index.put(product(2L, "80.00", 10L, "家纺", 100L, "GOLD"));
+
+        index.remove(1L);
+        index.changeSupplierLevel(100L, "PLATINUM");
+
+        ProductFacetsDTO facets = index.count(null, null, null, null, null, null);
+        assertThat(facets.getTotal()).isEqualTo(1L);
+        assertThat(counts(facets.getSupplierLevels())).containsOnlyKeys("PLATINUM");
+    }
+
+    private static ProductCatalogEntryDTO product(Long id, String price, Long categoryId, String categoryName,
+                                                  Long supplierId, String level) {
+        return new ProductCatalogEntryDTO(id, "商品" + id, new BigDecimal(price), "ON_SALE", 0,
+                categoryId, categoryName, supplierId, "供应商" + supplierId, level);
+    }
+
+    private static Map<String, Long> counts(List<FacetCountDTO> facets) {
+        return facets.stream().collect(Collectors.toMap(FacetCountDTO::getValue, FacetCountDTO::getCount));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.silkmall.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionTrieTest {
+
+    @Test
+    void suggestsHighestWeightedCompletionsForPrefix() {
+        SuggestionTrie trie = new SuggestionTrie(3);
+        trie.putAll(List.of(
+                entry("PRODUCT:1", "真丝睡衣", 5),
+                entry("PRODUCT:2", "真丝围巾", 40),
+                entry("PRODUCT:3", "真丝枕套", 12),
+                entry("PRODUCT:4", "真丝眼罩", 1),
+                entry("CATEGORY:1", "家纺", 90)
+        ));
+
+        assertThat(texts(trie.suggest("真丝", 10))).containsExactly("真丝围巾", "真丝枕套", "真丝睡衣");
+        assertThat(texts(trie.suggest("真丝枕", 10))).containsExactly("真丝枕套");
+        assertThat(texts(trie.suggest("家", 10))).containsExactly("家纺");
+        assertThat(trie.suggest("羊毛", 10)).isEmpty();
+    }
+
+    @Test
+    void incrementalUpdatesReRankAndCompactTheTree() {
+        SuggestionTrie trie = new SuggestionTrie(2);
+        trie.put(entry("PRODUCT:1", "Silk Scarf", 3));
+        trie.put(entry("PRODUCT:2", "Silk Shirt", 7));
+        trie.put(entry("PRODUCT:3", "Silk", 1));
+
+        assertThat(texts(trie.suggest("SILK S", 5))).containsExactly("Silk Shirt", "Silk Scarf");
+
+        trie.put(entry("PRODUCT:1", "Silk Scarf", 30));
+        assertThat(texts(trie.suggest("silk", 5))).containsExactly("Silk Scarf", "Silk Shirt");
+
+        trie.remove("PRODUCT:2");
+        trie.remove("PRODUCT:1");
+        assertThat(texts(trie.suggest("silk", 5))).containsExactly("Silk");
+        assertThat(trie.suggest("silk s", 5)).isEmpty();
+
+        trie.put(entry("PRODUCT:3", "Satin", 1));
+        assertThat(trie.size()).isEqualTo(1);
+        assertThat(trie.suggest("silk", 5)).isEmpty();
+        assertThat(texts(trie.suggest("sa", 5))).containsExactly("Satin");
+    }
+
+    private static SuggestionTrie.Entry entry(String key, String text, long weight) {
+        return new SuggestionTrie.Entry(key, key.substring(0, key.indexOf(':')), 1L, text, weight);
+    }
+
+    private static List<String> texts(List<SuggestionTrie.Entry> entries) {
+        return entries.stream().map(SuggestionTrie.Entry::text).toList();
+    }
+}
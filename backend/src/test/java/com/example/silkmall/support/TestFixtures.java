@@ -0,0 +1,118 @@
+package com.example.silkmall.support;
+
+import com.example.silkmall.entity.Consumer;
+import com.example.silkmall.entity.Product;
+import com.example.silkmall.entity.Supplier;
+import com.example.silkmall.repository.ConsumerRepository;
+import com.example.silkmall.repository.SupplierRepository;
+import com.example.silkmall.service.ProductService;
+import com.example.silkmall.service.impl.NewConsumerServiceImpl;
+import com.example.silkmall.service.impl.NewSupplierServiceImpl;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Accounts and products shared by the service tests. {@code register*} goes through the registration
+ * services like a real sign-up; {@code save*} writes the row directly, for tests that need a set balance.
+ */
+@Component
+public class TestFixtures {
+
+    private final NewConsumerServiceImpl newConsumerService;
+    private final NewSupplierServiceImpl newSupplierService;
+    private final ConsumerRepository consumerRepository;
+    private final SupplierRepository supplierRepository;
+    private final ProductService productService;
+
+    public TestFixtures(NewConsumerServiceImpl newConsumerService,
+                        NewSupplierServiceImpl newSupplierService,
+                        ConsumerRepository consumerRepository,
+                        SupplierRepository supplierRepository,
+                        ProductService productService) {
+        this.newConsumerService = newConsumerService;
+        this.newSupplierService = newSupplierService;
+        this.consumerRepository = consumerRepository;
+        this.supplierRepository = supplierRepository;
+        this.productService = productService;
+    }
+
+    public Consumer registerConsumer(String username, String phone) {
+        return newConsumerService.register(consumer(username, phone));
+    }
+
+    public Supplier registerSupplier(String username, String phone) {
+        return newSupplierService.register(supplier(username, phone));
+    }
+
+    public Consumer saveConsumer(String username, String phone, String balance) {
+        Consumer consumer = consumer(username, phone);
+        consumer.setWalletBalance(balance == null ? null : new BigDecimal(balance));
+        return consumerRepository.save(consumer);
+    }
+
+    public Supplier saveSupplier(String username, String phone, String balance) {
+        Supplier supplier = supplier(username, phone);
+        supplier.setWalletBalance(balance == null ? null : new BigDecimal(balance));
+        return supplierRepository.save(supplier);
+    }
+
+    private Product product(String name, Supplier supplier, String price, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(name);
+        product.setPrice(new BigDecimal(price));
+        product.setStock(stock);
+        product.setSales(0);
+        product.setStatus("ON_SALE");
+        product.setSupplier(supplier);
+        return product;
+    }
+
+    public Product saveProduct(String name, Supplier supplier, String price, int stock) {
+        return productService.save(product(name, supplier, price, stock));
+    }
+
+    // 有尺码时总库存取各尺码之和，没有尺码时按 10 件普通库存
+    private Product product(String name, Supplier supplier, String price, Map<String, Integer> sizes) {
+        int stock = sizes.isEmpty() ? 10 : sizes.values().stream().mapToInt(Integer::intValue).sum();
+        Product product = product(name, supplier, price, stock);
+        product.setSizeQuantities(sizes);
+        return product;
+    }
+
+    public Product saveProduct(String name, Supplier supplier, String price, Map<String, Integer> sizes) {
+        return productService.save(product(name, supplier, price, sizes));
+    }
+
+    public static Map<String, Integer> sizes(Object... labelsAndQuantities) {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (int i = 0; i < labelsAndQuantities.length; i += 2) {
+            sizes.put((String) labelsAndQuantities[i], (Integer) labelsAndQuantities[i + 1]);
+        }
+        return sizes;
+    }
+
+    private static Consumer consumer(String username, String phone) {
+        Consumer consumer = new Consumer();
+        consumer.setUsername(username);
+        consumer.setPassword("password");
+        consumer.setEmail(username + "@example.com");
+        consumer.setPhone(phone);
+        consumer.setRole("consumer");
+        return consumer;
+    }
+
+    private static Supplier supplier(String username, String phone) {
+        Supplier supplier = new Supplier();
+        supplier.setUsername(username);
+        supplier.setPassword("password");
+        supplier.setEmail(username + "@example.com");
+        supplier.setPhone(phone);
+        supplier.setRole("supplier");
+        supplier.setCompanyName(username + " Co.");
+        return supplier;
+    }
+}
@@ -20,6 +20,8 @@ export interface ProductSummary {
   supplierName?: string | null
   supplierLevel?: string | null
   sizeQuantities?: Record<string, number> | null
+  ratingCount?: number | null
+  ratingAverage?: number | null
 }
 
 export interface ProductImage {
@@ -74,6 +76,8 @@ export interface CartCheckoutResult {
   paidAmount: number
   balance: number
   removedCount?: number | null
+  orderIds?: number[]
+  orderNos?: string[]
 }
 
 export interface PurchaseOrderItemPayload {
@@ -168,6 +172,12 @@ export interface PageResponse<T> {
   size: number
 }
 
+export interface CursorPage<T> {
+  items: T[]
+  nextCursor?: string | null
+  hasMore: boolean
+}
+
 export interface CategoryOption {
   id: number
   name: string
@@ -366,6 +376,24 @@ export interface ProductReview {
   createdAt: string
 }
 
+export interface ReviewFeedItem {
+  id: number
+  productId: number
+  consumerId?: number | null
+  rating: number
+  comment?: string | null
+  authorName?: string | null
+  authorRole?: string | null
+  createdAt: string
+}
+
+export interface ProductRating {
+  productId: number
+  count: number
+  average: number
+  histogram: number[]
+}
+
 export interface ReturnRequest {
   id: number
   orderId: number